@@ -129,6 +129,20 @@ public class SDKConstants {
 
     public static final String CONNECTOR_READ_ATTRIBUTE_EPOCHTIME = "epochTime";
     public static final String CONNECTOR_READ_ATTRIBUTE_DURATION = "duration";
+    public static final String CONNECTOR_READ_ATTRIBUTE_FIELDS = "fields";
+    public static final String CONNECTOR_READ_ATTRIBUTE_FILTER = "filter";
+    public static final String CONNECTOR_READ_ATTRIBUTE_PARALLELISM = "parallelism";
+    public static final String CONNECTOR_READ_ATTRIBUTE_READ_AHEAD = "readAhead";
+    public static final String CONNECTOR_READ_ATTRIBUTE_CACHE_DIRECTORY = "cacheDirectory";
+    public static final String CONNECTOR_READ_ATTRIBUTE_CACHE_SIZE = "cacheSize";
+    public static final String CONNECTOR_READ_ATTRIBUTE_STATISTICS_INDEX = "statisticsIndex";
+    public static final String CONNECTOR_READ_ATTRIBUTE_STREAMING = "streaming";
+    public static final String CONNECTOR_READ_ATTRIBUTE_RANGE_SIZE = "rangeSize";
+    public static final String CONNECTOR_READ_ATTRIBUTE_ADAPTIVE_RANGE = "adaptiveRange";
+    public static final String CONNECTOR_READ_ATTRIBUTE_MIN_RANGE_SIZE = "minRangeSize";
+    public static final String CONNECTOR_READ_ATTRIBUTE_MAX_RANGE_SIZE = "maxRangeSize";
+    public static final String CONNECTOR_READ_ATTRIBUTE_RANGE_PARALLELISM = "rangeParallelism";
+    public static final String CONNECTOR_READ_ATTRIBUTE_TYPED = "typed";
 
     public static final String ENCODING_UTF8 = "UTF-8";
 
@@ -17,6 +17,7 @@
 package com.adobe.platform.ecosystem.examples.data.ingestion.api;
 
 import com.adobe.platform.ecosystem.examples.data.FileFormat;
+import com.adobe.platform.ecosystem.examples.data.write.buffer.ChunkedByteArrayOutputStream;
 import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
 import org.json.simple.JSONObject;
 
@@ -58,6 +59,27 @@ public interface DataIngestionService {
 
     int writeToBatch(String batchId, String dataSetId, String imsOrg, String accessToken, FileFormat fileFormat, byte[] buffer) throws ConnectorSDKException;
 
+    /**
+     * This method is used to upload file via
+     * Data Ingestion Service API by streaming
+     * an in-memory chunked buffer. Buffer is
+     * retained during the upload; reference of
+     * the caller is left to the caller to release.
+     * Uploads a copy of the buffer through
+     * {@link #writeToBatch} unless overridden.
+     *
+     * @param batchId
+     * @param dataSetId
+     * @param imsOrg
+     * @param accessToken
+     * @param fileFormat
+     * @param buffer
+     * @return
+     */
+    default int writeBufferToBatch(String batchId, String dataSetId, String imsOrg, String accessToken, FileFormat fileFormat, ChunkedByteArrayOutputStream buffer) throws ConnectorSDKException {
+        return writeToBatch(batchId, dataSetId, imsOrg, accessToken, fileFormat, buffer.toByteArray());
+    }
+
     /**
      * This method is used to signal completion
      * of batch uploads.
@@ -20,8 +20,7 @@ package com.adobe.platform.ecosystem.examples.data.ingestion.impl;
  * Created by vedhera on 10/09/2017.
  */
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,6 +41,8 @@ import org.json.simple.parser.ParseException;
 import com.adobe.platform.ecosystem.examples.constants.SDKConstants;
 import com.adobe.platform.ecosystem.examples.data.FileFormat;
 import com.adobe.platform.ecosystem.examples.data.ingestion.api.DataIngestionService;
+import com.adobe.platform.ecosystem.examples.data.write.buffer.ChunkedByteArrayEntity;
+import com.adobe.platform.ecosystem.examples.data.write.buffer.ChunkedByteArrayOutputStream;
 import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
 import com.adobe.platform.ecosystem.examples.util.ConnectorSDKUtil;
 import com.adobe.platform.ecosystem.examples.util.HttpClientUtil;
@@ -58,6 +59,9 @@ public class DataIngestionServiceImpl implements DataIngestionService {
     private HttpClientUtil httpClientUtil;
 
     private static Logger logger = Logger.getLogger(DataIngestionService.class.getName());
+
+    private static final AtomicLong FILE_SEQUENCE = new AtomicLong();
+
     private final String DIS_BATCH_COMPLETION_SIGNAL_KEYWORD = "COMPLETE";
 
     public DataIngestionServiceImpl(String endpoint) throws ConnectorSDKException {
@@ -114,22 +118,39 @@ public class DataIngestionServiceImpl implements DataIngestionService {
     }
 
     /* (non-Javadoc)
-     * @see com.adobe.platform.ecosystem.examples.data.ingestion.api.DataIngestionService#writeToBatch(java.lang.String, java.lang.String, java.lang.String, java.lang.String, java.lang.String, byte[])
+     * @see com.adobe.platform.ecosystem.examples.data.ingestion.api.DataIngestionService#writeToBatch(java.lang.String, java.lang.String, java.lang.String, java.lang.String, com.adobe.platform.ecosystem.examples.data.FileFormat, byte[])
      */
     @Override
     public int writeToBatch(String batchId, String dataSetId, String imsOrg, String accessToken, FileFormat fileFormat, byte[] buffer) throws ConnectorSDKException {
+        return writeEntityToBatch(batchId, dataSetId, imsOrg, accessToken, fileFormat, new ByteArrayEntity(buffer));
+    }
+
+    /* (non-Javadoc)
+     * @see com.adobe.platform.ecosystem.examples.data.ingestion.api.DataIngestionService#writeBufferToBatch(java.lang.String, java.lang.String, java.lang.String, java.lang.String, com.adobe.platform.ecosystem.examples.data.FileFormat, com.adobe.platform.ecosystem.examples.data.write.buffer.ChunkedByteArrayOutputStream)
+     */
+    @Override
+    public int writeBufferToBatch(String batchId, String dataSetId, String imsOrg, String accessToken, FileFormat fileFormat, ChunkedByteArrayOutputStream buffer) throws ConnectorSDKException {
+        // Chunks stay live till upload, including retries, completes.
+        buffer.retain();
+        try {
+            return writeEntityToBatch(batchId, dataSetId, imsOrg, accessToken, fileFormat, new ChunkedByteArrayEntity(buffer));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private int writeEntityToBatch(String batchId, String dataSetId, String imsOrg, String accessToken, FileFormat fileFormat, HttpEntity entity) throws ConnectorSDKException {
         int outputResponse = -1;
-        InputStream stream;
         logger.log(Level.INFO,"Going to write for batchId with imsOrg:"+imsOrg);
         try {
-            String fileName = System.currentTimeMillis()+"."+fileFormat.getExtension().toLowerCase();
-            stream = new ByteArrayInputStream(buffer);
+            // Sequence keeps names unique for files written within same millisecond.
+            String fileName = System.currentTimeMillis()+"_"+FILE_SEQUENCE.getAndIncrement()+"."+fileFormat.getExtension().toLowerCase();
             ConnectorSDKUtil utilInstance = ConnectorSDKUtil.getInstance();
             String dataIngestionURI = utilInstance.getEndPoint(ResourceName.DATA_INGESTION);
             URIBuilder builder = new URIBuilder(dataIngestionURI);
             builder.setPath(builder.getPath() + "/batches/"+batchId+"/datasets/"+dataSetId+"/files/"+fileName);
             HttpPut request = new HttpPut(builder.build());
-            request.setEntity(new ByteArrayEntity(buffer));
+            request.setEntity(entity);
             request.setHeader("Content-Type", ContentType.APPLICATION_OCTET_STREAM.toString());
             request.setHeader("Authorization", "Bearer " + accessToken);
             request.setHeader(SDKConstants.CONNECTION_HEADER_IMS_ORG_KEY, imsOrg);
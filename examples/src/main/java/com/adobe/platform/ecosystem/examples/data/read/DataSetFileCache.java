@@ -0,0 +1,269 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Local disk cache of dataset files keyed by
+ * dataSetFileId and processing entity name. Files
+ * on the platform never change once written, so
+ * cached copies are never revalidated.
+ *
+ * Files are downloaded to a temporary file in the
+ * cache directory and moved in place once complete,
+ * so a partial download is never read. Concurrent
+ * misses for the same file download it once. Least
+ * recently used files are evicted once the cache
+ * exceeds its size; recency survives restarts through
+ * the files' modification time.
+ *
+ * The directory may be shared by several processes,
+ * so temporary files are only cleaned up once they
+ * have not been written to for a while.
+ */
+public class DataSetFileCache {
+
+    public static final long DEFAULT_MAX_SIZE = 4L * 1024 * 1024 * 1024;
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    // Downloads in flight keep writing to their temporary file.
+    static final long STALE_TEMP_AGE_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final Logger logger = Logger.getLogger(DataSetFileCache.class.getName());
+
+    // One cache per directory, so that readers share its accounting.
+    private static final Map<File, DataSetFileCache> caches = new HashMap<>();
+
+    @FunctionalInterface
+    public interface Loader {
+        void load(OutputStream outputStream) throws IOException;
+    }
+
+    private final File directory;
+
+    private final long maxSize;
+
+    // File sizes keyed by file name, in access order.
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size = 0;
+
+    // Downloads in flight keyed by file name.
+    private final Map<String, CompletableFuture<File>> loads = new HashMap<>();
+
+    DataSetFileCache(File directory, long maxSize) throws IOException {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size should be positive.");
+        }
+        this.directory = directory;
+        this.maxSize = maxSize;
+        Files.createDirectories(directory.toPath());
+        load();
+    }
+
+    /**
+     * @return cache of {@code directory}, shared by
+     * all callers of the same directory. Size of
+     * the first caller applies.
+     */
+    public static DataSetFileCache open(File directory, long maxSize) throws IOException {
+        final File key = directory.getCanonicalFile();
+        synchronized (caches) {
+            DataSetFileCache cache = caches.get(key);
+            if (cache == null) {
+                cache = new DataSetFileCache(key, maxSize);
+                caches.put(key, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * @return cached file or null.
+     */
+    public synchronized File get(String dataSetFileId, String entityName) {
+        final String name = getFileName(dataSetFileId, entityName);
+        if (entries.get(name) == null) {
+            return null;
+        }
+        final File file = new File(directory, name);
+        if (!file.isFile()) {
+            // Deleted behind our back.
+            size -= entries.remove(name);
+            return null;
+        }
+        file.setLastModified(System.currentTimeMillis());
+        return file;
+    }
+
+    /**
+     * @return cached file, loaded first
+     * when not cached yet.
+     */
+    public File get(String dataSetFileId, String entityName, Loader loader) throws IOException {
+        final String name = getFileName(dataSetFileId, entityName);
+        final CompletableFuture<File> inFlight;
+        final CompletableFuture<File> load = new CompletableFuture<>();
+        synchronized (this) {
+            final File cached = get(dataSetFileId, entityName);
+            if (cached != null) {
+                return cached;
+            }
+            inFlight = loads.putIfAbsent(name, load);
+        }
+        return inFlight != null ? await(inFlight) : load(name, loader, load);
+    }
+
+    private File load(String name, Loader loader, CompletableFuture<File> load) throws IOException {
+        try {
+            final File file = download(name, loader);
+            load.complete(file);
+            return file;
+        } catch (IOException | RuntimeException ex) {
+            load.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            synchronized (this) {
+                loads.remove(name);
+            }
+        }
+    }
+
+    private static File await(CompletableFuture<File> load) throws IOException {
+        try {
+            return load.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for dataset file download");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IOException("Dataset file download failed", ex.getCause());
+        }
+    }
+
+    private File download(String name, Loader loader) throws IOException {
+        final File temp = File.createTempFile(name, TEMP_SUFFIX, directory);
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(temp.toPath()))) {
+                loader.load(outputStream);
+            }
+            final File file = new File(directory, name);
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            publish(name, file.length());
+            return file;
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    private synchronized void publish(String name, long length) {
+        final Long replaced = entries.put(name, length);
+        size += length - (replaced == null ? 0 : replaced);
+        final Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (size > maxSize && eldest.hasNext()) {
+            final Map.Entry<String, Long> entry = eldest.next();
+            if (entry.getKey().equals(name)) {
+                // Never evict what was just published.
+                continue;
+            }
+            final File file = new File(directory, entry.getKey());
+            if (!file.delete() && file.exists()) {
+                // Likely still open elsewhere, retried on next publish.
+                logger.log(Level.FINE, "Unable to evict " + entry.getKey() + " from dataset file cache.");
+                continue;
+            }
+            logger.log(Level.FINE, "Evicted " + entry.getKey() + " from dataset file cache.");
+            size -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    private void load() throws IOException {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            throw new IOException("Unable to list cache directory " + directory);
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (!file.isFile()) {
+                continue;
+            }
+            if (file.getName().endsWith(TEMP_SUFFIX)) {
+                if (System.currentTimeMillis() - file.lastModified() > STALE_TEMP_AGE_MILLIS) {
+                    // Download which never completed.
+                    Files.deleteIfExists(file.toPath());
+                }
+                continue;
+            }
+            entries.put(file.getName(), file.length());
+            size += file.length();
+        }
+    }
+
+    /**
+     * Cached files are never revalidated, so names
+     * are a digest of both keys, which cannot collide
+     * the way escaped keys would. Keys are length
+     * prefixed so that no two pairs hash the same text.
+     */
+    private static String getFileName(String dataSetFileId, String entityName) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            // Every JVM provides SHA-256.
+            throw new IllegalStateException(ex);
+        }
+        final byte[] hash = digest.digest((dataSetFileId.length() + ":" + dataSetFileId + entityName).getBytes(StandardCharsets.UTF_8));
+        final StringBuilder name = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return name.toString();
+    }
+}
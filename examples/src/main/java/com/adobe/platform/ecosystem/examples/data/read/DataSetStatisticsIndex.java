@@ -0,0 +1,108 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read;
+
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+import com.adobe.platform.ecosystem.examples.parquet.read.ColumnStatistics;
+import com.adobe.platform.ecosystem.examples.parquet.read.FileStatistics;
+import com.adobe.platform.ecosystem.examples.parquet.read.filter.RecordFilter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Row counts and column statistics of the parquet
+ * files of a dataSetView, keyed by dataSetFileId and
+ * processing entity name and built from file footers
+ * alone. Answers count and min/max queries without
+ * reading any data, and tells which files cannot
+ * match a {@link RecordFilter} so readers skip them.
+ */
+public class DataSetStatisticsIndex {
+
+    private final Map<String, FileStatistics> files = new LinkedHashMap<>();
+
+    public synchronized void put(String dataSetFileId, String name, FileStatistics statistics) {
+        files.put(getKey(dataSetFileId, name), statistics);
+    }
+
+    /**
+     * @return statistics or null when
+     * the file is not indexed.
+     */
+    public synchronized FileStatistics getFileStatistics(String dataSetFileId, String name) {
+        return files.get(getKey(dataSetFileId, name));
+    }
+
+    public synchronized int getFileCount() {
+        return files.size();
+    }
+
+    public synchronized long getRowCount() {
+        long rowCount = 0;
+        for (FileStatistics statistics : files.values()) {
+            rowCount += statistics.getRowCount();
+        }
+        return rowCount;
+    }
+
+    /**
+     * @return statistics over all files having the
+     * column, null when no file has it or statistics
+     * of a file are missing.
+     */
+    public synchronized ColumnStatistics getColumnStatistics(String path) {
+        ColumnStatistics merged = null;
+        for (FileStatistics file : files.values()) {
+            if (file.getRowGroupCount() == 0 || !hasColumn(file, path)) {
+                continue;
+            }
+            final ColumnStatistics statistics = file.getColumnStatistics(path);
+            if (statistics == null) {
+                return null;
+            }
+            merged = merged == null ? statistics : merged.merge(statistics);
+            if (merged == null) {
+                // Column types differ between files.
+                return null;
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * @return true when the file is indexed and
+     * none of its rows can match {@code filter}.
+     */
+    public boolean canSkip(String dataSetFileId, String name, RecordFilter filter) throws ParquetIOException {
+        final FileStatistics statistics = getFileStatistics(dataSetFileId, name);
+        return statistics != null && filter != null && statistics.canSkip(filter);
+    }
+
+    private static boolean hasColumn(FileStatistics file, String path) {
+        for (String[] columnPath : file.getSchema().getPaths()) {
+            final String dotted = String.join(".", columnPath);
+            if (dotted.equals(path) || String.join("_", columnPath).equals(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getKey(String dataSetFileId, String name) {
+        return dataSetFileId + "/" + name;
+    }
+}
@@ -19,17 +19,26 @@ package com.adobe.platform.ecosystem.examples.data.read;
  * Created by vedhera on 8/25/2017.
  */
 
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+import com.adobe.platform.ecosystem.examples.parquet.read.configuration.ParquetReaderConfiguration;
+import com.adobe.platform.ecosystem.examples.parquet.read.filter.RecordFilter;
 import com.adobe.platform.ecosystem.examples.parquet.wiring.impl.ParquetIOImpl;
 import com.adobe.platform.ecosystem.examples.catalog.api.CatalogService;
 import com.adobe.platform.ecosystem.examples.catalog.model.DataSet;
 import com.adobe.platform.ecosystem.examples.catalog.model.DataSetView;
 import com.adobe.platform.ecosystem.examples.constants.SDKConstants;
+import com.adobe.platform.ecosystem.examples.data.read.configuration.TextReaderConfiguration;
 import com.adobe.platform.ecosystem.examples.data.access.api.DataAccessService;
 import com.adobe.platform.ecosystem.examples.data.read.reader.DataAccessAPIReader;
 import com.adobe.platform.ecosystem.examples.data.wiring.DataWiringParam;
 import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.http.client.HttpClient;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -62,15 +71,116 @@ public class PlatformDataReaderFactory implements DataReaderFactory {
         }
 
         boolean doParquetDataFlattening = computeFlatteningBoolean(readerAttributes);
-        // Using the new DataAccess API
-        return new DataAccessAPIReader(
-                cs,
-                das,
-                param,
-                httpClient,
-                new ParquetIOImpl().getParquetIOReader(doParquetDataFlattening),
-                readAttr
-        );
+        List<String> projectedFields = computeProjectedFields(readerAttributes);
+        RecordFilter recordFilter = computeRecordFilter(readerAttributes);
+        int readParallelism = computeReadParallelism(readerAttributes);
+        boolean typedValues = computeTypedBoolean(readerAttributes);
+        int readAhead = computeReadAhead(readerAttributes);
+        DataSetFileCache fileCache = computeFileCache(readerAttributes);
+        ParquetReaderConfiguration readerConfiguration = ParquetReaderConfiguration.builder()
+                .with(builder -> {
+                    builder.configuration = new Configuration();
+                    builder.shouldFlattenData = doParquetDataFlattening;
+                    builder.projectedFields = projectedFields;
+                    builder.recordFilter = recordFilter;
+                    builder.readParallelism = readParallelism;
+                    builder.typedValues = typedValues;
+                })
+                .build();
+        TextReaderConfiguration textConfiguration = computeTextConfiguration(readerAttributes, projectedFields);
+        try {
+            // Using the new DataAccess API
+            DataAccessAPIReader reader = new DataAccessAPIReader(
+                    cs,
+                    das,
+                    param,
+                    httpClient,
+                    new ParquetIOImpl().getParquetIOReader(readerConfiguration),
+                    readAttr,
+                    readAhead,
+                    fileCache,
+                    textConfiguration
+            );
+            if(computeStatisticsIndexBoolean(readerAttributes)) {
+                // Built upfront, so that files not matching the filter are skipped.
+                reader.getStatisticsIndex();
+            }
+            return reader;
+        } catch (ParquetIOException ex) {
+            throw new ConnectorSDKException("Error while creating parquet reader", ex);
+        }
+    }
+
+    /**
+     * Whether parquet values and CSV cells are
+     * read as their type, eg: Long or Boolean,
+     * instead of strings. Strings when not set.
+     */
+    private boolean computeTypedBoolean(Map<String, String> readerAttributes) {
+        return readerAttributes != null
+                && Boolean.parseBoolean(readerAttributes.get(SDKConstants.CONNECTOR_READ_ATTRIBUTE_TYPED));
+    }
+
+    private boolean computeStatisticsIndexBoolean(Map<String, String> readerAttributes) {
+        return readerAttributes != null
+                && Boolean.parseBoolean(readerAttributes.get(SDKConstants.CONNECTOR_READ_ATTRIBUTE_STATISTICS_INDEX));
+    }
+
+    /**
+     * Configuration of CSV and JSON reads. CSV ranges
+     * are parsed off the response stream when
+     * {@code streaming} is true. Ranges are
+     * {@code rangeSize} bytes, adjusted between
+     * {@code minRangeSize} and {@code maxRangeSize}
+     * when {@code adaptiveRange} is true. Up to
+     * {@code rangeParallelism} ranges of a CSV
+     * file are fetched concurrently. CSV cells are
+     * decoded to their catalog type when {@code typed}
+     * is true. Only projected CSV columns are decoded.
+     */
+    private TextReaderConfiguration computeTextConfiguration(Map<String, String> readerAttributes, List<String> projectedFields) throws ConnectorSDKException {
+        if(readerAttributes == null) {
+            return TextReaderConfiguration.defaults();
+        }
+        boolean streaming = Boolean.parseBoolean(readerAttributes.get(SDKConstants.CONNECTOR_READ_ATTRIBUTE_STREAMING));
+        boolean adaptiveRange = Boolean.parseBoolean(readerAttributes.get(SDKConstants.CONNECTOR_READ_ATTRIBUTE_ADAPTIVE_RANGE));
+        boolean typed = computeTypedBoolean(readerAttributes);
+        long rangeSize = computeSize(readerAttributes, SDKConstants.CONNECTOR_READ_ATTRIBUTE_RANGE_SIZE, TextReaderConfiguration.DEFAULT_RANGE_SIZE);
+        long minRangeSize = computeSize(readerAttributes, SDKConstants.CONNECTOR_READ_ATTRIBUTE_MIN_RANGE_SIZE, TextReaderConfiguration.DEFAULT_MIN_RANGE_SIZE);
+        long maxRangeSize = computeSize(readerAttributes, SDKConstants.CONNECTOR_READ_ATTRIBUTE_MAX_RANGE_SIZE, TextReaderConfiguration.DEFAULT_MAX_RANGE_SIZE);
+        int rangeParallelism = (int) Math.min(Integer.MAX_VALUE, computeSize(readerAttributes, SDKConstants.CONNECTOR_READ_ATTRIBUTE_RANGE_PARALLELISM, 1));
+        try {
+            return TextReaderConfiguration.builder()
+                    .with(builder -> {
+                        builder.streaming = streaming;
+                        builder.adaptiveRange = adaptiveRange;
+                        builder.rangeSize = rangeSize;
+                        builder.minRangeSize = minRangeSize;
+                        builder.maxRangeSize = maxRangeSize;
+                        builder.rangeParallelism = rangeParallelism;
+                        builder.typed = typed;
+                        builder.projectedFields = projectedFields;
+                    })
+                    .build();
+        } catch (IllegalArgumentException ex) {
+            throw new ConnectorSDKException("Invalid read attributes for ranges: " + ex.getMessage(), ex);
+        }
+    }
+
+    private long computeSize(Map<String, String> readerAttributes, String attribute, long defaultSize) throws ConnectorSDKException {
+        if(readerAttributes.get(attribute) == null) {
+            return defaultSize;
+        }
+        long size;
+        try {
+            size = Long.parseLong(readerAttributes.get(attribute).trim());
+        } catch (NumberFormatException ex) {
+            throw new ConnectorSDKException("Invalid read attribute " + attribute + ": " + ex.getMessage(), ex);
+        }
+        if(size <= 0) {
+            throw new ConnectorSDKException("Invalid read attribute " + attribute + ": should be positive.");
+        }
+        return size;
     }
 
     private boolean computeFlatteningBoolean(Map<String, String> readerAttributes) {
@@ -81,6 +191,109 @@ public class PlatformDataReaderFactory implements DataReaderFactory {
         }
     }
 
+    /**
+     * Comma separated field paths to read from
+     * parquet and CSV files, eg: {@code person.name,timestamp}.
+     * All fields are read when not set.
+     */
+    private List<String> computeProjectedFields(Map<String, String> readerAttributes) {
+        List<String> projectedFields = new ArrayList<>();
+        if(readerAttributes != null && readerAttributes.get(SDKConstants.CONNECTOR_READ_ATTRIBUTE_FIELDS) != null) {
+            for (String field : readerAttributes.get(SDKConstants.CONNECTOR_READ_ATTRIBUTE_FIELDS).split(",")) {
+                if(!field.trim().isEmpty()) {
+                    projectedFields.add(field.trim());
+                }
+            }
+        }
+        return projectedFields;
+    }
+
+    /**
+     * Filter on parquet records, see {@link RecordFilter#parse(String)}
+     * for the syntax, eg: {@code timestamp > 1509011304784}.
+     * All records are read when not set.
+     */
+    private RecordFilter computeRecordFilter(Map<String, String> readerAttributes) throws ConnectorSDKException {
+        if(readerAttributes == null || readerAttributes.get(SDKConstants.CONNECTOR_READ_ATTRIBUTE_FILTER) == null) {
+            return null;
+        }
+        try {
+            return RecordFilter.parse(readerAttributes.get(SDKConstants.CONNECTOR_READ_ATTRIBUTE_FILTER));
+        } catch (IllegalArgumentException ex) {
+            throw new ConnectorSDKException("Invalid read attribute " + SDKConstants.CONNECTOR_READ_ATTRIBUTE_FILTER + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Number of row groups of a parquet file
+     * decoded concurrently. Files are read
+     * sequentially when not set.
+     */
+    private int computeReadParallelism(Map<String, String> readerAttributes) throws ConnectorSDKException {
+        if(readerAttributes == null || readerAttributes.get(SDKConstants.CONNECTOR_READ_ATTRIBUTE_PARALLELISM) == null) {
+            return 1;
+        }
+        int readParallelism;
+        try {
+            readParallelism = Integer.parseInt(readerAttributes.get(SDKConstants.CONNECTOR_READ_ATTRIBUTE_PARALLELISM).trim());
+        } catch (NumberFormatException ex) {
+            throw new ConnectorSDKException("Invalid read attribute " + SDKConstants.CONNECTOR_READ_ATTRIBUTE_PARALLELISM + ": " + ex.getMessage(), ex);
+        }
+        if(readParallelism <= 0) {
+            throw new ConnectorSDKException("Invalid read attribute " + SDKConstants.CONNECTOR_READ_ATTRIBUTE_PARALLELISM + ": should be positive.");
+        }
+        return readParallelism;
+    }
+
+    /**
+     * Number of upcoming dataset files fetched in
+     * background while the current one is read.
+     * Nothing is fetched ahead when not set.
+     */
+    private int computeReadAhead(Map<String, String> readerAttributes) throws ConnectorSDKException {
+        if(readerAttributes == null || readerAttributes.get(SDKConstants.CONNECTOR_READ_ATTRIBUTE_READ_AHEAD) == null) {
+            return 0;
+        }
+        int readAhead;
+        try {
+            readAhead = Integer.parseInt(readerAttributes.get(SDKConstants.CONNECTOR_READ_ATTRIBUTE_READ_AHEAD).trim());
+        } catch (NumberFormatException ex) {
+            throw new ConnectorSDKException("Invalid read attribute " + SDKConstants.CONNECTOR_READ_ATTRIBUTE_READ_AHEAD + ": " + ex.getMessage(), ex);
+        }
+        if(readAhead < 0) {
+            throw new ConnectorSDKException("Invalid read attribute " + SDKConstants.CONNECTOR_READ_ATTRIBUTE_READ_AHEAD + ": should not be negative.");
+        }
+        return readAhead;
+    }
+
+    /**
+     * Local cache of parquet files in directory
+     * {@code cacheDirectory}, holding up to
+     * {@code cacheSize} bytes. Files are read
+     * remotely when no directory is set.
+     */
+    private DataSetFileCache computeFileCache(Map<String, String> readerAttributes) throws ConnectorSDKException {
+        if(readerAttributes == null || readerAttributes.get(SDKConstants.CONNECTOR_READ_ATTRIBUTE_CACHE_DIRECTORY) == null) {
+            return null;
+        }
+        long cacheSize = DataSetFileCache.DEFAULT_MAX_SIZE;
+        if(readerAttributes.get(SDKConstants.CONNECTOR_READ_ATTRIBUTE_CACHE_SIZE) != null) {
+            try {
+                cacheSize = Long.parseLong(readerAttributes.get(SDKConstants.CONNECTOR_READ_ATTRIBUTE_CACHE_SIZE).trim());
+            } catch (NumberFormatException ex) {
+                throw new ConnectorSDKException("Invalid read attribute " + SDKConstants.CONNECTOR_READ_ATTRIBUTE_CACHE_SIZE + ": " + ex.getMessage(), ex);
+            }
+            if(cacheSize <= 0) {
+                throw new ConnectorSDKException("Invalid read attribute " + SDKConstants.CONNECTOR_READ_ATTRIBUTE_CACHE_SIZE + ": should be positive.");
+            }
+        }
+        try {
+            return DataSetFileCache.open(new File(readerAttributes.get(SDKConstants.CONNECTOR_READ_ATTRIBUTE_CACHE_DIRECTORY)), cacheSize);
+        } catch (IOException ex) {
+            throw new ConnectorSDKException("Unable to open dataset file cache", ex);
+        }
+    }
+
     private ReadAttributes validateReadAttributes(Map<String, String> readerAttributes) throws ConnectorSDKException {
         if ((readerAttributes.containsKey(SDKConstants.CONNECTOR_READ_ATTRIBUTE_EPOCHTIME) && !readerAttributes.containsKey(SDKConstants.CONNECTOR_READ_ATTRIBUTE_DURATION))
                 || (!readerAttributes.containsKey(SDKConstants.CONNECTOR_READ_ATTRIBUTE_EPOCHTIME) && readerAttributes.containsKey(SDKConstants.CONNECTOR_READ_ATTRIBUTE_DURATION))) {
@@ -0,0 +1,182 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read.configuration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * POJO to encapsulate members required for
+ * reading text dataset files, ie: CSV and JSON,
+ * see {@link com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl.CSVReaderProcessor}.
+ */
+public class TextReaderConfiguration {
+
+    public static final long DEFAULT_RANGE_SIZE = 8 * 1024 * 1024;
+
+    public static final long DEFAULT_MIN_RANGE_SIZE = 64 * 1024;
+
+    public static final long DEFAULT_MAX_RANGE_SIZE = 64 * 1024 * 1024;
+
+    private final boolean streaming;
+
+    private final long rangeSize;
+
+    private final boolean adaptiveRange;
+
+    private final long minRangeSize;
+
+    private final long maxRangeSize;
+
+    private final int rangeParallelism;
+
+    private final boolean typed;
+
+    private final List<String> projectedFields;
+
+    private TextReaderConfiguration(Builder builder) {
+        this.streaming = builder.streaming;
+        this.rangeSize = builder.rangeSize;
+        this.adaptiveRange = builder.adaptiveRange;
+        this.minRangeSize = builder.minRangeSize;
+        this.maxRangeSize = builder.maxRangeSize;
+        this.rangeParallelism = builder.rangeParallelism;
+        this.typed = builder.typed;
+        this.projectedFields = Collections.unmodifiableList(new ArrayList<>(builder.projectedFields));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return configuration with the defaults.
+     */
+    public static TextReaderConfiguration defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Whether records are parsed straight off the
+     * response stream of each byte range, instead
+     * of decoding ranges to strings first.
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Size in bytes of ranges requested from
+     * Data Access, the starting size when
+     * {@link #isAdaptiveRange()}.
+     */
+    public long getRangeSize() {
+        return rangeSize;
+    }
+
+    /**
+     * Whether range size is adjusted between
+     * {@link #getMinRangeSize()} and {@link #getMaxRangeSize()}
+     * to round-trip latency, free memory and
+     * rows requested.
+     */
+    public boolean isAdaptiveRange() {
+        return adaptiveRange;
+    }
+
+    public long getMinRangeSize() {
+        return minRangeSize;
+    }
+
+    public long getMaxRangeSize() {
+        return maxRangeSize;
+    }
+
+    /**
+     * Number of ranges of a CSV file fetched
+     * concurrently, ranges are fetched one
+     * at a time when 1.
+     */
+    public int getRangeParallelism() {
+        return rangeParallelism;
+    }
+
+    /**
+     * Whether CSV cells are decoded to the type of
+     * their catalog field, ie: integers, longs,
+     * doubles, booleans and dates, instead of
+     * being read as strings.
+     */
+    public boolean isTyped() {
+        return typed;
+    }
+
+    /**
+     * CSV columns to read, matched against header
+     * names either as is or with '.' as '_', eg:
+     * {@code person.name} reads column {@code person_name}.
+     * Cells of other columns are never decoded.
+     * All columns are read when empty.
+     */
+    public List<String> getProjectedFields() {
+        return projectedFields;
+    }
+
+    /**
+     * Fluent builder of type
+     * {@link TextReaderConfiguration}
+     */
+    public static class Builder {
+        public boolean streaming = false;
+
+        public long rangeSize = DEFAULT_RANGE_SIZE;
+
+        public boolean adaptiveRange = false;
+
+        public long minRangeSize = DEFAULT_MIN_RANGE_SIZE;
+
+        public long maxRangeSize = DEFAULT_MAX_RANGE_SIZE;
+
+        public int rangeParallelism = 1;
+
+        public boolean typed = false;
+
+        public List<String> projectedFields = new ArrayList<>();
+
+        public Builder with(Consumer<Builder> builderConsumer) {
+            builderConsumer.accept(this);
+            return this;
+        }
+
+        public TextReaderConfiguration build() {
+            if (rangeSize <= 0 || minRangeSize <= 0 || maxRangeSize <= 0) {
+                throw new IllegalArgumentException("Range sizes should be positive.");
+            }
+            if (minRangeSize > maxRangeSize || (adaptiveRange && (rangeSize < minRangeSize || rangeSize > maxRangeSize))) {
+                throw new IllegalArgumentException("Range size should lie between minimum and maximum range sizes.");
+            }
+            if (projectedFields == null) {
+                throw new IllegalArgumentException("Projected fields are required, empty reads all columns.");
+            }
+            if (rangeParallelism <= 0) {
+                throw new IllegalArgumentException("Range parallelism should be positive.");
+            }
+            return new TextReaderConfiguration(this);
+        }
+    }
+}
@@ -29,8 +29,11 @@ import com.adobe.platform.ecosystem.examples.constants.SDKConstants;
 import com.adobe.platform.ecosystem.examples.data.access.api.DataAccessService;
 import com.adobe.platform.ecosystem.examples.data.access.model.DataAccessFileEntity;
 import com.adobe.platform.ecosystem.examples.data.access.model.DataSetFileProcessingEntity;
+import com.adobe.platform.ecosystem.examples.data.read.DataSetFileCache;
+import com.adobe.platform.ecosystem.examples.data.read.DataSetStatisticsIndex;
 import com.adobe.platform.ecosystem.examples.data.read.ReadAttributes;
 import com.adobe.platform.ecosystem.examples.data.read.Reader;
+import com.adobe.platform.ecosystem.examples.data.read.configuration.TextReaderConfiguration;
 import com.adobe.platform.ecosystem.examples.data.read.reader.processor.api.ReaderProcessor;
 import com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl.CSVReaderProcessor;
 import com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl.JSONReaderProcessor;
@@ -67,11 +70,67 @@ public class DataAccessAPIReader implements Reader {
             HttpClient httpClient,
             ParquetIOReader parquetIOReader,
             ReadAttributes readAttr
+    ) throws ConnectorSDKException {
+        this(cs, das, param, httpClient, parquetIOReader, readAttr, 0);
+    }
+
+    /**
+     * @param readAhead number of upcoming files
+     *                  fetched in background, see
+     *                  {@link ReaderProcessor#setReadAhead(int)}.
+     */
+    public DataAccessAPIReader(
+            CatalogService cs,
+            DataAccessService das,
+            DataWiringParam param,
+            HttpClient httpClient,
+            ParquetIOReader parquetIOReader,
+            ReadAttributes readAttr,
+            int readAhead
+    ) throws ConnectorSDKException {
+        this(cs, das, param, httpClient, parquetIOReader, readAttr, readAhead, null);
+    }
+
+    /**
+     * @param fileCache cache parquet files are
+     *                  downloaded to and read from,
+     *                  they are read remotely when null.
+     */
+    public DataAccessAPIReader(
+            CatalogService cs,
+            DataAccessService das,
+            DataWiringParam param,
+            HttpClient httpClient,
+            ParquetIOReader parquetIOReader,
+            ReadAttributes readAttr,
+            int readAhead,
+            DataSetFileCache fileCache
+    ) throws ConnectorSDKException {
+        this(cs, das, param, httpClient, parquetIOReader, readAttr, readAhead, fileCache, TextReaderConfiguration.defaults());
+    }
+
+    /**
+     * @param textConfiguration configuration for
+     *                          reading CSV and JSON files.
+     */
+    public DataAccessAPIReader(
+            CatalogService cs,
+            DataAccessService das,
+            DataWiringParam param,
+            HttpClient httpClient,
+            ParquetIOReader parquetIOReader,
+            ReadAttributes readAttr,
+            int readAhead,
+            DataSetFileCache fileCache,
+            TextReaderConfiguration textConfiguration
     ) throws ConnectorSDKException {
         if(httpClient == null) {
             httpClient = HttpClientUtil.getHttpClient();
         }
-        initReader(cs,das,param,httpClient,parquetIOReader,readAttr);
+        initReader(cs,das,param,httpClient,parquetIOReader,readAttr,fileCache,textConfiguration);
+        if(readAhead > 0) {
+            processor.setReadAhead(readAhead);
+        }
     }
 
     private void initReader(
@@ -80,7 +139,9 @@ public class DataAccessAPIReader implements Reader {
             DataWiringParam param,
             HttpClient httpClient,
             ParquetIOReader parquetIOReader,
-            ReadAttributes readAttr
+            ReadAttributes readAttr,
+            DataSetFileCache fileCache,
+            TextReaderConfiguration textConfiguration
     ) throws ConnectorSDKException {
         int dataSetFileReadIndex = 0;
         List<String> dataSetFileSet = initDataSetFileSet(cs,das,param,readAttr);
@@ -97,16 +158,16 @@ public class DataAccessAPIReader implements Reader {
         if(!dataSetFileProcessingSet.isEmpty()) {
             String fileName = dataSetFileProcessingSet.get(0).getName();
             if (fileName.endsWith(".csv") || fileName.endsWith(".txt")) {
-                processor = new CSVReaderProcessor(das, httpClient, param, dataSetFileSet, dataSetFileProcessingSet);
+                processor = new CSVReaderProcessor(das, httpClient, param, dataSetFileSet, dataSetFileProcessingSet, textConfiguration);
             } else if (fileName.endsWith(".parquet")) {
-                processor = new ParquetReaderProcessor(parquetIOReader, das, httpClient, param, dataSetFileSet, dataSetFileProcessingSet);
+                processor = new ParquetReaderProcessor(parquetIOReader, das, httpClient, param, dataSetFileSet, dataSetFileProcessingSet, fileCache);
             } else if (fileName.endsWith(".json")) {
-                processor = new JSONReaderProcessor(das, httpClient, param, dataSetFileSet, dataSetFileProcessingSet);
+                processor = new JSONReaderProcessor(das, httpClient, param, dataSetFileSet, dataSetFileProcessingSet, textConfiguration);
             } else {
                 throw new ConnectorSDKException("datasetFile processing entity format is unsupported for type: " + fileName);
             }
         } else {
-            processor = new CSVReaderProcessor(das, httpClient, param, dataSetFileSet, dataSetFileProcessingSet);
+            processor = new CSVReaderProcessor(das, httpClient, param, dataSetFileSet, dataSetFileProcessingSet, textConfiguration);
         }
     }
 
@@ -128,6 +189,18 @@ public class DataAccessAPIReader implements Reader {
         return processor.hasMoreData();
     }
 
+    /**
+     * @return footer statistics of the files to be
+     * read, null unless they are parquet files. See
+     * {@link ParquetReaderProcessor#getStatisticsIndex()}.
+     */
+    public DataSetStatisticsIndex getStatisticsIndex() throws ConnectorSDKException {
+        if(processor instanceof ParquetReaderProcessor) {
+            return ((ParquetReaderProcessor) processor).getStatisticsIndex();
+        }
+        return null;
+    }
+
     private List<JSONObject> processData(int rows) throws ConnectorSDKException {
         return processor.processData(rows);
     }
@@ -32,7 +32,15 @@ import org.json.simple.JSONObject;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -50,6 +58,11 @@ abstract public class ReaderProcessor {
     protected List<DataSetFileProcessingEntity> dataSetFileProcessingSet;
     protected int dataSetFileReadIndex = -1;
     protected int processingSetReadIndex = -1;
+    protected int readAhead = 0;
+
+    // Processing entities of upcoming dataSetFiles keyed by their index.
+    private final Map<Integer, Future<List<DataSetFileProcessingEntity>>> prefetchedEntries = new HashMap<>();
+    private ExecutorService prefetchExecutor;
 
     private static final int DEFAULT_ERROR_COUNT = 0;
     private static final Logger logger = Logger.getLogger(ReaderProcessor.class.getName());
@@ -87,6 +100,20 @@ abstract public class ReaderProcessor {
      */
     abstract public Boolean hasMoreData() throws ConnectorSDKException;
 
+    /**
+     * Sets number of upcoming dataSetFiles whose
+     * processing entities are fetched in background
+     * while the current one is read. Processors may
+     * open the upcoming files as well, see
+     * {@link com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl.ParquetReaderProcessor}.
+     * Nothing is fetched ahead when 0.
+     */
+    public ReaderProcessor setReadAhead(int readAhead) {
+        this.readAhead = readAhead;
+        prefetchDataSetFileEntries();
+        return this;
+    }
+
     /**
      * Gives default inplementation for error row count
      * while reading from source.
@@ -110,12 +137,115 @@ abstract public class ReaderProcessor {
         }
 
         if(dataSetFileReadIndex < dataSetFileSet.size()){
-            initDataSetFileProcessingSet(dataSetFileSet.get(dataSetFileReadIndex));
+            initDataSetFileProcessingSet(dataSetFileReadIndex);
+        } else {
+            shutdownPrefetch();
+        }
+    }
+
+    private void initDataSetFileProcessingSet(int dataSetFileIndex) throws ConnectorSDKException {
+        Future<List<DataSetFileProcessingEntity>> prefetched = prefetchedEntries.remove(dataSetFileIndex);
+        dataSetFileProcessingSet = null;
+        if(prefetched != null) {
+            try {
+                dataSetFileProcessingSet = prefetched.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ConnectorSDKException("Interrupted while fetching dataSetFile entries", ex);
+            } catch (ExecutionException ex) {
+                logger.log(Level.WARNING, "Prefetch of dataSetFile entries failed, fetching again: " + ex.getCause());
+            }
+        }
+        if(dataSetFileProcessingSet == null) {
+            dataSetFileProcessingSet = das.getDataSetFileEntries(param.getImsOrg(),param.getAuthToken(),dataSetFileSet.get(dataSetFileIndex));
         }
+        prefetchDataSetFileEntries();
     }
 
-    private void initDataSetFileProcessingSet(String dataSetFileId) throws ConnectorSDKException {
-        dataSetFileProcessingSet = das.getDataSetFileEntries(param.getImsOrg(),param.getAuthToken(),dataSetFileId);
+    /**
+     * @return processing entities of dataSetFile at
+     * {@code dataSetFileIndex} when already fetched
+     * in background, null otherwise. Never blocks.
+     */
+    protected List<DataSetFileProcessingEntity> getPrefetchedEntries(int dataSetFileIndex) {
+        Future<List<DataSetFileProcessingEntity>> prefetched = prefetchedEntries.get(dataSetFileIndex);
+        if(prefetched == null || !prefetched.isDone()) {
+            return null;
+        }
+        try {
+            return prefetched.get();
+        } catch (InterruptedException | ExecutionException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * @return processing entities of dataSetFile at
+     * {@code dataSetFileIndex}, fetched now unless
+     * already fetched. Entries of upcoming
+     * dataSetFiles are kept until they are read.
+     */
+    protected List<DataSetFileProcessingEntity> getDataSetFileEntries(int dataSetFileIndex) throws ConnectorSDKException {
+        if(dataSetFileIndex == dataSetFileReadIndex) {
+            return dataSetFileProcessingSet;
+        }
+        Future<List<DataSetFileProcessingEntity>> prefetched = prefetchedEntries.get(dataSetFileIndex);
+        if(prefetched != null) {
+            try {
+                return prefetched.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ConnectorSDKException("Interrupted while fetching dataSetFile entries", ex);
+            } catch (ExecutionException ex) {
+                logger.log(Level.WARNING, "Prefetch of dataSetFile entries failed, fetching again: " + ex.getCause());
+            }
+        }
+        List<DataSetFileProcessingEntity> entries = das.getDataSetFileEntries(param.getImsOrg(), param.getAuthToken(), dataSetFileSet.get(dataSetFileIndex));
+        if(dataSetFileIndex > dataSetFileReadIndex) {
+            prefetchedEntries.put(dataSetFileIndex, CompletableFuture.completedFuture(entries));
+        }
+        return entries;
+    }
+
+    /**
+     * Executor of background fetches, threads
+     * are daemons so that an abandoned reader
+     * does not keep the JVM alive.
+     */
+    protected ExecutorService getPrefetchExecutor() {
+        if(prefetchExecutor == null) {
+            prefetchExecutor = Executors.newFixedThreadPool(Math.max(1, readAhead), runnable -> {
+                Thread thread = new Thread(runnable, "dataset-reader-prefetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return prefetchExecutor;
+    }
+
+    private void prefetchDataSetFileEntries() {
+        Iterator<Integer> indexes = prefetchedEntries.keySet().iterator();
+        while(indexes.hasNext()) {
+            if(indexes.next() <= dataSetFileReadIndex) {
+                indexes.remove();
+            }
+        }
+        for(int index = dataSetFileReadIndex + 1; index <= dataSetFileReadIndex + readAhead && index < dataSetFileSet.size(); index++) {
+            if(!prefetchedEntries.containsKey(index)) {
+                String dataSetFileId = dataSetFileSet.get(index);
+                prefetchedEntries.put(index, getPrefetchExecutor().submit(
+                        () -> das.getDataSetFileEntries(param.getImsOrg(), param.getAuthToken(), dataSetFileId)
+                ));
+            }
+        }
+    }
+
+    private void shutdownPrefetch() {
+        prefetchedEntries.clear();
+        if(prefetchExecutor != null) {
+            prefetchExecutor.shutdown();
+            prefetchExecutor = null;
+        }
     }
 
     protected void checkErrorResponseCode(HttpResponse response) throws ConnectorSDKException {
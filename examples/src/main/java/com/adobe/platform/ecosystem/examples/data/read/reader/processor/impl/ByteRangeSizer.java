@@ -0,0 +1,110 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
+
+import com.adobe.platform.ecosystem.examples.data.read.configuration.TextReaderConfiguration;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Sizes byte ranges requested from Data Access.
+ * Range size is fixed unless configured adaptive,
+ * in which case it
+ * <ul>
+ *     <li>doubles while round-trip latency takes a
+ *     large share of each fetch,</li>
+ *     <li>halves while it exceeds a fraction of
+ *     the free heap,</li>
+ *     <li>is cut to the bytes needed for the rows
+ *     requested, going by the record size seen so far.</li>
+ * </ul>
+ */
+class ByteRangeSizer {
+
+    // Share of a fetch spent waiting for the response above which ranges grow.
+    private static final double LATENCY_BOUND_SHARE = 0.25;
+
+    // Largest share of free heap a single range may take.
+    private static final int MEMORY_SHARE_DIVISOR = 8;
+
+    // Record size assumed until a range is read.
+    private static final long DEFAULT_RECORD_SIZE = 1024;
+
+    // Fetch extra rows because record sizes vary.
+    private static final int ROWS_HEADROOM = 2;
+
+    private final TextReaderConfiguration configuration;
+
+    private final LongSupplier freeMemory;
+
+    private long rangeSize;
+
+    private long bytesRead = 0;
+
+    private long recordsRead = 0;
+
+    ByteRangeSizer(TextReaderConfiguration configuration) {
+        this(configuration, ByteRangeSizer::getFreeMemory);
+    }
+
+    ByteRangeSizer(TextReaderConfiguration configuration, LongSupplier freeMemory) {
+        this.configuration = configuration;
+        this.freeMemory = freeMemory;
+        this.rangeSize = configuration.getRangeSize();
+    }
+
+    /**
+     * @param rows rows still to be read for the caller.
+     * @return size in bytes of the next range.
+     */
+    long getRangeSize(int rows) {
+        if (!configuration.isAdaptiveRange()) {
+            return rangeSize;
+        }
+        long memoryBound = freeMemory.getAsLong() / MEMORY_SHARE_DIVISOR;
+        while (rangeSize > memoryBound && rangeSize / 2 >= configuration.getMinRangeSize()) {
+            rangeSize /= 2;
+        }
+        long recordSize = recordsRead == 0 ? DEFAULT_RECORD_SIZE : Math.max(1, bytesRead / recordsRead);
+        long rowsBound = rows <= 0 ? rangeSize : rows * recordSize * ROWS_HEADROOM;
+        return Math.max(configuration.getMinRangeSize(), Math.min(rangeSize, rowsBound));
+    }
+
+    /**
+     * Records a fetched range.
+     * @param bytes size of the range.
+     * @param records records completed by the range.
+     * @param latencyNanos time until the response arrived.
+     * @param transferNanos time spent reading the response body.
+     */
+    void onRange(long bytes, int records, long latencyNanos, long transferNanos) {
+        bytesRead += bytes;
+        recordsRead += records;
+        if (!configuration.isAdaptiveRange()) {
+            return;
+        }
+        long totalNanos = latencyNanos + transferNanos;
+        // Small ranges read for few rows tell nothing about latency.
+        if (bytes >= rangeSize && totalNanos > 0 && latencyNanos >= totalNanos * LATENCY_BOUND_SHARE) {
+            rangeSize = Math.min(configuration.getMaxRangeSize(), rangeSize * 2);
+        }
+    }
+
+    private static long getFreeMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+    }
+}
@@ -16,9 +16,11 @@
  */
 package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
 
+import com.adobe.platform.ecosystem.examples.catalog.model.SchemaField;
 import com.adobe.platform.ecosystem.examples.constants.SDKConstants;
 import com.adobe.platform.ecosystem.examples.data.access.api.DataAccessService;
 import com.adobe.platform.ecosystem.examples.data.access.model.DataSetFileProcessingEntity;
+import com.adobe.platform.ecosystem.examples.data.read.configuration.TextReaderConfiguration;
 import com.adobe.platform.ecosystem.examples.data.read.reader.processor.api.ReaderProcessor;
 import com.adobe.platform.ecosystem.examples.data.wiring.DataWiringParam;
 import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
@@ -29,6 +31,8 @@ import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.apache.http.Header;
 import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
@@ -39,9 +43,14 @@ import org.json.simple.JSONObject;
 
 import java.io.*;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -52,24 +61,40 @@ import java.util.logging.Logger;
 public class CSVReaderProcessor extends ReaderProcessor {
     private final DataWiringParam param;
     private final HttpClientUtil httpClientUtil;
+    private final TextReaderConfiguration configuration;
 
     private static final Logger logger = Logger.getLogger(CSVReaderProcessor.class.getName());
 
     // Data members to hold reading state.
     private long offset = 0;
-    private long byteLength = 8 * 1024 * 1024; // Starting with 8 MB byte range.
+    private long byteLength; // Set from rangeSizer for every range.
     private long maxByteLength = -1; //This will be initialised to -1 when starting with a fresh processing entity.
     private String partialRecordBuffer = "";
     private List<JSONObject> recordsUnusedFromPreviousIteration;
     private int unusedRecordsPointer = -1;
-    private CSVRecord headerFields;
+    private List<String> headerFields;
     private int errorCount;
+    private CSVStreamParser streamParser;
+    private final ByteRangeSizer rangeSizer;
+    private int rangeRecordCount;
+    private final ParallelRangeFetcher rangeFetcher;
+    private CSVValueDecoder[] columnDecoders;
+    private int[] recordColumns; // Indices of header fields read, in the order of recordHeader.
+    private IndexedRecord.Header recordHeader; // Shared by all records of current file.
 
     public CSVReaderProcessor(DataAccessService das, HttpClient httpClient, DataWiringParam param, List<String> dataSetFileSet, List<DataSetFileProcessingEntity> dataSetFileProcessingSet) throws ConnectorSDKException {
+        this(das, httpClient, param, dataSetFileSet, dataSetFileProcessingSet, TextReaderConfiguration.defaults());
+    }
+
+    public CSVReaderProcessor(DataAccessService das, HttpClient httpClient, DataWiringParam param, List<String> dataSetFileSet, List<DataSetFileProcessingEntity> dataSetFileProcessingSet, TextReaderConfiguration configuration) throws ConnectorSDKException {
         super(das,param,dataSetFileSet,dataSetFileProcessingSet);
         this.param = param;
         HttpClient hClient = httpClient == null ? HttpClientUtil.getHttpClient() : httpClient;
         this.httpClientUtil = new HttpClientUtil(hClient);
+        this.configuration = configuration;
+        this.rangeSizer = new ByteRangeSizer(configuration);
+        this.byteLength = configuration.getRangeSize();
+        this.rangeFetcher = new ParallelRangeFetcher(httpClientUtil, param, configuration.getRangeParallelism());
     }
 
     /**
@@ -80,6 +105,9 @@ public class CSVReaderProcessor extends ReaderProcessor {
         while(data.size() < rows && hasMoreData()) {
             processData(data, rows-data.size());
         }
+        if(!hasMoreData()) {
+            rangeFetcher.shutdown();
+        }
         return data;
     }
 
@@ -167,7 +195,18 @@ public class CSVReaderProcessor extends ReaderProcessor {
     }
 
     private List<JSONObject> readFromProcessingEntity(DataSetFileProcessingEntity entity, int rows) throws ConnectorSDKException {
+        if(isParallel()) {
+            if(maxByteLength == -1 && entity.getLength() > 0) {
+                maxByteLength = entity.getLength();
+            }
+            // Otherwise file length is known after the first range.
+            if(maxByteLength != -1) {
+                return readFromParallelRanges(entity, rows);
+            }
+        }
         HttpResponse response = null;
+        byteLength = rangeSizer.getRangeSize(rows);
+        rangeRecordCount = 0;
         try {
             URIBuilder builder = new URIBuilder(entity.getHref());
             HttpGet request = new HttpGet(builder.build());
@@ -175,25 +214,13 @@ public class CSVReaderProcessor extends ReaderProcessor {
             httpClientUtil.setHeader(request, getHttpHeaders());
 
             logger.log(Level.FINE,request.getRequestLine().getUri());
+            long start = System.nanoTime();
             response = httpClientUtil.executeRequest(request, false);
+            long latency = System.nanoTime() - start;
 
-            String responseString = new BasicResponseHandler().handleResponse(response);
-
-            // Set Max Byte Range limit if this the first API call
-            if(maxByteLength == -1) {
-                Header contentRangeHeader[] = response.getHeaders("Content-Range");
-                if(contentRangeHeader!=null && contentRangeHeader.length>0) {
-                    String value = contentRangeHeader[0].getValue();
-                    maxByteLength = Long.parseLong(value.substring(value.lastIndexOf("/") + 1));
-                }
-            }
-
-            if(offset == 0) {
-                headerFields = null; // Initialising if First API call in series for a DataSetFile entry.
-            }
-            String newTotalRecordBuffer = partialRecordBuffer + responseString;
-            partialRecordBuffer = "";
-            return getRecords(newTotalRecordBuffer,rows);
+            List<JSONObject> records = isStreaming() ? streamRecords(response, rows) : readRecords(response, rows);
+            rangeSizer.onRange(getRangeLength(), rangeRecordCount, latency, System.nanoTime() - start - latency);
+            return records;
 
         } catch(URISyntaxException uriEx) {
             logger.severe("Error in method readFromProcessingEntity while parsing URL: " + uriEx.getMessage());
@@ -217,6 +244,157 @@ public class CSVReaderProcessor extends ReaderProcessor {
         }
     }
 
+    /**
+     * Ranges are fetched concurrently but parsed in
+     * order by the same parser, so each range picks
+     * up the record cut at the end of the previous
+     * one, even within quoted line breaks.
+     */
+    private List<JSONObject> readFromParallelRanges(DataSetFileProcessingEntity entity, int rows) throws ConnectorSDKException {
+        try {
+            if(!rangeFetcher.isOpen()) {
+                // Splitting rest of the file between connections,
+                // in ranges no larger than a sequential one.
+                long remaining = maxByteLength - offset;
+                long segmentLength = (remaining + configuration.getRangeParallelism() - 1) / configuration.getRangeParallelism();
+                byteLength = Math.max(0, Math.min(segmentLength - 1, rangeSizer.getRangeSize(rows)));
+                rangeFetcher.open(entity.getHref(), offset, maxByteLength, byteLength);
+            }
+            byte[] range = rangeFetcher.next();
+            List<JSONObject> records = streamRecords(ByteBuffer.wrap(range == null ? new byte[0] : range), rows);
+            if(!seekIfNextOffsetIsValid()) {
+                rangeFetcher.close();
+            }
+            return records;
+        } catch (ConnectorSDKException ex) {
+            rangeFetcher.shutdown();
+            throw ex;
+        }
+    }
+
+    private List<JSONObject> readRecords(HttpResponse response, int rows) throws IOException {
+        String responseString = new BasicResponseHandler().handleResponse(response);
+
+        // Set Max Byte Range limit if this the first API call
+        setMaxByteLength(response);
+
+        if(offset == 0) {
+            setHeaderFields(null); // Initialising if First API call in series for a DataSetFile entry.
+        }
+        String newTotalRecordBuffer = partialRecordBuffer + responseString;
+        partialRecordBuffer = "";
+        return getRecords(newTotalRecordBuffer,rows);
+    }
+
+    /**
+     * Parses the range straight off the response
+     * stream. Parser keeps the record cut at the
+     * end of this range for the next one.
+     */
+    private List<JSONObject> streamRecords(HttpResponse response, int rows) throws IOException {
+        StatusLine statusLine = response.getStatusLine();
+        if(statusLine.getStatusCode() >= 300) {
+            throw new HttpResponseException(statusLine.getStatusCode(), statusLine.getReasonPhrase());
+        }
+        setMaxByteLength(response);
+        if(response.getEntity() == null) {
+            return streamRecords(ByteBuffer.allocate(0), rows);
+        }
+        try (InputStream inputStream = response.getEntity().getContent()) {
+            List<JSONObject> data = new ArrayList<>();
+            CSVStreamParser.RecordConsumer consumer = getRecordConsumer(data, rows);
+            getStreamParser().parse(inputStream, consumer);
+            finishIfLastRange(consumer);
+            return data;
+        }
+    }
+
+    private List<JSONObject> streamRecords(ByteBuffer buffer, int rows) {
+        List<JSONObject> data = new ArrayList<>();
+        CSVStreamParser.RecordConsumer consumer = getRecordConsumer(data, rows);
+        getStreamParser().parse(buffer, consumer);
+        finishIfLastRange(consumer);
+        return data;
+    }
+
+    private CSVStreamParser getStreamParser() {
+        if(offset == 0) {
+            setHeaderFields(null);
+            streamParser = new CSVStreamParser(getDelimiter());
+        }
+        return streamParser;
+    }
+
+    private void finishIfLastRange(CSVStreamParser.RecordConsumer consumer) {
+        if(!seekIfNextOffsetIsValid()) {
+            streamParser.finish(consumer);
+            streamParser = null;
+        }
+    }
+
+    /**
+     * Header is the first record of a file, only
+     * projected cells of later records are decoded.
+     */
+    private CSVStreamParser.RecordConsumer getRecordConsumer(List<JSONObject> data, int rows) {
+        return row -> {
+            if(headerFields == null) {
+                setHeaderFields(row.toList());
+                columnDecoders = configuration.isTyped() ? CSVValueDecoder.compile(headerFields, getSchemaFields()) : null;
+                streamParser.project(getProjection());
+                return;
+            }
+            JSONObject record = getJsonObjectFromRow(row);
+            if(record == null) {
+                return;
+            }
+            if(data.size() < rows) {
+                data.add(record);
+            } else {
+                initUnusedBufferList();
+                recordsUnusedFromPreviousIteration.add(record);
+            }
+        };
+    }
+
+    /**
+     * Parallel ranges, typed cells and
+     * projected columns are always streamed.
+     */
+    private boolean isStreaming() {
+        if(!configuration.isStreaming() && configuration.getRangeParallelism() == 1 && !configuration.isTyped()
+                && configuration.getProjectedFields().isEmpty()) {
+            return false;
+        }
+        if(!CSVStreamParser.supports(getDelimiter())) {
+            logger.log(Level.FINE, "Delimiter " + getDelimiter() + " can not be streamed, reading ranges as strings.");
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isParallel() {
+        return configuration.getRangeParallelism() > 1 && isStreaming();
+    }
+
+    private void setMaxByteLength(HttpResponse response) {
+        if(maxByteLength == -1) {
+            Header contentRangeHeader[] = response.getHeaders("Content-Range");
+            if(contentRangeHeader!=null && contentRangeHeader.length>0) {
+                String value = contentRangeHeader[0].getValue();
+                maxByteLength = Long.parseLong(value.substring(value.lastIndexOf("/") + 1));
+            }
+        }
+    }
+
+    private long getRangeLength() {
+        return getUpperByteRange(offset) - offset + 1;
+    }
+
+    private char getDelimiter() {
+        return param.getDataSet().getFileDescription().getDelimiter();
+    }
+
     private List<JSONObject> getRecords(String recordsAsString, int rows) throws IOException {
         List<JSONObject> data = new ArrayList<>();
         String completeRecordString = getTotalRecordsFromCurrentString(recordsAsString);
@@ -228,8 +406,13 @@ public class CSVReaderProcessor extends ReaderProcessor {
             Iterator<CSVRecord> iteratorCSVRecords = parser.iterator();
             if(hasMoreData(iteratorCSVRecords) && headerFields == null){
                 CSVRecord headerRecord = iteratorCSVRecords.next();
-                if(headerRecord!=null)
-                    headerFields = headerRecord;
+                if(headerRecord!=null) {
+                    List<String> fields = new ArrayList<>(headerRecord.size());
+                    for(String field : headerRecord) {
+                        fields.add(field);
+                    }
+                    setHeaderFields(fields);
+                }
             }
 
             while(hasMoreData(iteratorCSVRecords) && recordCount < rows){
@@ -308,8 +491,7 @@ public class CSVReaderProcessor extends ReaderProcessor {
     }
 
     private CSVParser getCSVParser(StringReader reader) throws IOException {
-        char delimFromCatalog = param.getDataSet().getFileDescription().getDelimiter();
-        CSVParser parser = CSVFormat.DEFAULT.withDelimiter(delimFromCatalog).withEscape('\\').parse(reader);
+        CSVParser parser = CSVFormat.DEFAULT.withDelimiter(getDelimiter()).withEscape('\\').parse(reader);
         return parser;
     }
 
@@ -329,16 +511,90 @@ public class CSVReaderProcessor extends ReaderProcessor {
     }
 
     private JSONObject getJsonObjectFromCSVRecord(CSVRecord csvRecord) {
-        JSONObject jsonRecord;
+        rangeRecordCount++;
         if(csvRecord.size() != headerFields.size()) {
             errorCount++;
             return null;
         }
-        jsonRecord = new JSONObject();
-        for(int i=0; i<headerFields.size(); i++) {
-            jsonRecord.put(headerFields.get(i),csvRecord.get(i));
+        Object[] values = new Object[recordColumns.length];
+        for(int c=0; c<recordColumns.length; c++) {
+            values[c] = csvRecord.get(recordColumns[c]);
         }
-        return jsonRecord;
+        return new IndexedRecord(recordHeader, values);
+    }
+
+    /**
+     * Typed cells are decoded straight from the
+     * bytes of {@code row}, a record with a
+     * malformed cell is counted as error.
+     */
+    private JSONObject getJsonObjectFromRow(CSVStreamParser.Row row) {
+        rangeRecordCount++;
+        if(row.size() != headerFields.size()) {
+            errorCount++;
+            return null;
+        }
+        Object[] values = new Object[recordColumns.length];
+        for(int c=0; c<recordColumns.length; c++) {
+            int i = recordColumns[c];
+            CSVValueDecoder decoder = columnDecoders == null ? null : columnDecoders[i];
+            Object value = decoder == null ? row.getString(i) : decoder.decode(row.getBytes(), row.getStart(i), row.getEnd(i));
+            if(value == CSVValueDecoder.INVALID) {
+                errorCount++;
+                return null;
+            }
+            values[c] = value;
+        }
+        return new IndexedRecord(recordHeader, values);
+    }
+
+    /**
+     * Records keep projected columns only, last
+     * one wins for a repeated column name.
+     */
+    private void setHeaderFields(List<String> fields) {
+        headerFields = fields;
+        recordColumns = null;
+        recordHeader = null;
+        if(fields == null) {
+            return;
+        }
+        Set<String> projectedFields = new HashSet<>();
+        for(String field : configuration.getProjectedFields()) {
+            projectedFields.add(field);
+            projectedFields.add(field.replace('.', '_'));
+        }
+        Map<String, Integer> columns = new LinkedHashMap<>();
+        for(int i=0; i<fields.size(); i++) {
+            if(projectedFields.isEmpty() || projectedFields.contains(fields.get(i))) {
+                columns.put(fields.get(i), i);
+            }
+        }
+        recordHeader = new IndexedRecord.Header(new ArrayList<>(columns.keySet()));
+        recordColumns = new int[columns.size()];
+        int c = 0;
+        for(int column : columns.values()) {
+            recordColumns[c++] = column;
+        }
+    }
+
+    /**
+     * @return columns the stream parser keeps,
+     * null keeps all of them.
+     */
+    private boolean[] getProjection() {
+        if(configuration.getProjectedFields().isEmpty()) {
+            return null;
+        }
+        boolean[] projection = new boolean[headerFields.size()];
+        for(int column : recordColumns) {
+            projection[column] = true;
+        }
+        return projection;
+    }
+
+    private List<SchemaField> getSchemaFields() {
+        return param.getDataSet().getFlattenedSchemaFields();
     }
 
     private List<Header> getHttpHeaders() {
@@ -0,0 +1,355 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Incremental CSV parser over UTF-8 byte streams.
+ * Parser state is kept between streams, so a file
+ * can be fed range by range and a record cut by the
+ * end of a range is completed by the next one.
+ *
+ * Follows {@link org.apache.commons.csv.CSVFormat#DEFAULT}
+ * with '\\' as escape, the way ranges are parsed
+ * otherwise: quoted cells may hold delimiters and
+ * line breaks, "" is a quote within quoted cells and
+ * empty lines are skipped. Cells of a record are
+ * collected as bytes and handed over as a {@link Row},
+ * so multi-byte characters split between ranges
+ * decode correctly and cells can be decoded without
+ * intermediate strings. Only ASCII delimiters are
+ * supported as the scan works on bytes.
+ *
+ * Once {@link #project(boolean[])} is set, cells of
+ * other columns are scanned for delimiters but their
+ * bytes are not kept, they read as empty cells.
+ */
+class CSVStreamParser {
+
+    @FunctionalInterface
+    interface RecordConsumer {
+        /**
+         * @param row valid only until this call returns.
+         */
+        void accept(Row row);
+    }
+
+    /**
+     * View over the cells of the record just parsed,
+     * unescaped UTF-8 bytes of cell {@code i} lie
+     * between {@link #getStart(int)} and {@link #getEnd(int)}.
+     * {@link #size()} counts projected out cells too.
+     */
+    final class Row {
+        private Row() {
+        }
+
+        int size() {
+            return cellCount;
+        }
+
+        byte[] getBytes() {
+            return record;
+        }
+
+        int getStart(int i) {
+            return i == 0 ? 0 : cellEnds[i - 1];
+        }
+
+        int getEnd(int i) {
+            return cellEnds[i];
+        }
+
+        String getString(int i) {
+            return new String(record, getStart(i), getEnd(i) - getStart(i), StandardCharsets.UTF_8);
+        }
+
+        List<String> toList() {
+            List<String> cells = new ArrayList<>(cellCount);
+            for (int i = 0; i < cellCount; i++) {
+                cells.add(getString(i));
+            }
+            return cells;
+        }
+    }
+
+    private enum State {
+        FIELD_START,
+        UNQUOTED,
+        QUOTED,
+        QUOTE_IN_QUOTED,
+        ESCAPE_UNQUOTED,
+        ESCAPE_QUOTED,
+        // After '\r', which may be followed by '\n'.
+        CARRIAGE_RETURN
+    }
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final byte QUOTE = '"';
+
+    private static final byte ESCAPE = '\\';
+
+    private static final byte CR = '\r';
+
+    private static final byte LF = '\n';
+
+    private final byte delimiter;
+
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+
+    // Bytes of the cells of current record.
+    private byte[] record = new byte[1024];
+
+    private int recordLength = 0;
+
+    private int[] cellEnds = new int[16];
+
+    private int cellCount = 0;
+
+    private final Row row = new Row();
+
+    private boolean[] projection;
+
+    // Whether bytes of the current cell are dropped.
+    private boolean skipCell = false;
+
+    private boolean recordStarted = false;
+
+    private State state = State.FIELD_START;
+
+    CSVStreamParser(char delimiter) {
+        if (!supports(delimiter)) {
+            throw new IllegalArgumentException("Only ASCII delimiters can be streamed: " + delimiter);
+        }
+        this.delimiter = (byte) delimiter;
+    }
+
+    static boolean supports(char delimiter) {
+        return delimiter < 0x80 && delimiter != QUOTE && delimiter != ESCAPE && delimiter != CR && delimiter != LF;
+    }
+
+    /**
+     * Keeps bytes of column {@code i} only when
+     * {@code columns[i]} is true, starting with the
+     * next record. Null keeps every column.
+     */
+    void project(boolean[] columns) {
+        this.projection = columns == null ? null : columns.clone();
+        if (!recordStarted) {
+            skipCell = isProjectedOut(0);
+        }
+    }
+
+    /**
+     * Parses {@code inputStream} to its end, passing
+     * every record completed on the way to {@code consumer}.
+     */
+    void parse(InputStream inputStream, RecordConsumer consumer) throws IOException {
+        int read;
+        while ((read = inputStream.read(chunk)) != -1) {
+            parse(chunk, 0, read, consumer);
+        }
+    }
+
+    /**
+     * Parses remaining bytes of {@code buffer}, heap
+     * buffers are scanned in place.
+     */
+    void parse(ByteBuffer buffer, RecordConsumer consumer) {
+        if (buffer.hasArray()) {
+            parse(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), consumer);
+            buffer.position(buffer.limit());
+            return;
+        }
+        while (buffer.hasRemaining()) {
+            int length = Math.min(chunk.length, buffer.remaining());
+            buffer.get(chunk, 0, length);
+            parse(chunk, 0, length, consumer);
+        }
+    }
+
+    private void parse(byte[] bytes, int from, int length, RecordConsumer consumer) {
+        for (int i = from, end = from + length; i < end; i++) {
+            parse(bytes[i], consumer);
+        }
+    }
+
+    /**
+     * Completes the last record once all
+     * streams of a file are parsed.
+     */
+    void finish(RecordConsumer consumer) {
+        if (state == State.ESCAPE_UNQUOTED || state == State.ESCAPE_QUOTED) {
+            append(ESCAPE);
+        }
+        endRecord(consumer);
+        state = State.FIELD_START;
+    }
+
+    private void parse(byte b, RecordConsumer consumer) {
+        switch (state) {
+            case CARRIAGE_RETURN:
+                state = State.FIELD_START;
+                if (b == LF) {
+                    return;
+                }
+                // fall through
+            case FIELD_START:
+                if (b == QUOTE) {
+                    recordStarted = true;
+                    state = State.QUOTED;
+                    return;
+                }
+                // fall through
+            case UNQUOTED:
+                if (b == delimiter) {
+                    recordStarted = true;
+                    endField();
+                    state = State.FIELD_START;
+                } else if (b == LF || b == CR) {
+                    endRecord(consumer);
+                    state = b == CR ? State.CARRIAGE_RETURN : State.FIELD_START;
+                } else if (b == ESCAPE) {
+                    recordStarted = true;
+                    state = State.ESCAPE_UNQUOTED;
+                } else {
+                    recordStarted = true;
+                    append(b);
+                    state = State.UNQUOTED;
+                }
+                return;
+            case QUOTED:
+                if (b == QUOTE) {
+                    state = State.QUOTE_IN_QUOTED;
+                } else if (b == ESCAPE) {
+                    state = State.ESCAPE_QUOTED;
+                } else {
+                    append(b);
+                }
+                return;
+            case QUOTE_IN_QUOTED:
+                if (b == QUOTE) {
+                    append(QUOTE);
+                    state = State.QUOTED;
+                } else if (b == delimiter) {
+                    endField();
+                    state = State.FIELD_START;
+                } else if (b == LF || b == CR) {
+                    endRecord(consumer);
+                    state = b == CR ? State.CARRIAGE_RETURN : State.FIELD_START;
+                } else {
+                    // Lenient on text after a closing quote.
+                    append(b);
+                    state = State.UNQUOTED;
+                }
+                return;
+            case ESCAPE_UNQUOTED:
+                unescape(b);
+                state = State.UNQUOTED;
+                return;
+            case ESCAPE_QUOTED:
+                unescape(b);
+                state = State.QUOTED;
+                return;
+            default:
+                throw new IllegalStateException("Unknown parser state " + state);
+        }
+    }
+
+    /**
+     * Same translation as commons-csv, unknown
+     * escapes keep the escape character.
+     */
+    private void unescape(byte b) {
+        switch (b) {
+            case 'r':
+                append(CR);
+                break;
+            case 'n':
+                append(LF);
+                break;
+            case 't':
+                append((byte) '\t');
+                break;
+            case 'b':
+                append((byte) '\b');
+                break;
+            case 'f':
+                append((byte) '\f');
+                break;
+            case CR:
+            case LF:
+            case '\t':
+            case '\b':
+            case '\f':
+            case QUOTE:
+            case ESCAPE:
+                append(b);
+                break;
+            default:
+                if (b != delimiter) {
+                    append(ESCAPE);
+                }
+                append(b);
+        }
+    }
+
+    private void append(byte b) {
+        if (skipCell) {
+            return;
+        }
+        if (recordLength == record.length) {
+            record = Arrays.copyOf(record, record.length * 2);
+        }
+        record[recordLength++] = b;
+    }
+
+    private void endField() {
+        if (cellCount == cellEnds.length) {
+            cellEnds = Arrays.copyOf(cellEnds, cellEnds.length * 2);
+        }
+        cellEnds[cellCount++] = recordLength;
+        skipCell = isProjectedOut(cellCount);
+    }
+
+    private boolean isProjectedOut(int column) {
+        return projection != null && (column >= projection.length || !projection[column]);
+    }
+
+    private void endRecord(RecordConsumer consumer) {
+        if (!recordStarted) {
+            // Empty line.
+            return;
+        }
+        endField();
+        recordStarted = false;
+        try {
+            consumer.accept(row);
+        } finally {
+            recordLength = 0;
+            cellCount = 0;
+            skipCell = isProjectedOut(0);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
+
+import com.adobe.platform.ecosystem.examples.catalog.model.DataType;
+import com.adobe.platform.ecosystem.examples.catalog.model.SchemaField;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes typed CSV cells straight from the UTF-8
+ * bytes of a {@link CSVStreamParser.Row}, without
+ * creating a string per cell. Empty cells decode to
+ * null, malformed ones to {@link #INVALID}.
+ *
+ * Dates are decoded from {@code yyyy-MM-dd} to days
+ * since epoch, the way parquet-IO writes dates.
+ */
+abstract class CSVValueDecoder {
+
+    /**
+     * Result of decoding a malformed cell.
+     */
+    static final Object INVALID = new Object();
+
+    static final CSVValueDecoder INTEGER = new CSVValueDecoder() {
+        @Override
+        Object decodeTrimmed(byte[] bytes, int from, int to) {
+            Object value = parseLong(bytes, from, to);
+            if (value == INVALID || (Long) value < Integer.MIN_VALUE || (Long) value > Integer.MAX_VALUE) {
+                return INVALID;
+            }
+            return ((Long) value).intValue();
+        }
+    };
+
+    static final CSVValueDecoder LONG = new CSVValueDecoder() {
+        @Override
+        Object decodeTrimmed(byte[] bytes, int from, int to) {
+            return parseLong(bytes, from, to);
+        }
+    };
+
+    static final CSVValueDecoder DOUBLE = new CSVValueDecoder() {
+        @Override
+        Object decodeTrimmed(byte[] bytes, int from, int to) {
+            return parseDouble(bytes, from, to);
+        }
+    };
+
+    static final CSVValueDecoder BOOLEAN = new CSVValueDecoder() {
+        @Override
+        Object decodeTrimmed(byte[] bytes, int from, int to) {
+            // Tools hand over booleans as 0 and 1 as well.
+            if (matches(bytes, from, to, "true") || matches(bytes, from, to, "1")) {
+                return Boolean.TRUE;
+            }
+            if (matches(bytes, from, to, "false") || matches(bytes, from, to, "0")) {
+                return Boolean.FALSE;
+            }
+            return INVALID;
+        }
+    };
+
+    static final CSVValueDecoder DATE = new CSVValueDecoder() {
+        @Override
+        Object decodeTrimmed(byte[] bytes, int from, int to) {
+            if (to - from != 10 || bytes[from + 4] != '-' || bytes[from + 7] != '-') {
+                return INVALID;
+            }
+            int year = parseDigits(bytes, from, from + 4);
+            int month = parseDigits(bytes, from + 5, from + 7);
+            int day = parseDigits(bytes, from + 8, from + 10);
+            if (year < 0 || month < 0 || day < 0) {
+                return INVALID;
+            }
+            try {
+                return (int) LocalDate.of(year, month, day).toEpochDay();
+            } catch (DateTimeException ex) {
+                return INVALID;
+            }
+        }
+    };
+
+    // Powers of ten exactly representable as doubles.
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * @return decoder for catalog type {@code type},
+     * null when cells are kept as strings.
+     */
+    static CSVValueDecoder of(DataType type) {
+        if (type == null) {
+            return null;
+        }
+        switch (type) {
+            case ByteType:
+            case ShortType:
+            case IntegerType:
+                return INTEGER;
+            case LongType:
+                return LONG;
+            case FloatType:
+            case DoubleType:
+                return DOUBLE;
+            case BooleanType:
+                return BOOLEAN;
+            case DateType:
+                return DATE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Resolves decoders of CSV columns once per header,
+     * matching header names to flattened catalog fields
+     * either as is or with '.' replaced by '_'.
+     * @return decoder per column, null entries for
+     * string columns and columns with no field.
+     */
+    static CSVValueDecoder[] compile(List<String> header, List<SchemaField> fields) {
+        Map<String, DataType> types = new HashMap<>();
+        if (fields != null) {
+            for (SchemaField field : fields) {
+                types.put(field.getName(), field.getType());
+                types.putIfAbsent(field.getName().replace(".", "_"), field.getType());
+            }
+        }
+        CSVValueDecoder[] decoders = new CSVValueDecoder[header.size()];
+        for (int i = 0; i < decoders.length; i++) {
+            decoders[i] = of(types.get(header.get(i)));
+        }
+        return decoders;
+    }
+
+    /**
+     * @return decoded value of bytes between {@code from}
+     * and {@code to}, null when empty or blank.
+     */
+    Object decode(byte[] bytes, int from, int to) {
+        while (from < to && bytes[from] == ' ') {
+            from++;
+        }
+        while (to > from && bytes[to - 1] == ' ') {
+            to--;
+        }
+        return from == to ? null : decodeTrimmed(bytes, from, to);
+    }
+
+    abstract Object decodeTrimmed(byte[] bytes, int from, int to);
+
+    /**
+     * Same as {@link Long#parseLong(String)}.
+     */
+    private static Object parseLong(byte[] bytes, int from, int to) {
+        boolean negative = bytes[from] == '-';
+        int i = negative || bytes[from] == '+' ? from + 1 : from;
+        if (i == to) {
+            return INVALID;
+        }
+        // Accumulating negatively reaches Long.MIN_VALUE.
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9 || value < limit / 10) {
+                return INVALID;
+            }
+            value *= 10;
+            if (value < limit + digit) {
+                return INVALID;
+            }
+            value -= digit;
+        }
+        return negative ? value : -value;
+    }
+
+    /**
+     * Plain decimals of up to 15 significant digits are
+     * computed exactly from their digits, others are
+     * left to {@link Double#parseDouble(String)}.
+     */
+    private static Object parseDouble(byte[] bytes, int from, int to) {
+        boolean negative = bytes[from] == '-';
+        int i = negative || bytes[from] == '+' ? from + 1 : from;
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+        boolean digit = false;
+        boolean simple = true;
+        for (; i < to && simple; i++) {
+            byte b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                digit = true;
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+                if (point) {
+                    scale++;
+                }
+            } else if (b == '.' && !point) {
+                point = true;
+            } else {
+                simple = false;
+            }
+        }
+        if (simple && digit && digits <= 15 && scale < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[scale];
+            return negative ? -value : value;
+        }
+        try {
+            return Double.parseDouble(new String(bytes, from, to - from, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException ex) {
+            return INVALID;
+        }
+    }
+
+    private static int parseDigits(byte[] bytes, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean matches(byte[] bytes, int from, int to, String value) {
+        if (to - from != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.toLowerCase(bytes[from + i]) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
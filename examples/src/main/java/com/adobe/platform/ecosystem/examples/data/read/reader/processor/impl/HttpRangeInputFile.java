@@ -0,0 +1,290 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
+
+import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
+import com.adobe.platform.ecosystem.examples.util.HttpClientUtil;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Parquet {@link InputFile} over HTTP {@code Range}
+ * requests against a file's processing href. Nothing
+ * is downloaded upfront: parquet reads the footer
+ * first and then only the column chunks of the row
+ * groups it reads, so projection and filtering cut
+ * the bytes transferred.
+ *
+ * A server ignoring {@code Range} answers with the
+ * whole file, which is then kept in memory and serves
+ * every later read, so it is downloaded once.
+ */
+class HttpRangeInputFile implements InputFile {
+
+    // Footer and its length are read in one request.
+    static final int TAIL_FETCH_SIZE = 64 * 1024;
+
+    // Small reads are rounded up to save round trips.
+    static final int MIN_FETCH_SIZE = 64 * 1024;
+
+    private static final Logger logger = Logger.getLogger(HttpRangeInputFile.class.getName());
+
+    private final HttpClientUtil httpClientUtil;
+
+    private final URI uri;
+
+    private final Header[] headers;
+
+    private long length;
+
+    // Tail fetched by any stream, shared as every reader starts with the footer.
+    private volatile byte[] tail;
+
+    private volatile long tailStart;
+
+    // Whole file, once a server ignored the range.
+    private volatile byte[] content;
+
+    private final AtomicLong bytesFetched = new AtomicLong();
+
+    private final AtomicLong requests = new AtomicLong();
+
+    /**
+     * @param length file length, fetched with
+     *               the first range when not
+     *               positive.
+     */
+    HttpRangeInputFile(HttpClientUtil httpClientUtil, URI uri, Header[] headers, long length) {
+        this.httpClientUtil = httpClientUtil;
+        this.uri = uri;
+        this.headers = headers;
+        this.length = length;
+    }
+
+    @Override
+    public synchronized long getLength() throws IOException {
+        if (length <= 0) {
+            fetch(0, 1);
+        }
+        return length;
+    }
+
+    @Override
+    public SeekableInputStream newStream() throws IOException {
+        final RangeInputStream stream = new RangeInputStream();
+        return new DelegatingSeekableInputStream(stream) {
+            @Override
+            public long getPos() {
+                return stream.position;
+            }
+
+            @Override
+            public void seek(long newPos) {
+                stream.position = newPos;
+            }
+        };
+    }
+
+    /**
+     * Fetches the tail holding the footer
+     * ahead of the first read.
+     */
+    void prefetchTail() throws IOException {
+        final long fileLength = getLength();
+        final long from = Math.max(0, fileLength - TAIL_FETCH_SIZE);
+        final byte[] bytes = fetch(from, fileLength);
+        tailStart = from;
+        tail = bytes;
+    }
+
+    /**
+     * Streams the whole file to {@code outputStream}
+     * with a single request.
+     */
+    void transferTo(OutputStream outputStream) throws IOException {
+        final HttpGet request = new HttpGet(uri);
+        request.setHeaders(headers);
+        final HttpResponse response;
+        try {
+            response = httpClientUtil.executeRequest(request, false);
+        } catch (ConnectorSDKException ex) {
+            throw new IOException("Error while fetching " + uri, ex);
+        }
+        try {
+            final InputStream content = response.getEntity().getContent();
+            final byte[] buffer = new byte[MIN_FETCH_SIZE];
+            int read;
+            while ((read = content.read(buffer)) >= 0) {
+                outputStream.write(buffer, 0, read);
+                bytesFetched.addAndGet(read);
+            }
+            requests.incrementAndGet();
+        } finally {
+            EntityUtils.consumeQuietly(response.getEntity());
+        }
+    }
+
+    long getBytesFetched() {
+        return bytesFetched.get();
+    }
+
+    long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Fetches bytes {@code [from, to)} of the file. A
+     * server ignoring the range answers with the whole
+     * file, which is kept for the reads to come.
+     */
+    private byte[] fetch(long from, long to) throws IOException {
+        final byte[] wholeFile = content;
+        if (wholeFile != null) {
+            return Arrays.copyOfRange(wholeFile, (int) from, (int) to);
+        }
+        final HttpGet request = new HttpGet(uri);
+        request.setHeaders(headers);
+        request.setHeader("Range", "bytes=" + from + "-" + (to - 1));
+        final HttpResponse response;
+        try {
+            response = httpClientUtil.executeRequest(request, false);
+        } catch (ConnectorSDKException ex) {
+            throw new IOException("Error while fetching bytes " + from + "-" + (to - 1) + " of " + uri, ex);
+        }
+        try {
+            final Header[] contentRange = response.getHeaders("Content-Range");
+            final boolean partial = response.getStatusLine().getStatusCode() == 206;
+            synchronized (this) {
+                if (length <= 0) {
+                    if (partial && contentRange != null && contentRange.length > 0) {
+                        final String value = contentRange[0].getValue();
+                        length = Long.parseLong(value.substring(value.lastIndexOf('/') + 1).trim());
+                    } else {
+                        length = response.getEntity().getContentLength();
+                    }
+                }
+            }
+            if (!partial) {
+                return fetchWholeFile(response, from, to);
+            }
+            final InputStream content = response.getEntity().getContent();
+            final byte[] bytes = new byte[(int) (to - from)];
+            int read = 0;
+            while (read < bytes.length) {
+                final int n = content.read(bytes, read, bytes.length - read);
+                if (n < 0) {
+                    throw new EOFException("Reached end of " + uri + " at " + (from + read));
+                }
+                read += n;
+            }
+            requests.incrementAndGet();
+            bytesFetched.addAndGet(bytes.length);
+            return bytes;
+        } finally {
+            // Releases the connection, drains unread content.
+            EntityUtils.consumeQuietly(response.getEntity());
+        }
+    }
+
+    private byte[] fetchWholeFile(HttpResponse response, long from, long to) throws IOException {
+        logger.log(Level.WARNING, "Range not supported by " + uri + ", reading the whole file once.");
+        final byte[] wholeFile = EntityUtils.toByteArray(response.getEntity());
+        if (wholeFile == null || wholeFile.length < to) {
+            throw new EOFException("Reached end of " + uri + " at " + (wholeFile == null ? 0 : wholeFile.length));
+        }
+        synchronized (this) {
+            length = wholeFile.length;
+        }
+        requests.incrementAndGet();
+        bytesFetched.addAndGet(wholeFile.length);
+        content = wholeFile;
+        return Arrays.copyOfRange(wholeFile, (int) from, (int) to);
+    }
+
+    /**
+     * Serves reads from the last fetched range and
+     * fetches a new one when a read falls outside.
+     */
+    private class RangeInputStream extends InputStream {
+        private long position = 0;
+
+        private byte[] window = new byte[0];
+
+        private long windowStart = 0;
+
+        @Override
+        public int read() throws IOException {
+            final byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            final long fileLength = getLength();
+            if (position >= fileLength) {
+                return -1;
+            }
+            if (position < windowStart || position >= windowStart + window.length) {
+                final byte[] sharedTail = tail;
+                final byte[] wholeFile = content;
+                if (wholeFile != null) {
+                    window = wholeFile;
+                    windowStart = 0;
+                } else if (sharedTail != null && position >= tailStart) {
+                    window = sharedTail;
+                    windowStart = tailStart;
+                } else if (position >= fileLength - TAIL_FETCH_SIZE) {
+                    windowStart = Math.max(0, Math.min(position, fileLength - TAIL_FETCH_SIZE));
+                    window = fetch(windowStart, fileLength);
+                    tailStart = windowStart;
+                    tail = window;
+                } else {
+                    windowStart = position;
+                    window = fetch(position, Math.min(fileLength, position + Math.max(len, MIN_FETCH_SIZE)));
+                }
+            }
+            final int offset = (int) (position - windowStart);
+            final int n = Math.min(len, window.length - offset);
+            System.arraycopy(window, offset, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            position += n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,510 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
+
+import org.json.simple.JSONObject;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Record of a CSV file holding its cells in a flat
+ * array, indexed by a {@link Header} shared by all
+ * records of the file, instead of in a hash table
+ * of its own. Reads as any other {@link JSONObject}.
+ *
+ * Replacing the value of a column keeps the record
+ * flat, any other change copies the cells into the
+ * underlying map first, including
+ * removals through its views.
+ */
+final class IndexedRecord extends JSONObject {
+
+    /**
+     * Immutable, distinct column names of a file.
+     */
+    static final class Header {
+        private final String[] names;
+
+        private final Map<String, Integer> positions;
+
+        Header(List<String> names) {
+            this.names = names.toArray(new String[names.size()]);
+            this.positions = new HashMap<>();
+            for (int i = 0; i < this.names.length; i++) {
+                if (positions.put(this.names[i], i) != null) {
+                    throw new IllegalArgumentException("Duplicate column " + this.names[i]);
+                }
+            }
+        }
+
+        int size() {
+            return names.length;
+        }
+
+        String getName(int i) {
+            return names[i];
+        }
+
+        int indexOf(Object name) {
+            Integer position = positions.get(name);
+            return position == null ? -1 : position;
+        }
+    }
+
+    private Header header;
+
+    // Null once copied into the underlying map.
+    private Object[] values;
+
+    /**
+     * @param values cells in the order of {@code header},
+     *               owned by the record from now on.
+     */
+    IndexedRecord(Header header, Object[] values) {
+        if (header.size() != values.length) {
+            throw new IllegalArgumentException("Expected " + header.size() + " values but got " + values.length);
+        }
+        this.header = header;
+        this.values = values;
+    }
+
+    boolean isIndexed() {
+        return values != null;
+    }
+
+    private void copyToMap() {
+        if (values == null) {
+            return;
+        }
+        Header copiedHeader = header;
+        Object[] copiedValues = values;
+        header = null;
+        values = null;
+        for (int i = 0; i < copiedValues.length; i++) {
+            super.put(copiedHeader.getName(i), copiedValues[i]);
+        }
+    }
+
+    @Override
+    public int size() {
+        return isIndexed() ? values.length : super.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (isIndexed()) {
+            int i = header.indexOf(key);
+            return i < 0 ? null : values[i];
+        }
+        return super.get(key);
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        if (isIndexed()) {
+            int i = header.indexOf(key);
+            return i < 0 ? defaultValue : values[i];
+        }
+        return super.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return isIndexed() ? header.indexOf(key) >= 0 : super.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        if (isIndexed()) {
+            for (Object cell : values) {
+                if (Objects.equals(cell, value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return super.containsValue(value);
+    }
+
+    @Override
+    public Object put(Object key, Object value) {
+        if (isIndexed()) {
+            int i = header.indexOf(key);
+            if (i >= 0) {
+                Object previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+            copyToMap();
+        }
+        return super.put(key, value);
+    }
+
+    @Override
+    public void putAll(Map map) {
+        copyToMap();
+        super.putAll(map);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        copyToMap();
+        return super.remove(key);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        copyToMap();
+        return super.remove(key, value);
+    }
+
+    @Override
+    public void clear() {
+        header = null;
+        values = null;
+        super.clear();
+    }
+
+    @Override
+    public Object putIfAbsent(Object key, Object value) {
+        copyToMap();
+        return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public boolean replace(Object key, Object oldValue, Object newValue) {
+        copyToMap();
+        return super.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public Object replace(Object key, Object value) {
+        copyToMap();
+        return super.replace(key, value);
+    }
+
+    @Override
+    public void replaceAll(BiFunction function) {
+        copyToMap();
+        super.replaceAll(function);
+    }
+
+    @Override
+    public Object computeIfAbsent(Object key, Function mappingFunction) {
+        copyToMap();
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public Object computeIfPresent(Object key, BiFunction remappingFunction) {
+        copyToMap();
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public Object compute(Object key, BiFunction remappingFunction) {
+        copyToMap();
+        return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public Object merge(Object key, Object value, BiFunction remappingFunction) {
+        copyToMap();
+        return super.merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public void forEach(BiConsumer action) {
+        if (isIndexed()) {
+            for (int i = 0; i < values.length; i++) {
+                action.accept(header.getName(i), values[i]);
+            }
+            return;
+        }
+        super.forEach(action);
+    }
+
+    @Override
+    public Set entrySet() {
+        return isIndexed() ? new EntrySet() : super.entrySet();
+    }
+
+    @Override
+    public Set keySet() {
+        return isIndexed() ? new KeySet() : super.keySet();
+    }
+
+    @Override
+    public Collection values() {
+        return isIndexed() ? new Values() : super.values();
+    }
+
+    @Override
+    public Object clone() {
+        IndexedRecord clone = (IndexedRecord) super.clone();
+        if (isIndexed()) {
+            clone.values = values.clone();
+        }
+        return clone;
+    }
+
+    /**
+     * Serialized as a plain {@link JSONObject},
+     * the underlying map may be empty.
+     */
+    private Object writeReplace() {
+        JSONObject record = new JSONObject();
+        record.putAll(this);
+        return record;
+    }
+
+    /**
+     * Reads and writes through the record, so it
+     * keeps working once cells are copied to the map.
+     */
+    private final class Entry implements Map.Entry<Object, Object> {
+        private final Header names;
+
+        private final Object[] cells;
+
+        private final int i;
+
+        private Entry(Header names, Object[] cells, int i) {
+            this.names = names;
+            this.cells = cells;
+            this.i = i;
+        }
+
+        @Override
+        public Object getKey() {
+            return names.getName(i);
+        }
+
+        @Override
+        public Object getValue() {
+            // Removed entries keep their last value.
+            return isIndexed() || !containsKey(getKey()) ? cells[i] : IndexedRecord.this.get(getKey());
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            return IndexedRecord.this.put(getKey(), value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return Objects.equals(getKey(), entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    /**
+     * Iterates the cells as they were when it was
+     * created. Removing an entry copies the cells
+     * to the map first.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<Object, Object>> {
+        private final Header names = header;
+
+        private final Object[] cells = values;
+
+        private int next = 0;
+
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return next < cells.length;
+        }
+
+        @Override
+        public Map.Entry<Object, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return new Entry(names, cells, last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            IndexedRecord.this.remove(names.getName(last));
+            last = -1;
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<Object, Object>> {
+        @Override
+        @SuppressWarnings("unchecked")
+        public Iterator<Map.Entry<Object, Object>> iterator() {
+            return isIndexed() ? new EntryIterator() : IndexedRecord.super.entrySet().iterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return containsKey(entry.getKey()) && Objects.equals(get(entry.getKey()), entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            IndexedRecord.this.remove(((Map.Entry<?, ?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            IndexedRecord.this.clear();
+        }
+
+        @Override
+        public int size() {
+            return IndexedRecord.this.size();
+        }
+    }
+
+    private final class KeySet extends AbstractSet<Object> {
+        @Override
+        @SuppressWarnings("unchecked")
+        public Iterator<Object> iterator() {
+            if (!isIndexed()) {
+                return IndexedRecord.super.keySet().iterator();
+            }
+            Iterator<Map.Entry<Object, Object>> entries = new EntryIterator();
+            return new Iterator<Object>() {
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public Object next() {
+                    return entries.next().getKey();
+                }
+
+                @Override
+                public void remove() {
+                    entries.remove();
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return containsKey(key);
+        }
+
+        @Override
+        public boolean remove(Object key) {
+            if (!containsKey(key)) {
+                return false;
+            }
+            IndexedRecord.this.remove(key);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            IndexedRecord.this.clear();
+        }
+
+        @Override
+        public int size() {
+            return IndexedRecord.this.size();
+        }
+    }
+
+    private final class Values extends AbstractCollection<Object> {
+        @Override
+        @SuppressWarnings("unchecked")
+        public Iterator<Object> iterator() {
+            if (!isIndexed()) {
+                return IndexedRecord.super.values().iterator();
+            }
+            Iterator<Map.Entry<Object, Object>> entries = new EntryIterator();
+            return new Iterator<Object>() {
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public Object next() {
+                    return entries.next().getValue();
+                }
+
+                @Override
+                public void remove() {
+                    entries.remove();
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object value) {
+            return containsValue(value);
+        }
+
+        @Override
+        public void clear() {
+            IndexedRecord.this.clear();
+        }
+
+        @Override
+        public int size() {
+            return IndexedRecord.this.size();
+        }
+    }
+}
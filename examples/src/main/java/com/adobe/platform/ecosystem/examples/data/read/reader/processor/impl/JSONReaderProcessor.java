@@ -16,11 +16,11 @@
  */
 package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-import java.util.Stack;
 import java.util.logging.Logger;
 
 import org.apache.http.Header;
@@ -28,13 +28,12 @@ import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.utils.URIBuilder;
-import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 
 import com.adobe.platform.ecosystem.examples.constants.SDKConstants;
 import com.adobe.platform.ecosystem.examples.data.access.api.DataAccessService;
 import com.adobe.platform.ecosystem.examples.data.access.model.DataSetFileProcessingEntity;
+import com.adobe.platform.ecosystem.examples.data.read.configuration.TextReaderConfiguration;
 import com.adobe.platform.ecosystem.examples.data.read.reader.processor.api.ReaderProcessor;
 import com.adobe.platform.ecosystem.examples.data.wiring.DataWiringParam;
 import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
@@ -53,19 +52,25 @@ public class JSONReaderProcessor extends ReaderProcessor{
     private static final Logger logger = Logger.getLogger(JSONReaderProcessor.class.getName());
     private Boolean isEndOfFile = false;
     private int noOfRecordsFetched = 0;
-    private static final int range = 8*1024*1024; // Setting response content length to 1 MB
-    private int offset = 0;
-    private int limit = range;
-    private String previousBuffer = "";
+    private final ByteRangeSizer rangeSizer;
+    private long offset = 0;
+    private long limit = 0; // Set from rangeSizer for every range.
+    private JSONStreamParser streamParser;
     private List<JSONObject> bufferedRecords;
     private int bufferPointer = 0;
     private int requestedRows = 0;
+    private long responseNanos;
 
     public JSONReaderProcessor(DataAccessService das, HttpClient httpClient, DataWiringParam param, List<String> dataSetFileSet, List<DataSetFileProcessingEntity> dataSetFileProcessingSet) throws ConnectorSDKException {
+        this(das, httpClient, param, dataSetFileSet, dataSetFileProcessingSet, TextReaderConfiguration.defaults());
+    }
+
+    public JSONReaderProcessor(DataAccessService das, HttpClient httpClient, DataWiringParam param, List<String> dataSetFileSet, List<DataSetFileProcessingEntity> dataSetFileProcessingSet, TextReaderConfiguration configuration) throws ConnectorSDKException {
         super(das,param,dataSetFileSet,dataSetFileProcessingSet);
         this.param = param;
         this.httpClient = httpClient == null ? HttpClientUtil.getHttpClient() : httpClient;
         httpClientUtil = new HttpClientUtil(httpClient);
+        this.rangeSizer = new ByteRangeSizer(configuration);
     }
 
     @Override
@@ -93,7 +98,6 @@ public class JSONReaderProcessor extends ReaderProcessor{
         if(bufferedRecords==null && isEndOfFile) {
             prepareAndCheckEntitiesIndex();
             offset = 0;
-            limit = range;
         }
 
         // Will go into recursion if there are still DSF's to be read
@@ -123,40 +127,42 @@ public class JSONReaderProcessor extends ReaderProcessor{
         return records;
     }
 
+    /**
+     * Ranges are parsed straight off the response
+     * stream by a parser kept for the whole file,
+     * so records cut by the end of a range are
+     * completed by the next one.
+     */
     private List<JSONObject> readFromProcessingEntity(DataSetFileProcessingEntity dataSetFileProcessingEntity,int rows) throws ConnectorSDKException {
         try {
-            String expression = "";
-            String jsonObjectExpression = "";
-            String jsonObjectString = "";
             isEndOfFile = false;
+            if(offset == 0 || streamParser == null) {
+                streamParser = new JSONStreamParser();
+            }
             List<JSONObject> records = new ArrayList<JSONObject>();
+            JSONStreamParser.RecordConsumer consumer = record -> {
+                noOfRecordsFetched++;
+                if(records.size()<rows)
+                    records.add(record);
+                else{// Putting extra fetched records to leftOverRecords variable, which will be used in subsequent calls, if any.
+                    if(bufferedRecords == null)
+                        bufferedRecords = new ArrayList<JSONObject>();
+                    bufferedRecords.add(record);
+                }
+            };
             while(noOfRecordsFetched < requestedRows && !isEndOfFile){
                 String href = dataSetFileProcessingEntity.getHref();
-                expression = previousBuffer + readEntity(href);
-                if(expression.startsWith("["))
-                    jsonObjectExpression = expression.substring(1);
-                else
-                    jsonObjectExpression = expression;
-                int validJSONObjectClosingIndex = getValidJsonEndIndexFromExpression(jsonObjectExpression);
+                int recordsBefore = noOfRecordsFetched;
+                limit = offset + rangeSizer.getRangeSize(requestedRows - noOfRecordsFetched);
+                long start = System.nanoTime();
+                readEntity(href, consumer);
+                long latency = responseNanos - start;
+                rangeSizer.onRange(limit - offset + 1, noOfRecordsFetched - recordsBefore, latency, System.nanoTime() - responseNanos);
                 offset = limit+1;
-                limit = limit+range;
-                jsonObjectString = jsonObjectExpression.substring(0,validJSONObjectClosingIndex+1);
-                jsonObjectString = "["+jsonObjectString+"]";
-                JSONParser parser = new JSONParser();
-
-                JSONArray jsonArray = (JSONArray) parser.parse(jsonObjectString);
-
-                if(jsonArray!=null && jsonArray.size()>0){
-                    for(int k = 0; k<jsonArray.size(); k++){
-                        if(records.size()<rows)
-                            records.add((JSONObject) jsonArray.get(k));
-                        else{// Putting extra fetched records to leftOverRecords variable, which will be used in subsequent calls, if any.
-                            if(bufferedRecords == null)
-                                bufferedRecords = new ArrayList<JSONObject>();
-                            bufferedRecords.add((JSONObject) jsonArray.get(k));
-                        }
-                    }
-                }
+            }
+            if(isEndOfFile) {
+                streamParser.finish();
+                streamParser = null;
             }
             return records;
         } catch(Exception e) {
@@ -172,82 +178,65 @@ public class JSONReaderProcessor extends ReaderProcessor{
         }
     }
 
+    /**
+     * @deprecated Ranges are parsed by
+     * {@link JSONStreamParser}; kept for
+     * callers of the old bracket scan.
+     */
+    @Deprecated
     public static boolean isOpenParenthesis(char c)
     {
-        if ( c=='(' || c=='[' || c=='{' )
-            return true;
-        else
-            return false;
+        return c=='(' || c=='[' || c=='{';
     }
 
+    /**
+     * @deprecated Ranges are parsed by
+     * {@link JSONStreamParser}; kept for
+     * callers of the old bracket scan.
+     */
+    @Deprecated
     public static boolean isClosedParenthesis(char c)
     {
-        if ( c==')' || c==']' || c=='}' )
-            return true;
-        else
-            return false;
+        return c==')' || c==']' || c=='}';
     }
 
     private static boolean isParenthesesMatched(char open,char closed)
     {
-        if ( open=='(' && closed==')' )
-            return true;
-        else if ( open=='[' && closed==']' )
-            return true;
-        else if ( open=='{' && closed=='}' )
-            return true;
-        else
-            return false;
+        return (open=='(' && closed==')') || (open=='[' && closed==']') || (open=='{' && closed=='}');
     }
 
-    @SuppressWarnings({ "rawtypes", "unchecked" })
+    /**
+     * Returns the index of the last top level
+     * closing bracket in {@code exp}, or 0 if
+     * there is none. Unlike before, this no
+     * longer changes the reader's state.
+     *
+     * @deprecated Ranges are parsed by
+     * {@link JSONStreamParser}; kept for
+     * callers of the old bracket scan.
+     */
+    @Deprecated
     public int getValidJsonEndIndexFromExpression(String exp){
         int validJSONObjectClosingIndex = 0;
-        previousBuffer = "";
-        Stack s = new Stack();
-        int i;
-        char current_char;
-        Character c;
-        char c1;
-
-        for ( i=0; i < exp.length(); i++ )
-        {
-            current_char=exp.charAt( i );
-            if (isOpenParenthesis(current_char ))
-            {
-                c=new Character( current_char );
-                s.push( c );
-            }
-            else if ( isClosedParenthesis(current_char))
-            {
-                if ( s.isEmpty() )
-                {
+        Deque<Character> s = new ArrayDeque<>();
+        for (int i = 0; i < exp.length(); i++) {
+            char current = exp.charAt(i);
+            if (isOpenParenthesis(current)) {
+                s.push(current);
+            } else if (isClosedParenthesis(current)) {
+                if (s.isEmpty())
+                    break;
+                char open = s.pop();
+                if (s.isEmpty())
+                    validJSONObjectClosingIndex = i;
+                if (!isParenthesesMatched(open, current))
                     break;
-                }
-                else
-                {
-                    c=(Character)s.pop();
-                    if(s.size() == 0){
-                        noOfRecordsFetched++;
-                        validJSONObjectClosingIndex = i;
-                    }
-                    c1=c.charValue();
-                    if ( !isParenthesesMatched( c1, current_char ) )
-                    {
-                        break;
-                    }
-                }
             }
         }
-
-        if(validJSONObjectClosingIndex+1<exp.length()){
-            previousBuffer = exp.substring(validJSONObjectClosingIndex+2);
-        }
         return validJSONObjectClosingIndex;
     }
 
-    private String readEntity(String href) throws ConnectorSDKException {
-        String responseBody = "";
+    private void readEntity(String href, JSONStreamParser.RecordConsumer consumer) throws ConnectorSDKException {
         try{
             URIBuilder builder = new URIBuilder(href);
 
@@ -256,15 +245,12 @@ public class JSONReaderProcessor extends ReaderProcessor{
             request.setHeader("Range","bytes="+offset+"-"+limit);
             httpClientUtil.addHeader(request, param.getAuthToken(), param.getImsOrg(), SDKConstants.CONNECTION_HEADER_JSON_CONTENT);
             HttpResponse response = httpClientUtil.executeRequest(request, false);
-            //TODO Check for error code in response
-            StringBuffer result = new StringBuffer();
-            BufferedReader rd = new BufferedReader(new InputStreamReader(response.getEntity().getContent()));
-
-            String line = "";
-            while ((line = rd.readLine()) != null) {
-                result.append(line);
+            responseNanos = System.nanoTime();
+            if(response.getEntity() != null) {
+                try (InputStream inputStream = response.getEntity().getContent()) {
+                    streamParser.parse(inputStream, consumer);
+                }
             }
-            responseBody = result.toString();
             Header contentRangeHeader[] = response.getHeaders("Content-Range");
             if(contentRangeHeader!=null && contentRangeHeader.length>0)
                 isEndOfFile = checkEndOfFile(contentRangeHeader[0].getValue().toString());
@@ -272,7 +258,6 @@ public class JSONReaderProcessor extends ReaderProcessor{
             logger.severe("Error in readEntity: " + e.getMessage());
             throw new ConnectorSDKException(e.getMessage(), e);
         }
-        return responseBody;
     }
 
     private Boolean checkEndOfFile(String contentRange) throws ConnectorSDKException{
@@ -282,14 +267,15 @@ public class JSONReaderProcessor extends ReaderProcessor{
             String rangeString = contentRange.substring(6);
             String rangeStringArray[] = rangeString.split("/");
             String rangeArray[] = rangeStringArray[0].split("-");
-            int startRange = Integer.parseInt(rangeArray[0]);
-            int endRange = Integer.parseInt(rangeArray[1]);
-            int totalBytesAvailableInFile = Integer.parseInt(rangeStringArray[1]);
+            long startRange = Long.parseLong(rangeArray[0]);
+            long endRange = Long.parseLong(rangeArray[1]);
+            long totalBytesAvailableInFile = Long.parseLong(rangeStringArray[1]);
+            // Ranges are 0th index based, last byte is at total - 1.
             if(totalBytesAvailableInFile<startRange)
                 isEndOfFileFlag =  true;
-            else if(endRange<totalBytesAvailableInFile)
+            else if(endRange<totalBytesAvailableInFile-1)
                 isEndOfFileFlag = false;
-            else if(endRange>=totalBytesAvailableInFile)
+            else
                 isEndOfFileFlag = true;
         }
         catch(Exception e){
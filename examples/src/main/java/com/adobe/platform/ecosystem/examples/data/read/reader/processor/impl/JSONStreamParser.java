@@ -0,0 +1,424 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Incremental JSON parser over UTF-8 byte streams,
+ * emitting every top level object as a record once
+ * its closing brace is read. Records may form a
+ * single top level array or follow one another, eg:
+ * one per line. Parser state is kept between
+ * streams, so a file can be fed range by range
+ * and a record cut by the end of a range is
+ * completed by the next one.
+ *
+ * Values are built as json-simple would parse them:
+ * {@link JSONObject}, {@link JSONArray}, {@link String},
+ * {@link Long}, {@link Double}, {@link Boolean} and null.
+ */
+class JSONStreamParser {
+
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(JSONObject record);
+    }
+
+    private enum State {
+        VALUE,
+        STRING,
+        STRING_ESCAPE,
+        STRING_UNICODE,
+        NUMBER,
+        LITERAL
+    }
+
+    /**
+     * Object or array being built, with the
+     * key of the object member being read.
+     */
+    private static final class Container {
+        private final JSONObject object;
+
+        private final JSONArray array;
+
+        private String key;
+
+        // Whether ':' after the key was read.
+        private boolean colon;
+
+        // Whether a value is expected, ie: after the opening bracket or ','.
+        private boolean expectValue = true;
+
+        private Container(JSONObject object, JSONArray array) {
+            this.object = object;
+            this.array = array;
+        }
+    }
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+
+    private final Deque<Container> containers = new ArrayDeque<>();
+
+    // Bytes of the string, number or literal being read.
+    private byte[] token = new byte[256];
+
+    private int tokenLength = 0;
+
+    // Text of a string with escapes, bytes before an escape are decoded into it.
+    private final StringBuilder text = new StringBuilder();
+
+    private int unicodeDigits = 0;
+
+    private int unicode = 0;
+
+    private State state = State.VALUE;
+
+    // Whether records are elements of a top level array.
+    private boolean recordArray = false;
+
+    private boolean started = false;
+
+    private long position = 0;
+
+    /**
+     * Parses {@code inputStream} to its end, passing
+     * every record completed on the way to {@code consumer}.
+     */
+    void parse(InputStream inputStream, RecordConsumer consumer) throws IOException {
+        int read;
+        while ((read = inputStream.read(chunk)) != -1) {
+            parse(chunk, 0, read, consumer);
+        }
+    }
+
+    /**
+     * Parses remaining bytes of {@code buffer}, heap
+     * buffers are scanned in place.
+     */
+    void parse(ByteBuffer buffer, RecordConsumer consumer) throws IOException {
+        if (buffer.hasArray()) {
+            parse(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), consumer);
+            buffer.position(buffer.limit());
+            return;
+        }
+        while (buffer.hasRemaining()) {
+            int length = Math.min(chunk.length, buffer.remaining());
+            buffer.get(chunk, 0, length);
+            parse(chunk, 0, length, consumer);
+        }
+    }
+
+    /**
+     * Checks the file ended between records
+     * once all of its streams are parsed.
+     */
+    void finish() throws IOException {
+        if (state != State.VALUE || !containers.isEmpty()) {
+            throw error("Unexpected end of JSON within a record");
+        }
+    }
+
+    private void parse(byte[] bytes, int from, int length, RecordConsumer consumer) throws IOException {
+        for (int i = from, end = from + length; i < end; i++, position++) {
+            parse(bytes[i], consumer);
+        }
+    }
+
+    private void parse(byte b, RecordConsumer consumer) throws IOException {
+        switch (state) {
+            case STRING:
+                if (b == '"') {
+                    state = State.VALUE;
+                    onValue(getString(), consumer);
+                } else if (b == '\\') {
+                    flushText();
+                    state = State.STRING_ESCAPE;
+                } else {
+                    append(b);
+                }
+                return;
+            case STRING_ESCAPE:
+                unescape(b);
+                return;
+            case STRING_UNICODE:
+                int digit = Character.digit(b, 16);
+                if (digit < 0) {
+                    throw error("Invalid unicode escape");
+                }
+                unicode = unicode << 4 | digit;
+                if (++unicodeDigits == 4) {
+                    text.append((char) unicode);
+                    state = State.STRING;
+                }
+                return;
+            case NUMBER:
+                if ((b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E') {
+                    append(b);
+                    return;
+                }
+                state = State.VALUE;
+                onValue(getNumber(), consumer);
+                break;
+            case LITERAL:
+                if (b >= 'a' && b <= 'z') {
+                    append(b);
+                    return;
+                }
+                state = State.VALUE;
+                onValue(getLiteral(), consumer);
+                break;
+            default:
+        }
+        // Byte ending a number or literal is read as structure.
+        parseStructure(b, consumer);
+    }
+
+    private void parseStructure(byte b, RecordConsumer consumer) throws IOException {
+        switch (b) {
+            case ' ':
+            case '\t':
+            case '\r':
+            case '\n':
+                return;
+            case '"':
+                startToken(State.STRING);
+                return;
+            case '{':
+                startContainer(new Container(new JSONObject(), null));
+                return;
+            case '[':
+                if (containers.isEmpty() && !started && !recordArray) {
+                    recordArray = true;
+                    return;
+                }
+                startContainer(new Container(null, new JSONArray()));
+                return;
+            case '}':
+            case ']':
+                endContainer(b, consumer);
+                return;
+            case ':':
+                Container container = containers.peek();
+                if (container == null || container.object == null || container.key == null || container.colon) {
+                    throw error("Unexpected ':'");
+                }
+                container.colon = true;
+                return;
+            case ',':
+                container = containers.peek();
+                if (container != null) {
+                    if (container.expectValue || container.key != null) {
+                        throw error("Unexpected ','");
+                    }
+                    container.expectValue = true;
+                }
+                // Commas between records are skipped.
+                return;
+            default:
+                if ((b >= '0' && b <= '9') || b == '-') {
+                    expectValue();
+                    startToken(State.NUMBER);
+                    append(b);
+                } else if (b >= 'a' && b <= 'z') {
+                    expectValue();
+                    startToken(State.LITERAL);
+                    append(b);
+                } else {
+                    throw error("Unexpected character '" + (char) (b & 0xFF) + "'");
+                }
+        }
+    }
+
+    private void startToken(State tokenState) {
+        tokenLength = 0;
+        text.setLength(0);
+        state = tokenState;
+    }
+
+    private void startContainer(Container container) throws IOException {
+        expectValue();
+        started = true;
+        containers.push(container);
+    }
+
+    private void endContainer(byte b, RecordConsumer consumer) throws IOException {
+        Container container = containers.peek();
+        if (container == null) {
+            if (b == ']' && recordArray) {
+                recordArray = false;
+                return;
+            }
+            throw error("Unexpected '" + (char) b + "'");
+        }
+        if ((b == '}') != (container.object != null)) {
+            throw error("Mismatched '" + (char) b + "'");
+        }
+        // Empty containers expect a value but have none.
+        boolean empty = container.object != null ? container.object.isEmpty() : container.array.isEmpty();
+        if (container.key != null || (container.expectValue && !empty)) {
+            throw error("Unexpected '" + (char) b + "'");
+        }
+        containers.pop();
+        onValue(container.object != null ? container.object : container.array, consumer);
+    }
+
+    /**
+     * Checks a value may start here: a member
+     * value after ':' or an array element.
+     */
+    private void expectValue() throws IOException {
+        Container container = containers.peek();
+        if (container == null) {
+            return;
+        }
+        if (container.object != null ? !container.colon : !container.expectValue) {
+            throw error("Unexpected value");
+        }
+    }
+
+    private void onValue(Object value, RecordConsumer consumer) throws IOException {
+        Container container = containers.peek();
+        if (container == null) {
+            if (!(value instanceof JSONObject)) {
+                throw error("Expected a JSON object record");
+            }
+            consumer.accept((JSONObject) value);
+            return;
+        }
+        if (container.array != null) {
+            if (!container.expectValue) {
+                throw error("Expected ',' between array elements");
+            }
+            container.array.add(value);
+            container.expectValue = false;
+        } else if (container.key == null) {
+            if (!(value instanceof String) || !container.expectValue) {
+                throw error("Expected an object key");
+            }
+            container.key = (String) value;
+        } else {
+            if (!container.colon) {
+                throw error("Expected ':' after object key");
+            }
+            container.object.put(container.key, value);
+            container.key = null;
+            container.colon = false;
+            container.expectValue = false;
+        }
+    }
+
+    private void unescape(byte b) throws IOException {
+        state = State.STRING;
+        switch (b) {
+            case '"':
+            case '\\':
+            case '/':
+                text.append((char) b);
+                break;
+            case 'b':
+                text.append('\b');
+                break;
+            case 'f':
+                text.append('\f');
+                break;
+            case 'n':
+                text.append('\n');
+                break;
+            case 'r':
+                text.append('\r');
+                break;
+            case 't':
+                text.append('\t');
+                break;
+            case 'u':
+                unicode = 0;
+                unicodeDigits = 0;
+                state = State.STRING_UNICODE;
+                break;
+            default:
+                throw error("Invalid escape '\\" + (char) (b & 0xFF) + "'");
+        }
+    }
+
+    private void append(byte b) {
+        if (tokenLength == token.length) {
+            token = Arrays.copyOf(token, token.length * 2);
+        }
+        token[tokenLength++] = b;
+    }
+
+    /**
+     * Escapes are ASCII, so bytes before
+     * one end on a character boundary.
+     */
+    private void flushText() {
+        text.append(new String(token, 0, tokenLength, StandardCharsets.UTF_8));
+        tokenLength = 0;
+    }
+
+    private String getString() {
+        if (text.length() == 0) {
+            return new String(token, 0, tokenLength, StandardCharsets.UTF_8);
+        }
+        flushText();
+        return text.toString();
+    }
+
+    private Object getNumber() throws IOException {
+        String number = new String(token, 0, tokenLength, StandardCharsets.US_ASCII);
+        try {
+            for (int i = 0; i < tokenLength; i++) {
+                if (token[i] == '.' || token[i] == 'e' || token[i] == 'E') {
+                    return Double.valueOf(number);
+                }
+            }
+            return Long.valueOf(number);
+        } catch (NumberFormatException ex) {
+            throw error("Invalid number " + number);
+        }
+    }
+
+    private Object getLiteral() throws IOException {
+        String literal = new String(token, 0, tokenLength, StandardCharsets.US_ASCII);
+        switch (literal) {
+            case "true":
+                return Boolean.TRUE;
+            case "false":
+                return Boolean.FALSE;
+            case "null":
+                return null;
+            default:
+                throw error("Invalid literal " + literal);
+        }
+    }
+
+    private IOException error(String message) {
+        return new IOException(message + " at byte " + position);
+    }
+}
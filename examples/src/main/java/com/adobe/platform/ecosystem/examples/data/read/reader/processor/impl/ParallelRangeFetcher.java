@@ -0,0 +1,170 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
+
+import com.adobe.platform.ecosystem.examples.constants.SDKConstants;
+import com.adobe.platform.ecosystem.examples.data.wiring.DataWiringParam;
+import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
+import com.adobe.platform.ecosystem.examples.util.HttpClientUtil;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.util.EntityUtils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fetches consecutive byte ranges of a file over
+ * several connections, keeping up to parallelism
+ * ranges in flight, and hands them over in file
+ * order. Ranges are kept in memory until taken,
+ * so at most parallelism ranges are buffered.
+ */
+class ParallelRangeFetcher {
+
+    private final HttpClientUtil httpClientUtil;
+
+    private final DataWiringParam param;
+
+    private final int parallelism;
+
+    private final Deque<Future<byte[]>> inFlight = new ArrayDeque<>();
+
+    private ExecutorService executor;
+
+    private String href;
+
+    private long nextOffset;
+
+    private long length;
+
+    private long byteLength;
+
+    ParallelRangeFetcher(HttpClientUtil httpClientUtil, DataWiringParam param, int parallelism) {
+        this.httpClientUtil = httpClientUtil;
+        this.param = param;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Starts fetching ranges of {@code byteLength + 1}
+     * bytes from {@code offset} to the end of file,
+     * same as ranges read sequentially.
+     */
+    void open(String href, long offset, long length, long byteLength) {
+        close();
+        this.href = href;
+        this.nextOffset = offset;
+        this.length = length;
+        this.byteLength = byteLength;
+        fill();
+    }
+
+    boolean isOpen() {
+        return href != null;
+    }
+
+    /**
+     * @return bytes of the next range, waiting
+     * for it if needed, null once file is done.
+     */
+    byte[] next() throws ConnectorSDKException {
+        Future<byte[]> range = inFlight.poll();
+        if(range == null) {
+            return null;
+        }
+        fill();
+        try {
+            return range.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConnectorSDKException("Interrupted while fetching range of " + href, ex);
+        } catch (ExecutionException ex) {
+            if(ex.getCause() instanceof ConnectorSDKException) {
+                throw (ConnectorSDKException) ex.getCause();
+            }
+            throw new ConnectorSDKException("Error while fetching range of " + href, ex.getCause());
+        }
+    }
+
+    /**
+     * Cancels ranges not taken yet.
+     */
+    void close() {
+        for(Future<byte[]> range : inFlight) {
+            range.cancel(true);
+        }
+        inFlight.clear();
+        href = null;
+    }
+
+    /**
+     * Closes the fetcher and stops its threads.
+     * Fetcher may still be reopened afterwards.
+     */
+    void shutdown() {
+        close();
+        if(executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void fill() {
+        while(inFlight.size() < parallelism && nextOffset < length) {
+            final long from = nextOffset;
+            final long to = Math.min(length - 1, from + byteLength);
+            final String rangeHref = href;
+            inFlight.add(getExecutor().submit(() -> fetch(rangeHref, from, to)));
+            nextOffset = to + 1;
+        }
+    }
+
+    private byte[] fetch(String href, long from, long to) throws Exception {
+        HttpGet request = new HttpGet(new URIBuilder(href).build());
+        httpClientUtil.addHeader(request, param.getAuthToken(), param.getImsOrg(), SDKConstants.CONNECTION_HEADER_JSON_CONTENT);
+        request.setHeader("Range", "bytes=" + from + "-" + to);
+        HttpResponse response = httpClientUtil.executeRequest(request, false);
+        try {
+            return response.getEntity() == null ? new byte[0] : EntityUtils.toByteArray(response.getEntity());
+        } finally {
+            if(response instanceof CloseableHttpResponse) {
+                ((CloseableHttpResponse) response).close();
+            }
+        }
+    }
+
+    /**
+     * Threads are daemons so that an abandoned
+     * reader does not keep the JVM alive.
+     */
+    private ExecutorService getExecutor() {
+        if(executor == null) {
+            executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, "dataset-reader-range");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+}
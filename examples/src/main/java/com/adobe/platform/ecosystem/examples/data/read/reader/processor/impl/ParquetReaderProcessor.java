@@ -16,8 +16,14 @@
  */
 package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
 
+import com.adobe.platform.ecosystem.examples.data.read.DataSetFileCache;
+import com.adobe.platform.ecosystem.examples.data.read.DataSetStatisticsIndex;
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+import com.adobe.platform.ecosystem.examples.parquet.io.LocalInputFile;
+import com.adobe.platform.ecosystem.examples.parquet.io.MappedInputFile;
+import com.adobe.platform.ecosystem.examples.parquet.read.FileStatistics;
+import com.adobe.platform.ecosystem.examples.parquet.read.ParquetFooterCache;
 import com.adobe.platform.ecosystem.examples.parquet.read.ParquetIOReader;
-import com.adobe.platform.ecosystem.examples.parquet.utility.ParquetIOUtil;
 import com.adobe.platform.ecosystem.examples.constants.SDKConstants;
 import com.adobe.platform.ecosystem.examples.data.access.api.DataAccessService;
 import com.adobe.platform.ecosystem.examples.data.access.model.DataSetFileProcessingEntity;
@@ -27,19 +33,22 @@ import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
 import com.adobe.platform.ecosystem.examples.util.ConnectorSDKUtil;
 import com.adobe.platform.ecosystem.examples.util.HttpClientUtil;
 
-import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.parquet.io.InputFile;
 import org.json.simple.JSONObject;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -51,11 +60,27 @@ public class ParquetReaderProcessor extends ReaderProcessor {
     private final DataWiringParam param;
     private final HttpClient httpClient;
     private final HttpClientUtil httpClientUtil;
+    private final DataSetFileCache fileCache;
+    // Upcoming files opened in background keyed by href.
+    private final Map<String, Future<InputFile>> prefetchedInputs = new HashMap<>();
+    private DataSetStatisticsIndex statisticsIndex;
+    // DataSetFiles never change, so footers are shared across readers.
+    private static final ParquetFooterCache footerCache = new ParquetFooterCache();
     private static final Logger logger = Logger.getLogger(ParquetReaderProcessor.class.getName());
 
     public ParquetReaderProcessor(ParquetIOReader parquetIOReader, DataAccessService das, HttpClient httpClient, DataWiringParam param, List<String> dataSetFileSet, List<DataSetFileProcessingEntity> dataSetFileProcessingSet) throws ConnectorSDKException {
+        this(parquetIOReader, das, httpClient, param, dataSetFileSet, dataSetFileProcessingSet, null);
+    }
+
+    /**
+     * @param fileCache cache files are downloaded to
+     *                  and read from, files are read
+     *                  over range requests when null.
+     */
+    public ParquetReaderProcessor(ParquetIOReader parquetIOReader, DataAccessService das, HttpClient httpClient, DataWiringParam param, List<String> dataSetFileSet, List<DataSetFileProcessingEntity> dataSetFileProcessingSet, DataSetFileCache fileCache) throws ConnectorSDKException {
         super(das, param, dataSetFileSet, dataSetFileProcessingSet);
         this.parquetIOReader = parquetIOReader;
+        this.fileCache = fileCache;
         this.httpClient = httpClient == null ? HttpClientUtil.getHttpClient() : httpClient;
         httpClientUtil = new HttpClientUtil(httpClient);
         this.param = param;
@@ -76,9 +101,15 @@ public class ParquetReaderProcessor extends ReaderProcessor {
                 data.addAll(parquetIOReader.processData(rows));
             } else {
                 if(!dataSetFileProcessingSet.isEmpty()) {
-                    File localParquetFile = loadParquetFileFromProcessingEntity(dataSetFileProcessingSet.get(processingSetReadIndex));
-                    parquetIOReader.initFileForRead(localParquetFile);
-                    data.addAll(parquetIOReader.processData(rows));
+                    String dataSetFileId = dataSetFileSet.get(dataSetFileReadIndex);
+                    DataSetFileProcessingEntity entity = dataSetFileProcessingSet.get(processingSetReadIndex);
+                    if(canSkip(dataSetFileId, entity)) {
+                        logger.log(Level.FINE, "Skipping parquet file not matching filter: " + entity.getName());
+                        prefetchedInputs.remove(entity.getHref());
+                    } else {
+                        parquetIOReader.initInputForRead(openParquetInput(dataSetFileId, entity));
+                        data.addAll(parquetIOReader.processData(rows));
+                    }
                 }
             }
 
@@ -102,7 +133,131 @@ public class ParquetReaderProcessor extends ReaderProcessor {
         }
     }
 
-    private File loadParquetFileFromProcessingEntity(DataSetFileProcessingEntity dataSetFileProcessingEntity) throws URISyntaxException, IOException, ConnectorSDKException {
+    private InputFile openParquetInput(String dataSetFileId, DataSetFileProcessingEntity dataSetFileProcessingEntity) throws URISyntaxException, IOException, ConnectorSDKException {
+        Future<InputFile> prefetched = prefetchedInputs.remove(dataSetFileProcessingEntity.getHref());
+        prefetchNextInputs();
+        if(prefetched != null) {
+            try {
+                return prefetched.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ConnectorSDKException("Interrupted while opening parquet file", ex);
+            } catch (ExecutionException ex) {
+                logger.log(Level.WARNING, "Prefetch of parquet file failed, opening it again: " + ex.getCause());
+            }
+        }
+        return getParquetInput(dataSetFileId, dataSetFileProcessingEntity, false);
+    }
+
+    /**
+     * Opens up to {@link #readAhead} files following
+     * the current one in background, fetching their
+     * footers or downloading them to the cache. Files
+     * of upcoming dataSetFiles are only known once
+     * their entries are fetched.
+     */
+    private void prefetchNextInputs() {
+        // Upcoming entities mapped to their dataSetFileId.
+        Map<DataSetFileProcessingEntity, String> upcoming = new LinkedHashMap<>();
+        for(int i = processingSetReadIndex + 1; i < dataSetFileProcessingSet.size() && upcoming.size() < readAhead; i++) {
+            upcoming.put(dataSetFileProcessingSet.get(i), dataSetFileSet.get(dataSetFileReadIndex));
+        }
+        for(int index = dataSetFileReadIndex + 1; index < dataSetFileSet.size() && upcoming.size() < readAhead; index++) {
+            List<DataSetFileProcessingEntity> entries = getPrefetchedEntries(index);
+            if(entries == null) {
+                break;
+            }
+            for(int i = 0; i < entries.size() && upcoming.size() < readAhead; i++) {
+                upcoming.put(entries.get(i), dataSetFileSet.get(index));
+            }
+        }
+        for(Map.Entry<DataSetFileProcessingEntity, String> entry : upcoming.entrySet()) {
+            if(!prefetchedInputs.containsKey(entry.getKey().getHref()) && !canSkip(entry.getValue(), entry.getKey())) {
+                prefetchedInputs.put(entry.getKey().getHref(), getPrefetchExecutor().submit(
+                        () -> getParquetInput(entry.getValue(), entry.getKey(), true)
+                ));
+            }
+        }
+    }
+
+    /**
+     * Index of footer statistics of all parquet files
+     * to be read, built on first call. Once built,
+     * files which cannot match the record filter of
+     * {@code parquetIOReader} are skipped. Footers are
+     * fetched on the prefetch executor.
+     */
+    public DataSetStatisticsIndex getStatisticsIndex() throws ConnectorSDKException {
+        if(statisticsIndex != null) {
+            return statisticsIndex;
+        }
+        DataSetStatisticsIndex index = new DataSetStatisticsIndex();
+        List<Future<?>> footers = new ArrayList<>();
+        for(int dataSetFileIndex = dataSetFileReadIndex; dataSetFileIndex < dataSetFileSet.size(); dataSetFileIndex++) {
+            String dataSetFileId = dataSetFileSet.get(dataSetFileIndex);
+            for(DataSetFileProcessingEntity entity : getDataSetFileEntries(dataSetFileIndex)) {
+                if(!entity.getName().endsWith(".parquet")) {
+                    continue;
+                }
+                footers.add(getPrefetchExecutor().submit(() -> {
+                    index.put(dataSetFileId, entity.getName(), new FileStatistics(footerCache.get(
+                            dataSetFileId + "/" + entity.getName(),
+                            getParquetInputFromProcessingEntity(entity)
+                    )));
+                    return null;
+                }));
+            }
+        }
+        try {
+            for(Future<?> footer : footers) {
+                footer.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConnectorSDKException("Interrupted while reading parquet footers", ex);
+        } catch (ExecutionException ex) {
+            throw new ConnectorSDKException("Error while reading parquet footers", ex.getCause());
+        }
+        statisticsIndex = index;
+        return statisticsIndex;
+    }
+
+    private boolean canSkip(String dataSetFileId, DataSetFileProcessingEntity entity) {
+        if(statisticsIndex == null || parquetIOReader.getRecordFilter() == null) {
+            return false;
+        }
+        try {
+            return statisticsIndex.canSkip(dataSetFileId, entity.getName(), parquetIOReader.getRecordFilter());
+        } catch (ParquetIOException ex) {
+            // Filter does not apply to the file, reading it reports why.
+            return false;
+        }
+    }
+
+    /**
+     * @param prefetch whether to fetch the footer
+     *                 of a file read remotely upfront.
+     * @return cached file, downloaded first when not
+     * cached yet, or a remote file without cache.
+     */
+    private InputFile getParquetInput(String dataSetFileId, DataSetFileProcessingEntity dataSetFileProcessingEntity, boolean prefetch) throws URISyntaxException, IOException, ConnectorSDKException {
+        HttpRangeInputFile remoteFile = getParquetInputFromProcessingEntity(dataSetFileProcessingEntity);
+        if(fileCache == null) {
+            if(prefetch) {
+                remoteFile.prefetchTail();
+            }
+            return remoteFile;
+        }
+        File localFile = fileCache.get(dataSetFileId, dataSetFileProcessingEntity.getName(), remoteFile::transferTo);
+        return localFile.length() <= Integer.MAX_VALUE ? new MappedInputFile(localFile) : new LocalInputFile(localFile);
+    }
+
+    /**
+     * Parquet input over range requests, only
+     * footer and the column chunks read by
+     * {@code parquetIOReader} are fetched.
+     */
+    private HttpRangeInputFile getParquetInputFromProcessingEntity(DataSetFileProcessingEntity dataSetFileProcessingEntity) throws URISyntaxException, ConnectorSDKException {
         URIBuilder builder = new URIBuilder(dataSetFileProcessingEntity.getHref());
         HttpGet request = new HttpGet(builder.build());
         request.setHeader("Authorization", "Bearer " + param.getAuthToken());
@@ -110,21 +265,11 @@ public class ParquetReaderProcessor extends ReaderProcessor {
         request.setHeader(SDKConstants.CONNECTION_HEADER_X_API_KEY,
                 ConnectorSDKUtil.getInstance().getConnectionProperty(SDKConstants.CREDENTIAL_CLIENT_KEY));
         logger.log(Level.FINE,request.getRequestLine().getUri());
-        HttpResponse response = httpClientUtil.executeRequest(request, false);
-        checkErrorResponseCode(response);
-        String entityName = dataSetFileProcessingEntity.getName();
-        if(entityName.endsWith(".parquet")) {
-            entityName = entityName.substring(0,entityName.indexOf(".parquet"));
-        }
-        File tempParquetFile = ParquetIOUtil.getLocalFilePath(entityName);
-        FileOutputStream fos = new FileOutputStream(tempParquetFile.getAbsolutePath());
-        InputStream is = response.getEntity().getContent();
-        int read = 0;
-        byte[] buffer = new byte[32768];
-        while( (read = is.read(buffer)) > 0) {
-            fos.write(buffer, 0, read);
-        }
-
-        return tempParquetFile;
+        return new HttpRangeInputFile(
+                httpClientUtil,
+                request.getURI(),
+                request.getAllHeaders(),
+                dataSetFileProcessingEntity.getLength()
+        );
     }
 }
\ No newline at end of file
@@ -70,6 +70,15 @@ public class FlushHandler {
         return this.dataTable;
     }
 
+    /**
+     * Drops the first {@code rows} rows,
+     * uploaded by a partly failed flush.
+     */
+    public void removeFlushedRows(int rows){
+        this.rowsProcessed = Math.max(0, this.rowsProcessed - rows);
+        this.dataTable.subList(0, rows).clear();
+    }
+
     public void reset(){
         this.rowsProcessed = 0;
         this.dataTable.clear();
@@ -16,6 +16,8 @@
  */
 package com.adobe.platform.ecosystem.examples.data.write;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import com.adobe.platform.ecosystem.examples.catalog.model.SDKField;
@@ -50,4 +52,62 @@ public interface Formatter {
      * @throws ConnectorSDKException
      */
     byte[] getBuffer(List<JSONObject> dataTable) throws ConnectorSDKException;
-}
\ No newline at end of file
+
+    /**
+     * Writes formatted input data directly
+     * to {@code outputStream} instead of
+     * returning a new buffer.
+     * @param sdkFields
+     * @param dataTable
+     * @param outputStream sink for formatted data.
+     * @throws ConnectorSDKException
+     */
+    default void writeBuffer(List<SDKField> sdkFields, List<List<Object>> dataTable, OutputStream outputStream) throws ConnectorSDKException {
+        try {
+            outputStream.write(getBuffer(sdkFields, dataTable));
+        } catch (IOException ex) {
+            throw new ConnectorSDKException("Error while writing buffer to stream", ex);
+        }
+    }
+
+    /**
+     * Writes formatted input data directly
+     * to {@code outputStream} instead of
+     * returning a new buffer.
+     * @param dataTable rows of input data
+     * @param outputStream sink for formatted data.
+     * @throws ConnectorSDKException
+     */
+    default void writeBuffer(List<JSONObject> dataTable, OutputStream outputStream) throws ConnectorSDKException {
+        try {
+            outputStream.write(getBuffer(dataTable));
+        } catch (IOException ex) {
+            throw new ConnectorSDKException("Error while writing buffer to stream", ex);
+        }
+    }
+
+    /**
+     * Returns an encoder which writes a single
+     * file to {@code outputStream} record by record.
+     * @param outputStream sink for formatted data.
+     * @return record encoder.
+     * @throws ConnectorSDKException if formatter
+     * does not support incremental encoding.
+     */
+    default RecordEncoder getRecordEncoder(OutputStream outputStream) throws ConnectorSDKException {
+        throw new ConnectorSDKException("Incremental encoding is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Converts rows of a flat connector to
+     * json records as seen by {@link RecordEncoder}.
+     * @param sdkFields
+     * @param dataTable
+     * @return json records.
+     * @throws ConnectorSDKException if formatter
+     * does not support incremental encoding.
+     */
+    default List<JSONObject> getJSONRecords(List<SDKField> sdkFields, List<List<Object>> dataTable) throws ConnectorSDKException {
+        throw new ConnectorSDKException("Incremental encoding is not supported by " + getClass().getSimpleName());
+    }
+}
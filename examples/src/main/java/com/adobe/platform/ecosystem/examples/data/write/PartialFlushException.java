@@ -0,0 +1,41 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.write;
+
+import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
+
+/**
+ * Thrown when a flush uploaded as several files
+ * fails after some of them were uploaded. The
+ * first {@link #getUploadedRows()} rows are in
+ * the batch and should not be written again.
+ * Under a flush strategy they are already dropped
+ * from the pending rows, so the next flush only
+ * writes the remaining ones.
+ */
+public class PartialFlushException extends ConnectorSDKException {
+
+    private final int uploadedRows;
+
+    public PartialFlushException(String message, Throwable cause, int uploadedRows) {
+        super(message, cause);
+        this.uploadedRows = uploadedRows;
+    }
+
+    public int getUploadedRows() {
+        return uploadedRows;
+    }
+}
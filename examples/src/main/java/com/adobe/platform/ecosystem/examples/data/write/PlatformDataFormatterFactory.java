@@ -94,8 +94,7 @@ public class PlatformDataFormatterFactory implements DataFormatterFactory {
                         schemaFieldConverter,
                         extractor,
                         getValidationRegistry(fields),
-                        writeAttributes.isFullSchemaRequired()
-
+                        writeAttributes
                 );
                 break;
             case JSON:
@@ -0,0 +1,41 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.write;
+
+import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
+import org.json.simple.JSONObject;
+
+/**
+ * Encodes a single output file one record
+ * at a time. Used by writers that roll files
+ * by encoded size instead of buffering rows.
+ */
+public interface RecordEncoder {
+
+    void write(JSONObject record) throws ConnectorSDKException;
+
+    /**
+     * @return bytes encoded so far, including
+     * data still buffered by the encoder.
+     */
+    long getEncodedSize();
+
+    /**
+     * Completes the file. Underlying
+     * stream is not closed.
+     */
+    void finish() throws ConnectorSDKException;
+}
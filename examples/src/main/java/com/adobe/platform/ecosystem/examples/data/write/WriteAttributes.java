@@ -16,6 +16,8 @@
  */
 package com.adobe.platform.ecosystem.examples.data.write;
 
+import com.adobe.platform.ecosystem.examples.parquet.write.configuration.ParquetWriterOptions;
+
 /**
  * @author vardgupt
  *
@@ -32,10 +34,22 @@ public class WriteAttributes {
 
     private boolean fullSchemaRequired;
 
+    private boolean inMemoryEncoding;
+
+    private ParquetWriterOptions parquetWriterOptions;
+
+    private int encodingParallelism;
+
+    private long rollingFileSize;
+
     private WriteAttributes(WriteAttributesBuilder writeAttributesBuilder) {
         this.setFlushStrategyRequired(writeAttributesBuilder.getIsFlushStrategyRequired());
         this.setSizeOfRecord(writeAttributesBuilder.getSizeOfRecord());
         this.setFullSchemaRequired(writeAttributesBuilder.isFullSchemaRequired());
+        this.setInMemoryEncoding(writeAttributesBuilder.isInMemoryEncoding());
+        this.setParquetWriterOptions(writeAttributesBuilder.getParquetWriterOptions());
+        this.setEncodingParallelism(writeAttributesBuilder.getEncodingParallelism());
+        this.setRollingFileSize(writeAttributesBuilder.getRollingFileSize());
         if(sizeOfRecord>0 && isFlushStrategyRequired){
             setFlushHandler(new FlushHandler(sizeOfRecord));
         }
@@ -74,6 +88,64 @@ public class WriteAttributes {
         return this;
     }
 
+    /**
+     * When enabled, formatted data is encoded
+     * into memory and streamed to the upload
+     * call without any local temp files.
+     */
+    public boolean isInMemoryEncoding() {
+        return inMemoryEncoding;
+    }
+
+    public WriteAttributes setInMemoryEncoding(boolean inMemoryEncoding) {
+        this.inMemoryEncoding = inMemoryEncoding;
+        return this;
+    }
+
+    /**
+     * Properties used for writing parquet files:
+     * codec, row group/page sizes, dictionary
+     * encoding, page format and auto tuning.
+     */
+    public ParquetWriterOptions getParquetWriterOptions() {
+        return parquetWriterOptions;
+    }
+
+    public WriteAttributes setParquetWriterOptions(ParquetWriterOptions parquetWriterOptions) {
+        this.parquetWriterOptions = parquetWriterOptions;
+        return this;
+    }
+
+    /**
+     * Number of threads a parquet flush is encoded
+     * on. Above 1, each flush is split into row slices
+     * written as separate files to the same batch.
+     */
+    public int getEncodingParallelism() {
+        return encodingParallelism;
+    }
+
+    public WriteAttributes setEncodingParallelism(int encodingParallelism) {
+        this.encodingParallelism = encodingParallelism;
+        return this;
+    }
+
+    /**
+     * Target size in bytes of files written in
+     * rolling mode. When positive, records are encoded
+     * as they are written and a new file is started
+     * once the encoded size reaches the target, in
+     * place of the row count based flush strategy.
+     */
+    public long getRollingFileSize() {
+        return rollingFileSize;
+    }
+
+    public WriteAttributes setRollingFileSize(long rollingFileSize) {
+        this.rollingFileSize = rollingFileSize;
+        return this;
+    }
+
     public static class WriteAttributesBuilder{
 
         private Boolean isFlushStrategyRequired = false;
@@ -83,6 +155,14 @@ public class WriteAttributes {
         //Setting default value to false.
 		private boolean isFullSchemaRequired = false;
 
+        private boolean isInMemoryEncoding = false;
+
+        private ParquetWriterOptions parquetWriterOptions = ParquetWriterOptions.defaults();
+
+        private int encodingParallelism = 1;
+
+        private long rollingFileSize;
+
         public Boolean getIsFlushStrategyRequired() {
             return isFlushStrategyRequired;
         }
@@ -105,6 +185,42 @@ public class WriteAttributes {
             return isFullSchemaRequired;
         }
 
+        public boolean isInMemoryEncoding() {
+            return isInMemoryEncoding;
+        }
+
+        public WriteAttributesBuilder withInMemoryEncoding(boolean isInMemoryEncoding) {
+            this.isInMemoryEncoding = isInMemoryEncoding;
+            return this;
+        }
+
+        public ParquetWriterOptions getParquetWriterOptions() {
+            return parquetWriterOptions;
+        }
+
+        public WriteAttributesBuilder withParquetWriterOptions(ParquetWriterOptions parquetWriterOptions) {
+            this.parquetWriterOptions = parquetWriterOptions;
+            return this;
+        }
+
+        public int getEncodingParallelism() {
+            return encodingParallelism;
+        }
+
+        public WriteAttributesBuilder withEncodingParallelism(int encodingParallelism) {
+            this.encodingParallelism = encodingParallelism;
+            return this;
+        }
+
+        public long getRollingFileSize() {
+            return rollingFileSize;
+        }
+
+        public WriteAttributesBuilder withRollingFileSize(long rollingFileSize) {
+            this.rollingFileSize = rollingFileSize;
+            return this;
+        }
+
         public WriteAttributes build(){
             return new WriteAttributes(this);
         }
@@ -0,0 +1,103 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.write.buffer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Bounded pool of fixed size chunks backing
+ * {@link ChunkedByteArrayOutputStream}. Chunks of
+ * a released buffer are handed to the next buffer
+ * instead of being allocated again, so steady state
+ * flushes allocate nothing. Chunks returned while
+ * the pool is full are left to GC.
+ */
+public class ChunkPool {
+
+    // One default sized flush worth of chunks.
+    public static final long DEFAULT_RETAINED_BYTES = 256 * 1024 * 1024L;
+
+    private static final ChunkPool DEFAULT_POOL = new ChunkPool(
+        ChunkedByteArrayOutputStream.DEFAULT_CHUNK_SIZE,
+        (int) (DEFAULT_RETAINED_BYTES / ChunkedByteArrayOutputStream.DEFAULT_CHUNK_SIZE)
+    );
+
+    private final int chunkSize;
+
+    private final int maxRetainedChunks;
+
+    private final Deque<byte[]> freeChunks = new ArrayDeque<>();
+
+    private int borrowedChunks;
+
+    public ChunkPool(int chunkSize, int maxRetainedChunks) {
+        if (chunkSize <= 0 || maxRetainedChunks < 0) {
+            throw new IllegalArgumentException("Invalid chunk pool size: " + chunkSize + " x " + maxRetainedChunks);
+        }
+        this.chunkSize = chunkSize;
+        this.maxRetainedChunks = maxRetainedChunks;
+    }
+
+    /**
+     * @return pool shared by all writers
+     * of the process.
+     */
+    public static ChunkPool getDefault() {
+        return DEFAULT_POOL;
+    }
+
+    /**
+     * @return a new empty buffer, holding
+     * one reference, backed by this pool.
+     */
+    public ChunkedByteArrayOutputStream newBuffer() {
+        return new ChunkedByteArrayOutputStream(this);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return number of chunks currently
+     * waiting for reuse.
+     */
+    public synchronized int getRetainedChunks() {
+        return freeChunks.size();
+    }
+
+    /**
+     * @return number of chunks handed to
+     * buffers and not returned yet.
+     */
+    public synchronized int getBorrowedChunks() {
+        return borrowedChunks;
+    }
+
+    synchronized byte[] acquire() {
+        borrowedChunks++;
+        final byte[] chunk = freeChunks.pollFirst();
+        return chunk != null ? chunk : new byte[chunkSize];
+    }
+
+    synchronized void release(byte[] chunk) {
+        borrowedChunks--;
+        if (freeChunks.size() < maxRetainedChunks) {
+            freeChunks.addFirst(chunk);
+        }
+    }
+}
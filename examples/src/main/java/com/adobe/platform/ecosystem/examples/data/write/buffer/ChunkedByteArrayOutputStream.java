@@ -0,0 +1,229 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.write.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Growable in-memory buffer which keeps data
+ * in fixed size chunks instead of one contiguous
+ * array. Growing never copies already written
+ * bytes and no single allocation exceeds chunk
+ * size, which keeps large flushes away from
+ * humongous allocations.
+ *
+ * Buffers created from a {@link ChunkPool} are
+ * reference counted. They start with one reference
+ * and hand their chunks back to the pool once the
+ * last reference is released.
+ */
+public class ChunkedByteArrayOutputStream extends OutputStream {
+
+    public static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+
+    private final int chunkSize;
+
+    private final ChunkPool pool;
+
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    private final List<byte[]> chunks = new ArrayList<>();
+
+    private byte[] currentChunk;
+
+    private int positionInChunk;
+
+    private long size;
+
+    public ChunkedByteArrayOutputStream() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public ChunkedByteArrayOutputStream(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size should be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.pool = null;
+    }
+
+    ChunkedByteArrayOutputStream(ChunkPool pool) {
+        this.chunkSize = pool.getChunkSize();
+        this.pool = pool;
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity();
+        currentChunk[positionInChunk++] = (byte) b;
+        size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        while (len > 0) {
+            ensureCapacity();
+            int toCopy = Math.min(len, chunkSize - positionInChunk);
+            System.arraycopy(b, off, currentChunk, positionInChunk, toCopy);
+            positionInChunk += toCopy;
+            off += toCopy;
+            len -= toCopy;
+            size += toCopy;
+        }
+    }
+
+    private void ensureCapacity() {
+        if (currentChunk == null || positionInChunk == chunkSize) {
+            currentChunk = pool == null ? new byte[chunkSize] : pool.acquire();
+            chunks.add(currentChunk);
+            positionInChunk = 0;
+        }
+    }
+
+    /**
+     * @return number of bytes written so far.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Streams complete content of buffer to
+     * {@code outputStream} chunk by chunk.
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        long remaining = size;
+        for (byte[] chunk : chunks) {
+            int length = (int) Math.min(remaining, chunkSize);
+            outputStream.write(chunk, 0, length);
+            remaining -= length;
+        }
+    }
+
+    /**
+     * @return a fresh stream over the current content
+     * of the buffer. Content is not copied.
+     */
+    public InputStream toInputStream() {
+        return new ChunkedInputStream();
+    }
+
+    /**
+     * Copies the content into a single array.
+     * Kept for callers which still need contiguous
+     * {@code byte[]} buffers.
+     */
+    public byte[] toByteArray() {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Buffer too large for a single array: " + size);
+        }
+        byte[] data = new byte[(int) size];
+        int offset = 0;
+        for (byte[] chunk : chunks) {
+            int length = Math.min(data.length - offset, chunkSize);
+            System.arraycopy(chunk, 0, data, offset, length);
+            offset += length;
+        }
+        return data;
+    }
+
+    /**
+     * Drops all content so that the
+     * instance can be written again.
+     */
+    public void reset() {
+        if (pool != null) {
+            for (byte[] chunk : chunks) {
+                pool.release(chunk);
+            }
+        }
+        chunks.clear();
+        currentChunk = null;
+        positionInChunk = 0;
+        size = 0;
+    }
+
+    /**
+     * Adds a reference, to be paired with
+     * a {@link #release()} by its holder.
+     */
+    public ChunkedByteArrayOutputStream retain() {
+        if (references.getAndUpdate(count -> count > 0 ? count + 1 : count) <= 0) {
+            throw new IllegalStateException("Buffer already released");
+        }
+        return this;
+    }
+
+    /**
+     * Drops a reference. Content is dropped and
+     * pooled chunks are returned once no
+     * references are left.
+     */
+    public void release() {
+        final int remaining = references.decrementAndGet();
+        if (remaining == 0) {
+            reset();
+        } else if (remaining < 0) {
+            throw new IllegalStateException("Buffer already released");
+        }
+    }
+
+    private class ChunkedInputStream extends InputStream {
+        private long position = 0;
+
+        @Override
+        public int read() {
+            if (position >= size) {
+                return -1;
+            }
+            byte value = chunks.get((int) (position / chunkSize))[(int) (position % chunkSize)];
+            position++;
+            return value & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= size) {
+                return -1;
+            }
+            int read = 0;
+            while (len > 0 && position < size) {
+                byte[] chunk = chunks.get((int) (position / chunkSize));
+                int offsetInChunk = (int) (position % chunkSize);
+                int toCopy = (int) Math.min(Math.min(len, chunkSize - offsetInChunk), size - position);
+                System.arraycopy(chunk, offsetInChunk, b, off, toCopy);
+                position += toCopy;
+                off += toCopy;
+                len -= toCopy;
+                read += toCopy;
+            }
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, size - position);
+        }
+    }
+}
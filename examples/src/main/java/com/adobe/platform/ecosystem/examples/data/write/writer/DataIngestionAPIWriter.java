@@ -29,9 +29,13 @@ import com.adobe.platform.ecosystem.examples.data.ingestion.api.DataIngestionSer
 import com.adobe.platform.ecosystem.examples.data.write.converter.PipelineToJSONConverter;
 import com.adobe.platform.ecosystem.examples.data.wiring.DataWiringParam;
 import com.adobe.platform.ecosystem.examples.data.write.FlushHandler;
+import com.adobe.platform.ecosystem.examples.data.write.PartialFlushException;
 import com.adobe.platform.ecosystem.examples.data.write.Formatter;
+import com.adobe.platform.ecosystem.examples.data.write.RecordEncoder;
 import com.adobe.platform.ecosystem.examples.data.write.WriteAttributes;
 import com.adobe.platform.ecosystem.examples.data.write.Writer;
+import com.adobe.platform.ecosystem.examples.data.write.buffer.ChunkPool;
+import com.adobe.platform.ecosystem.examples.data.write.buffer.ChunkedByteArrayOutputStream;
 import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
 
 import org.json.simple.JSONObject;
@@ -53,6 +57,11 @@ public class DataIngestionAPIWriter implements Writer {
     private String batchId;
     private Formatter formatter;
     private WriteAttributes writeAttributes;
+    private final ChunkPool chunkPool = ChunkPool.getDefault();
+    private ParallelFlushEncoder parallelEncoder;
+    private RecordEncoder rollingEncoder;
+    private ChunkedByteArrayOutputStream rollingBuffer;
+    private long rollingRecords;
 
     private static final Logger logger = Logger.getLogger(DataIngestionAPIWriter.class.getName());
 
@@ -70,6 +79,10 @@ public class DataIngestionAPIWriter implements Writer {
         this.outputFileFormat = outputFileFormat;
         this.formatter = formatter;
         this.writeAttributes = writeAttributes;
+        // Only parquet formatter is safe to share across encoding threads.
+        if (writeAttributes.getEncodingParallelism() > 1 && outputFileFormat == FileFormat.PARQUET) {
+            this.parallelEncoder = new ParallelFlushEncoder(writeAttributes.getEncodingParallelism(), chunkPool);
+        }
         initWriter();
     }
 
@@ -96,6 +109,9 @@ public class DataIngestionAPIWriter implements Writer {
      * return types are 0 for success & -1 for failure.
      */
     public int write(List<SDKField> sdkFields, List<List<Object>> dataTable) throws ConnectorSDKException {
+        if(isRollingEnabled()){
+            return writeRolling(dataTable == null ? null : formatter.getJSONRecords(sdkFields, dataTable));
+        }
         if(dataTable!=null){
             if(writeAttributes.isFlushStrategyRequired()){
                 FlushHandler flushHandler = writeAttributes.getFlushHandler();
@@ -137,6 +153,9 @@ public class DataIngestionAPIWriter implements Writer {
      */
     public int write(List<Object> dataTable) throws ConnectorSDKException {
         List<JSONObject> dataRecords;
+        if(isRollingEnabled()){
+            return writeRolling(dataTable == null ? null : PipelineToJSONConverter.getFields(dataTable, param.getDataSet().getId()));
+        }
         if(dataTable!=null){
             if(writeAttributes.isFlushStrategyRequired()){
                 FlushHandler flushHandler = writeAttributes.getFlushHandler();
@@ -172,6 +191,68 @@ public class DataIngestionAPIWriter implements Writer {
         }
     }
 
+    private boolean isRollingEnabled() {
+        return writeAttributes.getRollingFileSize() > 0
+            && (outputFileFormat == FileFormat.PARQUET || outputFileFormat == FileFormat.CSV);
+    }
+
+    /**
+     * Rolling mode: records are encoded as they
+     * arrive and only the encoded bytes of the open
+     * file are held. File is uploaded once its encoded
+     * size reaches the target size, or on EOF.
+     */
+    private int writeRolling(List<JSONObject> dataRecords) throws ConnectorSDKException {
+        if(dataRecords != null) {
+            for (JSONObject record : dataRecords) {
+                if (rollingEncoder == null) {
+                    rollingBuffer = chunkPool.newBuffer();
+                    rollingEncoder = formatter.getRecordEncoder(rollingBuffer);
+                }
+                try {
+                    rollingEncoder.write(record);
+                } catch (ConnectorSDKException | RuntimeException ex) {
+                    // Encoder may be left within the record, so the open file is dropped.
+                    logger.severe("Dropping rolling " + outputFileFormat + " file with " + rollingRecords + " records after failed write: " + ex.getMessage());
+                    discardRollingFile();
+                    throw ex;
+                }
+                rollingRecords++;
+                if (rollingEncoder.getEncodedSize() >= writeAttributes.getRollingFileSize() && rollFile() != 0) {
+                    return -1;
+                }
+            }
+        }
+        return writeAttributes.isEOF() ? rollFile() : 0;
+    }
+
+    private void discardRollingFile() {
+        if (rollingBuffer != null) {
+            rollingBuffer.release();
+        }
+        rollingEncoder = null;
+        rollingBuffer = null;
+        rollingRecords = 0;
+    }
+
+    private int rollFile() throws ConnectorSDKException {
+        if(rollingEncoder == null) {
+            return 0;
+        }
+        rollingEncoder.finish();
+        logger.log(Level.INFO,"Rolling " + outputFileFormat + " file of " + rollingBuffer.size() + " bytes, records in file: " + rollingRecords);
+        final ChunkedByteArrayOutputStream buffer = rollingBuffer;
+        rollingEncoder = null;
+        rollingBuffer = null;
+        rollingRecords = 0;
+        try {
+            int response = dis.writeBufferToBatch(batchId, this.param.getDataSet().getId(), this.param.getImsOrg(), this.param.getAuthToken(), outputFileFormat, buffer);
+            return response == 0 ? 0 : -1;
+        } finally {
+            buffer.release();
+        }
+    }
+
     private boolean isBufferEligibleForFlush(FlushHandler flushHandler) {
         return flushHandler.getRowsProcessed() >= flushHandler.getBatchSize() || (writeAttributes.isEOF() && flushHandler.getDataTable() != null && !flushHandler.getDataTable().isEmpty());
     }
@@ -181,9 +262,20 @@ public class DataIngestionAPIWriter implements Writer {
             if(dataTable.size() == 0) {
                 return 0;
             }
-            byte[] buffer = formatter.getBuffer(sdkFields, dataTable);
-            logger.log(Level.INFO,"Buffer received for " + outputFileFormat + " file, total records flushed: "+dataTable.size());
-            if(dis.writeToBatch(batchId, this.param.getDataSet().getId(), this.param.getImsOrg(), this.param.getAuthToken(), outputFileFormat, buffer) == 0){
+            int response;
+            if(isParallelEncodingEligible(dataTable.size())) {
+                response = encodeInParallel(dataTable, (slice, outputStream) -> formatter.writeBuffer(sdkFields, slice, outputStream), flushHandler);
+            } else {
+                ChunkedByteArrayOutputStream buffer = chunkPool.newBuffer();
+                try {
+                    formatter.writeBuffer(sdkFields, dataTable, buffer);
+                    logger.log(Level.INFO,"Buffer encoded for " + outputFileFormat + " file, total records flushed: "+dataTable.size());
+                    response = dis.writeBufferToBatch(batchId, this.param.getDataSet().getId(), this.param.getImsOrg(), this.param.getAuthToken(), outputFileFormat, buffer);
+                } finally {
+                    buffer.release();
+                }
+            }
+            if(response == 0){
                 if(flushHandler!=null)
                     flushHandler.reset();
                 return 0;
@@ -191,15 +283,29 @@ public class DataIngestionAPIWriter implements Writer {
             else
                 return -1;
         }
+        catch(PartialFlushException e){
+            throw e;
+        }
         catch(Exception e){
             throw new ConnectorSDKException("Error while executing flushRecords :" + e.getMessage(), e.getCause());
         }
     }
 
     private int flushRecords(List<JSONObject> dataRecords, FlushHandler flushHandler) throws ConnectorSDKException{
-        byte[] buffer = formatter.getBuffer(dataRecords);
-        logger.log(Level.INFO,"Buffer received for " + outputFileFormat + " file, total records flushed: "+dataRecords.size());
-        if(dis.writeToBatch(batchId, this.param.getDataSet().getId(), this.param.getImsOrg(), this.param.getAuthToken(), outputFileFormat, buffer) == 0){
+        int response;
+        if(isParallelEncodingEligible(dataRecords.size())) {
+            response = encodeInParallel(dataRecords, formatter::writeBuffer, flushHandler);
+        } else {
+            ChunkedByteArrayOutputStream buffer = chunkPool.newBuffer();
+            try {
+                formatter.writeBuffer(dataRecords, buffer);
+                logger.log(Level.INFO,"Buffer encoded for " + outputFileFormat + " file, total records flushed: "+dataRecords.size());
+                response = dis.writeBufferToBatch(batchId, this.param.getDataSet().getId(), this.param.getImsOrg(), this.param.getAuthToken(), outputFileFormat, buffer);
+            } finally {
+                buffer.release();
+            }
+        }
+        if(response == 0){
             if(flushHandler!=null)
                 flushHandler.reset();
             return 0;
@@ -209,6 +315,31 @@ public class DataIngestionAPIWriter implements Writer {
 
     }
 
+    private <T> int encodeInParallel(List<T> rows, ParallelFlushEncoder.SliceEncoder<T> encoder, FlushHandler flushHandler) throws ConnectorSDKException {
+        try {
+            return parallelEncoder.encode(rows, encoder, this::writeSlice);
+        } catch (PartialFlushException ex) {
+            // Next flush only writes rows not uploaded yet.
+            if(flushHandler != null) {
+                flushHandler.removeFlushedRows(ex.getUploadedRows());
+            }
+            throw ex;
+        }
+    }
+
+    private boolean isParallelEncodingEligible(int rows) {
+        return parallelEncoder != null && parallelEncoder.getSliceCount(rows) > 1;
+    }
+
+    /**
+     * Slices of a parallel flush are always encoded
+     * in memory and uploaded as separate files.
+     */
+    private int writeSlice(ChunkedByteArrayOutputStream buffer, int rows) throws ConnectorSDKException {
+        logger.log(Level.INFO,"Slice encoded in memory for " + outputFileFormat + " file, records in slice: " + rows);
+        return dis.writeBufferToBatch(batchId, this.param.getDataSet().getId(), this.param.getImsOrg(), this.param.getAuthToken(), outputFileFormat, buffer);
+    }
+
 	@Override
 	public int markBatchCompletion(Boolean isSuccess) throws ConnectorSDKException {
 		return markBatchCompletion(isSuccess, false);
@@ -217,6 +348,13 @@ public class DataIngestionAPIWriter implements Writer {
 	@Override
 	public int markBatchCompletion(Boolean isSuccess, Boolean shouldPollForBatchStatus) throws ConnectorSDKException {
 		logger.log(Level.FINER, "Inside markBatchCompletion with status " + isSuccess);
+		if (parallelEncoder != null) {
+			parallelEncoder.shutdown();
+		}
+		if (isSuccess && rollFile() != 0) {
+			return -1;
+		}
+		discardRollingFile();
 		int outputResponse = -1;
 		if (isSuccess) {
 			outputResponse = dis.signalBatchCompletion(batchId, this.param.getImsOrg(), this.param.getAuthToken());
@@ -0,0 +1,191 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.write.writer;
+
+import com.adobe.platform.ecosystem.examples.data.write.PartialFlushException;
+import com.adobe.platform.ecosystem.examples.data.write.buffer.ChunkPool;
+import com.adobe.platform.ecosystem.examples.data.write.buffer.ChunkedByteArrayOutputStream;
+import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Encodes a single flush as several files, one
+ * per row slice, on a bounded {@link ForkJoinPool}.
+ * Encoded slices are handed over in row order once
+ * all of them are ready. Slice buffers come from a
+ * {@link ChunkPool} and are released once consumed,
+ * or on failure.
+ */
+class ParallelFlushEncoder {
+
+    // Smaller slices are not worth a file of their own.
+    static final int DEFAULT_MIN_ROWS_PER_SLICE = 1000;
+
+    private final int parallelism;
+
+    private final int minRowsPerSlice;
+
+    private final ChunkPool chunkPool;
+
+    private ForkJoinPool pool;
+
+    @FunctionalInterface
+    interface SliceEncoder<T> {
+        void encode(List<T> slice, OutputStream outputStream) throws ConnectorSDKException;
+    }
+
+    @FunctionalInterface
+    interface SliceConsumer {
+        /**
+         * @return 0 for success & -1 for failure.
+         */
+        int accept(ChunkedByteArrayOutputStream buffer, int rows) throws ConnectorSDKException;
+    }
+
+    ParallelFlushEncoder(int parallelism, ChunkPool chunkPool) {
+        this(parallelism, DEFAULT_MIN_ROWS_PER_SLICE, chunkPool);
+    }
+
+    ParallelFlushEncoder(int parallelism, int minRowsPerSlice, ChunkPool chunkPool) {
+        if (parallelism <= 0 || minRowsPerSlice <= 0) {
+            throw new IllegalArgumentException("Parallelism and rows per slice should be positive.");
+        }
+        this.parallelism = parallelism;
+        this.minRowsPerSlice = minRowsPerSlice;
+        this.chunkPool = chunkPool;
+    }
+
+    int getSliceCount(int rows) {
+        return Math.max(1, Math.min(parallelism, rows / minRowsPerSlice));
+    }
+
+    /**
+     * Every slice is encoded before any is handed to
+     * {@code consumer}, so a failed encode leaves
+     * nothing uploaded. Stops at the first slice
+     * {@code consumer} fails for.
+     * @return 0 for success & -1 for failure.
+     * @throws PartialFlushException when {@code consumer}
+     * fails after earlier slices were uploaded, as
+     * writing the whole flush again would duplicate them.
+     */
+    <T> int encode(List<T> rows, SliceEncoder<T> encoder, SliceConsumer consumer) throws ConnectorSDKException {
+        final int sliceCount = getSliceCount(rows.size());
+        final int sliceSize = (rows.size() + sliceCount - 1) / sliceCount;
+        final List<ForkJoinTask<ChunkedByteArrayOutputStream>> tasks = new ArrayList<>(sliceCount);
+        final List<Integer> sliceRows = new ArrayList<>(sliceCount);
+        final List<ChunkedByteArrayOutputStream> buffers = new ArrayList<>(sliceCount);
+        int consumed = 0;
+        try {
+            for (int from = 0; from < rows.size(); from += sliceSize) {
+                final List<T> slice = rows.subList(from, Math.min(rows.size(), from + sliceSize));
+                sliceRows.add(slice.size());
+                tasks.add(getPool().submit(() -> {
+                    ChunkedByteArrayOutputStream buffer = chunkPool.newBuffer();
+                    try {
+                        encoder.encode(slice, buffer);
+                        return buffer;
+                    } catch (ConnectorSDKException | RuntimeException ex) {
+                        buffer.release();
+                        throw ex;
+                    }
+                }));
+            }
+            // Waiting for all slices, so none is left
+            // running with its buffer on failure.
+            for (ForkJoinTask<ChunkedByteArrayOutputStream> task : tasks) {
+                task.quietlyJoin();
+                if (task.isCompletedNormally()) {
+                    buffers.add(task.join());
+                }
+            }
+            for (ForkJoinTask<ChunkedByteArrayOutputStream> task : tasks) {
+                if (!task.isCompletedNormally()) {
+                    get(task);
+                }
+            }
+            int uploadedRows = 0;
+            while (consumed < buffers.size()) {
+                final ChunkedByteArrayOutputStream buffer = buffers.get(consumed);
+                final int bufferRows = sliceRows.get(consumed++);
+                final int response;
+                try {
+                    response = consumer.accept(buffer, bufferRows);
+                } catch (ConnectorSDKException | RuntimeException ex) {
+                    if (uploadedRows > 0) {
+                        throw new PartialFlushException("Error while uploading flush slice after " + uploadedRows + " rows: " + ex.getMessage(), ex, uploadedRows);
+                    }
+                    throw ex;
+                } finally {
+                    buffer.release();
+                }
+                if (response != 0) {
+                    if (uploadedRows > 0) {
+                        throw new PartialFlushException("Upload of flush slice failed after " + uploadedRows + " rows", null, uploadedRows);
+                    }
+                    return -1;
+                }
+                uploadedRows += bufferRows;
+            }
+            return 0;
+        } finally {
+            for (int i = consumed; i < buffers.size(); i++) {
+                buffers.get(i).release();
+            }
+        }
+    }
+
+    private ChunkedByteArrayOutputStream get(ForkJoinTask<ChunkedByteArrayOutputStream> task) throws ConnectorSDKException {
+        try {
+            return task.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConnectorSDKException("Interrupted while encoding flush", ex);
+        } catch (ExecutionException ex) {
+            // Pool wraps checked exceptions of the encoder.
+            for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof ConnectorSDKException) {
+                    throw (ConnectorSDKException) cause;
+                }
+            }
+            throw new ConnectorSDKException("Error while encoding flush slice", ex.getCause());
+        }
+    }
+
+    private ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    /**
+     * Releases pool threads. Pool is
+     * recreated if encoder is used again.
+     */
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+}
@@ -16,6 +16,8 @@
  */
 package com.adobe.platform.ecosystem.examples.data.write.writer.formatter;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -29,6 +31,7 @@ import com.adobe.platform.ecosystem.examples.catalog.model.SDKField;
 import com.adobe.platform.ecosystem.examples.catalog.model.SchemaField;
 import com.adobe.platform.ecosystem.examples.data.wiring.DataWiringParam;
 import com.adobe.platform.ecosystem.examples.data.write.Formatter;
+import com.adobe.platform.ecosystem.examples.data.write.RecordEncoder;
 import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
 import com.adobe.platform.ecosystem.examples.util.SDKDataTypeJsonUtil;
 
@@ -67,34 +70,13 @@ public class CSVDataFormatter implements Formatter{
     @Override
     public byte[] getBuffer(List<JSONObject> dataTable) throws ConnectorSDKException {
         byte[] buffer;
-        char delimFromCatalog;
-        if(param.getDataSet().getFileDescription()==null)
-            delimFromCatalog = DEFAULT_DELIMITER;
-        else
-            delimFromCatalog = param.getDataSet().getFileDescription().getDelimiter();
+        char delimFromCatalog = getDelimiter();
         StringBuffer records = new StringBuffer();
         List<SchemaField> fieldList = param.getDataSet().getFields(true);
-        StringBuffer headerRow = getHeader(fieldList, dataTable.get(0), delimFromCatalog);
-        headerRow = new StringBuffer(headerRow.substring(0, headerRow.length()-1));
-        records.append(headerRow).append('\n');
+        records.append(getHeaderLine(fieldList, dataTable.get(0), delimFromCatalog));
         //records.add(headerRow);
-        StringBuffer record;
         for(JSONObject row: dataTable) {
-            record = new StringBuffer();
-            for(SchemaField field: fieldList){
-                String fieldName = field.getName();
-                Object colValueObject = "";
-                if(row != null && row.get(fieldName)!= null) {
-                    DataType catalogDataType = field.getType();
-                    colValueObject = SDKDataTypeJsonUtil.getKeyValueFromJSONObject(row,fieldName, catalogDataType);
-                    if(checkWhetherEnclosingIsRequired(colValueObject.toString(),delimFromCatalog)){
-                        colValueObject = DOUBLE_QUOTE_CHAR.toString()+colValueObject+DOUBLE_QUOTE_CHAR;
-                    }
-                    record.append(colValueObject).append(delimFromCatalog);
-                }
-            }
-            record = new StringBuffer(record.substring(0, record.length() - 1));
-            records.append(record).append('\n');
+            records.append(getRecordLine(fieldList, row, delimFromCatalog));
         }
         records = new StringBuffer(records.substring(0, records.length()));
         logger.fine(records.toString());
@@ -107,6 +89,119 @@ public class CSVDataFormatter implements Formatter{
         return buffer;
     }
 
+    /**
+     * Streams header and rows to {@code outputStream}
+     * one line at a time instead of building the
+     * whole file in memory first.
+     */
+    @Override
+    public void writeBuffer(List<SDKField> sdkFields, List<List<Object>> dataTable, OutputStream outputStream) throws ConnectorSDKException {
+        writeBuffer(convertPlatformDataToJSONObjects(sdkFields, dataTable), outputStream);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBuffer(List<JSONObject> dataTable, OutputStream outputStream) throws ConnectorSDKException {
+        RecordEncoder encoder = getRecordEncoder(outputStream);
+        for(JSONObject row: dataTable) {
+            encoder.write(row);
+        }
+        encoder.finish();
+    }
+
+    /**
+     * Header of the file is built from the
+     * fields present in its first record.
+     */
+    @Override
+    public RecordEncoder getRecordEncoder(OutputStream outputStream) {
+        return new CSVRecordEncoder(outputStream);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<JSONObject> getJSONRecords(List<SDKField> sdkFields, List<List<Object>> dataTable) {
+        return convertPlatformDataToJSONObjects(sdkFields, dataTable);
+    }
+
+    private class CSVRecordEncoder implements RecordEncoder {
+        private final OutputStream outputStream;
+        private final char delimFromCatalog = getDelimiter();
+        private final List<SchemaField> fieldList = param.getDataSet().getFields(true);
+        private long encodedSize;
+
+        CSVRecordEncoder(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void write(JSONObject record) throws ConnectorSDKException {
+            if(encodedSize == 0) {
+                writeLine(getHeaderLine(fieldList, record, delimFromCatalog));
+            }
+            writeLine(getRecordLine(fieldList, record, delimFromCatalog));
+        }
+
+        @Override
+        public long getEncodedSize() {
+            return encodedSize;
+        }
+
+        @Override
+        public void finish() throws ConnectorSDKException {
+            try {
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new ConnectorSDKException("Error while writing csv records :" + e.getMessage(), e);
+            }
+        }
+
+        private void writeLine(CharSequence line) throws ConnectorSDKException {
+            byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+            try {
+                outputStream.write(bytes);
+            } catch (IOException e) {
+                throw new ConnectorSDKException("Error while writing csv records :" + e.getMessage(), e);
+            }
+            encodedSize += bytes.length;
+        }
+    }
+
+    private char getDelimiter() {
+        if(param.getDataSet().getFileDescription()==null)
+            return DEFAULT_DELIMITER;
+        else
+            return param.getDataSet().getFileDescription().getDelimiter();
+    }
+
+    private StringBuffer getHeaderLine(List<SchemaField> fieldList, JSONObject firstRow, char delimFromCatalog) {
+        StringBuffer headerRow = getHeader(fieldList, firstRow, delimFromCatalog);
+        headerRow = new StringBuffer(headerRow.substring(0, headerRow.length()-1));
+        return headerRow.append('\n');
+    }
+
+    private StringBuffer getRecordLine(List<SchemaField> fieldList, JSONObject row, char delimFromCatalog) {
+        StringBuffer record = new StringBuffer();
+        for(SchemaField field: fieldList){
+            String fieldName = field.getName();
+            Object colValueObject = "";
+            if(row != null && row.get(fieldName)!= null) {
+                DataType catalogDataType = field.getType();
+                colValueObject = SDKDataTypeJsonUtil.getKeyValueFromJSONObject(row,fieldName, catalogDataType);
+                if(checkWhetherEnclosingIsRequired(colValueObject.toString(),delimFromCatalog)){
+                    colValueObject = DOUBLE_QUOTE_CHAR.toString()+colValueObject+DOUBLE_QUOTE_CHAR;
+                }
+                record.append(colValueObject).append(delimFromCatalog);
+            }
+        }
+        record = new StringBuffer(record.substring(0, record.length() - 1));
+        return record.append('\n');
+    }
+
     private StringBuffer getHeader(List<SchemaField> fieldList, JSONObject jsonObject, char delimFromCatalog) {
         StringBuffer headerRow = new StringBuffer();
         for(SchemaField field: fieldList){
@@ -18,10 +18,12 @@ package com.adobe.platform.ecosystem.examples.data.write.writer.formatter;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -30,8 +32,11 @@ import com.adobe.platform.ecosystem.examples.data.validation.api.Rule;
 import com.adobe.platform.ecosystem.examples.data.validation.api.ValidationRegistry;
 import com.adobe.platform.ecosystem.examples.data.validation.exception.ValidationException;
 import com.adobe.platform.ecosystem.examples.data.validation.impl.TraversablePath;
+import com.adobe.platform.ecosystem.examples.data.write.WriteAttributes;
+import com.adobe.platform.ecosystem.examples.data.write.buffer.ChunkedByteArrayOutputStream;
 import com.adobe.platform.ecosystem.examples.data.write.mapper.MapperUtil;
 import com.adobe.platform.ecosystem.examples.data.write.writer.extractor.Extractor;
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOErrorCode;
 import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
 import com.adobe.platform.ecosystem.examples.parquet.model.ParquetIOField;
 import com.adobe.platform.ecosystem.examples.catalog.model.DataType;
@@ -44,14 +49,19 @@ import org.apache.parquet.example.data.Group;
 import org.apache.parquet.example.data.simple.SimpleGroup;
 import org.apache.parquet.schema.*;
 
+import com.adobe.platform.ecosystem.examples.parquet.write.ColumnValidatorFactory;
+import com.adobe.platform.ecosystem.examples.parquet.write.JSONParquetStreamWriter;
+import com.adobe.platform.ecosystem.examples.parquet.write.JSONRecordWriter;
 import com.adobe.platform.ecosystem.examples.parquet.write.ParquetIOWriter;
+import com.adobe.platform.ecosystem.examples.parquet.write.ValueValidator;
+import com.adobe.platform.ecosystem.examples.parquet.write.configuration.ParquetWriterOptions;
 import com.adobe.platform.ecosystem.examples.catalog.model.SDKField;
 import com.adobe.platform.ecosystem.examples.catalog.model.SchemaField;
 import com.adobe.platform.ecosystem.examples.constants.SDKConstants;
 import com.adobe.platform.ecosystem.examples.data.write.Formatter;
+import com.adobe.platform.ecosystem.examples.data.write.RecordEncoder;
 import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
 
-import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.mortbay.util.ajax.JSON;
 
@@ -77,6 +87,26 @@ public class ParquetDataFormatter implements Formatter {
 
     private boolean isFullSchemaRequired;
 
+    private final boolean isInMemoryEncoding;
+
+    // Replaced by tuned options after first flush when auto tune is on.
+    private volatile ParquetWriterOptions writerOptions;
+
+    private static final int MAX_CACHED_SHAPES = 32;
+
+    // Catalog schema does not depend on records.
+    private static final long FULL_SCHEMA_FINGERPRINT = 0L;
+
+    // Record writers (parquet schema and compiled write plan)
+    // keyed by shape fingerprint of the record schema is derived from.
+    private final Map<Long, JSONRecordWriter> recordWriterCache = Collections.synchronizedMap(
+        new LinkedHashMap<Long, JSONRecordWriter>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, JSONRecordWriter> eldest) {
+                return size() > MAX_CACHED_SHAPES;
+            }
+        });
+
     private static Logger logger = Logger.getLogger(ParquetDataFormatter.class.getName());
 
     public ParquetDataFormatter(ParquetIOWriter writer,
@@ -86,6 +116,24 @@ public class ParquetDataFormatter implements Formatter {
                                 Extractor<JSONObject> extractor,
                                 ValidationRegistry validationRegistry,
                                 boolean isFullSchemaRequired) {
+        this(
+            writer,
+            param,
+            jsonFieldConverter,
+            schemaFieldConverter,
+            extractor,
+            validationRegistry,
+            new WriteAttributes.WriteAttributesBuilder().build().setFullSchemaRequired(isFullSchemaRequired)
+        );
+    }
+
+    public ParquetDataFormatter(ParquetIOWriter writer,
+                                DataWiringParam param,
+                                ParquetFieldConverter<JSONObject> jsonFieldConverter,
+                                ParquetFieldConverter<List<SchemaField>> schemaFieldConverter,
+                                Extractor<JSONObject> extractor,
+                                ValidationRegistry validationRegistry,
+                                WriteAttributes writeAttributes) {
         this.writer = writer;
         this.param = param;
         this.jsonFieldConverter = jsonFieldConverter;
@@ -93,7 +141,11 @@ public class ParquetDataFormatter implements Formatter {
         this.validationRegistry = validationRegistry;
         this.isRegistryEnabled = getRegistryEnabled();
         this.schemaFieldConverter = schemaFieldConverter;
-        this.isFullSchemaRequired = isFullSchemaRequired;
+        this.isFullSchemaRequired = writeAttributes.isFullSchemaRequired();
+        this.isInMemoryEncoding = writeAttributes.isInMemoryEncoding();
+        this.writerOptions = writeAttributes.getParquetWriterOptions() == null
+            ? ParquetWriterOptions.defaults()
+            : writeAttributes.getParquetWriterOptions();
     }
 
     private boolean getRegistryEnabled() {
@@ -110,6 +162,22 @@ public class ParquetDataFormatter implements Formatter {
      */
     @Override
     public byte[] getBuffer(List<SDKField> sdkFields, List<List<Object>> dataTable) throws ConnectorSDKException {
+        return getBuffer(getJSONRecords(sdkFields, dataTable));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBuffer(List<SDKField> sdkFields, List<List<Object>> dataTable, OutputStream outputStream) throws ConnectorSDKException {
+        writeBuffer(getJSONRecords(sdkFields, dataTable), outputStream);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<JSONObject> getJSONRecords(List<SDKField> sdkFields, List<List<Object>> dataTable) throws ConnectorSDKException {
         try {
 
             // Match to the flattened fields.
@@ -129,11 +197,10 @@ public class ParquetDataFormatter implements Formatter {
                 newFields.add(new SDKField(mappedName, "typeNotRequired"));
             }
 
-            return getBuffer(
-                    MapperUtil.convert(
-                            newFields,
-                            dataTable
-                    ));
+            return MapperUtil.convert(
+                    newFields,
+                    dataTable
+            );
         } catch (Exception ex) {
             logger.severe("Error while getting buffer from data table: " + ex);
             throw new ConnectorSDKException("Error while getting buffer from data table", ex);
@@ -143,21 +210,18 @@ public class ParquetDataFormatter implements Formatter {
     @Override
     public byte[] getBuffer(List<JSONObject> dataTable) throws ConnectorSDKException {
         try {
-            // 1. Use the output from schema builder to get schema for parquet-IO SDK.
-            MessageType schema = writer.getSchema(getParquetIOFields(dataTable));
-
-            // 2. For each data row convert data object to Group record.
-            List<SimpleGroup> records = new ArrayList<>();
-            for (JSONObject row : dataTable) {
-                SimpleGroup parquetRow = new SimpleGroup(schema);
-                updateParquetGroupWithData(row, parquetRow, TraversablePath.path());
-                records.add(parquetRow);
+            final JSONRecordWriter recordWriter = getRecordWriter(dataTable);
+
+            if (isInMemoryEncoding) {
+                ChunkedByteArrayOutputStream buffer = new ChunkedByteArrayOutputStream();
+                writeDataBuffer(dataTable, recordWriter, buffer);
+                return buffer.toByteArray();
             }
 
             Long timeStamp = 0l;
             timeStamp = System.currentTimeMillis();
             String fileId = timeStamp + "";
-            byte[] buffer = getDataBuffer(fileId, records);
+            byte[] buffer = getDataBuffer(fileId, dataTable, recordWriter);
             return buffer;
 
         } catch (Exception ex) {
@@ -166,337 +230,195 @@ public class ParquetDataFormatter implements Formatter {
         }
     }
 
-    private void updateParquetGroupWithData(JSONObject data, SimpleGroup currentGroup, TraversablePath path) throws ConnectorSDKException {
-        GroupType schema = currentGroup.getType();
-        int noOfFields = schema.getFieldCount();
-        for (int colIndex = 0; colIndex < noOfFields; colIndex++) {
-            final String currentFieldName = schema.getFieldName(colIndex);
-            final Type columnType = schema.getType(colIndex);
-
-            final TraversablePath clone =  TraversablePath.clone(path);
-            clone.withNode(currentFieldName);
-
-            // This is a stop gap fix where we have inconsistent
-            // JSON keys in records received AND we take the first
-            // record to construct parquet schema. This results in
-            // absence of some fields in data which are present in schema
-            // (via first record) but absent in further records.
-            if (data.get(currentFieldName) == null) continue;
-
-            if (columnType.isRepetition(Type.Repetition.REPEATED) || columnType.getOriginalType() == OriginalType.LIST) {
-                if (checkIfPrimitiveArray(columnType)) {
-                    buildPrimitiveArray(currentGroup, columnType, data, clone);
-                } else {
-                    buildComplexArray(currentGroup, columnType, data, clone);
-                }
-            } else if (columnType.getOriginalType() == OriginalType.MAP) {
-                buildMap(currentGroup, columnType, clone, data);
-            } else if (columnType.isPrimitive()) {
-                Object value = data.get(currentFieldName);
-                updateParquetRecordWithPrimitiveValue(
-                    columnType,
-                    value,
-                    currentGroup,
-                    clone
-                );
-            } else {
-                Group complexGroup = currentGroup.addGroup(currentFieldName);
-                updateParquetGroupWithData((JSONObject) data.get(currentFieldName), (SimpleGroup) complexGroup, clone);
+    /**
+     * Encodes parquet file straight into
+     * {@code outputStream}. Unless in memory
+     * encoding is on, file is encoded locally
+     * first and then streamed, never read
+     * into a single array.
+     */
+    @Override
+    public void writeBuffer(List<JSONObject> dataTable, OutputStream outputStream) throws ConnectorSDKException {
+        try {
+            final JSONRecordWriter recordWriter = getRecordWriter(dataTable);
+            if (isInMemoryEncoding) {
+                writeDataBuffer(dataTable, recordWriter, outputStream);
+                return;
             }
-
-            /*if (columnType.isPrimitive()) {
-                if (columnType.isRepetition(Type.Repetition.REPEATED)) {
-                    if (data.get(currentFieldName) instanceof JSONArray) { // Regular case
-                        // Below is an assumption that json array will be present as value.
-                        JSONArray jsonValueArray = (JSONArray) data.get(currentFieldName);
-                        for (int j = 0; j < jsonValueArray.size(); j++) {
-                            Object value = jsonValueArray.get(j); // Value will be primitive.
-                            updateParquetRecordWithPrimitiveValue(schema, value, currentGroup, colIndex, clone);
-                        }
-                    } else {
-                        Object value = data.get(currentFieldName);
-                        if(value instanceof String) {
-                            final String strValue = (String) value;
-                            if(strValue.split(",").length > 1) {
-                                final int index = colIndex;
-                                for(String token : strValue.split(",")) {
-                                    updateParquetRecordWithPrimitiveValue(schema, token, currentGroup, index, clone);
-                                }
-                            }
-                        } else {
-                            updateParquetRecordWithPrimitiveValue(schema, value, currentGroup, colIndex, clone);
-                        }
-                    }
-                } else if (columnType.isRepetition(Type.Repetition.OPTIONAL)) {
-                    Object value = data.get(currentFieldName);
-                    updateParquetRecordWithPrimitiveValue(schema, value, currentGroup, colIndex, clone);
-                }
-            } else {
-                if (columnType.isRepetition(Type.Repetition.REPEATED)) {
-                    if (data.get(currentFieldName) instanceof JSONArray) {
-                        final JSONArray jsonValueArray = (JSONArray) data.get(currentFieldName);
-                        for (int j = 0; j < jsonValueArray.size(); j++) {
-                            addComplexGroupToParquet(currentGroup, currentFieldName, (JSONObject) jsonValueArray.get(j), clone);
-                        }
-                    } else {
-                        final JSONObject value = (JSONObject) data.get(currentFieldName);
-                        if(extractor.isExtractRequired(value)) {
-                            final List<JSONObject> objects = extractor.extract(value);
-                            for(JSONObject extractedObject : objects) {
-                                addComplexGroupToParquet(currentGroup, currentFieldName, extractedObject, clone);
-                            }
-                        } else {
-                            addComplexGroupToParquet(currentGroup, currentFieldName, (JSONObject) data.get(currentFieldName), clone);
-                        }
-                    }
-                } else {
-                    addComplexGroupToParquet(currentGroup, currentFieldName, (JSONObject) data.get(currentFieldName), clone);
-                }
-            }*/
+            final File f = writer.writeJSONParquetFile(System.currentTimeMillis() + "", dataTable, recordWriter, getWriterOptions(dataTable, recordWriter));
+            try {
+                Files.copy(f.toPath(), outputStream);
+            } finally {
+                Files.deleteIfExists(f.toPath());
+            }
+        } catch (ParquetIOException pioEx) {
+            throw getConnectorSDKException(pioEx);
+        } catch (ConnectorSDKException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            logger.severe("Error while writing buffer from data table: " + ex);
+            throw new ConnectorSDKException("Error while writing buffer from data table", ex);
         }
     }
 
-    private void addComplexGroupToParquet(Group currentGroup, String fieldName, JSONObject jsonData, TraversablePath path) throws ConnectorSDKException {
-        Group complexGroup = currentGroup.addGroup(fieldName);
-        updateParquetGroupWithData(jsonData, (SimpleGroup) complexGroup, path);
+    /**
+     * Parquet schema of the file is derived from
+     * its first record, as it is for a whole flush
+     * in {@link #getBuffer(List)}.
+     */
+    @Override
+    public RecordEncoder getRecordEncoder(OutputStream outputStream) {
+        return new ParquetRecordEncoder(outputStream);
     }
 
-    private boolean checkIfPrimitiveArray(Type columnType) {
-        final GroupType listGroup = columnType.asGroupType();
+    private class ParquetRecordEncoder implements RecordEncoder {
+        private final OutputStream outputStream;
 
-        // Fail-fast checks for improper schema construction.
-        assert listGroup.getFieldCount() == 1;
-        assert listGroup.getType(0).getRepetition() == Type.Repetition.REPEATED;
+        // Records held back until auto tuning has its sample.
+        private final List<JSONObject> pending = new ArrayList<>();
 
-        final Type repeatedGroupList = listGroup.getType(0);
+        private JSONParquetStreamWriter streamWriter;
 
-        assert repeatedGroupList instanceof GroupType;
-        assert repeatedGroupList.asGroupType().getFieldCount() == 1;
+        ParquetRecordEncoder(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
 
-        final Type elementType = repeatedGroupList.asGroupType().getType(0);
+        @Override
+        public void write(JSONObject record) throws ConnectorSDKException {
+            try {
+                if (streamWriter != null) {
+                    streamWriter.write(record);
+                    return;
+                }
+                pending.add(record);
+                if (!writerOptions.isAutoTune() || pending.size() >= writerOptions.getAutoTuneSampleSize()) {
+                    open();
+                }
+            } catch (ParquetIOException pioEx) {
+                throw getConnectorSDKException(pioEx);
+            }
+        }
 
-        return !(elementType instanceof GroupType);
-    }
+        @Override
+        public long getEncodedSize() {
+            return streamWriter == null ? 0 : streamWriter.getDataSize();
+        }
 
-    /**
-     * Helper method to generate parquet-mr LIST
-     * type schema for adding primitive arrays.
-     * Sample schema for primitive LIST:
-     * <pre>
-     *     optional group identity (LIST) {
-     *       repeated group list {  // Capturing group referred below.
-     *         optional binary element (UTF8)
-     *       }
-     *     }
-     * </pre>
-     *
-     * @param currentGroup         current simple group
-     * @param primitiveArrayColumn metadata for current column type.
-     * @param data                 Json data
-     * @param path                 path representation for current field.
-     */
-    private void buildPrimitiveArray(SimpleGroup currentGroup,
-                                     Type primitiveArrayColumn,
-                                     JSONObject data,
-                                     TraversablePath path) throws ConnectorSDKException {
-        final GroupType listGroup = primitiveArrayColumn.asGroupType();
-        final Type repeatedGroupList = listGroup.getType(0);
-        final Type elementType = repeatedGroupList.asGroupType().getType(0); // Corresponds to 'element' above.
-
-        // Add base Group 'identity' for example above to 'currentGroup`
-        Group baseGroup = currentGroup.addGroup(primitiveArrayColumn.getName());
-
-        // PLAT-14737 Below check is because of Informatica's lack
-        // of support to produce array of values. We will get only
-        // single primitive value.
-        if (data.get(primitiveArrayColumn.getName()) instanceof JSONArray) {
-            JSONArray jsonValueArray = (JSONArray) data.get(primitiveArrayColumn.getName());
-            for (int j = 0; j < jsonValueArray.size(); j++) {
-                Object value = jsonValueArray.get(j); // Value will be primitive.
-                Group capturingGroup = baseGroup.addGroup(repeatedGroupList.getName());
-                updateParquetRecordWithPrimitiveValue(
-                    elementType,
-                    value,
-                    (SimpleGroup) capturingGroup,
-                    path
-                );
+        @Override
+        public void finish() throws ConnectorSDKException {
+            try {
+                if (streamWriter == null && !pending.isEmpty()) {
+                    open();
+                }
+                if (streamWriter != null) {
+                    streamWriter.close();
+                }
+            } catch (ParquetIOException pioEx) {
+                throw getConnectorSDKException(pioEx);
             }
+        }
 
-        } else {
-            Object valueWithProbableCommaSeparator = data.get(primitiveArrayColumn.getName());
-            if(valueWithProbableCommaSeparator instanceof String) {
-                final String strValue = (String) valueWithProbableCommaSeparator;
-                if(strValue.split(",").length > 1) {
-                    for(String token : strValue.split(",")) {
-                        Group capturingGroup = baseGroup.addGroup(repeatedGroupList.getName());
-                        updateParquetRecordWithPrimitiveValue(
-                            elementType,
-                            token,
-                            (SimpleGroup) capturingGroup,
-                            path
-                        );
-                    }
-                }
-            } else {
-                Group capturingGroup = baseGroup.addGroup(repeatedGroupList.getName());
-                Object value = data.get(primitiveArrayColumn.getName());
-                updateParquetRecordWithPrimitiveValue(
-                    elementType,
-                    value,
-                    (SimpleGroup) capturingGroup,
-                    path
-                );
+        private void open() throws ConnectorSDKException, ParquetIOException {
+            final JSONRecordWriter recordWriter = getRecordWriter(pending);
+            streamWriter = writer.openJSONParquetStream(recordWriter, getWriterOptions(pending, recordWriter), outputStream);
+            for (JSONObject record : pending) {
+                streamWriter.write(record);
             }
+            pending.clear();
         }
     }
 
     /**
-     * Helper method to generate parquet-mr LIST
-     * type schema for adding complex arrays.
-     * Sample schema for complex LIST:
-     * <pre>
-     *     optional group identity (LIST) {
-     *       repeated group list {
-     *         optional group element {
-     *             optional binary id (UTF8);
-     *             optional INT32 code;
-     *         }
-     *       }
-     *     }
-     * </pre>
-     *
-     * @param currentGroup       current simple group
-     * @param complexArrayColumn metadata for current column type.
-     * @param data               Json data
-     * @param path               path representation for current field.
+     * Records are written as they are against the
+     * schema through parquet-IO's {@link JSONRecordWriter}.
+     * Schema derivation and compilation happen only for
+     * record shapes not seen in earlier flushes.
      */
-    private void buildComplexArray(SimpleGroup currentGroup,
-                                   Type complexArrayColumn,
-                                   JSONObject data,
-                                   TraversablePath path) throws ConnectorSDKException {
-        final GroupType listGroup = complexArrayColumn.asGroupType();
-        final Type repeatedGroupList = listGroup.getType(0);
-        final Type elementType = repeatedGroupList.asGroupType().getType(0); // Corresponds to 'element' above.
-
-        assert elementType instanceof GroupType;
-
-        // Add base Group 'identity' for example above to 'currentGroup`
-        Group baseGroup = currentGroup.addGroup(complexArrayColumn.getName());
-
-        // PLAT-14737 Below check is because of Informatica's lack
-        // of support to produce array of values. We will get only
-        // single primitive value.
-        if (data.get(complexArrayColumn.getName()) instanceof JSONArray) {
-            JSONArray jsonValueArray = (JSONArray) data.get(complexArrayColumn.getName());
-            for (int j = 0; j < jsonValueArray.size(); j++) {
-                Object value = jsonValueArray.get(j); // Value will be primitive.
-                Group capturingGroup = baseGroup.addGroup(repeatedGroupList.getName());
-
-                JSONObject capturingData = new JSONObject();
-                capturingData.put(elementType.getName(), value);
-
-                updateParquetGroupWithData(
-                    capturingData,
-                    (SimpleGroup) capturingGroup,
-                    path
-                );
-            }
+    private JSONRecordWriter getRecordWriter(List<JSONObject> dataTable) throws ConnectorSDKException {
+        final long fingerprint = isFullSchemaRequired
+            ? FULL_SCHEMA_FINGERPRINT
+            : RecordShapeFingerprint.of(dataTable.get(0));
+        JSONRecordWriter recordWriter = recordWriterCache.get(fingerprint);
+        if (recordWriter == null) {
+            // Use the output from schema builder to get schema for parquet-IO SDK.
+            final MessageType schema = writer.getSchema(getParquetIOFields(dataTable));
+            recordWriter = new FormatterRecordWriter(schema);
+            recordWriterCache.put(fingerprint, recordWriter);
+            logger.log(Level.FINE, "Compiled parquet record writer for record shape " + Long.toHexString(fingerprint));
+        }
+        return recordWriter;
+    }
 
-        } else {
-            // Another INFA hack to write only 1 values.
-            // We would receive a JSON object only when
-            // cardinality in INFA is turned off for 1-many
-            // relationships.
-            if (data.get(complexArrayColumn.getName()) instanceof JSONObject) {
-                final JSONObject jsonValue = (JSONObject) data.get(complexArrayColumn.getName());
-                if (extractor.isExtractRequired(jsonValue)) {
-                    final List<JSONObject> objects = extractor.extract(jsonValue);
-                    for (JSONObject extractedObject : objects) {
-                        // Corresponds to 'list' above
-                        Group capturingGroup = baseGroup.addGroup(repeatedGroupList.getName());
-
-                        JSONObject capturingData = new JSONObject();
-                        capturingData.put(elementType.getName(), extractedObject);
-
-                        updateParquetGroupWithData(
-                            capturingData,
-                            (SimpleGroup) capturingGroup,
-                            path
-                        );
-                    }
-                }
-            } else {
-                Group capturingGroup = baseGroup.addGroup(repeatedGroupList.getName());
-                Object value = data.get(complexArrayColumn.getName());
+    private class FormatterRecordWriter extends JSONRecordWriter {
 
-                JSONObject capturingData = new JSONObject();
-                capturingData.put(elementType.getName(), value);
+        FormatterRecordWriter(MessageType schema) {
+            super(schema, isRegistryEnabled ? new RegistryValidatorFactory() : null);
+        }
 
-                updateParquetGroupWithData(
-                    capturingData,
-                    (SimpleGroup) capturingGroup,
-                    path
-                );
+        /**
+         * Another INFA hack to write only 1 values.
+         * We would receive a JSON object only when
+         * cardinality in INFA is turned off for 1-many
+         * relationships.
+         */
+        @Override
+        protected List<?> expandObject(JSONObject value) {
+            if (extractor.isExtractRequired(value)) {
+                return extractor.extract(value);
             }
+            return Collections.emptyList();
         }
     }
 
     /**
-     * <pre>
-     *     optional group identityMap (MAP) {
-     *       repeated group map {
-     *         required binary key (UTF8);
-     *         optional group value (LIST) {
-     *           repeated group list {
-     *             optional group element {
-     *               optional binary id (UTF8);
-     *               optional binary authenticatedState (UTF8);
-     *               optional boolean primary;
-     *             }
-     *           }
-     *         }
-     *       }
-     *     }
-     * </pre>
+     * Binds rules from {@link ValidationRegistry} to
+     * parquet columns. Rules of a column are looked up
+     * once, when its first value is written.
      */
-    private void buildMap(SimpleGroup currentGroup, Type mapColumnType, TraversablePath path, JSONObject data) {
-        assert mapColumnType instanceof GroupType;
-
-        final GroupType mapGroupType = mapColumnType.asGroupType();
-
-        // Fail fast checks
-        assert mapGroupType.getFieldCount() == 1;
-        assert mapGroupType.getFields().get(0).getRepetition() == Type.Repetition.REPEATED;
-        assert mapGroupType.getFields().get(0) instanceof GroupType;
-
-        final GroupType repeatedMapGroupType = mapGroupType.getType(0).asGroupType();
-
-        assert repeatedMapGroupType.getFieldCount() == 2;
-
-        // Add base Group 'identityMap' for example above to 'currentGroup`
-        Group baseGroup = currentGroup.addGroup(mapColumnType.getName());
-        final JSONObject mapData = (JSONObject) data.get(mapColumnType.getName());
-
-        mapData
-            .keySet()
-            .stream()
-            .forEach(key -> {
-                final JSONObject capturingData = new JSONObject();
-                capturingData.put(SDKConstants.CATALOG_MAP_KEY, key);
-                capturingData.put(SDKConstants.CATALOG_MAP_VALUE, mapData.get(key));
-
-                final Group capturingGroup = baseGroup.addGroup(repeatedMapGroupType.getName());
-                try {
-                    updateParquetGroupWithData(
-                        capturingData,
-                        (SimpleGroup) capturingGroup,
-                        path
-                    );
-                } catch (ConnectorSDKException e) {
-                    // TODO: Add logger here!
-                    e.printStackTrace();
+    private class RegistryValidatorFactory implements ColumnValidatorFactory {
+
+        @Override
+        public ValueValidator<String> getStringValidator(List<String> path) {
+            return getValidator(path, validationRegistry::getStringValidationRule);
+        }
+
+        @Override
+        public ValueValidator<Integer> getIntegerValidator(List<String> path) {
+            return getValidator(path, validationRegistry::getIntegerValidationRule);
+        }
+
+        @Override
+        public ValueValidator<Long> getLongValidator(List<String> path) {
+            return getValidator(path, validationRegistry::getLongValidationRule);
+        }
+
+        private <T> ValueValidator<T> getValidator(List<String> path, Function<TraversablePath, List<Rule<T>>> ruleLookup) {
+            final TraversablePath schemaPath = TraversablePath.path();
+            for (String node : path) {
+                schemaPath.withNode(node);
+            }
+            return new ValueValidator<T>() {
+                private List<Rule<T>> rules;
+
+                @Override
+                public void validate(T value) throws ParquetIOException {
+                    if (rules == null) {
+                        rules = ruleLookup.apply(schemaPath);
+                    }
+                    for (Rule<T> rule : rules) {
+                        try {
+                            rule.apply(value);
+                        } catch (ValidationException ex) {
+                            try {
+                                handleValidationException(ex, schemaPath);
+                            } catch (ConnectorSDKException cex) {
+                                throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_RECORD_WRITE_EXCEPTION, cex);
+                            }
+                        }
+                    }
                 }
-            });
+            };
+        }
     }
 
     @Deprecated
@@ -565,22 +487,52 @@ public class ParquetDataFormatter implements Formatter {
         return leavesProcessed;
     }
 
-    private byte[] getDataBuffer(String fileName, List<SimpleGroup> records) throws ConnectorSDKException {
-        byte[] data = null;
-        MessageType schema;
-        if (records != null) {
-            schema = (MessageType) records.get(0).getType();
-            try {
-                File f = writer.writeParquetFile(schema, fileName, records);
-                logger.log(Level.FINE, "Local file written");
-                data = Files.readAllBytes(Paths.get(f.getAbsolutePath()));
-            } catch (IOException e) {
-                throw new ConnectorSDKException("Error while executing getDataBuffer :" + e.getMessage(), e.getCause());
-            } catch (ParquetIOException pioEx) {
-                throw new ConnectorSDKException("Error from parquet IO library", pioEx);
+    private byte[] getDataBuffer(String fileName, List<JSONObject> dataTable, JSONRecordWriter recordWriter) throws ConnectorSDKException {
+        try {
+            File f = writer.writeJSONParquetFile(fileName, dataTable, recordWriter, getWriterOptions(dataTable, recordWriter));
+            logger.log(Level.FINE, "Local file written");
+            return Files.readAllBytes(Paths.get(f.getAbsolutePath()));
+        } catch (IOException e) {
+            throw new ConnectorSDKException("Error while executing getDataBuffer :" + e.getMessage(), e.getCause());
+        } catch (ParquetIOException pioEx) {
+            throw getConnectorSDKException(pioEx);
+        }
+    }
+
+    private void writeDataBuffer(List<JSONObject> dataTable, JSONRecordWriter recordWriter, OutputStream outputStream) throws ConnectorSDKException {
+        try {
+            writer.writeJSONParquetStream(dataTable, recordWriter, getWriterOptions(dataTable, recordWriter), outputStream);
+            logger.log(Level.FINE, "Parquet data encoded in memory");
+        } catch (ParquetIOException pioEx) {
+            throw getConnectorSDKException(pioEx);
+        }
+    }
+
+    /**
+     * Auto tuning runs once, on the first flush
+     * of the dataset this formatter writes to.
+     */
+    private ParquetWriterOptions getWriterOptions(List<JSONObject> dataTable, JSONRecordWriter recordWriter) throws ParquetIOException {
+        if (!writerOptions.isAutoTune()) {
+            return writerOptions;
+        }
+        synchronized (this) {
+            if (writerOptions.isAutoTune()) {
+                writerOptions = writer.tuneOptions(dataTable, recordWriter, writerOptions);
             }
+            return writerOptions;
+        }
+    }
+
+    /**
+     * Validation failures raised from {@link FormatterRecordWriter}
+     * are reported as they are.
+     */
+    private ConnectorSDKException getConnectorSDKException(ParquetIOException pioEx) {
+        if (pioEx.getCause() instanceof ConnectorSDKException) {
+            return (ConnectorSDKException) pioEx.getCause();
         }
-        return data;
+        return new ConnectorSDKException("Error from parquet IO library", pioEx);
     }
 
     /**
@@ -0,0 +1,86 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.write.writer.formatter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashes the key structure of a json record
+ * into a 64 bit FNV-1a fingerprint. Values do
+ * not contribute, only key names, key order and
+ * whether a value is an object, an array (shape
+ * of its first element), a scalar or null.
+ *
+ * Two records with the same fingerprint derive
+ * the same parquet schema.
+ */
+final class RecordShapeFingerprint {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private RecordShapeFingerprint() {
+    }
+
+    static long of(Map<?, ?> record) {
+        return mixObject(FNV_OFFSET_BASIS, record);
+    }
+
+    private static long mixObject(long hash, Map<?, ?> object) {
+        hash = mix(hash, '{');
+        for (Map.Entry<?, ?> entry : object.entrySet()) {
+            hash = mixKey(hash, String.valueOf(entry.getKey()));
+            hash = mixValue(hash, entry.getValue());
+        }
+        return mix(hash, '}');
+    }
+
+    private static long mixValue(long hash, Object value) {
+        if (value == null) {
+            return mix(hash, 'n');
+        }
+        if (value instanceof Map) {
+            return mixObject(hash, (Map<?, ?>) value);
+        }
+        if (value instanceof List) {
+            // Schema is derived from first element only.
+            final List<?> list = (List<?>) value;
+            hash = mix(hash, '[');
+            if (!list.isEmpty()) {
+                hash = mixValue(hash, list.get(0));
+            }
+            return mix(hash, ']');
+        }
+        return mix(hash, 's');
+    }
+
+    private static long mixKey(long hash, String key) {
+        // Length prefix keeps keys apart from the markers.
+        hash = mix(hash, (char) (key.length() >>> 16));
+        hash = mix(hash, (char) key.length());
+        for (int i = 0; i < key.length(); i++) {
+            hash = mix(hash, key.charAt(i));
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, char value) {
+        hash = (hash ^ (value & 0xFF)) * FNV_PRIME;
+        return (hash ^ (value >>> 8)) * FNV_PRIME;
+    }
+}
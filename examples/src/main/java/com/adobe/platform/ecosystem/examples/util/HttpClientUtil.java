@@ -62,6 +62,7 @@ public class HttpClientUtil {
     }
 
     public static HttpClient getHttpClient(boolean disableContentCompression) throws ConnectorSDKException {
+        // Platform APIs share a host, so a route may take the whole pool.
         int maxConnectionPool = 50;
         //Making http independent of SDK initialization.
         try {
@@ -71,11 +72,13 @@ public class HttpClientUtil {
         }
         if (disableContentCompression) {
             _httpClientCompressed = _httpClientCompressed == null ?
-                    HttpClientBuilder.create().setRetryHandler(httpRetryHandler()).disableContentCompression().setMaxConnTotal(maxConnectionPool).build() : _httpClientCompressed;
+                    HttpClientBuilder.create().setRetryHandler(httpRetryHandler()).disableContentCompression()
+                            .setMaxConnTotal(maxConnectionPool).setMaxConnPerRoute(maxConnectionPool).build() : _httpClientCompressed;
             return _httpClientCompressed;
         } else {
             _httpClientSimple = _httpClientSimple == null ?
-                    HttpClientBuilder.create().setRetryHandler(httpRetryHandler()).setMaxConnTotal(maxConnectionPool).build() : _httpClientSimple;
+                    HttpClientBuilder.create().setRetryHandler(httpRetryHandler())
+                            .setMaxConnTotal(maxConnectionPool).setMaxConnPerRoute(maxConnectionPool).build() : _httpClientSimple;
             return _httpClientSimple;
         }
     }
@@ -16,14 +16,26 @@
  */
 package com.adobe.platform.ecosystem.examples.data.ingestion.impl;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.client.methods.HttpPut;
+
 import org.json.simple.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
 
 import com.adobe.platform.ecosystem.examples.data.FileFormat;
+import com.adobe.platform.ecosystem.examples.data.ingestion.api.DataIngestionService;
+import com.adobe.platform.ecosystem.examples.data.write.buffer.ChunkedByteArrayOutputStream;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
 
 import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
 import com.adobe.platform.ecosystem.ut.BaseTest;
@@ -82,6 +94,52 @@ public class DataIngestionServiceTest extends BaseTest {
         }
     }
 
+    @Test
+    public void testWriteBufferToBatch() throws Exception {
+        byte[] data = "testData".getBytes(StandardCharsets.UTF_8);
+        ChunkedByteArrayOutputStream buffer = new ChunkedByteArrayOutputStream(3);
+        buffer.write(data, 0, data.length);
+
+        setupTestForHttpOutput(batchSample);
+        int response = dis.writeBufferToBatch("testBatchId", "testDataSetId", "testIMSOrg", "testAccessToken", FileFormat.PARQUET, buffer);
+        assertEquals(0, response);
+
+        ArgumentCaptor<HttpPut> requestCaptor = ArgumentCaptor.forClass(HttpPut.class);
+        Mockito.verify(httpClient).execute(requestCaptor.capture());
+        assertEquals(data.length, requestCaptor.getValue().getEntity().getContentLength());
+        assertTrue(requestCaptor.getValue().getEntity().isRepeatable());
+    }
+
+    @Test
+    public void testWriteBufferToBatchDefaultsToBytes() throws Exception {
+        byte[] data = "testData".getBytes(StandardCharsets.UTF_8);
+        ChunkedByteArrayOutputStream buffer = new ChunkedByteArrayOutputStream(3);
+        buffer.write(data, 0, data.length);
+
+        // Implementation predating buffered uploads.
+        List<byte[]> uploaded = new ArrayList<>();
+        DataIngestionService service = new DataIngestionService() {
+            @Override
+            public String getBatchId(String imsOrg, String accessToken, JSONObject payload) {
+                return "testBatchId";
+            }
+
+            @Override
+            public int writeToBatch(String batchId, String dataSetId, String imsOrg, String accessToken, FileFormat fileFormat, byte[] bytes) {
+                uploaded.add(bytes);
+                return 0;
+            }
+
+            @Override
+            public int signalBatchCompletion(String batchId, String imsOrg, String accessToken) {
+                return 0;
+            }
+        };
+        assertEquals(0, service.writeBufferToBatch("testBatchId", "testDataSetId", "testIMSOrg", "testAccessToken", FileFormat.PARQUET, buffer));
+        assertEquals(1, uploaded.size());
+        assertArrayEquals(data, uploaded.get(0));
+    }
+
     @Test
     public void testSignalBatchCompletion() throws ConnectorSDKException {
         try{
@@ -0,0 +1,178 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DataSetFileCacheTest {
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("cache").toFile();
+        directory.deleteOnExit();
+    }
+
+    @Test
+    public void testLoadOnce() throws IOException {
+        DataSetFileCache cache = new DataSetFileCache(directory, 1000);
+        AtomicInteger loads = new AtomicInteger();
+        DataSetFileCache.Loader loader = outputStream -> {
+            loads.incrementAndGet();
+            outputStream.write(new byte[100]);
+        };
+
+        assertNull(cache.get("dsf1", "file.parquet"));
+        File file = cache.get("dsf1", "file.parquet", loader);
+        assertEquals(100, file.length());
+        assertEquals(file, cache.get("dsf1", "file.parquet", loader));
+        assertEquals(1, loads.get());
+        assertEquals(100, cache.getSize());
+        // Only the published file is left.
+        assertEquals(1, directory.listFiles().length);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() throws IOException {
+        DataSetFileCache cache = new DataSetFileCache(directory, 250);
+        DataSetFileCache.Loader loader = outputStream -> outputStream.write(new byte[100]);
+        cache.get("dsf1", "a.parquet", loader);
+        cache.get("dsf1", "b.parquet", loader);
+        assertNotNull(cache.get("dsf1", "a.parquet"));
+
+        cache.get("dsf2", "c.parquet", loader);
+        assertNotNull(cache.get("dsf1", "a.parquet"));
+        assertNull(cache.get("dsf1", "b.parquet"));
+        assertNotNull(cache.get("dsf2", "c.parquet"));
+        assertEquals(200, cache.getSize());
+        assertEquals(2, directory.listFiles().length);
+    }
+
+    @Test
+    public void testFailedEvictionKeepsAccounting() throws IOException {
+        DataSetFileCache cache = new DataSetFileCache(directory, 150);
+        DataSetFileCache.Loader loader = outputStream -> outputStream.write(new byte[100]);
+        File a = cache.get("dsf1", "a.parquet", loader);
+        // A non empty directory can not be deleted.
+        assertTrue(a.delete() && a.mkdir() && new File(a, "child").createNewFile());
+
+        cache.get("dsf1", "b.parquet", loader);
+        assertEquals(200, cache.getSize());
+        assertTrue(a.exists());
+    }
+
+    @Test
+    public void testConcurrentMissesLoadOnce() throws Exception {
+        DataSetFileCache cache = new DataSetFileCache(directory, 1000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DataSetFileCache.Loader loader = outputStream -> {
+            loads.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                throw new IOException(ex);
+            }
+            outputStream.write(new byte[100]);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<File> first = executor.submit(() -> cache.get("dsf1", "file.parquet", loader));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            Future<File> second = executor.submit(() -> cache.get("dsf1", "file.parquet", loader));
+            release.countDown();
+            assertEquals(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+            assertEquals(100, cache.getSize());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDistinctKeysKeptApart() throws IOException {
+        DataSetFileCache cache = new DataSetFileCache(directory, 1000);
+        String[][] keys = {{"a_b", "c"}, {"a", "b_c"}, {"x/y", "f"}, {"x_y", "f"}, {"X_Y", "f"}};
+        for (int i = 0; i < keys.length; i++) {
+            final int length = i + 1;
+            cache.get(keys[i][0], keys[i][1], outputStream -> outputStream.write(new byte[length]));
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i + 1, cache.get(keys[i][0], keys[i][1]).length());
+        }
+        assertEquals(keys.length, directory.listFiles().length);
+    }
+
+    @Test
+    public void testFailedLoad() throws IOException {
+        DataSetFileCache cache = new DataSetFileCache(directory, 1000);
+        try {
+            cache.get("dsf1", "file.parquet", outputStream -> {
+                outputStream.write(new byte[10]);
+                throw new IOException("Connection reset");
+            });
+            fail("Load failure should be reported.");
+        } catch (IOException ex) {
+            assertEquals("Connection reset", ex.getMessage());
+        }
+        assertNull(cache.get("dsf1", "file.parquet"));
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        DataSetFileCache cache = new DataSetFileCache(directory, 1000);
+        cache.get("dsf1", "file.parquet", outputStream -> outputStream.write(new byte[100]));
+        File partial = new File(directory, "dsf2_file.parquet123.tmp");
+        assertTrue(partial.createNewFile());
+        assertTrue(partial.setLastModified(System.currentTimeMillis() - DataSetFileCache.STALE_TEMP_AGE_MILLIS - 1000));
+        // Download of another process still in flight.
+        File inFlight = new File(directory, "dsf3_file.parquet456.tmp");
+        assertTrue(inFlight.createNewFile());
+
+        DataSetFileCache reopened = new DataSetFileCache(directory, 1000);
+        assertNotNull(reopened.get("dsf1", "file.parquet"));
+        assertEquals(100, reopened.getSize());
+        assertFalse(partial.exists());
+        assertTrue(inFlight.exists());
+    }
+
+    @Test
+    public void testSharedPerDirectory() throws IOException {
+        assertTrue(DataSetFileCache.open(directory, 1000) == DataSetFileCache.open(new File(directory, "."), 2000));
+    }
+}
@@ -18,18 +18,36 @@ package com.adobe.platform.ecosystem.examples.data.read;
 
 import com.adobe.platform.ecosystem.examples.catalog.impl.CatalogAPIStrategy;
 import com.adobe.platform.ecosystem.examples.constants.SDKConstants;
+import com.adobe.platform.ecosystem.examples.data.access.model.DataSetFileProcessingEntity;
 import com.adobe.platform.ecosystem.examples.data.read.reader.DataAccessAPIReader;
+import com.adobe.platform.ecosystem.examples.parquet.wiring.impl.ParquetIOImpl;
+import com.adobe.platform.ecosystem.examples.parquet.write.JSONRecordWriter;
+import com.adobe.platform.ecosystem.examples.parquet.write.configuration.ParquetWriterOptions;
 import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
 import com.adobe.platform.ecosystem.ut.BaseTest;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.eq;
 
@@ -85,4 +103,183 @@ public class PlatformDataReaderFactoryTest extends BaseTest{
         Reader reader = readerFactory.getReader(readAttributeMap);
         assertTrue(reader != null);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetReaderWithProjectedFields() throws ConnectorSDKException {
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_FIELDS, "person.name, timestamp");
+        Reader reader = readerFactory.getReader(readAttributeMap);
+        assertTrue(reader instanceof DataAccessAPIReader);
+    }
+
+    @Test
+    public void testGetReaderWithFilter() throws ConnectorSDKException {
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_FILTER, "timestamp > 1509011304784; identity.namespace in (ECID, AAID)");
+        Reader reader = readerFactory.getReader(readAttributeMap);
+        assertTrue(reader instanceof DataAccessAPIReader);
+    }
+
+    @Test(expected = ConnectorSDKException.class)
+    public void testGetReaderWithInvalidFilter() throws ConnectorSDKException {
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_FILTER, "timestamp");
+        readerFactory.getReader(readAttributeMap);
+    }
+
+    @Test
+    public void testGetReaderWithParallelism() throws ConnectorSDKException {
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_PARALLELISM, "4");
+        Reader reader = readerFactory.getReader(readAttributeMap);
+        assertTrue(reader instanceof DataAccessAPIReader);
+    }
+
+    @Test(expected = ConnectorSDKException.class)
+    public void testGetReaderWithInvalidParallelism() throws ConnectorSDKException {
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_PARALLELISM, "0");
+        readerFactory.getReader(readAttributeMap);
+    }
+
+    @Test
+    public void testGetReaderWithReadAhead() throws ConnectorSDKException {
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_READ_AHEAD, "2");
+        Reader reader = readerFactory.getReader(readAttributeMap);
+        assertTrue(reader instanceof DataAccessAPIReader);
+    }
+
+    @Test(expected = ConnectorSDKException.class)
+    public void testGetReaderWithInvalidReadAhead() throws ConnectorSDKException {
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_READ_AHEAD, "-1");
+        readerFactory.getReader(readAttributeMap);
+    }
+
+    @Test
+    public void testGetReaderWithFileCache() throws Exception {
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_CACHE_DIRECTORY, Files.createTempDirectory("cache").toString());
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_CACHE_SIZE, "1048576");
+        Reader reader = readerFactory.getReader(readAttributeMap);
+        assertTrue(reader instanceof DataAccessAPIReader);
+    }
+
+    @Test(expected = ConnectorSDKException.class)
+    public void testGetReaderWithInvalidCacheSize() throws Exception {
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_CACHE_DIRECTORY, Files.createTempDirectory("cache").toString());
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_CACHE_SIZE, "0");
+        readerFactory.getReader(readAttributeMap);
+    }
+
+    @Test
+    public void testGetReaderWithStatisticsIndex() throws ConnectorSDKException {
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_STATISTICS_INDEX, "true");
+        Reader reader = readerFactory.getReader(readAttributeMap);
+        assertTrue(reader instanceof DataAccessAPIReader);
+    }
+
+    @Test
+    public void testGetReaderWithStreaming() throws ConnectorSDKException {
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_STREAMING, "true");
+        Reader reader = readerFactory.getReader(readAttributeMap);
+        assertTrue(reader instanceof DataAccessAPIReader);
+    }
+
+    @Test
+    public void testGetReaderWithAdaptiveRange() throws ConnectorSDKException {
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_ADAPTIVE_RANGE, "true");
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_RANGE_SIZE, "1048576");
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_MIN_RANGE_SIZE, "65536");
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_MAX_RANGE_SIZE, "16777216");
+        Reader reader = readerFactory.getReader(readAttributeMap);
+        assertTrue(reader instanceof DataAccessAPIReader);
+    }
+
+    @Test(expected = ConnectorSDKException.class)
+    public void testGetReaderWithInvalidRangeSize() throws ConnectorSDKException {
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_ADAPTIVE_RANGE, "true");
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_RANGE_SIZE, "1024");
+        readerFactory.getReader(readAttributeMap);
+    }
+
+    @Test
+    public void testGetReaderWithRangeParallelism() throws ConnectorSDKException {
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_RANGE_PARALLELISM, "4");
+        Reader reader = readerFactory.getReader(readAttributeMap);
+        assertTrue(reader instanceof DataAccessAPIReader);
+    }
+
+    @Test(expected = ConnectorSDKException.class)
+    public void testGetReaderWithInvalidRangeParallelism() throws ConnectorSDKException {
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_RANGE_PARALLELISM, "0");
+        readerFactory.getReader(readAttributeMap);
+    }
+
+    @Test
+    public void testGetReaderWithTypedCells() throws ConnectorSDKException {
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_TYPED, "true");
+        Reader reader = readerFactory.getReader(readAttributeMap);
+        assertTrue(reader instanceof DataAccessAPIReader);
+    }
+
+    @Test
+    public void testGetReaderWithTypedParquetValues() throws Exception {
+        setUpParquetFile("{\"id\":7,\"active\":true,\"name\":\"Bob\"}");
+
+        JSONArray strings = readerFactory.getReader(readAttributeMap).read(10);
+        assertEquals(1, strings.size());
+        assertEquals("7", ((JSONObject) strings.get(0)).get("id"));
+        assertEquals("true", ((JSONObject) strings.get(0)).get("active"));
+
+        readAttributeMap.put(SDKConstants.CONNECTOR_READ_ATTRIBUTE_TYPED, "true");
+        JSONArray typed = readerFactory.getReader(readAttributeMap).read(10);
+        assertEquals(1, typed.size());
+        assertEquals(7L, ((JSONObject) typed.get(0)).get("id"));
+        assertEquals(Boolean.TRUE, ((JSONObject) typed.get(0)).get("active"));
+        assertEquals("Bob", ((JSONObject) typed.get(0)).get("name"));
+    }
+
+    private void setUpParquetFile(String... records) throws Exception {
+        List<JSONObject> parsed = new ArrayList<>();
+        for (String record : records) {
+            parsed.add((JSONObject) new JSONParser().parse(record));
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new ParquetIOImpl().getParquetIOWriter().writeJSONParquetStream(
+            parsed,
+            new JSONRecordWriter(MessageTypeParser.parseMessageType(
+                "message Message { optional int64 id; optional boolean active; optional binary name (UTF8); }")),
+            ParquetWriterOptions.defaults(),
+            outputStream
+        );
+        byte[] file = outputStream.toByteArray();
+
+        JSONObject self = new JSONObject();
+        self.put("href", "https://platform.adobe.io/files/dsf0");
+        JSONObject links = new JSONObject();
+        links.put("self", self);
+        JSONObject entity = new JSONObject();
+        entity.put("name", "dsf0.parquet");
+        entity.put("length", String.valueOf(file.length));
+        entity.put("_links", links);
+        Mockito.when(das.getDataSetFileEntries(Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
+            .thenAnswer(invocation -> new ArrayList<>(Arrays.asList(new DataSetFileProcessingEntity(entity))));
+
+        // Replacing the access token answer of BaseTest.
+        Mockito.doAnswer(invocation -> {
+            if (!(invocation.getArguments()[0] instanceof HttpGet)) {
+                // Access token exchange.
+                BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+                response.setEntity(new StringEntity(jwtExchangeResponse));
+                return response;
+            }
+            HttpGet request = (HttpGet) invocation.getArguments()[0];
+            if (request.getFirstHeader("Range") == null) {
+                BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+                response.setEntity(new ByteArrayEntity(file));
+                return response;
+            }
+            String[] range = request.getFirstHeader("Range").getValue().substring("bytes=".length()).split("-");
+            int from = Integer.parseInt(range[0]);
+            int to = Math.min(file.length - 1, Integer.parseInt(range[1]));
+            BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 206, "Partial Content");
+            response.setHeader("Content-Range", "bytes " + from + "-" + to + "/" + file.length);
+            response.setEntity(new ByteArrayEntity(Arrays.copyOfRange(file, from, to + 1)));
+            return response;
+        }).when(httpClient).execute(Mockito.any());
+    }
+}
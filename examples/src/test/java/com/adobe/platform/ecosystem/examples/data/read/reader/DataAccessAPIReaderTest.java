@@ -31,6 +31,7 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.message.HeaderGroup;
 import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -38,6 +39,7 @@ import org.mockito.Mockito;
 import com.adobe.platform.ecosystem.examples.parquet.read.ParquetIOReader;
 import com.adobe.platform.ecosystem.examples.parquet.wiring.impl.ParquetIOImpl;
 import com.adobe.platform.ecosystem.examples.constants.SDKConstants;
+import com.adobe.platform.ecosystem.examples.data.read.configuration.TextReaderConfiguration;
 import com.adobe.platform.ecosystem.examples.data.wiring.DataWiringParam;
 import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
 import com.adobe.platform.ecosystem.ut.BaseTest;
@@ -161,6 +163,35 @@ public class DataAccessAPIReaderTest extends BaseTest {
         assert(dataAccessAPIReader.hasMoreData() == false);
     }
 
+    @Test
+    public void testReadStreaming() throws ConnectorSDKException {
+        TextReaderConfiguration configuration = TextReaderConfiguration.builder()
+                .with(builder -> builder.streaming = true)
+                .build();
+        dataAccessAPIReader = new DataAccessAPIReader(catService,das,param,httpClient, new ParquetIOImpl().getParquetIOReader(true), null, 0, null, configuration);
+        JSONArray array = dataAccessAPIReader.read(5);
+        JSONArray array1 = dataAccessAPIReader.read(5);
+        assert(array.size() == 5);
+        assert(array1.size() == 4);
+        assert(((JSONObject) array1.get(3)).get("1").equals("10"));
+        assert(dataAccessAPIReader.hasMoreData() == false);
+    }
+
+    @Test
+    public void testReadAdaptiveRange() throws ConnectorSDKException {
+        TextReaderConfiguration configuration = TextReaderConfiguration.builder()
+                .with(builder -> builder.adaptiveRange = true)
+                .build();
+        dataAccessAPIReader = new DataAccessAPIReader(catService,das,param,httpClient, new ParquetIOImpl().getParquetIOReader(true), null, 0, null, configuration);
+        assert(dataAccessAPIReader.read(5).size() == 5);
+        assert(dataAccessAPIReader.read(5).size() == 4);
+
+        DataWiringParam mockParam = new DataWiringParam("JSONImsOrg", dataset);
+        dataAccessAPIReader = new DataAccessAPIReader(catService,das,mockParam,httpClient, new ParquetIOImpl().getParquetIOReader(true), null, 0, null, configuration);
+        assert(dataAccessAPIReader.read(4).size() == 4);
+        assert(dataAccessAPIReader.read(1).size() == 1);
+    }
+
     @Test
     public void testParquetProcessor() throws ConnectorSDKException {
         ParquetIOReader mockPIOReader = Mockito.mock(ParquetIOReader.class);
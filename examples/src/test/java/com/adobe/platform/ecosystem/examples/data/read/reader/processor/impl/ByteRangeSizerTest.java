@@ -0,0 +1,82 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
+
+import com.adobe.platform.ecosystem.examples.data.read.configuration.TextReaderConfiguration;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+public class ByteRangeSizerTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private final TextReaderConfiguration adaptive = TextReaderConfiguration.builder()
+            .with(builder -> {
+                builder.adaptiveRange = true;
+                builder.rangeSize = 8 * MB;
+                builder.minRangeSize = MB;
+                builder.maxRangeSize = 32 * MB;
+            })
+            .build();
+
+    @Test
+    public void testFixedRange() {
+        ByteRangeSizer sizer = new ByteRangeSizer(TextReaderConfiguration.defaults(), () -> 0);
+        assertEquals(TextReaderConfiguration.DEFAULT_RANGE_SIZE, sizer.getRangeSize(1));
+        sizer.onRange(TextReaderConfiguration.DEFAULT_RANGE_SIZE, 10, 1000, 1);
+        assertEquals(TextReaderConfiguration.DEFAULT_RANGE_SIZE, sizer.getRangeSize(1));
+    }
+
+    @Test
+    public void testGrowsWhenLatencyBound() {
+        ByteRangeSizer sizer = new ByteRangeSizer(adaptive, () -> Long.MAX_VALUE);
+        sizer.onRange(8 * MB, 8 * 1024, 100, 900);
+        assertEquals(8 * MB, sizer.getRangeSize(Integer.MAX_VALUE));
+        sizer.onRange(8 * MB, 8 * 1024, 500, 500);
+        assertEquals(16 * MB, sizer.getRangeSize(Integer.MAX_VALUE));
+        sizer.onRange(16 * MB, 16 * 1024, 500, 500);
+        sizer.onRange(32 * MB, 32 * 1024, 500, 500);
+        assertEquals(32 * MB, sizer.getRangeSize(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testShrinksUnderMemoryPressure() {
+        AtomicLong freeMemory = new AtomicLong(Long.MAX_VALUE);
+        ByteRangeSizer sizer = new ByteRangeSizer(adaptive, freeMemory::get);
+        assertEquals(8 * MB, sizer.getRangeSize(Integer.MAX_VALUE));
+        freeMemory.set(24 * MB);
+        assertEquals(2 * MB, sizer.getRangeSize(Integer.MAX_VALUE));
+        freeMemory.set(0);
+        assertEquals(MB, sizer.getRangeSize(Integer.MAX_VALUE));
+        // Does not grow back by itself.
+        freeMemory.set(Long.MAX_VALUE);
+        assertEquals(MB, sizer.getRangeSize(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testSmallReads() {
+        ByteRangeSizer sizer = new ByteRangeSizer(adaptive, () -> Long.MAX_VALUE);
+        assertEquals(MB, sizer.getRangeSize(10));
+        assertEquals(4 * MB, sizer.getRangeSize(2 * 1024));
+        sizer.onRange(MB, 256, 1, 1);
+        // 4 KB records seen.
+        assertEquals(8 * MB, sizer.getRangeSize(2 * 1024));
+        assertEquals(MB, sizer.getRangeSize(10));
+    }
+}
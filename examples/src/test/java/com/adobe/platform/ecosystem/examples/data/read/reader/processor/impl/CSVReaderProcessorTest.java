@@ -0,0 +1,175 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
+
+import com.adobe.platform.ecosystem.examples.catalog.model.DataType;
+import com.adobe.platform.ecosystem.examples.catalog.model.SchemaField;
+import com.adobe.platform.ecosystem.examples.data.access.model.DataSetFileProcessingEntity;
+import com.adobe.platform.ecosystem.examples.data.read.configuration.TextReaderConfiguration;
+import com.adobe.platform.ecosystem.ut.BaseTest;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.json.simple.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class CSVReaderProcessorTest extends BaseTest {
+
+    private static final int ROWS = 50;
+
+    private static final int RANGE_SIZE = 16;
+
+    private final List<JSONObject> records = new ArrayList<>();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private byte[] file;
+
+    @Before
+    public void before() throws Exception {
+        super.setUp();
+        Mockito.when(dataset.getFileDescription()).thenReturn(fileDescription);
+        Mockito.when(fileDescription.getDelimiter()).thenReturn(',');
+
+        StringBuilder csv = new StringBuilder("id,note\r\n");
+        for (int i = 0; i < ROWS; i++) {
+            String note = i % 3 == 0 ? "line\nbreak, \"quoted\" ü" : "plain " + i;
+            JSONObject record = new JSONObject();
+            record.put("id", String.valueOf(i));
+            record.put("note", note);
+            records.add(record);
+            csv.append(i).append(',').append(i % 3 == 0 ? "\"line\nbreak, \"\"quoted\"\" ü\"" : note).append("\r\n");
+        }
+        file = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        Mockito.when(httpClient.execute(Mockito.any())).thenAnswer(invocation -> {
+            if (!(invocation.getArguments()[0] instanceof HttpGet)) {
+                // Access token exchange.
+                BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+                response.setEntity(new StringEntity(jwtExchangeResponse));
+                return response;
+            }
+            HttpGet request = (HttpGet) invocation.getArguments()[0];
+            requests.incrementAndGet();
+            String[] range = request.getFirstHeader("Range").getValue().substring("bytes=".length()).split("-");
+            int from = Integer.parseInt(range[0]);
+            int to = Math.min(file.length - 1, Integer.parseInt(range[1]));
+            BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 206, "Partial Content");
+            response.setHeader("Content-Range", "bytes " + from + "-" + to + "/" + file.length);
+            response.setEntity(new ByteArrayEntity(Arrays.copyOfRange(file, from, to + 1)));
+            return response;
+        });
+    }
+
+    @Test
+    public void testStreaming() throws Exception {
+        assertEquals(records, read(builder -> builder.streaming = true, file.length));
+        assertEquals((file.length + RANGE_SIZE) / (RANGE_SIZE + 1), requests.get());
+    }
+
+    @Test
+    public void testParallelRanges() throws Exception {
+        assertEquals(records, read(builder -> builder.rangeParallelism = 4, file.length));
+        assertEquals((file.length + RANGE_SIZE) / (RANGE_SIZE + 1), requests.get());
+        // Range threads stop once the last file is read.
+        long deadline = System.currentTimeMillis() + 5000;
+        while (hasRangeThreads() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(hasRangeThreads());
+    }
+
+    @Test
+    public void testParallelRangesOfUnknownLength() throws Exception {
+        // Length is taken from the first range read.
+        assertEquals(records, read(builder -> builder.rangeParallelism = 3, 0));
+    }
+
+    @Test
+    public void testTyped() throws Exception {
+        Mockito.when(dataset.getFlattenedSchemaFields()).thenReturn(Arrays.asList(
+            new SchemaField("id", DataType.IntegerType, null),
+            new SchemaField("note", DataType.StringType, null)
+        ));
+        for (JSONObject record : records) {
+            record.put("id", Integer.parseInt((String) record.get("id")));
+        }
+        assertEquals(records, read(builder -> builder.typed = true, file.length));
+    }
+
+    @Test
+    public void testProjection() throws Exception {
+        for (JSONObject record : records) {
+            record.remove("id");
+        }
+        assertEquals(records, read(builder -> builder.projectedFields = Arrays.asList("note", "unknown"), file.length));
+        assertEquals(records, read(builder -> {
+            builder.projectedFields = Arrays.asList("note");
+            builder.rangeParallelism = 3;
+        }, file.length));
+    }
+
+    private List<JSONObject> read(Consumer<TextReaderConfiguration.Builder> configuration, long length) throws Exception {
+        CSVReaderProcessor processor = new CSVReaderProcessor(
+            das,
+            httpClient,
+            param,
+            Arrays.asList("dsf0"),
+            getEntities(length),
+            TextReaderConfiguration.builder()
+                .with(builder -> builder.rangeSize = RANGE_SIZE)
+                .with(configuration)
+                .build()
+        );
+        List<JSONObject> read = new ArrayList<>();
+        while (processor.hasMoreData()) {
+            read.addAll(processor.processData(7));
+        }
+        assertEquals(0, processor.getErrorRecordCount().intValue());
+        return read;
+    }
+
+    private static boolean hasRangeThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .anyMatch(thread -> thread.isAlive() && "dataset-reader-range".equals(thread.getName()));
+    }
+
+    private List<DataSetFileProcessingEntity> getEntities(long length) {
+        JSONObject self = new JSONObject();
+        self.put("href", "https://platform.adobe.io/files/dsf0");
+        JSONObject links = new JSONObject();
+        links.put("self", self);
+        JSONObject entity = new JSONObject();
+        entity.put("name", "dsf0.csv");
+        entity.put("length", String.valueOf(length));
+        entity.put("_links", links);
+        return new ArrayList<>(Arrays.asList(new DataSetFileProcessingEntity(entity)));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CSVStreamParserTest {
+
+    @Test
+    public void testParse() throws Exception {
+        List<List<String>> records = parse(',', "id,name\r\n1,\"a,b\"\n\n2,\"line\nbreak \"\"quoted\"\"\"\r\n3,es\\,caped\\n\n4,");
+        assertEquals(5, records.size());
+        assertEquals(Arrays.asList("id", "name"), records.get(0));
+        assertEquals(Arrays.asList("1", "a,b"), records.get(1));
+        assertEquals(Arrays.asList("2", "line\nbreak \"quoted\""), records.get(2));
+        assertEquals(Arrays.asList("3", "es,caped\n"), records.get(3));
+        assertEquals(Arrays.asList("4", ""), records.get(4));
+    }
+
+    @Test
+    public void testRecordsSplitAcrossStreams() throws Exception {
+        byte[] bytes = "id|name\n1|\"multi\nline\"\n2|café\r\n3|über".getBytes(StandardCharsets.UTF_8);
+        List<List<String>> expected = parse('|', new String(bytes, StandardCharsets.UTF_8));
+        // Every split point, including ones within a multi-byte character.
+        for (int split = 1; split < bytes.length; split++) {
+            CSVStreamParser parser = new CSVStreamParser('|');
+            List<List<String>> records = new ArrayList<>();
+            CSVStreamParser.RecordConsumer consumer = row -> records.add(row.toList());
+            parser.parse(new ByteArrayInputStream(bytes, 0, split), consumer);
+            parser.parse(new ByteArrayInputStream(bytes, split, bytes.length - split), consumer);
+            parser.finish(consumer);
+            assertEquals("split at " + split, expected, records);
+        }
+        assertEquals(Arrays.asList("2", "café"), expected.get(2));
+        assertEquals(Arrays.asList("3", "über"), expected.get(3));
+    }
+
+    @Test
+    public void testProjectedByteBuffers() throws Exception {
+        byte[] bytes = "a,b,c\n1,\"x,y\",3\n4,5,\"6\n7\"\n8,9".getBytes(StandardCharsets.UTF_8);
+        CSVStreamParser parser = new CSVStreamParser(',');
+        List<List<String>> records = new ArrayList<>();
+        CSVStreamParser.RecordConsumer consumer = row -> {
+            if (records.isEmpty()) {
+                parser.project(new boolean[]{false, true});
+            }
+            records.add(row.toList());
+        };
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length - 10);
+        direct.put(bytes, 10, bytes.length - 10).flip();
+        parser.parse(ByteBuffer.wrap(bytes, 0, 10), consumer);
+        parser.parse(direct, consumer);
+        parser.finish(consumer);
+        assertFalse(direct.hasRemaining());
+        assertEquals(Arrays.asList(
+            Arrays.asList("a", "b", "c"),
+            Arrays.asList("", "x,y", ""),
+            Arrays.asList("", "5", ""),
+            Arrays.asList("", "9")
+        ), records);
+    }
+
+    @Test
+    public void testSupports() {
+        assertTrue(CSVStreamParser.supports(','));
+        assertTrue(CSVStreamParser.supports('\t'));
+        assertFalse(CSVStreamParser.supports('"'));
+        assertFalse(CSVStreamParser.supports('§'));
+    }
+
+    private List<List<String>> parse(char delimiter, String csv) throws Exception {
+        CSVStreamParser parser = new CSVStreamParser(delimiter);
+        List<List<String>> records = new ArrayList<>();
+        CSVStreamParser.RecordConsumer consumer = row -> records.add(row.toList());
+        parser.parse(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), consumer);
+        parser.finish(consumer);
+        return records;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
+
+import com.adobe.platform.ecosystem.examples.catalog.model.DataType;
+import com.adobe.platform.ecosystem.examples.catalog.model.SchemaField;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CSVValueDecoderTest {
+
+    @Test
+    public void testIntegers() {
+        assertEquals(42, decode(CSVValueDecoder.INTEGER, " 42 "));
+        assertEquals(Integer.MIN_VALUE, decode(CSVValueDecoder.INTEGER, "-2147483648"));
+        assertEquals(CSVValueDecoder.INVALID, decode(CSVValueDecoder.INTEGER, "2147483648"));
+        assertEquals(CSVValueDecoder.INVALID, decode(CSVValueDecoder.INTEGER, "4.2"));
+        assertEquals(Long.MIN_VALUE, decode(CSVValueDecoder.LONG, "-9223372036854775808"));
+        assertEquals(Long.MAX_VALUE, decode(CSVValueDecoder.LONG, "+9223372036854775807"));
+        assertEquals(CSVValueDecoder.INVALID, decode(CSVValueDecoder.LONG, "9223372036854775808"));
+        assertEquals(CSVValueDecoder.INVALID, decode(CSVValueDecoder.LONG, "-"));
+        assertNull(decode(CSVValueDecoder.LONG, ""));
+    }
+
+    @Test
+    public void testDoubles() {
+        for (String value : Arrays.asList("0", "-1.5", "38.08", "-113.57", ".5", "5.", "0.1", "123456789.012345",
+            "1e10", "1.2345678901234567", "-0.000000000000000000000001", "NaN")) {
+            assertEquals(value, Double.parseDouble(value), decode(CSVValueDecoder.DOUBLE, value));
+        }
+        assertEquals(CSVValueDecoder.INVALID, decode(CSVValueDecoder.DOUBLE, "."));
+        assertEquals(CSVValueDecoder.INVALID, decode(CSVValueDecoder.DOUBLE, "1.2.3"));
+        assertEquals(CSVValueDecoder.INVALID, decode(CSVValueDecoder.DOUBLE, "abc"));
+    }
+
+    @Test
+    public void testBooleansAndDates() {
+        assertEquals(true, decode(CSVValueDecoder.BOOLEAN, "TRUE"));
+        assertEquals(false, decode(CSVValueDecoder.BOOLEAN, "0"));
+        assertEquals(CSVValueDecoder.INVALID, decode(CSVValueDecoder.BOOLEAN, "yes"));
+        assertEquals(0, decode(CSVValueDecoder.DATE, "1970-01-01"));
+        assertEquals(6919, decode(CSVValueDecoder.DATE, "1988-12-11"));
+        assertEquals(CSVValueDecoder.INVALID, decode(CSVValueDecoder.DATE, "1988-02-30"));
+        assertEquals(CSVValueDecoder.INVALID, decode(CSVValueDecoder.DATE, "12/11/1988"));
+    }
+
+    @Test
+    public void testCompile() {
+        CSVValueDecoder[] decoders = CSVValueDecoder.compile(
+            Arrays.asList("id", "person_birthDate", "person.name", "other"),
+            Arrays.asList(
+                new SchemaField("id", DataType.LongType, null),
+                new SchemaField("person.birthDate", DataType.DateType, null),
+                new SchemaField("person.name", DataType.StringType, null)
+            )
+        );
+        assertArrayEquals(new CSVValueDecoder[]{CSVValueDecoder.LONG, CSVValueDecoder.DATE, null, null}, decoders);
+    }
+
+    private Object decode(CSVValueDecoder decoder, String value) {
+        byte[] bytes = ("," + value + ",").getBytes(StandardCharsets.UTF_8);
+        return decoder.decode(bytes, 1, bytes.length - 1);
+    }
+}
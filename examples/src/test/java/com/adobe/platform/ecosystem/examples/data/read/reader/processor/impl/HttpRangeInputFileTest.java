@@ -0,0 +1,144 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
+
+import com.adobe.platform.ecosystem.examples.parquet.read.ParquetIOReader;
+import com.adobe.platform.ecosystem.examples.parquet.wiring.impl.ParquetIOImpl;
+import com.adobe.platform.ecosystem.examples.parquet.write.JSONRecordWriter;
+import com.adobe.platform.ecosystem.examples.parquet.write.configuration.ParquetWriterOptions;
+import com.adobe.platform.ecosystem.examples.util.HttpClientUtil;
+import org.apache.http.Header;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.json.simple.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HttpRangeInputFileTest {
+
+    private static final int ROWS = 20000;
+
+    private final List<JSONObject> records = new ArrayList<>();
+
+    private byte[] file;
+
+    private HttpClient httpClient;
+
+    private boolean rangeSupported;
+
+    @Before
+    public void setUp() throws Exception {
+        for (int i = 0; i < ROWS; i++) {
+            JSONObject record = new JSONObject();
+            record.put("id", String.valueOf(i));
+            record.put("payload", "payload-" + i + "-" + Long.toHexString(Double.doubleToLongBits(Math.random())));
+            records.add(record);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new ParquetIOImpl().getParquetIOWriter().writeJSONParquetStream(
+            records,
+            new JSONRecordWriter(MessageTypeParser.parseMessageType(
+                "message Message { optional binary id (UTF8); optional binary payload (UTF8); }")),
+            ParquetWriterOptions.builder().with(builder -> builder.codec = ParquetWriterOptions.Codec.UNCOMPRESSED).build(),
+            outputStream
+        );
+        file = outputStream.toByteArray();
+
+        rangeSupported = true;
+        httpClient = Mockito.mock(HttpClient.class);
+        Mockito.when(httpClient.execute(Mockito.any())).thenAnswer(invocation -> {
+            HttpGet request = (HttpGet) invocation.getArguments()[0];
+            assertEquals("Bearer token", request.getFirstHeader("Authorization").getValue());
+            if (!rangeSupported) {
+                BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+                response.setEntity(new ByteArrayEntity(file));
+                return response;
+            }
+            String[] range = request.getFirstHeader("Range").getValue().substring("bytes=".length()).split("-");
+            int from = Integer.parseInt(range[0]);
+            int to = Math.min(file.length - 1, Integer.parseInt(range[1]));
+            BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 206, "Partial Content");
+            response.setHeader("Content-Range", "bytes " + from + "-" + to + "/" + file.length);
+            response.setEntity(new ByteArrayEntity(Arrays.copyOfRange(file, from, to + 1)));
+            return response;
+        });
+    }
+
+    @Test
+    public void testProjectedRead() throws Exception {
+        HttpRangeInputFile inputFile = newInputFile(file.length);
+        ParquetIOReader reader = new ParquetIOImpl().getParquetIOReader(true, Collections.singletonList("id"));
+        reader.initInputForRead(inputFile);
+        List<JSONObject> read = reader.processData(ROWS + 1);
+        reader.readerClose();
+
+        assertEquals(ROWS, read.size());
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(Collections.singletonMap("id", String.valueOf(i)), read.get(i));
+        }
+        // Payload column is never fetched.
+        assertTrue(inputFile.getBytesFetched() < file.length / 2);
+    }
+
+    @Test
+    public void testUnknownLength() throws Exception {
+        HttpRangeInputFile inputFile = newInputFile(0);
+        assertEquals(file.length, inputFile.getLength());
+
+        ParquetIOReader reader = new ParquetIOImpl().getParquetIOReader(true);
+        reader.initInputForRead(inputFile);
+        assertEquals(records, reader.processData(ROWS + 1));
+        reader.readerClose();
+    }
+
+    @Test
+    public void testRangeNotSupported() throws Exception {
+        rangeSupported = false;
+        HttpRangeInputFile inputFile = newInputFile(0);
+        ParquetIOReader reader = new ParquetIOImpl().getParquetIOReader(true);
+        reader.initInputForRead(inputFile);
+        assertEquals(records, reader.processData(ROWS + 1));
+        reader.readerClose();
+        // Whole file is downloaded once and serves every read.
+        assertEquals(1, inputFile.getRequests());
+        assertEquals(file.length, inputFile.getBytesFetched());
+    }
+
+    private HttpRangeInputFile newInputFile(long length) {
+        return new HttpRangeInputFile(
+            new HttpClientUtil(httpClient),
+            URI.create("https://platform.adobe.io/data/foundation/export/files/file1?path=file1.parquet"),
+            new Header[]{new BasicHeader("Authorization", "Bearer token")},
+            length
+        );
+    }
+}
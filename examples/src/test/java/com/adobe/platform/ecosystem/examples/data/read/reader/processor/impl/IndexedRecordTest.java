@@ -0,0 +1,157 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedRecordTest {
+
+    private final IndexedRecord.Header header = new IndexedRecord.Header(Arrays.asList("id", "name", "note"));
+
+    @Test
+    public void testReadsAsMap() throws Exception {
+        IndexedRecord record = new IndexedRecord(header, new Object[]{1, "Bob", null});
+        JSONObject expected = expected();
+
+        assertEquals(expected, record);
+        assertEquals(record, expected);
+        assertEquals(expected.hashCode(), record.hashCode());
+        assertEquals(expected.keySet(), record.keySet());
+        assertEquals(3, record.size());
+        assertEquals("Bob", record.get("name"));
+        assertNull(record.get("other"));
+        assertEquals("x", record.getOrDefault("other", "x"));
+        assertTrue(record.containsKey("note"));
+        assertTrue(record.containsValue(1));
+        assertEquals(new HashMap<>(expected), new HashMap<>(record));
+        assertEquals(new JSONParser().parse(expected.toJSONString()), new JSONParser().parse(record.toJSONString()));
+        assertTrue(record.isIndexed());
+    }
+
+    @Test
+    public void testChanges() {
+        IndexedRecord record = new IndexedRecord(header, new Object[]{1, "Bob", null});
+        IndexedRecord clone = (IndexedRecord) record.clone();
+        assertEquals("Bob", record.put("name", "Alice"));
+        assertTrue(record.isIndexed());
+
+        for (Object entry : clone.entrySet()) {
+            ((Map.Entry) entry).setValue("v");
+        }
+        assertEquals(Arrays.asList("v", "v", "v"), Arrays.asList(clone.values().toArray()));
+
+        record.put("other", 2);
+        record.remove("note");
+        assertFalse(record.isIndexed());
+        JSONObject expected = expected();
+        expected.put("name", "Alice");
+        expected.put("other", 2);
+        expected.remove("note");
+        assertEquals(expected, record);
+
+        clone.clear();
+        assertTrue(clone.isEmpty());
+    }
+
+    @Test
+    public void testRemovalsThroughViews() {
+        IndexedRecord record = new IndexedRecord(header, new Object[]{1, "Bob", null});
+        Set keys = record.keySet();
+        assertTrue(keys.remove("note"));
+        assertFalse(keys.remove("note"));
+        assertFalse(record.isIndexed());
+        JSONObject expected = expected();
+        expected.remove("note");
+        assertEquals(expected, record);
+        // Views taken before the copy read the map.
+        assertEquals(expected.keySet(), keys);
+
+        record = new IndexedRecord(header, new Object[]{1, "Bob", null});
+        assertTrue(record.values().remove("Bob"));
+        assertEquals(Arrays.asList("id", "note"), sorted(record.keySet()));
+
+        record = new IndexedRecord(header, new Object[]{1, "Bob", null});
+        assertTrue(record.entrySet().removeIf(entry -> ((Map.Entry) entry).getValue() == null));
+        assertEquals(Arrays.asList("id", "name"), sorted(record.keySet()));
+
+        record = new IndexedRecord(header, new Object[]{1, "Bob", null});
+        Iterator entries = record.entrySet().iterator();
+        Map.Entry first = (Map.Entry) entries.next();
+        entries.remove();
+        Map.Entry second = (Map.Entry) entries.next();
+        second.setValue("Alice");
+        assertEquals(1, first.getValue());
+        assertEquals("Alice", record.get("name"));
+        assertTrue(entries.hasNext());
+        entries.next();
+        assertFalse(entries.hasNext());
+        expected = expected();
+        expected.remove("id");
+        expected.put("name", "Alice");
+        assertEquals(expected, record);
+
+        record = new IndexedRecord(header, new Object[]{1, "Bob", null});
+        record.values().clear();
+        assertTrue(record.isEmpty());
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(bytes)) {
+            outputStream.writeObject(new IndexedRecord(header, new Object[]{1, "Bob", null}));
+        }
+        try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(expected(), inputStream.readObject());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateColumns() {
+        new IndexedRecord.Header(Arrays.asList("id", "id"));
+    }
+
+    private static List<Object> sorted(Set keys) {
+        return Arrays.asList(new TreeSet<Object>(keys).toArray());
+    }
+
+    private JSONObject expected() {
+        JSONObject expected = new JSONObject();
+        expected.put("id", 1);
+        expected.put("name", "Bob");
+        expected.put("note", null);
+        return expected;
+    }
+}
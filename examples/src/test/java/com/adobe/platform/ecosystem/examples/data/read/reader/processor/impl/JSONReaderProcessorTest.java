@@ -0,0 +1,122 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
+
+import com.adobe.platform.ecosystem.examples.data.access.model.DataSetFileProcessingEntity;
+import com.adobe.platform.ecosystem.examples.data.read.configuration.TextReaderConfiguration;
+import com.adobe.platform.ecosystem.ut.BaseTest;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class JSONReaderProcessorTest extends BaseTest {
+
+    private static final int ROWS = 30;
+
+    private static final int RANGE_SIZE = 16;
+
+    private final List<Object> records = new ArrayList<>();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private byte[] file;
+
+    @Before
+    public void before() throws Exception {
+        super.setUp();
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < ROWS; i++) {
+            String record = "{\"id\":" + i + ",\"note\":\"" + (i % 3 == 0 ? "} { ü \\\"quoted\\\"" : "plain " + i) + "\"}";
+            records.add(new JSONParser().parse(record));
+            json.append(i == 0 ? "" : ",\n").append(record);
+        }
+        file = json.append("\n]").toString().getBytes(StandardCharsets.UTF_8);
+
+        Mockito.when(httpClient.execute(Mockito.any())).thenAnswer(invocation -> {
+            if (!(invocation.getArguments()[0] instanceof HttpGet)) {
+                // Access token exchange.
+                BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+                response.setEntity(new StringEntity(jwtExchangeResponse));
+                return response;
+            }
+            HttpGet request = (HttpGet) invocation.getArguments()[0];
+            requests.incrementAndGet();
+            String[] range = request.getFirstHeader("Range").getValue().substring("bytes=".length()).split("-");
+            int from = Integer.parseInt(range[0]);
+            int to = Math.min(file.length - 1, Integer.parseInt(range[1]));
+            BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 206, "Partial Content");
+            response.setHeader("Content-Range", "bytes " + from + "-" + to + "/" + file.length);
+            response.setEntity(new ByteArrayEntity(Arrays.copyOfRange(file, from, to + 1)));
+            return response;
+        });
+    }
+
+    @Test
+    public void testRangesParsedIncrementally() throws Exception {
+        JSONReaderProcessor processor = new JSONReaderProcessor(
+            das,
+            httpClient,
+            param,
+            Arrays.asList("dsf0"),
+            getEntities(),
+            TextReaderConfiguration.builder().with(builder -> builder.rangeSize = RANGE_SIZE).build()
+        );
+        List<JSONObject> read = new ArrayList<>();
+        while (processor.hasMoreData()) {
+            read.addAll(processor.processData(7));
+        }
+        assertEquals(records, read);
+        assertEquals((file.length + RANGE_SIZE) / (RANGE_SIZE + 1), requests.get());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDeprecatedBracketScan() throws Exception {
+        JSONReaderProcessor processor = new JSONReaderProcessor(das, httpClient, param, Arrays.asList("dsf0"), getEntities());
+        assertEquals(true, JSONReaderProcessor.isOpenParenthesis('{'));
+        assertEquals(true, JSONReaderProcessor.isClosedParenthesis(']'));
+        assertEquals(false, JSONReaderProcessor.isOpenParenthesis('}'));
+        assertEquals(14, processor.getValidJsonEndIndexFromExpression("{\"a\":[1]}\n{\"b\"}\n{\"c\""));
+        assertEquals(0, processor.getValidJsonEndIndexFromExpression("{\"a\":"));
+    }
+
+    private List<DataSetFileProcessingEntity> getEntities() {
+        JSONObject self = new JSONObject();
+        self.put("href", "https://platform.adobe.io/files/dsf0");
+        JSONObject links = new JSONObject();
+        links.put("self", self);
+        JSONObject entity = new JSONObject();
+        entity.put("name", "dsf0.json");
+        entity.put("length", String.valueOf(file.length));
+        entity.put("_links", links);
+        return new ArrayList<>(Arrays.asList(new DataSetFileProcessingEntity(entity)));
+    }
+}
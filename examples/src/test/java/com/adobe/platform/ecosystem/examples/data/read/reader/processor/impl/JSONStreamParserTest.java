@@ -0,0 +1,89 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class JSONStreamParserTest {
+
+    private static final String RECORDS = "[\r\n" +
+        "  {\"id\": 1, \"name\": \"brace } in [string]\", \"score\": -1.5e2, \"tags\": [\"a\", {\"b\": null}], \"active\": true},\n" +
+        "  {\"id\": 2, \"name\": \"esc\\\"aped \\\\ \\u00fc \\ud83d\\ude00 \\n\", \"nested\": {\"empty\": {}, \"list\": []}, \"active\": false},\n" +
+        "  {\"id\": 3, \"name\": \"caf\u00e9 \ud83d\ude00\", \"big\": 9007199254740993, \"ratio\": 0.25}\n" +
+        "]";
+
+    @Test
+    public void testRecordsSplitAcrossStreams() throws Exception {
+        List<Object> expected = new ArrayList<>((List<?>) new JSONParser().parse(RECORDS));
+        byte[] bytes = RECORDS.getBytes(StandardCharsets.UTF_8);
+        // Every split point, including ones within escapes and multi-byte characters.
+        for (int split = 1; split < bytes.length; split++) {
+            JSONStreamParser parser = new JSONStreamParser();
+            List<JSONObject> records = new ArrayList<>();
+            parser.parse(new ByteArrayInputStream(bytes, 0, split), records::add);
+            parser.parse(ByteBuffer.wrap(bytes, split, bytes.length - split), records::add);
+            parser.finish();
+            assertEquals("split at " + split, expected, records);
+        }
+    }
+
+    @Test
+    public void testRecordPerLine() throws Exception {
+        List<JSONObject> records = parse("{\"id\":1}\n{\"id\":2,\"v\":[1,2.0]}\r\n\n{}");
+        assertEquals(3, records.size());
+        assertEquals(new JSONParser().parse("{\"id\":2,\"v\":[1,2.0]}"), records.get(1));
+        assertEquals(Long.class, records.get(0).get("id").getClass());
+    }
+
+    @Test
+    public void testMalformed() throws Exception {
+        for (String json : Arrays.asList("{\"a\" 1}", "{\"a\":1,}", "{\"a\":1 \"b\":2}", "[1 2]", "{\"a\":tru}",
+            "{\"a\":\"\\x\"}", "{\"a\":1]", "[{\"a\":1}, 2]", "{1:2}", "{\"a\":01.2.3}")) {
+            try {
+                parse(json);
+                fail("Should not parse " + json);
+            } catch (IOException ex) {
+                // Expected.
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncated() throws Exception {
+        parse("[{\"id\":1},{\"id\":");
+    }
+
+    private List<JSONObject> parse(String json) throws IOException {
+        JSONStreamParser parser = new JSONStreamParser();
+        List<JSONObject> records = new ArrayList<>();
+        parser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), records::add);
+        parser.finish();
+        return records;
+    }
+}
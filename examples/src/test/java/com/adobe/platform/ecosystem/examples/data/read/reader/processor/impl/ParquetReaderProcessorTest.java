@@ -0,0 +1,249 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.read.reader.processor.impl;
+
+import com.adobe.platform.ecosystem.examples.data.access.model.DataSetFileProcessingEntity;
+import com.adobe.platform.ecosystem.examples.data.read.DataSetFileCache;
+import com.adobe.platform.ecosystem.examples.data.read.DataSetStatisticsIndex;
+import com.adobe.platform.ecosystem.examples.parquet.read.configuration.ParquetReaderConfiguration;
+import com.adobe.platform.ecosystem.examples.parquet.read.filter.RecordFilter;
+import com.adobe.platform.ecosystem.examples.parquet.wiring.impl.ParquetIOImpl;
+import com.adobe.platform.ecosystem.examples.parquet.write.JSONRecordWriter;
+import com.adobe.platform.ecosystem.examples.parquet.write.configuration.ParquetWriterOptions;
+import com.adobe.platform.ecosystem.ut.BaseTest;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.json.simple.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParquetReaderProcessorTest extends BaseTest {
+
+    private static final int FILES = 3;
+
+    private static final int ROWS = 100;
+
+    private final Map<String, byte[]> files = new HashMap<>();
+
+    private final List<JSONObject> records = new ArrayList<>();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final Set<String> fetchedEntries = ConcurrentHashMap.newKeySet();
+
+    @Before
+    public void before() throws Exception {
+        super.setUp();
+        for (int file = 0; file < FILES; file++) {
+            List<JSONObject> fileRecords = new ArrayList<>();
+            for (int i = 0; i < ROWS; i++) {
+                JSONObject record = new JSONObject();
+                record.put("id", file + "-" + i);
+                fileRecords.add(record);
+            }
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            new ParquetIOImpl().getParquetIOWriter().writeJSONParquetStream(
+                fileRecords,
+                new JSONRecordWriter(MessageTypeParser.parseMessageType("message Message { optional binary id (UTF8); }")),
+                ParquetWriterOptions.defaults(),
+                outputStream
+            );
+            files.put("dsf" + file, outputStream.toByteArray());
+            records.addAll(fileRecords);
+
+            final String dataSetFileId = "dsf" + file;
+            Mockito.when(das.getDataSetFileEntries(Mockito.anyString(), Mockito.anyString(), Mockito.eq(dataSetFileId)))
+                .thenAnswer(invocation -> {
+                    fetchedEntries.add(dataSetFileId);
+                    return getEntities(dataSetFileId);
+                });
+        }
+
+        Mockito.when(httpClient.execute(Mockito.any())).thenAnswer(invocation -> {
+            if (!(invocation.getArguments()[0] instanceof HttpGet)) {
+                // Access token exchange.
+                BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+                response.setEntity(new StringEntity(jwtExchangeResponse));
+                return response;
+            }
+            HttpGet request = (HttpGet) invocation.getArguments()[0];
+            requests.incrementAndGet();
+            byte[] file = files.get(request.getURI().getPath().substring("/files/".length()));
+            if (request.getFirstHeader("Range") == null) {
+                BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+                response.setEntity(new ByteArrayEntity(file));
+                return response;
+            }
+            String[] range = request.getFirstHeader("Range").getValue().substring("bytes=".length()).split("-");
+            int from = Integer.parseInt(range[0]);
+            int to = Math.min(file.length - 1, Integer.parseInt(range[1]));
+            BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 206, "Partial Content");
+            response.setHeader("Content-Range", "bytes " + from + "-" + to + "/" + file.length);
+            response.setEntity(new ByteArrayEntity(Arrays.copyOfRange(file, from, to + 1)));
+            return response;
+        });
+    }
+
+    @Test
+    public void testReadAhead() throws Exception {
+        ParquetReaderProcessor processor = new ParquetReaderProcessor(
+            new ParquetIOImpl().getParquetIOReader(true),
+            das,
+            httpClient,
+            param,
+            Arrays.asList("dsf0", "dsf1", "dsf2"),
+            getEntities("dsf0")
+        );
+        processor.setReadAhead(2);
+
+        List<JSONObject> read = new ArrayList<>(processor.processData(ROWS / 2));
+        // Entries of both upcoming files are fetched before the current one is done,
+        // in any order.
+        List<String> upcoming = Arrays.asList("dsf1", "dsf2");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!fetchedEntries.containsAll(upcoming) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(fetchedEntries.containsAll(upcoming));
+
+        while (processor.hasMoreData()) {
+            read.addAll(processor.processData(ROWS / 2));
+        }
+        assertEquals(records, read);
+        Mockito.verify(das, Mockito.times(1)).getDataSetFileEntries(Mockito.anyString(), Mockito.anyString(), Mockito.eq("dsf1"));
+        Mockito.verify(das, Mockito.times(1)).getDataSetFileEntries(Mockito.anyString(), Mockito.anyString(), Mockito.eq("dsf2"));
+    }
+
+    @Test
+    public void testWithoutReadAhead() throws Exception {
+        ParquetReaderProcessor processor = new ParquetReaderProcessor(
+            new ParquetIOImpl().getParquetIOReader(true),
+            das,
+            httpClient,
+            param,
+            Arrays.asList("dsf0", "dsf1", "dsf2"),
+            getEntities("dsf0")
+        );
+
+        processor.processData(ROWS / 2);
+        Mockito.verify(das, Mockito.never()).getDataSetFileEntries(Mockito.anyString(), Mockito.anyString(), Mockito.eq("dsf1"));
+
+        List<JSONObject> read = new ArrayList<>();
+        while (processor.hasMoreData()) {
+            read.addAll(processor.processData(ROWS));
+        }
+        assertEquals(records.subList(ROWS / 2, records.size()), read);
+    }
+
+    @Test
+    public void testFileCache() throws Exception {
+        File directory = Files.createTempDirectory("cache").toFile();
+        directory.deleteOnExit();
+        DataSetFileCache fileCache = DataSetFileCache.open(directory, 1024 * 1024);
+
+        assertEquals(records, readAll(fileCache, 1));
+        assertEquals(FILES, requests.get());
+        assertEquals(FILES, directory.listFiles().length);
+
+        // Files are read from the cache this time.
+        assertEquals(records, readAll(fileCache, 0));
+        assertEquals(FILES, requests.get());
+    }
+
+    @Test
+    public void testStatisticsIndex() throws Exception {
+        ParquetReaderProcessor processor = new ParquetReaderProcessor(
+            new ParquetIOImpl().getParquetIOReader(ParquetReaderConfiguration.builder().with(builder -> {
+                builder.configuration = new Configuration();
+                builder.shouldFlattenData = true;
+                builder.recordFilter = RecordFilter.eq("id", "1-5");
+            }).build()),
+            das,
+            httpClient,
+            param,
+            Arrays.asList("dsf0", "dsf1", "dsf2"),
+            getEntities("dsf0")
+        );
+
+        DataSetStatisticsIndex index = processor.getStatisticsIndex();
+        assertEquals(FILES, index.getFileCount());
+        assertEquals(FILES * ROWS, index.getRowCount());
+        assertEquals("0-0", index.getColumnStatistics("id").getMin());
+        assertEquals("2-99", index.getColumnStatistics("id").getMax());
+        assertEquals(ROWS, index.getFileStatistics("dsf1", "dsf1.parquet").getRowCount());
+        int footerRequests = requests.get();
+
+        List<JSONObject> read = new ArrayList<>();
+        while (processor.hasMoreData()) {
+            read.addAll(processor.processData(ROWS));
+        }
+        assertEquals(records.subList(ROWS + 5, ROWS + 6), read);
+        // Only dsf1 is opened, files are small enough for a single request.
+        assertEquals(footerRequests + 1, requests.get());
+        Mockito.verify(das, Mockito.times(1)).getDataSetFileEntries(Mockito.anyString(), Mockito.anyString(), Mockito.eq("dsf2"));
+    }
+
+    private List<JSONObject> readAll(DataSetFileCache fileCache, int readAhead) throws Exception {
+        ParquetReaderProcessor processor = new ParquetReaderProcessor(
+            new ParquetIOImpl().getParquetIOReader(true),
+            das,
+            httpClient,
+            param,
+            Arrays.asList("dsf0", "dsf1", "dsf2"),
+            getEntities("dsf0"),
+            fileCache
+        );
+        processor.setReadAhead(readAhead);
+        List<JSONObject> read = new ArrayList<>();
+        while (processor.hasMoreData()) {
+            read.addAll(processor.processData(ROWS));
+        }
+        return read;
+    }
+
+    private List<DataSetFileProcessingEntity> getEntities(String dataSetFileId) {
+        JSONObject self = new JSONObject();
+        self.put("href", "https://platform.adobe.io/files/" + dataSetFileId);
+        JSONObject links = new JSONObject();
+        links.put("self", self);
+        JSONObject entity = new JSONObject();
+        entity.put("name", dataSetFileId + ".parquet");
+        entity.put("length", String.valueOf(files.get(dataSetFileId).length));
+        entity.put("_links", links);
+        return new ArrayList<>(Arrays.asList(new DataSetFileProcessingEntity(entity)));
+    }
+}
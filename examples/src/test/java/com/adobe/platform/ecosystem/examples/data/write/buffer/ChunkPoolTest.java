@@ -0,0 +1,75 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.write.buffer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ChunkPoolTest {
+
+    @Test
+    public void testChunksReusedAfterRelease() {
+        ChunkPool pool = new ChunkPool(4, 8);
+        ChunkedByteArrayOutputStream buffer = pool.newBuffer();
+        buffer.write(new byte[10], 0, 10);
+        assertEquals(0, pool.getRetainedChunks());
+        assertEquals(3, pool.getBorrowedChunks());
+
+        buffer.release();
+        assertEquals(3, pool.getRetainedChunks());
+        assertEquals(0, pool.getBorrowedChunks());
+        assertEquals(0, buffer.size());
+
+        ChunkedByteArrayOutputStream next = pool.newBuffer();
+        next.write(new byte[]{1, 2, 3, 4, 5}, 0, 5);
+        assertEquals(1, pool.getRetainedChunks());
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, next.toByteArray());
+    }
+
+    @Test
+    public void testRetainedBufferKeepsContent() {
+        ChunkPool pool = new ChunkPool(4, 8);
+        ChunkedByteArrayOutputStream buffer = pool.newBuffer();
+        buffer.write(new byte[]{1, 2, 3}, 0, 3);
+
+        buffer.retain();
+        buffer.release();
+        assertArrayEquals(new byte[]{1, 2, 3}, buffer.toByteArray());
+        assertEquals(0, pool.getRetainedChunks());
+
+        buffer.release();
+        assertEquals(1, pool.getRetainedChunks());
+        try {
+            buffer.retain();
+            fail("Released buffer should not be retained again.");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testPoolIsBounded() {
+        ChunkPool pool = new ChunkPool(4, 2);
+        ChunkedByteArrayOutputStream buffer = pool.newBuffer();
+        buffer.write(new byte[20], 0, 20);
+        buffer.release();
+        assertEquals(2, pool.getRetainedChunks());
+        assertEquals(0, pool.getBorrowedChunks());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.write.buffer;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ChunkedByteArrayOutputStreamTest {
+
+    private static byte[] getData(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    @Test
+    public void testWriteAcrossChunks() throws IOException {
+        byte[] data = getData(100);
+        ChunkedByteArrayOutputStream buffer = new ChunkedByteArrayOutputStream(7);
+        buffer.write(data, 0, 50);
+        buffer.write(data[50]);
+        buffer.write(data, 51, 49);
+
+        assertEquals(100, buffer.size());
+        assertArrayEquals(data, buffer.toByteArray());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        buffer.writeTo(outputStream);
+        assertArrayEquals(data, outputStream.toByteArray());
+    }
+
+    @Test
+    public void testInputStream() throws IOException {
+        byte[] data = getData(20);
+        ChunkedByteArrayOutputStream buffer = new ChunkedByteArrayOutputStream(6);
+        buffer.write(data, 0, data.length);
+
+        InputStream inputStream = buffer.toInputStream();
+        assertEquals(0, inputStream.read());
+        byte[] read = new byte[32];
+        int length = inputStream.read(read, 0, read.length);
+        assertEquals(19, length);
+        assertArrayEquals(Arrays.copyOfRange(data, 1, 20), Arrays.copyOf(read, length));
+        assertEquals(-1, inputStream.read());
+    }
+
+    @Test
+    public void testReset() {
+        ChunkedByteArrayOutputStream buffer = new ChunkedByteArrayOutputStream(4);
+        buffer.write(getData(10), 0, 10);
+        buffer.reset();
+        assertEquals(0, buffer.size());
+        assertEquals(0, buffer.toByteArray().length);
+    }
+}
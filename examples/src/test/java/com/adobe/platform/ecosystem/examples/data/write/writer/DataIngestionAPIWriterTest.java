@@ -16,14 +16,22 @@
  */
 package com.adobe.platform.ecosystem.examples.data.write.writer;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 
 import com.adobe.platform.ecosystem.examples.data.validation.api.ValidationRegistryFactory;
@@ -31,6 +39,7 @@ import org.json.simple.JSONObject;
 import org.json.simple.parser.ParseException;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 
@@ -39,9 +48,12 @@ import com.adobe.platform.ecosystem.examples.catalog.model.SDKField;
 import com.adobe.platform.ecosystem.examples.data.FileFormat;
 import com.adobe.platform.ecosystem.examples.data.wiring.DataWiringParam;
 import com.adobe.platform.ecosystem.examples.data.write.FlushHandler;
+import com.adobe.platform.ecosystem.examples.data.write.PartialFlushException;
 import com.adobe.platform.ecosystem.examples.data.write.Formatter;
 import com.adobe.platform.ecosystem.examples.data.write.PlatformDataFormatterFactory;
+import com.adobe.platform.ecosystem.examples.data.write.RecordEncoder;
 import com.adobe.platform.ecosystem.examples.data.write.WriteAttributes;
+import com.adobe.platform.ecosystem.examples.data.write.buffer.ChunkedByteArrayOutputStream;
 import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
 import com.adobe.platform.ecosystem.ut.BaseTest;
 
@@ -144,6 +156,234 @@ public class DataIngestionAPIWriterTest extends BaseTest {
         disWriter.markBatchCompletion(true);
     }
 
+    @Test
+    public void testWriteCSVInMemory() throws ConnectorSDKException, ParseException {
+        DataSet datset = getDataSetFromString(datasetInnerSample1);
+        DataWiringParam param = new DataWiringParam("imsOrg", datset);
+        Formatter platFormatter = new PlatformDataFormatterFactory(writer, param, registryFactory).getFormatter(CSV_FILE_FORMAT);
+        WriteAttributes inMemoryAttributes = new WriteAttributes.WriteAttributesBuilder().withInMemoryEncoding(true).build();
+        List<byte[]> uploads = captureUploads();
+        DataIngestionAPIWriter disWriter = new DataIngestionAPIWriter(dis, param, CSV_FILE_FORMAT, platFormatter, inMemoryAttributes, catService);
+
+        List<SDKField> sdkFields = new ArrayList<SDKField>();
+        sdkFields.add(new SDKField("col1", "string"));
+        sdkFields.add(new SDKField("col3", "string"));
+
+        List<List<Object>> dataTable = new ArrayList<List<Object>>();
+        ArrayList<Object> record01 = new ArrayList<Object>();
+        record01.add("val01");
+        record01.add("val03");
+        dataTable.add(record01);
+
+        assertTrue(disWriter.write(sdkFields, dataTable) == 0);
+
+        ArgumentCaptor<ChunkedByteArrayOutputStream> bufferCaptor = ArgumentCaptor.forClass(ChunkedByteArrayOutputStream.class);
+        verify(dis).writeBufferToBatch(any(), any(), any(), any(), any(), bufferCaptor.capture());
+        assertEquals("col1,col3\nval01,val03\n", new String(uploads.get(0), StandardCharsets.UTF_8));
+        // Buffer goes back to the pool once uploaded.
+        assertEquals(0, bufferCaptor.getValue().size());
+    }
+
+    @Test
+    public void testWriteParquetInParallel() throws ConnectorSDKException {
+        WriteAttributes parallelAttributes = new WriteAttributes.WriteAttributesBuilder().withEncodingParallelism(3).build();
+        when(dis.writeBufferToBatch(any(), any(), any(), any(), any(), any())).thenReturn(0);
+        DataIngestionAPIWriter disWriter = new DataIngestionAPIWriter(dis, param, PARQUET_FILE_FORMAT, formatter, parallelAttributes, catService);
+
+        List<SDKField> sdkFields = new ArrayList<SDKField>();
+        sdkFields.add(new SDKField("col1", "string"));
+        List<List<Object>> dataTable = new ArrayList<List<Object>>();
+        for (int i = 0; i < 2 * ParallelFlushEncoder.DEFAULT_MIN_ROWS_PER_SLICE; i++) {
+            List<Object> record = new ArrayList<Object>();
+            record.add("val" + i);
+            dataTable.add(record);
+        }
+
+        assertTrue(disWriter.write(sdkFields, dataTable) == 0);
+        verify(formatter, Mockito.times(2)).writeBuffer(Mockito.eq(sdkFields), Mockito.anyList(), any(OutputStream.class));
+        verify(dis, Mockito.times(2)).writeBufferToBatch(any(), any(), any(), any(), any(), any());
+        verify(dis, Mockito.never()).writeToBatch(any(), any(), any(), any(), any(), any());
+        disWriter.markBatchCompletion(true);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testPartialParallelFlushNotWrittenTwice() throws ConnectorSDKException {
+        WriteAttributes parallelAttributes = new WriteAttributes.WriteAttributesBuilder()
+            .withFlushStrategy(true)
+            .withSizeOfRecord(1024)
+            .withEncodingParallelism(2)
+            .build();
+        when(dis.writeBufferToBatch(any(), any(), any(), any(), any(), any())).thenReturn(0, -1, 0);
+        // Slices are encoded concurrently.
+        List<String> encodedFirstRows = Collections.synchronizedList(new ArrayList<>());
+        Mockito.doAnswer(invocation -> {
+            List<List<Object>> rows = (List<List<Object>>) invocation.getArguments()[1];
+            encodedFirstRows.add(rows.size() + ":" + rows.get(0).get(0));
+            return null;
+        }).when(formatter).writeBuffer(Mockito.anyList(), Mockito.anyList(), any(OutputStream.class));
+        DataIngestionAPIWriter disWriter = new DataIngestionAPIWriter(dis, param, PARQUET_FILE_FORMAT, formatter, parallelAttributes, catService);
+
+        List<SDKField> sdkFields = new ArrayList<SDKField>();
+        sdkFields.add(new SDKField("col1", "string"));
+        List<List<Object>> dataTable = new ArrayList<List<Object>>();
+        for (int i = 0; i < 2 * ParallelFlushEncoder.DEFAULT_MIN_ROWS_PER_SLICE; i++) {
+            List<Object> record = new ArrayList<Object>();
+            record.add("val" + i);
+            dataTable.add(record);
+        }
+        assertEquals(0, disWriter.write(sdkFields, dataTable));
+
+        parallelAttributes.setEOF(true);
+        try {
+            disWriter.write(sdkFields, null);
+            fail("Failed slice upload should be reported.");
+        } catch (PartialFlushException ex) {
+            assertEquals(ParallelFlushEncoder.DEFAULT_MIN_ROWS_PER_SLICE, ex.getUploadedRows());
+        }
+        // Retried flush only writes rows of the failed slice.
+        assertEquals(0, disWriter.write(sdkFields, null));
+        assertEquals(
+            new HashSet<>(Arrays.asList("1000:val0", "1000:val1000")),
+            new HashSet<>(encodedFirstRows.subList(0, 2))
+        );
+        assertEquals(Arrays.asList("1000:val1000"), encodedFirstRows.subList(2, encodedFirstRows.size()));
+        verify(dis, Mockito.times(3)).writeBufferToBatch(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testWriteCSVRolling() throws ConnectorSDKException, ParseException {
+        DataSet datset = getDataSetFromString(datasetInnerSample1);
+        DataWiringParam param = new DataWiringParam("imsOrg", datset);
+        Formatter platFormatter = new PlatformDataFormatterFactory(writer, param, registryFactory).getFormatter(CSV_FILE_FORMAT);
+        WriteAttributes rollingAttributes = new WriteAttributes.WriteAttributesBuilder().withRollingFileSize(32).build();
+        when(dis.writeBufferToBatch(any(), any(), any(), any(), any(), any())).thenReturn(0);
+        DataIngestionAPIWriter disWriter = new DataIngestionAPIWriter(dis, param, CSV_FILE_FORMAT, platFormatter, rollingAttributes, catService);
+
+        List<SDKField> sdkFields = new ArrayList<SDKField>();
+        sdkFields.add(new SDKField("col1", "string"));
+        sdkFields.add(new SDKField("col3", "string"));
+        List<List<Object>> dataTable = new ArrayList<List<Object>>();
+        for (int i = 0; i < 5; i++) {
+            List<Object> record = new ArrayList<Object>();
+            record.add("value_of_column_one_" + i);
+            record.add("value_of_column_three_" + i);
+            dataTable.add(record);
+        }
+
+        // Header and first row already exceed target size, every record rolls.
+        assertTrue(disWriter.write(sdkFields, dataTable) == 0);
+        verify(dis, Mockito.times(5)).writeBufferToBatch(any(), any(), any(), any(), any(), any());
+
+        assertTrue(disWriter.write(sdkFields, dataTable.subList(0, 1)) == 0);
+        rollingAttributes.setEOF(true);
+        assertTrue(disWriter.write(sdkFields, null) == 0);
+        verify(dis, Mockito.times(6)).writeBufferToBatch(any(), any(), any(), any(), any(), any());
+        verify(dis, Mockito.never()).writeToBatch(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testRollingFileUploadedOnCompletion() throws ConnectorSDKException, ParseException {
+        DataSet datset = getDataSetFromString(datasetInnerSample1);
+        DataWiringParam param = new DataWiringParam("imsOrg", datset);
+        Formatter platFormatter = new PlatformDataFormatterFactory(writer, param, registryFactory).getFormatter(CSV_FILE_FORMAT);
+        WriteAttributes rollingAttributes = new WriteAttributes.WriteAttributesBuilder().withRollingFileSize(1024 * 1024).build();
+        List<byte[]> uploads = captureUploads();
+        DataIngestionAPIWriter disWriter = new DataIngestionAPIWriter(dis, param, CSV_FILE_FORMAT, platFormatter, rollingAttributes, catService);
+
+        List<SDKField> sdkFields = new ArrayList<SDKField>();
+        sdkFields.add(new SDKField("col1", "string"));
+        List<List<Object>> dataTable = new ArrayList<List<Object>>();
+        List<Object> record = new ArrayList<Object>();
+        record.add("val01");
+        dataTable.add(record);
+
+        assertTrue(disWriter.write(sdkFields, dataTable) == 0);
+        assertTrue(disWriter.write(sdkFields, dataTable) == 0);
+        verify(dis, Mockito.never()).writeBufferToBatch(any(), any(), any(), any(), any(), any());
+
+        disWriter.markBatchCompletion(true);
+        assertEquals(1, uploads.size());
+        assertEquals("col1\nval01\nval01\n", new String(uploads.get(0), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRollingFileDroppedOnFailedRecord() throws ConnectorSDKException {
+        WriteAttributes rollingAttributes = new WriteAttributes.WriteAttributesBuilder().withRollingFileSize(1024 * 1024).build();
+        List<byte[]> uploads = captureUploads();
+        when(formatter.getRecordEncoder(any())).thenAnswer(invocation -> new RecordEncoder() {
+            private final OutputStream outputStream = (OutputStream) invocation.getArguments()[0];
+
+            @Override
+            public void write(JSONObject record) throws ConnectorSDKException {
+                // Fails within the record, after part of it is written.
+                encode("<" + record.get("col1"));
+                if ("bad".equals(record.get("col1"))) {
+                    throw new ConnectorSDKException("Invalid value");
+                }
+                encode(">");
+            }
+
+            @Override
+            public long getEncodedSize() {
+                return 0;
+            }
+
+            @Override
+            public void finish() throws ConnectorSDKException {
+                encode("|");
+            }
+
+            private void encode(String value) throws ConnectorSDKException {
+                try {
+                    outputStream.write(value.getBytes(StandardCharsets.UTF_8));
+                } catch (IOException ex) {
+                    throw new ConnectorSDKException(ex.getMessage(), ex);
+                }
+            }
+        });
+        DataIngestionAPIWriter disWriter = new DataIngestionAPIWriter(dis, param, CSV_FILE_FORMAT, formatter, rollingAttributes, catService);
+        List<SDKField> sdkFields = new ArrayList<SDKField>();
+
+        when(formatter.getJSONRecords(any(), any())).thenReturn(getRecords("good1", "bad", "good2"));
+        try {
+            disWriter.write(sdkFields, new ArrayList<List<Object>>());
+            fail("Failed record should be reported.");
+        } catch (ConnectorSDKException ex) {
+            assertEquals("Invalid value", ex.getMessage());
+        }
+
+        when(formatter.getJSONRecords(any(), any())).thenReturn(getRecords("good3"));
+        assertTrue(disWriter.write(sdkFields, new ArrayList<List<Object>>()) == 0);
+        assertTrue(disWriter.write(sdkFields, new ArrayList<List<Object>>()) == 0);
+        disWriter.markBatchCompletion(true);
+        assertEquals(1, uploads.size());
+        assertEquals("<good3><good3>|", new String(uploads.get(0), StandardCharsets.UTF_8));
+    }
+
+    private List<JSONObject> getRecords(String... values) {
+        List<JSONObject> records = new ArrayList<>();
+        for (String value : values) {
+            JSONObject record = new JSONObject();
+            record.put("col1", value);
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * Uploaded buffers are released right after
+     * upload, content is copied while in use.
+     */
+    private List<byte[]> captureUploads() throws ConnectorSDKException {
+        final List<byte[]> uploads = new ArrayList<>();
+        when(dis.writeBufferToBatch(any(), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            uploads.add(((ChunkedByteArrayOutputStream) invocation.getArguments()[5]).toByteArray());
+            return 0;
+        });
+        return uploads;
+    }
+
     @Test
     public void testWriteJSON() throws IOException, ConnectorSDKException {
         Formatter platFormatter = new PlatformDataFormatterFactory(writer, param, registryFactory).getFormatter(JSON_FILE_FORMAT);
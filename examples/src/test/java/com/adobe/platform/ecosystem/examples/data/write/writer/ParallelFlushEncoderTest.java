@@ -0,0 +1,182 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.write.writer;
+
+import com.adobe.platform.ecosystem.examples.data.write.PartialFlushException;
+import com.adobe.platform.ecosystem.examples.data.write.buffer.ChunkPool;
+import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelFlushEncoderTest {
+
+    private final ChunkPool chunkPool = new ChunkPool(16, 64);
+
+    private final ParallelFlushEncoder encoder = new ParallelFlushEncoder(4, 10, chunkPool);
+
+    @After
+    public void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    public void testSliceCount() {
+        assertEquals(1, encoder.getSliceCount(0));
+        assertEquals(1, encoder.getSliceCount(19));
+        assertEquals(2, encoder.getSliceCount(20));
+        assertEquals(4, encoder.getSliceCount(1000));
+    }
+
+    @Test
+    public void testSlicesConsumedInRowOrder() throws ConnectorSDKException {
+        List<Integer> rows = getRows(45);
+        List<String> consumed = new ArrayList<>();
+        List<Integer> consumedRows = new ArrayList<>();
+
+        int response = encoder.encode(
+            rows,
+            (slice, outputStream) -> {
+                try {
+                    outputStream.write((slice.get(0) + "-" + slice.get(slice.size() - 1)).getBytes(StandardCharsets.UTF_8));
+                } catch (IOException ex) {
+                    throw new ConnectorSDKException("write failed", ex);
+                }
+            },
+            (buffer, sliceRows) -> {
+                consumed.add(new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+                consumedRows.add(sliceRows);
+                return 0;
+            }
+        );
+
+        assertEquals(0, response);
+        assertEquals(4, consumed.size());
+        assertEquals("0-11", consumed.get(0));
+        assertEquals("36-44", consumed.get(3));
+        assertEquals(45, consumedRows.stream().mapToInt(Integer::intValue).sum());
+        // Every slice is encoded into a chunk of its own before
+        // the first upload, and all chunks are returned after it.
+        assertEquals(0, chunkPool.getBorrowedChunks());
+        assertEquals(4, chunkPool.getRetainedChunks());
+    }
+
+    @Test
+    public void testConsumerFailureStopsFlush() throws ConnectorSDKException {
+        List<Integer> consumed = new ArrayList<>();
+        int response = encoder.encode(getRows(40), (slice, outputStream) -> { }, (buffer, sliceRows) -> {
+            consumed.add(sliceRows);
+            return -1;
+        });
+        assertEquals(-1, response);
+        assertEquals(1, consumed.size());
+    }
+
+    @Test
+    public void testPartialUploadReported() throws ConnectorSDKException {
+        List<Integer> consumed = new ArrayList<>();
+        try {
+            encoder.encode(getRows(40), (slice, outputStream) -> { }, (buffer, sliceRows) -> {
+                consumed.add(sliceRows);
+                return consumed.size() < 3 ? 0 : -1;
+            });
+            fail("Partial upload should be reported.");
+        } catch (PartialFlushException ex) {
+            assertEquals(20, ex.getUploadedRows());
+        }
+        assertEquals(3, consumed.size());
+
+        final ConnectorSDKException failure = new ConnectorSDKException("upload failed");
+        List<Integer> uploaded = new ArrayList<>();
+        try {
+            encoder.encode(getRows(40), (slice, outputStream) -> { }, (buffer, sliceRows) -> {
+                if (uploaded.size() == 1) {
+                    throw failure;
+                }
+                uploaded.add(sliceRows);
+                return 0;
+            });
+            fail("Partial upload should be reported.");
+        } catch (PartialFlushException ex) {
+            assertEquals(10, ex.getUploadedRows());
+            assertEquals(failure, ex.getCause());
+        }
+        assertEquals(0, chunkPool.getBorrowedChunks());
+    }
+
+    @Test
+    public void testEncoderExceptionPropagated() {
+        final ConnectorSDKException failure = new ConnectorSDKException("bad slice");
+        try {
+            encoder.encode(getRows(40), (slice, outputStream) -> {
+                if (slice.get(0) > 0) {
+                    throw failure;
+                }
+            }, (buffer, sliceRows) -> 0);
+            fail("Encoding failure should be reported.");
+        } catch (ConnectorSDKException ex) {
+            assertEquals(failure, ex);
+        }
+    }
+
+    @Test
+    public void testEncoderFailureUploadsNothing() {
+        List<Integer> consumed = new ArrayList<>();
+        // Failed slice waits for the others, so no chunk is reused.
+        CountDownLatch written = new CountDownLatch(3);
+        try {
+            encoder.encode(getRows(40), (slice, outputStream) -> {
+                try {
+                    outputStream.write(new byte[16]);
+                    if (slice.get(0) != 30) {
+                        written.countDown();
+                    } else if (written.await(10, TimeUnit.SECONDS)) {
+                        throw new ConnectorSDKException("bad slice");
+                    }
+                } catch (IOException | InterruptedException ex) {
+                    throw new ConnectorSDKException("write failed", ex);
+                }
+            }, (buffer, sliceRows) -> {
+                consumed.add(sliceRows);
+                return 0;
+            });
+            fail("Encoding failure should be reported.");
+        } catch (ConnectorSDKException ex) {
+            assertEquals("bad slice", ex.getMessage());
+        }
+        assertTrue(consumed.isEmpty());
+        // Chunks of every slice, the failed one included, are returned.
+        assertEquals(4, chunkPool.getRetainedChunks());
+    }
+
+    private List<Integer> getRows(int count) {
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(i);
+        }
+        return rows;
+    }
+}
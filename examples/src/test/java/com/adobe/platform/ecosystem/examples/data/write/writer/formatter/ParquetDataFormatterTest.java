@@ -17,11 +17,15 @@
 package com.adobe.platform.ecosystem.examples.data.write.writer.formatter;
 
 import com.adobe.platform.ecosystem.examples.data.validation.api.ValidationRegistry;
+import com.adobe.platform.ecosystem.examples.data.write.RecordEncoder;
+import com.adobe.platform.ecosystem.examples.data.write.WriteAttributes;
+import com.adobe.platform.ecosystem.examples.data.write.buffer.ChunkedByteArrayOutputStream;
 import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
 import com.adobe.platform.ecosystem.examples.parquet.model.ParquetIODataType;
 import com.adobe.platform.ecosystem.examples.parquet.model.ParquetIOField;
 import com.adobe.platform.ecosystem.examples.parquet.model.ParquetIORepetitionType;
 import com.adobe.platform.ecosystem.examples.parquet.wiring.impl.ParquetIOImpl;
+import com.adobe.platform.ecosystem.examples.parquet.write.configuration.ParquetWriterOptions;
 import com.adobe.platform.ecosystem.examples.data.write.field.converter.parquet.ParquetFieldConverter;
 import com.adobe.platform.ecosystem.examples.data.write.writer.extractor.JsonObjectsExtractor;
 import com.adobe.platform.ecosystem.examples.util.ConnectorSDKException;
@@ -43,11 +47,14 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -83,7 +90,7 @@ public class ParquetDataFormatterTest extends BaseTest {
 
         File destFile = new File(tempFolder.getRoot(), "sample.parquet");
         FileUtils.copyFile(file, destFile);
-        Mockito.when(writer.writeParquetFile(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(destFile);
+        Mockito.when(writer.writeJSONParquetFile(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(destFile);
 
         parquetDataFormatter = new ParquetDataFormatter(writer, param, fieldConverter, schemaFieldConverter, new JsonObjectsExtractor(), validationRegistry, false);
     }
@@ -105,6 +112,86 @@ public class ParquetDataFormatterTest extends BaseTest {
         assert (parquetDataFormatter.getBuffer(dataTable) != null);
     }
 
+    @Test
+    public void testWriteBufferInMemory() throws ParseException, ConnectorSDKException {
+        WriteAttributes writeAttributes = new WriteAttributes.WriteAttributesBuilder()
+            .withInMemoryEncoding(true)
+            .build();
+        ParquetDataFormatter inMemoryFormatter = new ParquetDataFormatter(
+            new ParquetIOImpl().getParquetIOWriter(),
+            param,
+            fieldConverter,
+            schemaFieldConverter,
+            new JsonObjectsExtractor(),
+            validationRegistry,
+            writeAttributes
+        );
+
+        ChunkedByteArrayOutputStream buffer = new ChunkedByteArrayOutputStream(64);
+        inMemoryFormatter.writeBuffer(getMockPipelineData(), buffer);
+        byte[] data = buffer.toByteArray();
+        assertTrue(data.length > 8);
+        assertEquals("PAR1", new String(data, 0, 4, StandardCharsets.US_ASCII));
+        assertEquals("PAR1", new String(data, data.length - 4, 4, StandardCharsets.US_ASCII));
+
+        byte[] contiguousData = inMemoryFormatter.getBuffer(getMockPipelineData());
+        assertEquals(data.length, contiguousData.length);
+    }
+
+    @Test
+    public void testSchemaCachedByRecordShape() throws ParseException, ConnectorSDKException {
+        JSONParser parser = new JSONParser();
+        parquetDataFormatter.getBuffer(Collections.singletonList((JSONObject) parser.parse("{\"id1\":\"value1\"}")));
+        parquetDataFormatter.getBuffer(Collections.singletonList((JSONObject) parser.parse("{\"id1\":\"value2\"}")));
+        Mockito.verify(fieldConverter, Mockito.times(1)).convert(Mockito.any());
+        Mockito.verify(writer, Mockito.times(1)).getSchema(Mockito.anyList());
+
+        parquetDataFormatter.getBuffer(Collections.singletonList((JSONObject) parser.parse("{\"id2\":\"value1\"}")));
+        Mockito.verify(fieldConverter, Mockito.times(2)).convert(Mockito.any());
+    }
+
+    @Test
+    public void testRecordEncoder() throws ParseException, ConnectorSDKException {
+        ParquetDataFormatter streamFormatter = new ParquetDataFormatter(
+            new ParquetIOImpl().getParquetIOWriter(),
+            param,
+            fieldConverter,
+            schemaFieldConverter,
+            new JsonObjectsExtractor(),
+            validationRegistry,
+            false
+        );
+
+        ChunkedByteArrayOutputStream buffer = new ChunkedByteArrayOutputStream(64);
+        RecordEncoder encoder = streamFormatter.getRecordEncoder(buffer);
+        for (JSONObject record : getMockPipelineData()) {
+            encoder.write(record);
+        }
+        assertTrue(encoder.getEncodedSize() > 0);
+        encoder.finish();
+
+        byte[] data = buffer.toByteArray();
+        assertEquals("PAR1", new String(data, 0, 4, StandardCharsets.US_ASCII));
+        assertEquals("PAR1", new String(data, data.length - 4, 4, StandardCharsets.US_ASCII));
+        assertEquals(streamFormatter.getBuffer(getMockPipelineData()).length, data.length);
+    }
+
+    @Test
+    public void testWriterOptionsTunedOnce() throws ParseException, ConnectorSDKException, ParquetIOException {
+        ParquetWriterOptions options = ParquetWriterOptions.builder().with(builder -> builder.autoTune = true).build();
+        ParquetWriterOptions tuned = options.toBuilder().with(builder -> builder.autoTune = false).build();
+        when(writer.tuneOptions(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(tuned);
+        WriteAttributes writeAttributes = new WriteAttributes.WriteAttributesBuilder()
+            .withParquetWriterOptions(options)
+            .build();
+        ParquetDataFormatter tunedFormatter = new ParquetDataFormatter(writer, param, fieldConverter, schemaFieldConverter, new JsonObjectsExtractor(), validationRegistry, writeAttributes);
+
+        tunedFormatter.getBuffer(getMockPipelineData());
+        tunedFormatter.getBuffer(getMockPipelineData());
+        Mockito.verify(writer, Mockito.times(1)).tuneOptions(Mockito.any(), Mockito.any(), Mockito.eq(options));
+        Mockito.verify(writer, Mockito.times(2)).writeJSONParquetFile(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.eq(tuned));
+    }
+
     private List<ParquetIOField> getMockParquetIOFields() {
         ParquetIOField visitorId_value = new ParquetIOField("value", ParquetIODataType.STRING, ParquetIORepetitionType.OPTIONAL, null);
         ParquetIOField visitorId_domain = new ParquetIOField("domain", ParquetIODataType.DOUBLE, ParquetIORepetitionType.OPTIONAL, null);
@@ -0,0 +1,49 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.data.write.writer.formatter;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class RecordShapeFingerprintTest {
+
+    @Test
+    public void testValuesDoNotContribute() throws ParseException {
+        assertEquals(
+            fingerprint("{\"a\":1,\"b\":{\"c\":\"x\"},\"d\":[{\"e\":1},{\"f\":2}]}"),
+            fingerprint("{\"a\":\"2\",\"b\":{\"c\":3.5},\"d\":[{\"e\":7}]}")
+        );
+    }
+
+    @Test
+    public void testKeyStructureContributes() throws ParseException {
+        final long base = fingerprint("{\"a\":1,\"b\":{\"c\":1}}");
+        assertNotEquals(base, fingerprint("{\"a\":1,\"b\":{\"d\":1}}"));
+        assertNotEquals(base, fingerprint("{\"a\":1,\"b\":1}"));
+        assertNotEquals(base, fingerprint("{\"a\":1,\"b\":null}"));
+        assertNotEquals(base, fingerprint("{\"a\":1,\"b\":[{\"c\":1}]}"));
+        assertNotEquals(fingerprint("{\"Aa\":1}"), fingerprint("{\"BB\":1}"));
+    }
+
+    private long fingerprint(String json) throws ParseException {
+        return RecordShapeFingerprint.of((JSONObject) new JSONParser().parse(json));
+    }
+}
@@ -27,7 +27,11 @@ public enum ParquetIOErrorCode implements ErrorCode {
     PARQUETIO_FILE_DELLETION_EXCEPTION(103,"Exception while deleting file on local system."),
     PARQUETIO_INPUT_CONFIGURATION_NULL(104,"Input configuration is null. Kindly initialize first."),
     PARQUETIO_READER_CLOSE_EXCEPTION(105,"Error while closing hadoop parquet reader."),
-    PARQUETIO_READER_METADATA_NULL_EXCEPTION(106,"Metadata read from parquet file is null. Kindly check input file.");
+    PARQUETIO_READER_METADATA_NULL_EXCEPTION(106,"Metadata read from parquet file is null. Kindly check input file."),
+    PARQUETIO_WRITER_IO_EXCEPTION(107,"IO Exception while writing parquet records."),
+    PARQUETIO_RECORD_WRITE_EXCEPTION(108,"Record could not be written against parquet schema."),
+    PARQUETIO_FILTER_EXCEPTION(109,"Filter could not be applied on parquet schema. Only non repeated primitive fields of matching type can be filtered."),
+    PARQUETIO_BATCH_EXCEPTION(110,"Columnar batches can only be read from non repeated primitive fields without a record filter.");
 
     private final int number;
 
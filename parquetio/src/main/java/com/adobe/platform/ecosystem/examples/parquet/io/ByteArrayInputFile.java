@@ -0,0 +1,94 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.io;
+
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+import java.io.ByteArrayInputStream;
+
+/**
+ * parquet-mr {@link InputFile} over a parquet
+ * file held in memory, eg: one encoded through
+ * {@link StreamOutputFile}. Bytes are not copied,
+ * so they must not change while being read.
+ */
+public class ByteArrayInputFile implements InputFile {
+
+    private final byte[] buffer;
+
+    private final int offset;
+
+    private final int length;
+
+    public ByteArrayInputFile(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    public ByteArrayInputFile(byte[] buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new IllegalArgumentException("Invalid range " + offset + "+" + length + " of " + buffer.length + " bytes.");
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SeekableInputStream newStream() {
+        final SeekableByteArrayInputStream stream = new SeekableByteArrayInputStream(buffer, offset, length);
+        return new DelegatingSeekableInputStream(stream) {
+            @Override
+            public long getPos() {
+                return stream.getPos();
+            }
+
+            @Override
+            public void seek(long newPos) {
+                stream.seek(newPos);
+            }
+        };
+    }
+
+    private static class SeekableByteArrayInputStream extends ByteArrayInputStream {
+        private final int offset;
+
+        SeekableByteArrayInputStream(byte[] buffer, int offset, int length) {
+            super(buffer, offset, length);
+            this.offset = offset;
+        }
+
+        long getPos() {
+            return pos - offset;
+        }
+
+        void seek(long newPos) {
+            pos = (int) Math.min(count, offset + newPos);
+        }
+    }
+}
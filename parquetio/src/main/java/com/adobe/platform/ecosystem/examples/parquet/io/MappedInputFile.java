@@ -0,0 +1,110 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.io;
+
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * parquet-mr {@link InputFile} for a file on local
+ * disk mapped into memory, so that reads are served
+ * from the page cache without copying through a
+ * channel. The file is mapped once and shared by
+ * all streams. Files must be below 2 GB, use
+ * {@link LocalInputFile} for larger ones.
+ */
+public class MappedInputFile implements InputFile {
+
+    private final File file;
+
+    private MappedByteBuffer mapped;
+
+    public MappedInputFile(File file) {
+        if (file.length() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("File too large to be mapped: " + file.getAbsolutePath());
+        }
+        this.file = file;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getLength() {
+        return file.length();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SeekableInputStream newStream() throws IOException {
+        final ByteBuffer buffer = getMapped().duplicate();
+        return new DelegatingSeekableInputStream(new InputStream() {
+            @Override
+            public int read() {
+                return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+                final int n = Math.min(len, buffer.remaining());
+                buffer.get(b, off, n);
+                return n;
+            }
+        }) {
+            @Override
+            public long getPos() {
+                return buffer.position();
+            }
+
+            @Override
+            public void seek(long newPos) {
+                buffer.position((int) newPos);
+            }
+        };
+    }
+
+    private synchronized MappedByteBuffer getMapped() throws IOException {
+        if (mapped == null) {
+            // Mapping stays valid after the channel is closed.
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        return mapped;
+    }
+
+    @Override
+    public String toString() {
+        return file.getAbsolutePath();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.io;
+
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * parquet-mr {@link OutputFile} backed by an
+ * arbitrary {@link OutputStream}. This lets
+ * parquet files be encoded straight into memory
+ * (or any caller supplied sink) instead of going
+ * through a local file on disk.
+ *
+ * The wrapped stream is owned by the caller and is
+ * only flushed, never closed, when the parquet writer
+ * is closed.
+ */
+public class StreamOutputFile implements OutputFile {
+
+    private final OutputStream outputStream;
+
+    private boolean isCreated = false;
+
+    public StreamOutputFile(OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PositionOutputStream create(long blockSizeHint) throws IOException {
+        if (isCreated) {
+            throw new IOException("Output stream has already been handed to a parquet writer.");
+        }
+        isCreated = true;
+        return new CountingPositionOutputStream(outputStream);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
+        return create(blockSizeHint);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean supportsBlockSize() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long defaultBlockSize() {
+        return 0;
+    }
+
+    /**
+     * Position stream which tracks number of bytes
+     * written as parquet footer needs offsets
+     * of every column chunk.
+     */
+    private static class CountingPositionOutputStream extends PositionOutputStream {
+        private final OutputStream delegate;
+
+        private long position = 0;
+
+        CountingPositionOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public long getPos() {
+            return position;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            position++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            position += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Caller owns the underlying stream.
+            delegate.flush();
+        }
+    }
+}
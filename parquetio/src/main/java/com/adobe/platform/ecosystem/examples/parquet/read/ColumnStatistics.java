@@ -0,0 +1,101 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read;
+
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.column.statistics.StatisticsClassException;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+
+/**
+ * Min, max and null count of a parquet column
+ * over one or more column chunks, as written
+ * to file footers. Min and max are java values
+ * of the physical column type, strings for
+ * string columns and {@link Binary} for
+ * other binary columns.
+ */
+public class ColumnStatistics {
+
+    private final Statistics<?> statistics;
+
+    ColumnStatistics(Statistics<?> statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * @return statistics or null when the
+     * writer did not record them.
+     */
+    static ColumnStatistics of(Statistics<?> statistics) {
+        if (statistics == null || statistics.isEmpty() || !statistics.isNumNullsSet()) {
+            return null;
+        }
+        return new ColumnStatistics(statistics);
+    }
+
+    public long getNullCount() {
+        return statistics.getNumNulls();
+    }
+
+    /**
+     * @return false when all values are
+     * null, min and max are null then.
+     */
+    public boolean hasValues() {
+        return statistics.hasNonNullValue();
+    }
+
+    public Object getMin() {
+        return hasValues() ? toValue(statistics.genericGetMin()) : null;
+    }
+
+    public Object getMax() {
+        return hasValues() ? toValue(statistics.genericGetMax()) : null;
+    }
+
+    /**
+     * @return statistics over the chunks of both,
+     * null when column types differ.
+     */
+    @SuppressWarnings("unchecked")
+    public ColumnStatistics merge(ColumnStatistics other) {
+        final Statistics merged = statistics.copy();
+        try {
+            merged.mergeStatistics(other.statistics);
+        } catch (StatisticsClassException ex) {
+            return null;
+        }
+        return new ColumnStatistics(merged);
+    }
+
+    private Object toValue(Object value) {
+        if (value instanceof Binary
+            && statistics.type().getLogicalTypeAnnotation() instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation) {
+            return ((Binary) value).toStringUsingUTF8();
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnStatistics{" +
+            "min=" + getMin() +
+            ", max=" + getMax() +
+            ", nullCount=" + getNullCount() +
+            '}';
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read;
+
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOErrorCode;
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+import com.adobe.platform.ecosystem.examples.parquet.read.batch.BinaryColumnVector;
+import com.adobe.platform.ecosystem.examples.parquet.read.batch.BooleanColumnVector;
+import com.adobe.platform.ecosystem.examples.parquet.read.batch.ColumnBatch;
+import com.adobe.platform.ecosystem.examples.parquet.read.batch.ColumnVector;
+import com.adobe.platform.ecosystem.examples.parquet.read.batch.DoubleColumnVector;
+import com.adobe.platform.ecosystem.examples.parquet.read.batch.IntColumnVector;
+import com.adobe.platform.ecosystem.examples.parquet.read.batch.LongColumnVector;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReadStore;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.EncodingStats;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads {@link ColumnBatch}es from a parquet
+ * {@link InputFile} with parquet-mr's column
+ * readers, without assembling records. Only
+ * non repeated leaf columns can be read.
+ *
+ * Binary columns whose chunk is dictionary
+ * encoded throughout reuse the dictionary of
+ * the file, other binary columns are
+ * dictionary encoded per batch.
+ */
+class ColumnarParquetFileReader implements Closeable {
+
+    private static final String DOT = ".";
+
+    private final ParquetFileReader fileReader;
+
+    private final MessageType requestedSchema;
+
+    private final List<ColumnDescriptor> columns;
+
+    private final List<String> paths = new ArrayList<>();
+
+    private final List<DictionaryConverter> converters = new ArrayList<>();
+
+    private final GroupConverter recordConverter;
+
+    private ColumnReader[] columnReaders;
+
+    // Decoded file dictionaries of the row group, per column.
+    private Binary[][] dictionaries;
+
+    private int rowGroup = -1;
+
+    private long rowGroupRows = 0;
+
+    private long rowGroupRowsRead = 0;
+
+    ColumnarParquetFileReader(InputFile inputFile, List<String> projectedFields) throws IOException, ParquetIOException {
+        this.fileReader = new ParquetFileReader(inputFile, JSONParquetFileReader.getReadOptions(FilterCompat.NOOP));
+        this.requestedSchema = SchemaProjection.project(fileReader.getFileMetaData().getSchema(), projectedFields);
+        this.columns = requestedSchema.getColumns();
+        for (ColumnDescriptor column : columns) {
+            if (column.getMaxRepetitionLevel() > 0) {
+                fileReader.close();
+                throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_BATCH_EXCEPTION);
+            }
+            paths.add(String.join(DOT, column.getPath()));
+        }
+        fileReader.setRequestedSchema(requestedSchema);
+        // Leaves are created in the same depth first order as columns.
+        this.recordConverter = new SkippingGroupConverter(requestedSchema, converters);
+    }
+
+    /**
+     * @return batch of up to {@code maxRows} rows of
+     * the current row group, null once all rows
+     * are read. Batches do not span row groups.
+     */
+    ColumnBatch readBatch(int maxRows) throws IOException {
+        while (rowGroupRowsRead == rowGroupRows) {
+            final PageReadStore pages = fileReader.readNextRowGroup();
+            if (pages == null) {
+                return null;
+            }
+            startRowGroup(pages);
+        }
+        final int rows = (int) Math.min(maxRows, rowGroupRows - rowGroupRowsRead);
+        final List<ColumnVector> vectors = new ArrayList<>(columns.size());
+        for (int column = 0; column < columns.size(); column++) {
+            vectors.add(readColumn(column, rows));
+        }
+        rowGroupRowsRead += rows;
+        return new ColumnBatch(rows, vectors);
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileReader.close();
+    }
+
+    private void startRowGroup(PageReadStore pages) {
+        rowGroup++;
+        rowGroupRows = pages.getRowCount();
+        rowGroupRowsRead = 0;
+        for (DictionaryConverter converter : converters) {
+            converter.dictionary = null;
+        }
+        final ColumnReadStore readStore = new ColumnReadStoreImpl(
+            pages,
+            recordConverter,
+            requestedSchema,
+            fileReader.getFileMetaData().getCreatedBy()
+        );
+        columnReaders = new ColumnReader[columns.size()];
+        dictionaries = new Binary[columns.size()][];
+        final List<ColumnChunkMetaData> chunks = fileReader.getRowGroups().get(rowGroup).getColumns();
+        for (int column = 0; column < columns.size(); column++) {
+            columnReaders[column] = readStore.getColumnReader(columns.get(column));
+            final Dictionary dictionary = converters.get(column).dictionary;
+            if (dictionary != null && isBinary(columns.get(column)) && isDictionaryEncoded(chunks, columns.get(column))) {
+                dictionaries[column] = new Binary[dictionary.getMaxId() + 1];
+                for (int id = 0; id <= dictionary.getMaxId(); id++) {
+                    dictionaries[column][id] = dictionary.decodeToBinary(id);
+                }
+            }
+        }
+    }
+
+    private ColumnVector readColumn(int column, int rows) {
+        final ColumnDescriptor descriptor = columns.get(column);
+        final ColumnReader reader = columnReaders[column];
+        final int maxDefinitionLevel = descriptor.getMaxDefinitionLevel();
+        final BitSet nulls = new BitSet(rows);
+        switch (descriptor.getPrimitiveType().getPrimitiveTypeName()) {
+            case INT32: {
+                final int[] values = new int[rows];
+                for (int row = 0; row < rows; row++, reader.consume()) {
+                    if (reader.getCurrentDefinitionLevel() < maxDefinitionLevel) {
+                        nulls.set(row);
+                    } else {
+                        values[row] = reader.getInteger();
+                    }
+                }
+                return new IntColumnVector(paths.get(column), values, nulls);
+            }
+            case INT64: {
+                final long[] values = new long[rows];
+                for (int row = 0; row < rows; row++, reader.consume()) {
+                    if (reader.getCurrentDefinitionLevel() < maxDefinitionLevel) {
+                        nulls.set(row);
+                    } else {
+                        values[row] = reader.getLong();
+                    }
+                }
+                return new LongColumnVector(paths.get(column), values, nulls);
+            }
+            case FLOAT:
+            case DOUBLE: {
+                final boolean isFloat = descriptor.getPrimitiveType().getPrimitiveTypeName() == PrimitiveTypeName.FLOAT;
+                final double[] values = new double[rows];
+                for (int row = 0; row < rows; row++, reader.consume()) {
+                    if (reader.getCurrentDefinitionLevel() < maxDefinitionLevel) {
+                        nulls.set(row);
+                    } else {
+                        values[row] = isFloat ? reader.getFloat() : reader.getDouble();
+                    }
+                }
+                return new DoubleColumnVector(paths.get(column), values, nulls);
+            }
+            case BOOLEAN: {
+                final boolean[] values = new boolean[rows];
+                for (int row = 0; row < rows; row++, reader.consume()) {
+                    if (reader.getCurrentDefinitionLevel() < maxDefinitionLevel) {
+                        nulls.set(row);
+                    } else {
+                        values[row] = reader.getBoolean();
+                    }
+                }
+                return new BooleanColumnVector(paths.get(column), values, nulls);
+            }
+            default:
+                return readBinaryColumn(column, rows, nulls);
+        }
+    }
+
+    private ColumnVector readBinaryColumn(int column, int rows, BitSet nulls) {
+        final ColumnReader reader = columnReaders[column];
+        final int maxDefinitionLevel = columns.get(column).getMaxDefinitionLevel();
+        final int[] ids = new int[rows];
+        if (dictionaries[column] != null) {
+            for (int row = 0; row < rows; row++, reader.consume()) {
+                if (reader.getCurrentDefinitionLevel() < maxDefinitionLevel) {
+                    nulls.set(row);
+                    ids[row] = -1;
+                } else {
+                    ids[row] = reader.getCurrentValueDictionaryID();
+                }
+            }
+            return new BinaryColumnVector(paths.get(column), dictionaries[column], ids, nulls);
+        }
+        final Map<Binary, Integer> index = new HashMap<>();
+        final List<Binary> dictionary = new ArrayList<>();
+        for (int row = 0; row < rows; row++, reader.consume()) {
+            if (reader.getCurrentDefinitionLevel() < maxDefinitionLevel) {
+                nulls.set(row);
+                ids[row] = -1;
+                continue;
+            }
+            final Binary value = reader.getBinary();
+            Integer id = index.get(value);
+            if (id == null) {
+                id = dictionary.size();
+                // Values must outlive the page buffer they point into.
+                final Binary copy = value.copy();
+                index.put(copy, id);
+                dictionary.add(copy);
+            }
+            ids[row] = id;
+        }
+        return new BinaryColumnVector(paths.get(column), dictionary.toArray(new Binary[0]), ids, nulls);
+    }
+
+    private static boolean isBinary(ColumnDescriptor column) {
+        switch (column.getPrimitiveType().getPrimitiveTypeName()) {
+            case BINARY:
+            case FIXED_LEN_BYTE_ARRAY:
+            case INT96:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isDictionaryEncoded(List<ColumnChunkMetaData> chunks, ColumnDescriptor column) {
+        for (ColumnChunkMetaData chunk : chunks) {
+            if (chunk.getPath().equals(ColumnPath.get(column.getPath()))) {
+                // Without stats pages may have fallen back to plain encoding.
+                final EncodingStats stats = chunk.getEncodingStats();
+                return stats != null && stats.hasDictionaryPages() && !stats.hasNonDictionaryEncodedPages();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Converter tree column readers are bound to.
+     * Values are taken off the column readers,
+     * leaves only capture column dictionaries.
+     */
+    private static class SkippingGroupConverter extends GroupConverter {
+        private final Converter[] converters;
+
+        SkippingGroupConverter(GroupType type, List<DictionaryConverter> leaves) {
+            this.converters = new Converter[type.getFieldCount()];
+            for (int i = 0; i < converters.length; i++) {
+                final Type field = type.getType(i);
+                if (field.isPrimitive()) {
+                    final DictionaryConverter leaf = new DictionaryConverter();
+                    leaves.add(leaf);
+                    converters[i] = leaf;
+                } else {
+                    converters[i] = new SkippingGroupConverter(field.asGroupType(), leaves);
+                }
+            }
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return converters[fieldIndex];
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void end() {
+        }
+    }
+
+    private static class DictionaryConverter extends PrimitiveConverter {
+        private Dictionary dictionary;
+
+        @Override
+        public boolean hasDictionarySupport() {
+            return true;
+        }
+
+        @Override
+        public void setDictionary(Dictionary dictionary) {
+            this.dictionary = dictionary;
+        }
+    }
+}
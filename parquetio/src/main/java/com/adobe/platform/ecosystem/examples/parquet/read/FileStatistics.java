@@ -0,0 +1,113 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read;
+
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+import com.adobe.platform.ecosystem.examples.parquet.read.filter.RecordFilter;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.statisticslevel.StatisticsFilter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Row counts and column statistics of a
+ * parquet file and its row groups, taken
+ * from the footer alone.
+ *
+ * Column paths are either dotted, eg: {@code person.age},
+ * or joined with '_' the way flattened records are keyed.
+ */
+public class FileStatistics {
+
+    private static final String DOT = ".";
+
+    private static final String UNDERSCORE = "_";
+
+    private final MessageType schema;
+
+    private final List<BlockMetaData> rowGroups;
+
+    public FileStatistics(ParquetMetadata footer) {
+        this.schema = footer.getFileMetaData().getSchema();
+        this.rowGroups = Collections.unmodifiableList(footer.getBlocks());
+    }
+
+    public MessageType getSchema() {
+        return schema;
+    }
+
+    public long getRowCount() {
+        long rowCount = 0;
+        for (BlockMetaData rowGroup : rowGroups) {
+            rowCount += rowGroup.getRowCount();
+        }
+        return rowCount;
+    }
+
+    public int getRowGroupCount() {
+        return rowGroups.size();
+    }
+
+    public long getRowGroupRowCount(int rowGroup) {
+        return rowGroups.get(rowGroup).getRowCount();
+    }
+
+    /**
+     * @return statistics over all row groups, null
+     * when the file does not have the column or
+     * statistics of a row group are missing.
+     */
+    public ColumnStatistics getColumnStatistics(String path) {
+        ColumnStatistics merged = null;
+        for (int rowGroup = 0; rowGroup < rowGroups.size(); rowGroup++) {
+            final ColumnStatistics statistics = getColumnStatistics(rowGroup, path);
+            if (statistics == null) {
+                return null;
+            }
+            merged = merged == null ? statistics : merged.merge(statistics);
+        }
+        return merged;
+    }
+
+    public ColumnStatistics getColumnStatistics(int rowGroup, String path) {
+        for (ColumnChunkMetaData column : rowGroups.get(rowGroup).getColumns()) {
+            final String dotted = column.getPath().toDotString();
+            if (dotted.equals(path) || dotted.replace(DOT, UNDERSCORE).equals(path)) {
+                return ColumnStatistics.of(column.getStatistics());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true when footer statistics show that no
+     * row of any row group can match {@code filter}.
+     */
+    public boolean canSkip(RecordFilter filter) throws ParquetIOException {
+        final FilterPredicate predicate = filter.toPredicate(schema);
+        for (BlockMetaData rowGroup : rowGroups) {
+            if (!StatisticsFilter.canDrop(predicate, rowGroup.getColumns())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read;
+
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+import com.adobe.platform.ecosystem.examples.parquet.read.filter.RecordFilter;
+import com.adobe.platform.ecosystem.examples.parquet.utility.ParquetIOUtil;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.CodecFactory;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.MessageType;
+import org.json.simple.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads {@link JSONObject} records from a parquet
+ * {@link InputFile} with parquet-mr's file reader
+ * directly, without hadoop's record reader stack.
+ * Only projected column chunks are read and row
+ * groups which cannot match the filter are skipped.
+ */
+public class JSONParquetFileReader implements JSONRecordReader {
+
+    // Buffer hint of decompressors.
+    private static final int CODEC_PAGE_SIZE = 0;
+
+    private final ParquetFileReader fileReader;
+
+    private final FilterCompat.Filter filter;
+
+    private final MessageColumnIO columnIO;
+
+    private final JSONRecordMaterializer materializer;
+
+    private RecordReader<JSONObject> recordReader;
+
+    private long rowGroupRows = 0;
+
+    private long rowGroupRowsRead = 0;
+
+    JSONParquetFileReader(
+        InputFile inputFile,
+        List<String> projectedFields,
+        RecordFilter recordFilter,
+        boolean doFlatten,
+        boolean typedValues
+    ) throws IOException, ParquetIOException {
+        ParquetFileReader reader = new ParquetFileReader(inputFile, getReadOptions(FilterCompat.NOOP));
+        final MessageType fileSchema = reader.getFileMetaData().getSchema();
+        if (recordFilter != null) {
+            // Filter is bound to column types of the file, row
+            // groups are dropped while opening the file.
+            reader.close();
+            this.filter = FilterCompat.get(recordFilter.toPredicate(fileSchema));
+            reader = new ParquetFileReader(inputFile, getReadOptions(filter));
+        } else {
+            this.filter = FilterCompat.NOOP;
+        }
+        this.fileReader = reader;
+
+        final MessageType requestedSchema = SchemaProjection.project(fileSchema, projectedFields);
+        fileReader.setRequestedSchema(requestedSchema);
+        this.columnIO = new ColumnIOFactory(fileReader.getFileMetaData().getCreatedBy())
+            .getColumnIO(requestedSchema, fileSchema, true);
+        this.materializer = new JSONRecordMaterializer(requestedSchema, doFlatten, typedValues);
+    }
+
+    @Override
+    public JSONObject read() throws IOException {
+        while (true) {
+            if (rowGroupRowsRead == rowGroupRows) {
+                final PageReadStore pages = fileReader.readNextFilteredRowGroup();
+                if (pages == null) {
+                    return null;
+                }
+                recordReader = columnIO.getRecordReader(pages, materializer, filter);
+                rowGroupRows = pages.getRowCount();
+                rowGroupRowsRead = 0;
+                continue;
+            }
+            final JSONObject record = recordReader.read();
+            rowGroupRowsRead++;
+            if (!recordReader.shouldSkipCurrentRecord()) {
+                return record;
+            }
+        }
+    }
+
+    /**
+     * @return number of row groups
+     * left after filtering.
+     */
+    int getRowGroupCount() {
+        return fileReader.getRowGroups().size();
+    }
+
+    long getRowGroupRowCount(int index) {
+        return fileReader.getRowGroups().get(index).getRowCount();
+    }
+
+    /**
+     * Decodes all matching records of row group
+     * {@code index}, independently of {@link #read()}.
+     */
+    List<JSONObject> readRowGroup(int index) throws IOException {
+        final PageReadStore pages = fileReader.readFilteredRowGroup(index);
+        if (pages == null) {
+            // No rows left after column index filtering.
+            return Collections.emptyList();
+        }
+        final RecordReader<JSONObject> rowGroupReader = columnIO.getRecordReader(pages, materializer, filter);
+        final List<JSONObject> records = new ArrayList<>((int) Math.min(Integer.MAX_VALUE, pages.getRowCount()));
+        for (long row = 0; row < pages.getRowCount(); row++) {
+            final JSONObject record = rowGroupReader.read();
+            if (!rowGroupReader.shouldSkipCurrentRecord()) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileReader.close();
+    }
+
+    static ParquetReadOptions getReadOptions(FilterCompat.Filter filter) {
+        return ParquetReadOptions.builder()
+            .withCodecFactory(new CodecFactory(ParquetIOUtil.newLocalConfiguration(), CODEC_PAGE_SIZE))
+            .withRecordFilter(filter)
+            .build();
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read;
+
+import com.adobe.platform.ecosystem.examples.parquet.utility.ParquetIOUtil;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.json.simple.JSONObject;
+
+import java.util.Arrays;
+
+/**
+ * Builds {@link JSONObject} records in a single
+ * pass over the column values of a row. Keys,
+ * flattened ones included, are computed once
+ * per schema and every value is put straight
+ * into the record it belongs to.
+ *
+ * Records match {@link ReaderUtil#getJSONDataFromGroup}:
+ * null fields are left out, only the first
+ * value of a repeated field is kept and INT96
+ * values are epoch millis. Other values are
+ * strings unless typed values are requested,
+ * then they are Integer, Long, Float, Double,
+ * Boolean or String.
+ */
+class JSONRecordMaterializer extends RecordMaterializer<JSONObject> {
+
+    private static final String FLATTENED_KEY_SEPARATOR = "_";
+
+    private final RecordConverter root;
+
+    JSONRecordMaterializer(MessageType schema, boolean doFlatten, boolean typedValues) {
+        this.root = new RecordConverter(schema, null, 0, null, doFlatten, typedValues);
+    }
+
+    @Override
+    public JSONObject getCurrentRecord() {
+        return root.record;
+    }
+
+    @Override
+    public GroupConverter getRootConverter() {
+        return root;
+    }
+
+    /**
+     * Converter of a group. When flattening, all
+     * groups of a row share the top level record.
+     */
+    private static final class RecordConverter extends GroupConverter {
+        private final RecordConverter parent;
+
+        private final int index;
+
+        private final String key;
+
+        private final boolean doFlatten;
+
+        private final Converter[] converters;
+
+        // Fields which already got their first value.
+        private final boolean[] claimed;
+
+        private JSONObject record;
+
+        private boolean active;
+
+        private RecordConverter(GroupType type, RecordConverter parent, int index, String key, boolean doFlatten, boolean typedValues) {
+            this.parent = parent;
+            this.index = index;
+            this.key = key;
+            this.doFlatten = doFlatten;
+            this.converters = new Converter[type.getFieldCount()];
+            this.claimed = new boolean[type.getFieldCount()];
+            for (int i = 0; i < converters.length; i++) {
+                final Type field = type.getType(i);
+                final String fieldKey = doFlatten && key != null
+                    ? key + FLATTENED_KEY_SEPARATOR + field.getName()
+                    : field.getName();
+                converters[i] = field.isPrimitive()
+                    ? new ValueConverter(this, i, fieldKey, field.asPrimitiveType(), typedValues)
+                    : new RecordConverter(field.asGroupType(), this, i, fieldKey, doFlatten, typedValues);
+            }
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return converters[fieldIndex];
+        }
+
+        @Override
+        public void start() {
+            Arrays.fill(claimed, false);
+            if (parent == null) {
+                active = true;
+                record = new JSONObject();
+            } else {
+                active = parent.claim(index);
+                if (active) {
+                    if (doFlatten) {
+                        record = parent.record;
+                    } else {
+                        record = new JSONObject();
+                        parent.record.put(key, record);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void end() {
+        }
+
+        /**
+         * @return true when the value is the first one of
+         * field {@code fieldIndex} in the current group.
+         */
+        private boolean claim(int fieldIndex) {
+            if (!active || claimed[fieldIndex]) {
+                return false;
+            }
+            claimed[fieldIndex] = true;
+            return true;
+        }
+
+        private void put(int fieldIndex, String fieldKey, Object value) {
+            if (claim(fieldIndex)) {
+                record.put(fieldKey, value);
+            }
+        }
+    }
+
+    private static final class ValueConverter extends PrimitiveConverter {
+        private final RecordConverter parent;
+
+        private final int index;
+
+        private final String key;
+
+        private final PrimitiveType.PrimitiveTypeName typeName;
+
+        private final boolean typedValues;
+
+        private Object[] dictionaryValues;
+
+        private ValueConverter(RecordConverter parent, int index, String key, PrimitiveType type, boolean typedValues) {
+            this.parent = parent;
+            this.index = index;
+            this.key = key;
+            this.typeName = type.getPrimitiveTypeName();
+            this.typedValues = typedValues;
+        }
+
+        @Override
+        public boolean hasDictionarySupport() {
+            return true;
+        }
+
+        /**
+         * Dictionary entries are converted once
+         * instead of once per row referring them.
+         */
+        @Override
+        public void setDictionary(Dictionary dictionary) {
+            dictionaryValues = new Object[dictionary.getMaxId() + 1];
+            for (int id = 0; id < dictionaryValues.length; id++) {
+                dictionaryValues[id] = decode(dictionary, id);
+            }
+        }
+
+        @Override
+        public void addValueFromDictionary(int dictionaryId) {
+            parent.put(index, key, dictionaryValues[dictionaryId]);
+        }
+
+        @Override
+        public void addBinary(Binary value) {
+            parent.put(index, key, toValue(value));
+        }
+
+        @Override
+        public void addBoolean(boolean value) {
+            parent.put(index, key, typedValues ? (Object) value : String.valueOf(value));
+        }
+
+        @Override
+        public void addDouble(double value) {
+            parent.put(index, key, typedValues ? (Object) value : String.valueOf(value));
+        }
+
+        @Override
+        public void addFloat(float value) {
+            parent.put(index, key, typedValues ? (Object) value : String.valueOf(value));
+        }
+
+        @Override
+        public void addInt(int value) {
+            parent.put(index, key, typedValues ? (Object) value : String.valueOf(value));
+        }
+
+        @Override
+        public void addLong(long value) {
+            parent.put(index, key, typedValues ? (Object) value : String.valueOf(value));
+        }
+
+        private Object toValue(Binary value) {
+            if (typeName == PrimitiveType.PrimitiveTypeName.INT96) {
+                return ParquetIOUtil.dateFromInt96(value);
+            }
+            return value.toStringUsingUTF8();
+        }
+
+        private Object decode(Dictionary dictionary, int id) {
+            switch (typeName) {
+                case BOOLEAN:
+                    return typedValues ? (Object) dictionary.decodeToBoolean(id) : String.valueOf(dictionary.decodeToBoolean(id));
+                case INT32:
+                    return typedValues ? (Object) dictionary.decodeToInt(id) : String.valueOf(dictionary.decodeToInt(id));
+                case INT64:
+                    return typedValues ? (Object) dictionary.decodeToLong(id) : String.valueOf(dictionary.decodeToLong(id));
+                case FLOAT:
+                    return typedValues ? (Object) dictionary.decodeToFloat(id) : String.valueOf(dictionary.decodeToFloat(id));
+                case DOUBLE:
+                    return typedValues ? (Object) dictionary.decodeToDouble(id) : String.valueOf(dictionary.decodeToDouble(id));
+                default:
+                    return toValue(dictionary.decodeToBinary(id));
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read;
+
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+import org.json.simple.JSONObject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Decodes the row groups of a parquet file
+ * concurrently. {@link #read()} returns records in
+ * file order while up to {@code parallelism} of
+ * the following row groups are decoded on a
+ * {@link ForkJoinPool}. {@link #spliterator()}
+ * splits the file by row groups for parallel
+ * streams instead.
+ *
+ * Every decoding thread uses a
+ * {@link JSONParquetFileReader} of its own, taken
+ * from a pool of open readers. Row groups are
+ * decoded in full, so memory grows with row
+ * group size times parallelism.
+ */
+public class ParallelJSONParquetReader implements JSONRecordReader {
+
+    @FunctionalInterface
+    interface ReaderOpener {
+        JSONParquetFileReader open() throws IOException, ParquetIOException;
+    }
+
+    private final ReaderOpener opener;
+
+    private final int parallelism;
+
+    private final int rowGroupCount;
+
+    // Row counts before record filtering, for size estimates.
+    private final long[] rowGroupRows;
+
+    private final Queue<JSONParquetFileReader> idleReaders = new ConcurrentLinkedQueue<>();
+
+    private final Queue<JSONParquetFileReader> openReaders = new ConcurrentLinkedQueue<>();
+
+    private final Deque<ForkJoinTask<List<JSONObject>>> pending = new ArrayDeque<>();
+
+    private ForkJoinPool pool;
+
+    private int nextRowGroup = 0;
+
+    private Iterator<JSONObject> records = Collections.emptyIterator();
+
+    ParallelJSONParquetReader(ReaderOpener opener, int parallelism) throws IOException, ParquetIOException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism should be positive.");
+        }
+        this.opener = opener;
+        this.parallelism = parallelism;
+        final JSONParquetFileReader reader = open();
+        this.rowGroupCount = reader.getRowGroupCount();
+        this.rowGroupRows = new long[rowGroupCount];
+        for (int i = 0; i < rowGroupCount; i++) {
+            rowGroupRows[i] = reader.getRowGroupRowCount(i);
+        }
+        idleReaders.offer(reader);
+    }
+
+    @Override
+    public JSONObject read() throws IOException {
+        while (!records.hasNext()) {
+            while (pending.size() < parallelism && nextRowGroup < rowGroupCount) {
+                final int rowGroup = nextRowGroup++;
+                pending.add(getPool().submit(() -> decode(rowGroup)));
+            }
+            if (pending.isEmpty()) {
+                return null;
+            }
+            records = get(pending.poll()).iterator();
+        }
+        return records.next();
+    }
+
+    /**
+     * Spliterator over all records of the file,
+     * independent of {@link #read()}. Row groups are
+     * decoded on the threads consuming it, eg: those
+     * of a parallel {@link java.util.stream.Stream}.
+     * The reader must be closed after the stream
+     * is consumed, not before.
+     */
+    public Spliterator<JSONObject> spliterator() {
+        return new RowGroupSpliterator(Collections.emptyIterator(), 0, rowGroupCount);
+    }
+
+    int getRowGroupCount() {
+        return rowGroupCount;
+    }
+
+    /**
+     * Waits for row groups still being decoded
+     * and closes all readers of the file.
+     */
+    @Override
+    public void close() throws IOException {
+        for (ForkJoinTask<List<JSONObject>> task : pending) {
+            task.cancel(false);
+        }
+        pending.clear();
+        records = Collections.emptyIterator();
+        if (pool != null) {
+            pool.shutdown();
+            try {
+                pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            pool = null;
+        }
+        IOException failure = null;
+        for (JSONParquetFileReader reader; (reader = openReaders.poll()) != null; ) {
+            try {
+                reader.close();
+            } catch (IOException ex) {
+                failure = failure == null ? ex : failure;
+            }
+        }
+        idleReaders.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private List<JSONObject> decode(int rowGroup) throws IOException {
+        JSONParquetFileReader reader = idleReaders.poll();
+        if (reader == null) {
+            try {
+                reader = open();
+            } catch (ParquetIOException ex) {
+                throw new IOException(ex);
+            }
+        }
+        try {
+            return reader.readRowGroup(rowGroup);
+        } finally {
+            idleReaders.offer(reader);
+        }
+    }
+
+    private JSONParquetFileReader open() throws IOException, ParquetIOException {
+        final JSONParquetFileReader reader = opener.open();
+        openReaders.offer(reader);
+        return reader;
+    }
+
+    private List<JSONObject> get(ForkJoinTask<List<JSONObject>> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while decoding row group", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IOException("Error while decoding row group", ex.getCause());
+        }
+    }
+
+    private ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    /**
+     * Splits on row group boundaries. Records
+     * of a row group already started stay
+     * with the prefix handed out on split.
+     */
+    private class RowGroupSpliterator implements Spliterator<JSONObject> {
+        private Iterator<JSONObject> records;
+
+        private int from;
+
+        private final int to;
+
+        RowGroupSpliterator(Iterator<JSONObject> records, int from, int to) {
+            this.records = records;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super JSONObject> action) {
+            while (!records.hasNext()) {
+                if (from == to) {
+                    return false;
+                }
+                try {
+                    records = decode(from++).iterator();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            action.accept(records.next());
+            return true;
+        }
+
+        @Override
+        public Spliterator<JSONObject> trySplit() {
+            if (to - from < 2) {
+                return null;
+            }
+            final int middle = from + (to - from) / 2;
+            final Spliterator<JSONObject> prefix = new RowGroupSpliterator(records, from, middle);
+            records = Collections.emptyIterator();
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = 0;
+            for (int i = from; i < to; i++) {
+                size += rowGroupRows[i];
+            }
+            return size;
+        }
+
+        @Override
+        public int characteristics() {
+            // Not SIZED, filters drop records.
+            return ORDERED | NONNULL;
+        }
+    }
+}
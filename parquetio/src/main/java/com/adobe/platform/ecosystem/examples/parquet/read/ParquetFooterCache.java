@@ -0,0 +1,95 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read;
+
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of parquet footers keyed by
+ * caller supplied file keys, so that the footer
+ * of a file is fetched and parsed only once.
+ * Keys should identify immutable files. Least
+ * recently used footers are evicted first.
+ */
+public class ParquetFooterCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private final Map<String, ParquetMetadata> footers;
+
+    public ParquetFooterCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public ParquetFooterCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Footer cache entries should be positive.");
+        }
+        this.footers = new LinkedHashMap<String, ParquetMetadata>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ParquetMetadata> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return footer cached for {@code key}, read
+     * from {@code inputFile} when not cached yet.
+     */
+    public ParquetMetadata get(String key, InputFile inputFile) throws IOException {
+        final ParquetMetadata cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        // Read outside the lock, footers may be remote.
+        final ParquetMetadata footer = readFooter(inputFile);
+        synchronized (footers) {
+            footers.put(key, footer);
+        }
+        return footer;
+    }
+
+    public ParquetMetadata getIfPresent(String key) {
+        synchronized (footers) {
+            return footers.get(key);
+        }
+    }
+
+    public int size() {
+        synchronized (footers) {
+            return footers.size();
+        }
+    }
+
+    /**
+     * Reads the footer only, without
+     * opening a file reader.
+     */
+    public static ParquetMetadata readFooter(InputFile inputFile) throws IOException {
+        try (SeekableInputStream inputStream = inputFile.newStream()) {
+            return ParquetFileReader.readFooter(inputFile, JSONParquetFileReader.getReadOptions(FilterCompat.NOOP), inputStream);
+        }
+    }
+}
@@ -18,13 +18,17 @@ package com.adobe.platform.ecosystem.examples.parquet.read;
 
 import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
 import com.adobe.platform.ecosystem.examples.parquet.model.ParquetIOField;
+import com.adobe.platform.ecosystem.examples.parquet.read.batch.ColumnBatch;
+import com.adobe.platform.ecosystem.examples.parquet.read.filter.RecordFilter;
 import org.apache.hadoop.fs.Path;
+import org.apache.parquet.io.InputFile;
 import org.json.simple.JSONObject;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
 
 /**
  * Created by vedhera on 24/10/2017.
@@ -60,6 +64,16 @@ public interface ParquetIOReader {
      */
     void initFileForRead(File file) throws ParquetIOException;
 
+    /**
+     * abstract method to init
+     * parquet reader for any parquet
+     * {@link InputFile}, eg: a
+     * {@link com.adobe.platform.ecosystem.examples.parquet.io.ByteArrayInputFile}
+     * for a file held in memory.
+     * @param inputFile
+     */
+    void initInputForRead(InputFile inputFile) throws ParquetIOException;
+
     @Deprecated
     /**
      * abstract method to init
@@ -87,6 +101,30 @@ public interface ParquetIOReader {
      */
     Iterator getIterator() throws ParquetIOException;
 
+    /**
+     * abstract method to provide a spliterator
+     * for reading records with streams. With
+     * a read parallelism above 1 it splits on
+     * row groups, so that a parallel stream
+     * decodes them concurrently.
+     * @return Spliterator
+     */
+    Spliterator<JSONObject> getSpliterator() throws ParquetIOException;
+
+    /**
+     * API to read the next rows column by
+     * column instead of as {@link JSONObject}s.
+     * Batches are read independently of
+     * {@link #processData(int)} and only
+     * cover projected, non repeated fields.
+     * Readers with a record filter cannot
+     * read batches.
+     * @param maxRows
+     * @return batch of up to {@code maxRows}
+     * rows or null once all rows are read.
+     */
+    ColumnBatch readBatch(int maxRows) throws ParquetIOException;
+
     /**
      * API to close the reader
      * which in turn closes on
@@ -99,8 +137,42 @@ public interface ParquetIOReader {
      * parquet file.
      *
      * @return equivalent schema
-     * for parquet file.
+     * for parquet file, projected
+     * on {@link #getProjectedFields()}.
      * @throws ParquetIOException
      */
     List<ParquetIOField> getSchema() throws ParquetIOException;
+
+    /**
+     * API to get row counts and column
+     * statistics of the file being read,
+     * from its footer alone.
+     *
+     * @return statistics of the file.
+     * @throws ParquetIOException
+     */
+    FileStatistics getFileStatistics() throws ParquetIOException;
+
+    /**
+     * API to get the field paths records
+     * are projected on. Only these columns
+     * are read from the parquet file, along
+     * with the fields filtered on, see
+     * {@link com.adobe.platform.ecosystem.examples.parquet.read.configuration.ParquetReaderConfiguration#getProjectedFields()}.
+     *
+     * @return projected field paths, empty
+     * when all fields are read.
+     */
+    List<String> getProjectedFields();
+
+    /**
+     * API to get the filter pushed down
+     * to parquet reads. Row groups which
+     * cannot match are skipped and only
+     * matching records are returned.
+     *
+     * @return filter or null when
+     * all records are read.
+     */
+    RecordFilter getRecordFilter();
 }
\ No newline at end of file
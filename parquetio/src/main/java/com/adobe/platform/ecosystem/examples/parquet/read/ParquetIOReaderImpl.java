@@ -22,22 +22,27 @@ package com.adobe.platform.ecosystem.examples.parquet.read;
 
 import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOErrorCode;
 import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+import com.adobe.platform.ecosystem.examples.parquet.io.LocalInputFile;
 import com.adobe.platform.ecosystem.examples.parquet.model.ParquetIOField;
+import com.adobe.platform.ecosystem.examples.parquet.read.batch.ColumnBatch;
+import com.adobe.platform.ecosystem.examples.parquet.read.filter.RecordFilter;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
-import org.apache.parquet.example.data.Group;
 import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.hadoop.ParquetFileReader;
-import org.apache.parquet.hadoop.ParquetReader;
-import org.apache.parquet.hadoop.example.GroupReadSupport;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.InputFile;
 import org.json.simple.JSONObject;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Consumer;
 
 /**
@@ -45,16 +50,48 @@ import java.util.function.Consumer;
  * read records from a parquet file.
  */
 public class ParquetIOReaderImpl implements ParquetIOReader {
-    private Group readingGroup;
-    private ParquetReader<Group> reader;
+    private JSONObject readingRecord;
+    private JSONRecordReader reader;
+    private InputFile inputFile;
+    private ColumnarParquetFileReader batchReader;
+    private ParquetMetadata footer;
     private final Configuration configuration;
     private final boolean doFlatten;
+    private final boolean typedValues;
+    private final int readParallelism;
     private final Path path;
+    private final List<String> projectedFields;
+    private final RecordFilter recordFilter;
+    // Projection widened by filtered fields.
+    private final List<String> readFields;
 
     ParquetIOReaderImpl(Configuration configuration, boolean doFlatten, Path path) {
+        this(configuration, doFlatten, false, path, null, null, 1);
+    }
+
+    ParquetIOReaderImpl(
+            Configuration configuration,
+            boolean doFlatten,
+            boolean typedValues,
+            Path path,
+            List<String> projectedFields,
+            RecordFilter recordFilter,
+            int readParallelism
+    ) {
         this.configuration = configuration;
         this.doFlatten = doFlatten;
+        this.typedValues = typedValues;
         this.path = path;
+        this.projectedFields = projectedFields == null
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(projectedFields));
+        this.recordFilter = recordFilter;
+        this.readParallelism = readParallelism;
+        this.readFields = new ArrayList<>(this.projectedFields);
+        if (!readFields.isEmpty() && recordFilter != null) {
+            // Rows can only be filtered on columns which are read.
+            readFields.addAll(recordFilter.getFieldPaths());
+        }
     }
 
     @Override
@@ -65,7 +102,7 @@ public class ParquetIOReaderImpl implements ParquetIOReader {
 
     @Override
     public boolean hasBufferData() {
-        if(readingGroup != null) {
+        if(readingRecord != null) {
             return true;
         } else {
             return false;
@@ -74,13 +111,14 @@ public class ParquetIOReaderImpl implements ParquetIOReader {
 
     @Override
     public void initFileForRead(File file) throws ParquetIOException {
+        initInputForRead(new LocalInputFile(file));
+    }
+
+    @Override
+    public void initInputForRead(InputFile inputFile) throws ParquetIOException {
         try {
-            if(reader != null) {
-                reader.close(); // Close previous file reader.
-            }
-            reader = ParquetReader.builder(new GroupReadSupport(), new Path(file.getAbsolutePath()))
-                    .withConf(configuration)
-                    .build();
+            closeReaders(); // Close previous file readers.
+            reader = buildReader(inputFile);
         } catch (IOException ioex) {
             throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_IO_EXCEPTION,ioex);
         }
@@ -90,12 +128,8 @@ public class ParquetIOReaderImpl implements ParquetIOReader {
     @Override
     public ParquetIOReader initFileForRead(Path path) throws ParquetIOException {
         try {
-            if (reader != null) {
-                reader.close(); // Close previous file reader.
-            }
-            reader = ParquetReader.builder(new GroupReadSupport(), path)
-                    .withConf(configuration)
-                    .build();
+            closeReaders(); // Close previous file readers.
+            reader = buildReader(HadoopInputFile.fromPath(path, configuration));
         } catch (IOException ioex) {
             throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_IO_EXCEPTION, ioex);
         }
@@ -105,12 +139,8 @@ public class ParquetIOReaderImpl implements ParquetIOReader {
     @Override
     public ParquetIOReader initFileForRead() throws ParquetIOException {
         try {
-            if (reader != null) {
-                reader.close(); // Close previous file reader.
-            }
-            reader = ParquetReader.builder(new GroupReadSupport(), path)
-                    .withConf(configuration)
-                    .build();
+            closeReaders(); // Close previous file readers.
+            reader = buildReader(HadoopInputFile.fromPath(path, configuration));
         } catch (IOException ioex) {
             throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_IO_EXCEPTION, ioex);
         }
@@ -122,53 +152,140 @@ public class ParquetIOReaderImpl implements ParquetIOReader {
         if(reader == null) {
             throw new ParquetIOException(ParquetIOErrorCode.PAQUETIO_READER_NOT_INITIALISED);
         }
-        return new ParquetIOReaderIterator<Group>(reader,doFlatten).iterator();
+        return new ParquetIOReaderIterator(reader).iterator();
     }
 
     @Override
-    public void readerClose() throws ParquetIOException {
-        if(reader != null) {
-            try {
-                reader.close();
-            } catch (IOException e) {
-                throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_READER_CLOSE_EXCEPTION, e);
+    public Spliterator<JSONObject> getSpliterator() throws ParquetIOException {
+        if(reader == null) {
+            throw new ParquetIOException(ParquetIOErrorCode.PAQUETIO_READER_NOT_INITIALISED);
+        }
+        if(reader instanceof ParallelJSONParquetReader) {
+            return ((ParallelJSONParquetReader) reader).spliterator();
+        }
+        return Spliterators.spliteratorUnknownSize(
+                new ParquetIOReaderIterator(reader).iterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL
+        );
+    }
+
+    @Override
+    public ColumnBatch readBatch(int maxRows) throws ParquetIOException {
+        if(maxRows <= 0) {
+            throw new IllegalArgumentException("Batch rows should be positive.");
+        }
+        if(inputFile == null) {
+            throw new ParquetIOException(ParquetIOErrorCode.PAQUETIO_READER_NOT_INITIALISED);
+        }
+        if(recordFilter != null) {
+            // Rows would have to be filtered one by one.
+            throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_BATCH_EXCEPTION);
+        }
+        try {
+            if(batchReader == null) {
+                batchReader = new ColumnarParquetFileReader(inputFile, projectedFields);
             }
+            return batchReader.readBatch(maxRows);
+        } catch (IOException ioex) {
+            throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_IO_EXCEPTION, ioex);
+        }
+    }
+
+    @Override
+    public void readerClose() throws ParquetIOException {
+        try {
+            closeReaders();
+        } catch (IOException e) {
+            throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_READER_CLOSE_EXCEPTION, e);
         }
     }
 
     @Override
     public List<ParquetIOField> getSchema() throws ParquetIOException {
         try {
-            ParquetMetadata metadata = ParquetFileReader.readFooter(
-                    this.configuration,
-                    this.path,
-                    ParquetMetadataConverter.NO_FILTER
-            );
+            ParquetMetadata metadata = getFooter();
             if (metadata == null) {
                 throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_READER_METADATA_NULL_EXCEPTION);
             }
             return ReaderUtil.getSchemaFromGroup(
-                    metadata
-                            .getFileMetaData()
-                            .getSchema()
-                            .asGroupType()
-                            .getFields()
+                    SchemaProjection.project(
+                            metadata.getFileMetaData().getSchema(),
+                            readFields
+                    ).getFields()
             );
         } catch (IOException ioex) {
             throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_IO_EXCEPTION, ioex);
         }
     }
 
+    @Override
+    public FileStatistics getFileStatistics() throws ParquetIOException {
+        try {
+            return new FileStatistics(getFooter());
+        } catch (IOException ioex) {
+            throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_IO_EXCEPTION, ioex);
+        }
+    }
+
+    @Override
+    public List<String> getProjectedFields() {
+        return projectedFields;
+    }
+
+    @Override
+    public RecordFilter getRecordFilter() {
+        return recordFilter;
+    }
+
+    private void closeReaders() throws IOException {
+        try {
+            if(reader != null) {
+                reader.close();
+            }
+        } finally {
+            if(batchReader != null) {
+                batchReader.close();
+                batchReader = null;
+            }
+        }
+    }
+
+    /**
+     * Footer of the file being read, or of the
+     * configured path before any file is opened.
+     * Read once per file.
+     */
+    private ParquetMetadata getFooter() throws IOException {
+        if(footer == null) {
+            footer = inputFile != null
+                    ? ParquetFooterCache.readFooter(inputFile)
+                    : ParquetFileReader.readFooter(configuration, path, ParquetMetadataConverter.NO_FILTER);
+        }
+        return footer;
+    }
+
+    private JSONRecordReader buildReader(InputFile inputFile) throws IOException, ParquetIOException {
+        this.inputFile = inputFile;
+        this.footer = null;
+        if(readParallelism > 1) {
+            return new ParallelJSONParquetReader(
+                    () -> new JSONParquetFileReader(inputFile, readFields, recordFilter, doFlatten, typedValues),
+                    readParallelism
+            );
+        }
+        return new JSONParquetFileReader(inputFile, readFields, recordFilter, doFlatten, typedValues);
+    }
+
     private List<JSONObject> getDataFromExistingBuffer(int rows) throws ParquetIOException {
         List<JSONObject> records = new ArrayList<>();
         try {
-            if(readingGroup == null) {
-                readingGroup = reader.read();
+            if(readingRecord == null) {
+                readingRecord = reader.read();
             }
 
-            while(readingGroup != null && records.size() < rows) {
-                records.add(ReaderUtil.getJSONDataFromGroup(readingGroup, doFlatten));
-                readingGroup = reader.read();
+            while(readingRecord != null && records.size() < rows) {
+                records.add(readingRecord);
+                readingRecord = reader.read();
             }
         } catch (IOException ioex) {
             throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_IO_EXCEPTION,ioex);
@@ -179,7 +296,11 @@ public class ParquetIOReaderImpl implements ParquetIOReader {
     public static class ParquetIOReaderBuilder {
         public Configuration conf;
         public boolean doFlatten;
+        public boolean typedValues;
         public Path path;
+        public List<String> projectedFields;
+        public RecordFilter recordFilter;
+        public int readParallelism = 1;
         // TODO: More fields to be added based on compressions style etc..
 
         public ParquetIOReaderBuilder with(Consumer<ParquetIOReaderBuilder> builderFunction) {
@@ -188,11 +309,11 @@ public class ParquetIOReaderImpl implements ParquetIOReader {
         }
 
         public ParquetIOReaderImpl build() {
-            return new ParquetIOReaderImpl(conf, doFlatten, path);
+            return new ParquetIOReaderImpl(conf, doFlatten, typedValues, path, projectedFields, recordFilter, readParallelism);
         }
     }
 
-    public ParquetReader<Group> getReader() {
+    public JSONRecordReader getReader() {
         return reader;
     }
 
@@ -18,8 +18,6 @@ package com.adobe.platform.ecosystem.examples.parquet.read;
 
 import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOErrorCode;
 import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
-import org.apache.parquet.example.data.Group;
-import org.apache.parquet.hadoop.ParquetReader;
 import org.json.simple.JSONObject;
 
 import java.io.IOException;
@@ -34,22 +32,19 @@ import java.util.logging.Logger;
 /**
  * Iterable class to read records iteratively from
  * Parquet record reader.
- * @param <T>
  */
-public class ParquetIOReaderIterator<T extends Group> implements Iterable<JSONObject> {
-    private T readingGroup;
-    private final ParquetReader<T> reader;
-    private final boolean doFlatten;
+public class ParquetIOReaderIterator implements Iterable<JSONObject> {
+    private JSONObject readingRecord;
+    private final JSONRecordReader reader;
     private final static Logger LOGGER = Logger.getLogger(ParquetIOReaderIterator.class.getName());
 
-    ParquetIOReaderIterator(ParquetReader<T> reader, boolean doFlatten) throws ParquetIOException {
+    ParquetIOReaderIterator(JSONRecordReader reader) throws ParquetIOException {
         if(reader == null) {
             throw new ParquetIOException(ParquetIOErrorCode.PAQUETIO_READER_NOT_INITIALISED);
         }
         this.reader = reader;
-        this.doFlatten = doFlatten;
         try {
-            this.readingGroup = reader.read();
+            this.readingRecord = reader.read();
         } catch (IOException ex) {
             throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_IO_EXCEPTION);
         }
@@ -60,17 +55,15 @@ public class ParquetIOReaderIterator<T extends Group> implements Iterable<JSONOb
         return new Iterator<JSONObject>() {
             @Override
             public boolean hasNext() {
-                return readingGroup != null;
+                return readingRecord != null;
             }
 
             @Override
             public JSONObject next() {
-                T tempGroup;
                 JSONObject value;
                 try {
-                    tempGroup = readingGroup;
-                    readingGroup = reader.read();
-                    value = ReaderUtil.getJSONDataFromGroup(tempGroup,doFlatten);
+                    value = readingRecord;
+                    readingRecord = reader.read();
                 } catch (IOException e) {
                     LOGGER.severe("Error occurred while reading next record from iterator: " + e);
                     throw new NoSuchElementException("Error occurred while reading next record from iterator: " + e);
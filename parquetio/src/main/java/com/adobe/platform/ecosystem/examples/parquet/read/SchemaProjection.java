@@ -0,0 +1,77 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read;
+
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Prunes a parquet file schema down to
+ * requested field paths. A path is either
+ * dotted, eg: {@code person.name}, or joined
+ * with '_' the way flattened records are
+ * keyed, eg: {@code person_name}. Requesting
+ * a group keeps all of its sub fields.
+ *
+ * Requested paths missing in a file are
+ * ignored as files of a dataset can carry
+ * different schemas.
+ */
+final class SchemaProjection {
+
+    private static final String DOT = ".";
+
+    private static final String UNDERSCORE = "_";
+
+    private SchemaProjection() {
+    }
+
+    /**
+     * @return {@code fileSchema} itself when
+     * no fields are requested.
+     */
+    static MessageType project(MessageType fileSchema, List<String> fieldPaths) {
+        if (fieldPaths == null || fieldPaths.isEmpty()) {
+            return fileSchema;
+        }
+        final Set<String> requested = new HashSet<>(fieldPaths);
+        return new MessageType(fileSchema.getName(), projectFields(fileSchema, Collections.emptyList(), requested));
+    }
+
+    private static List<Type> projectFields(GroupType group, List<String> parentPath, Set<String> requested) {
+        final List<Type> fields = new ArrayList<>();
+        for (Type field : group.getFields()) {
+            final List<String> path = new ArrayList<>(parentPath);
+            path.add(field.getName());
+            if (requested.contains(String.join(DOT, path)) || requested.contains(String.join(UNDERSCORE, path))) {
+                fields.add(field);
+            } else if (!field.isPrimitive()) {
+                final List<Type> subFields = projectFields(field.asGroupType(), path, requested);
+                if (!subFields.isEmpty()) {
+                    fields.add(field.asGroupType().withNewFields(subFields));
+                }
+            }
+        }
+        return fields;
+    }
+}
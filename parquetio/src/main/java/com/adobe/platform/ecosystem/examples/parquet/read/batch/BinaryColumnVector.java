@@ -0,0 +1,63 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read.batch;
+
+import org.apache.parquet.io.api.Binary;
+
+import java.util.BitSet;
+
+/**
+ * Dictionary encoded {@link ColumnVector} of
+ * parquet BINARY, FIXED_LEN_BYTE_ARRAY and
+ * INT96 columns. Each row holds an id into
+ * the dictionary of distinct values, null
+ * rows hold -1. Ids of equal values are
+ * equal, so rows can be grouped on ids
+ * without decoding values.
+ */
+public class BinaryColumnVector extends ColumnVector {
+
+    private final Binary[] dictionary;
+
+    private final int[] ids;
+
+    public BinaryColumnVector(String path, Binary[] dictionary, int[] ids, BitSet nulls) {
+        super(path, nulls);
+        this.dictionary = dictionary;
+        this.ids = ids;
+    }
+
+    public Binary getBinary(int row) {
+        return dictionary[ids[row]];
+    }
+
+    public String getString(int row) {
+        return dictionary[ids[row]].toStringUsingUTF8();
+    }
+
+    public Binary[] getDictionary() {
+        return dictionary;
+    }
+
+    public int[] getIds() {
+        return ids;
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read.batch;
+
+import java.util.BitSet;
+
+/**
+ * {@link ColumnVector} of parquet
+ * BOOLEAN columns.
+ */
+public class BooleanColumnVector extends ColumnVector {
+
+    private final boolean[] values;
+
+    public BooleanColumnVector(String path, boolean[] values, BitSet nulls) {
+        super(path, nulls);
+        this.values = values;
+    }
+
+    public boolean getBoolean(int row) {
+        return values[row];
+    }
+
+    public boolean[] getValues() {
+        return values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+}
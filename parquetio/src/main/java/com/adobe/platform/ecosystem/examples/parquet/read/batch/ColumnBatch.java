@@ -0,0 +1,71 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read.batch;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rows of a parquet file held column by column,
+ * one {@link ColumnVector} per projected leaf
+ * column. Numeric and boolean columns are
+ * primitive arrays and binary columns are
+ * dictionary encoded, so values are never
+ * boxed per row.
+ */
+public class ColumnBatch {
+
+    private static final String DOT = ".";
+
+    private static final String UNDERSCORE = "_";
+
+    private final int rowCount;
+
+    private final List<ColumnVector> columns;
+
+    public ColumnBatch(int rowCount, List<ColumnVector> columns) {
+        this.rowCount = rowCount;
+        this.columns = Collections.unmodifiableList(columns);
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return columns in parquet
+     * schema order.
+     */
+    public List<ColumnVector> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @param path dotted, eg: {@code person.age},
+     *             or joined with '_' the way
+     *             flattened records are keyed.
+     * @return column or null when the
+     * batch does not have it.
+     */
+    public ColumnVector getColumn(String path) {
+        for (ColumnVector column : columns) {
+            if (column.getPath().equals(path) || column.getPath().replace(DOT, UNDERSCORE).equals(path)) {
+                return column;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read.batch;
+
+import java.util.BitSet;
+
+/**
+ * Values of a single leaf column for
+ * the rows of a {@link ColumnBatch}.
+ * Values of null rows are unspecified,
+ * check {@link #isNull(int)} first.
+ */
+public abstract class ColumnVector {
+
+    private final String path;
+
+    private final BitSet nulls;
+
+    protected ColumnVector(String path, BitSet nulls) {
+        this.path = path;
+        this.nulls = nulls;
+    }
+
+    /**
+     * @return dotted parquet column
+     * path, eg: {@code person.age}.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    /**
+     * @return bitmap with a bit set
+     * for every null row.
+     */
+    public BitSet getNulls() {
+        return nulls;
+    }
+
+    public abstract int size();
+}
@@ -0,0 +1,45 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read.batch;
+
+import java.util.BitSet;
+
+/**
+ * {@link ColumnVector} of parquet
+ * INT32 columns.
+ */
+public class IntColumnVector extends ColumnVector {
+
+    private final int[] values;
+
+    public IntColumnVector(String path, int[] values, BitSet nulls) {
+        super(path, nulls);
+        this.values = values;
+    }
+
+    public int getInt(int row) {
+        return values[row];
+    }
+
+    public int[] getValues() {
+        return values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read.batch;
+
+import java.util.BitSet;
+
+/**
+ * {@link ColumnVector} of parquet
+ * INT64 columns.
+ */
+public class LongColumnVector extends ColumnVector {
+
+    private final long[] values;
+
+    public LongColumnVector(String path, long[] values, BitSet nulls) {
+        super(path, nulls);
+        this.values = values;
+    }
+
+    public long getLong(int row) {
+        return values[row];
+    }
+
+    public long[] getValues() {
+        return values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+}
@@ -15,9 +15,11 @@
  */
 package com.adobe.platform.ecosystem.examples.parquet.read.configuration;
 
+import com.adobe.platform.ecosystem.examples.parquet.read.filter.RecordFilter;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
@@ -34,10 +36,22 @@ public class ParquetReaderConfiguration {
 
     private final boolean shouldFlattenData;
 
-    private ParquetReaderConfiguration(Path path, Configuration configuration, boolean shouldFlattenData) {
-        this.path = path;
-        this.configuration = configuration;
-        this.shouldFlattenData = shouldFlattenData;
+    private final boolean typedValues;
+
+    private final List<String> projectedFields;
+
+    private final RecordFilter recordFilter;
+
+    private final int readParallelism;
+
+    private ParquetReaderConfiguration(Builder builder) {
+        this.path = builder.path;
+        this.configuration = builder.configuration;
+        this.shouldFlattenData = builder.shouldFlattenData;
+        this.typedValues = builder.typedValues;
+        this.projectedFields = builder.projectedFields;
+        this.recordFilter = builder.recordFilter;
+        this.readParallelism = builder.readParallelism;
     }
 
     public static Builder builder() {
@@ -56,6 +70,43 @@ public class ParquetReaderConfiguration {
         return shouldFlattenData;
     }
 
+    /**
+     * Whether records hold typed values, eg:
+     * Integer or Boolean, instead of strings.
+     */
+    public boolean getTypedValues() {
+        return typedValues;
+    }
+
+    /**
+     * Field paths to read, either dotted, eg:
+     * {@code person.name}, or flattened, eg:
+     * {@code person_name}. A group path reads
+     * all of its sub fields. All fields are
+     * read when null or empty. Fields of
+     * {@link #getRecordFilter()} are read too.
+     */
+    public List<String> getProjectedFields() {
+        return projectedFields;
+    }
+
+    /**
+     * Filter pushed down to parquet reads,
+     * all records are read when null.
+     */
+    public RecordFilter getRecordFilter() {
+        return recordFilter;
+    }
+
+    /**
+     * Number of row groups of a file decoded
+     * concurrently, see {@link com.adobe.platform.ecosystem.examples.parquet.read.ParallelJSONParquetReader}.
+     * Files are read sequentially when 1.
+     */
+    public int getReadParallelism() {
+        return readParallelism;
+    }
+
     /**
      * Fluent builder of type
      * {@link ParquetReaderConfiguration}
@@ -67,13 +118,24 @@ public class ParquetReaderConfiguration {
 
         public boolean shouldFlattenData;
 
+        public boolean typedValues;
+
+        public List<String> projectedFields;
+
+        public RecordFilter recordFilter;
+
+        public int readParallelism = 1;
+
         public Builder with(Consumer<Builder> builderConsumer) {
             builderConsumer.accept(this);
             return this;
         }
 
         public ParquetReaderConfiguration build() {
-            return new ParquetReaderConfiguration(path, configuration, shouldFlattenData);
+            if (readParallelism <= 0) {
+                throw new IllegalArgumentException("Read parallelism should be positive.");
+            }
+            return new ParquetReaderConfiguration(this);
         }
 
     }
@@ -0,0 +1,437 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read.filter;
+
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOErrorCode;
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Filter expression on record fields which
+ * is pushed down to parquet reads. Row groups
+ * whose footer statistics cannot match are
+ * skipped and remaining rows are filtered
+ * before they are materialized.
+ *
+ * Field paths are either dotted, eg: {@code person.name},
+ * or flattened, eg: {@code person_name}, and have to
+ * point to a non repeated primitive column. Values are
+ * converted to the column type of each file, so
+ * strings can be used for every type. A field missing
+ * in a file is null for all its rows.
+ *
+ * @see #parse(String)
+ */
+public abstract class RecordFilter {
+
+    private static final String DOT = ".";
+
+    private static final String UNDERSCORE = "_";
+
+    private static final String CLAUSE_SEPARATOR = ";";
+
+    private static final String IN = " in ";
+
+    private static final String IS_NULL = " isnull";
+
+    private enum Operator {
+        EQ("="),
+        LT("<"),
+        GT(">");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+    }
+
+    private RecordFilter() {
+    }
+
+    public static RecordFilter eq(String fieldPath, Object value) {
+        return new Comparison(fieldPath, Operator.EQ, requireValue(value));
+    }
+
+    public static RecordFilter lt(String fieldPath, Object value) {
+        return new Comparison(fieldPath, Operator.LT, requireValue(value));
+    }
+
+    public static RecordFilter gt(String fieldPath, Object value) {
+        return new Comparison(fieldPath, Operator.GT, requireValue(value));
+    }
+
+    public static RecordFilter in(String fieldPath, Collection<?> values) {
+        if (values == null || values.isEmpty() || values.contains(null)) {
+            throw new IllegalArgumentException("Values of in filter on " + fieldPath + " should be non empty and non null.");
+        }
+        return new In(fieldPath, values);
+    }
+
+    public static RecordFilter isNull(String fieldPath) {
+        return new Comparison(fieldPath, Operator.EQ, null);
+    }
+
+    public static RecordFilter and(RecordFilter... filters) {
+        return new Logical(true, Arrays.asList(filters));
+    }
+
+    public static RecordFilter or(RecordFilter... filters) {
+        return new Logical(false, Arrays.asList(filters));
+    }
+
+    /**
+     * Parses clauses separated by ';', all of
+     * which have to match. Clauses are one of
+     * <ul>
+     *     <li>{@code path = value}</li>
+     *     <li>{@code path < value}</li>
+     *     <li>{@code path > value}</li>
+     *     <li>{@code path in (value1, value2)}</li>
+     *     <li>{@code path isNull}</li>
+     * </ul>
+     * eg: {@code timestamp > 1509011304784; identity.namespace in (ECID, AAID)}.
+     * Values cannot contain ';' or ','.
+     */
+    public static RecordFilter parse(String expression) {
+        if (expression == null || expression.trim().isEmpty()) {
+            throw new IllegalArgumentException("Filter expression is empty.");
+        }
+        final List<RecordFilter> clauses = new ArrayList<>();
+        for (String clause : expression.split(CLAUSE_SEPARATOR)) {
+            if (!clause.trim().isEmpty()) {
+                clauses.add(parseClause(clause.trim()));
+            }
+        }
+        return clauses.size() == 1 ? clauses.get(0) : new Logical(true, clauses);
+    }
+
+    /**
+     * @return paths of all fields
+     * the filter refers to.
+     */
+    public List<String> getFieldPaths() {
+        final Set<String> fieldPaths = new LinkedHashSet<>();
+        collectFieldPaths(fieldPaths);
+        return new ArrayList<>(fieldPaths);
+    }
+
+    /**
+     * Translates the filter against
+     * schema of a parquet file.
+     *
+     * @throws ParquetIOException when a field
+     * is repeated or its type cannot be filtered.
+     */
+    public abstract FilterPredicate toPredicate(MessageType schema) throws ParquetIOException;
+
+    abstract void collectFieldPaths(Set<String> fieldPaths);
+
+    /**
+     * {@code in} and {@code isNull} only follow a bare
+     * field path, so values of comparisons may
+     * contain these words.
+     */
+    private static RecordFilter parseClause(String clause) {
+        final String lowerCase = clause.toLowerCase();
+        if (lowerCase.endsWith(IS_NULL) && isFieldPath(clause.substring(0, clause.length() - IS_NULL.length()))) {
+            return isNull(clause.substring(0, clause.length() - IS_NULL.length()).trim());
+        }
+        final int in = lowerCase.indexOf(IN);
+        if (in > 0 && isFieldPath(clause.substring(0, in))) {
+            final String values = clause.substring(in + IN.length()).trim();
+            if (!values.startsWith("(") || !values.endsWith(")")) {
+                throw new IllegalArgumentException("Values of in filter should be enclosed in (): " + clause);
+            }
+            final List<String> valueList = new ArrayList<>();
+            for (String value : values.substring(1, values.length() - 1).split(",")) {
+                valueList.add(value.trim());
+            }
+            return in(clause.substring(0, in).trim(), valueList);
+        }
+        // First operator splits, values may contain the others.
+        Operator operator = null;
+        int index = -1;
+        for (Operator candidate : Operator.values()) {
+            final int candidateIndex = clause.indexOf(candidate.symbol);
+            if (candidateIndex > 0 && (index < 0 || candidateIndex < index)) {
+                operator = candidate;
+                index = candidateIndex;
+            }
+        }
+        final String value = operator == null ? "" : clause.substring(index + operator.symbol.length()).trim();
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Filter clause could not be parsed: " + clause);
+        }
+        return new Comparison(clause.substring(0, index).trim(), operator, value);
+    }
+
+    private static boolean isFieldPath(String text) {
+        for (Operator operator : Operator.values()) {
+            if (text.contains(operator.symbol)) {
+                return false;
+            }
+        }
+        return !text.trim().isEmpty();
+    }
+
+    private static Object requireValue(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Filter value is null, use isNull instead.");
+        }
+        return value;
+    }
+
+    /**
+     * @return null when the field is not in {@code schema}.
+     */
+    private static ColumnDescriptor resolveColumn(MessageType schema, String fieldPath) throws ParquetIOException {
+        for (ColumnDescriptor column : schema.getColumns()) {
+            final String[] path = column.getPath();
+            if (fieldPath.equals(String.join(DOT, path)) || fieldPath.equals(String.join(UNDERSCORE, path))) {
+                if (column.getMaxRepetitionLevel() > 0) {
+                    throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_FILTER_EXCEPTION).set("field", fieldPath);
+                }
+                return column;
+            }
+        }
+        return null;
+    }
+
+    private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt> FilterPredicate compare(
+        C column,
+        Operator operator,
+        Object value,
+        Function<Object, T> converter
+    ) {
+        final T converted = value == null ? null : converter.apply(value);
+        switch (operator) {
+            case LT:
+                return FilterApi.lt(column, converted);
+            case GT:
+                return FilterApi.gt(column, converted);
+            default:
+                return FilterApi.eq(column, converted);
+        }
+    }
+
+    private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsEqNotEq> FilterPredicate contains(
+        C column,
+        Collection<?> values,
+        Function<Object, T> converter
+    ) {
+        final Set<T> converted = new HashSet<>();
+        for (Object value : values) {
+            converted.add(converter.apply(value));
+        }
+        return FilterApi.in(column, converted);
+    }
+
+    private static Integer toInteger(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : Integer.valueOf(value.toString());
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : Long.valueOf(value.toString());
+    }
+
+    private static Float toFloat(Object value) {
+        return value instanceof Number ? ((Number) value).floatValue() : Float.valueOf(value.toString());
+    }
+
+    private static Double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.valueOf(value.toString());
+    }
+
+    private static Boolean toBoolean(Object value) {
+        return value instanceof Boolean ? (Boolean) value : Boolean.valueOf(value.toString());
+    }
+
+    private static Binary toBinary(Object value) {
+        return Binary.fromString(value.toString());
+    }
+
+    private static final class Comparison extends RecordFilter {
+        private final String fieldPath;
+
+        private final Operator operator;
+
+        private final Object value;
+
+        private Comparison(String fieldPath, Operator operator, Object value) {
+            if (fieldPath == null || fieldPath.isEmpty()) {
+                throw new IllegalArgumentException("Filter field path is empty.");
+            }
+            this.fieldPath = fieldPath;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        @Override
+        public FilterPredicate toPredicate(MessageType schema) throws ParquetIOException {
+            final ColumnDescriptor column = resolveColumn(schema, fieldPath);
+            if (column == null) {
+                // Column type does not matter as all values are null.
+                return compare(FilterApi.binaryColumn(fieldPath), operator, value, RecordFilter::toBinary);
+            }
+            final String path = String.join(DOT, column.getPath());
+            try {
+                switch (column.getPrimitiveType().getPrimitiveTypeName()) {
+                    case INT32:
+                        return compare(FilterApi.intColumn(path), operator, value, RecordFilter::toInteger);
+                    case INT64:
+                        return compare(FilterApi.longColumn(path), operator, value, RecordFilter::toLong);
+                    case FLOAT:
+                        return compare(FilterApi.floatColumn(path), operator, value, RecordFilter::toFloat);
+                    case DOUBLE:
+                        return compare(FilterApi.doubleColumn(path), operator, value, RecordFilter::toDouble);
+                    case BINARY:
+                    case FIXED_LEN_BYTE_ARRAY:
+                        return compare(FilterApi.binaryColumn(path), operator, value, RecordFilter::toBinary);
+                    case BOOLEAN:
+                        if (operator == Operator.EQ) {
+                            return FilterApi.eq(FilterApi.booleanColumn(path), value == null ? null : toBoolean(value));
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            } catch (NumberFormatException ex) {
+                throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_FILTER_EXCEPTION, ex).set("field", fieldPath);
+            }
+            throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_FILTER_EXCEPTION).set("field", fieldPath);
+        }
+
+        @Override
+        void collectFieldPaths(Set<String> fieldPaths) {
+            fieldPaths.add(fieldPath);
+        }
+
+        @Override
+        public String toString() {
+            return value == null ? fieldPath + " isNull" : fieldPath + " " + operator.symbol + " " + value;
+        }
+    }
+
+    private static final class In extends RecordFilter {
+        private final String fieldPath;
+
+        private final List<Object> values;
+
+        private In(String fieldPath, Collection<?> values) {
+            if (fieldPath == null || fieldPath.isEmpty()) {
+                throw new IllegalArgumentException("Filter field path is empty.");
+            }
+            this.fieldPath = fieldPath;
+            this.values = Collections.unmodifiableList(new ArrayList<>(values));
+        }
+
+        @Override
+        public FilterPredicate toPredicate(MessageType schema) throws ParquetIOException {
+            final ColumnDescriptor column = resolveColumn(schema, fieldPath);
+            if (column == null) {
+                return contains(FilterApi.binaryColumn(fieldPath), values, RecordFilter::toBinary);
+            }
+            final String path = String.join(DOT, column.getPath());
+            try {
+                switch (column.getPrimitiveType().getPrimitiveTypeName()) {
+                    case INT32:
+                        return contains(FilterApi.intColumn(path), values, RecordFilter::toInteger);
+                    case INT64:
+                        return contains(FilterApi.longColumn(path), values, RecordFilter::toLong);
+                    case FLOAT:
+                        return contains(FilterApi.floatColumn(path), values, RecordFilter::toFloat);
+                    case DOUBLE:
+                        return contains(FilterApi.doubleColumn(path), values, RecordFilter::toDouble);
+                    case BINARY:
+                    case FIXED_LEN_BYTE_ARRAY:
+                        return contains(FilterApi.binaryColumn(path), values, RecordFilter::toBinary);
+                    case BOOLEAN:
+                        return contains(FilterApi.booleanColumn(path), values, RecordFilter::toBoolean);
+                    default:
+                        throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_FILTER_EXCEPTION).set("field", fieldPath);
+                }
+            } catch (NumberFormatException ex) {
+                throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_FILTER_EXCEPTION, ex).set("field", fieldPath);
+            }
+        }
+
+        @Override
+        void collectFieldPaths(Set<String> fieldPaths) {
+            fieldPaths.add(fieldPath);
+        }
+
+        @Override
+        public String toString() {
+            return fieldPath + " in " + values;
+        }
+    }
+
+    private static final class Logical extends RecordFilter {
+        private final boolean and;
+
+        private final List<RecordFilter> filters;
+
+        private Logical(boolean and, List<RecordFilter> filters) {
+            if (filters.isEmpty() || filters.contains(null)) {
+                throw new IllegalArgumentException("Filters to combine should be non empty and non null.");
+            }
+            this.and = and;
+            this.filters = Collections.unmodifiableList(new ArrayList<>(filters));
+        }
+
+        @Override
+        public FilterPredicate toPredicate(MessageType schema) throws ParquetIOException {
+            FilterPredicate predicate = filters.get(0).toPredicate(schema);
+            for (int i = 1; i < filters.size(); i++) {
+                final FilterPredicate next = filters.get(i).toPredicate(schema);
+                predicate = and ? FilterApi.and(predicate, next) : FilterApi.or(predicate, next);
+            }
+            return predicate;
+        }
+
+        @Override
+        void collectFieldPaths(Set<String> fieldPaths) {
+            for (RecordFilter filter : filters) {
+                filter.collectFieldPaths(fieldPaths);
+            }
+        }
+
+        @Override
+        public String toString() {
+            final List<String> clauses = new ArrayList<>();
+            for (RecordFilter filter : filters) {
+                clauses.add("(" + filter + ")");
+            }
+            return String.join(and ? " and " : " or ", clauses);
+        }
+    }
+}
@@ -16,6 +16,7 @@
  */
 package com.adobe.platform.ecosystem.examples.parquet.utility;
 
+import org.apache.hadoop.conf.Configuration;
 import org.apache.parquet.io.api.Binary;
 
 import java.io.File;
@@ -57,6 +58,15 @@ public class ParquetIOUtil {
         return ( julianDay - JULIAN_DAY_OF_EPOCH ) * 24L * 60L * 60L * 1000L + timeOfDayNanos / 1000000;
     }
 
+    /**
+     * Hadoop configuration which loads no xml
+     * resources. Parquet reads and writes of
+     * local files and buffers need nothing more.
+     */
+    public static Configuration newLocalConfiguration() {
+        return new Configuration(false);
+    }
+
     public static File getLocalFilePath(String fileName) {
         String suffix = fileName.endsWith(".parquet") ? "" : ".parquet";
         File tempFile = null;
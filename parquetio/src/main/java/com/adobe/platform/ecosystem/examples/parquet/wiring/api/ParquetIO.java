@@ -19,8 +19,11 @@ package com.adobe.platform.ecosystem.examples.parquet.wiring.api;
 import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
 import com.adobe.platform.ecosystem.examples.parquet.read.ParquetIOReader;
 import com.adobe.platform.ecosystem.examples.parquet.read.configuration.ParquetReaderConfiguration;
+import com.adobe.platform.ecosystem.examples.parquet.read.filter.RecordFilter;
 import com.adobe.platform.ecosystem.examples.parquet.write.ParquetIOWriter;
 
+import java.util.List;
+
 /**
  * Created by vardgupt on 10/10/2017.
  */
@@ -39,9 +42,37 @@ public interface ParquetIO {
      */
     ParquetIOReader getParquetIOReader(boolean doFlatten);
 
+    /**
+     * Interface to provide reader for
+     * performing parquet read operations
+     * on a subset of fields.
+     *
+     * @param doFlatten to flatten the data after reading.
+     * @param projectedFields field paths to read,
+     *                        all fields when null or empty.
+     * @return {@code ParquetIOReader} instance
+     */
+    ParquetIOReader getParquetIOReader(boolean doFlatten, List<String> projectedFields);
+
+    /**
+     * Interface to provide reader for
+     * performing parquet read operations
+     * on a subset of fields and records.
+     *
+     * @param doFlatten to flatten the data after reading.
+     * @param projectedFields field paths to read,
+     *                        all fields when null or empty.
+     * @param recordFilter filter pushed down to
+     *                     parquet, all records when null.
+     * @return {@code ParquetIOReader} instance
+     */
+    ParquetIOReader getParquetIOReader(boolean doFlatten, List<String> projectedFields, RecordFilter recordFilter);
+
     /**
      * Interface to provide reader for
      * performing parquet read operations.
+     * Reader is initialized for the configured
+     * path, when one is set.
      *
      * @param readerConfiguration
      * @return {@code ParquetIOReader} instance
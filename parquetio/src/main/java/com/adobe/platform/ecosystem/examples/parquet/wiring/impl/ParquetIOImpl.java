@@ -21,11 +21,14 @@ import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOExceptio
 import com.adobe.platform.ecosystem.examples.parquet.read.ParquetIOReader;
 import com.adobe.platform.ecosystem.examples.parquet.read.ParquetIOReaderImpl;
 import com.adobe.platform.ecosystem.examples.parquet.read.configuration.ParquetReaderConfiguration;
+import com.adobe.platform.ecosystem.examples.parquet.read.filter.RecordFilter;
 import com.adobe.platform.ecosystem.examples.parquet.wiring.api.ParquetIO;
 import com.adobe.platform.ecosystem.examples.parquet.write.ParquetIOWriter;
 import com.adobe.platform.ecosystem.examples.parquet.write.ParquetIOWriterImpl;
 import org.apache.hadoop.conf.Configuration;
 
+import java.util.List;
+
 
 /**
  * Created by vedhera on 10/10/2017.
@@ -37,11 +40,29 @@ public class ParquetIOImpl implements ParquetIO {
      */
     @Override
     public ParquetIOReader getParquetIOReader(boolean doFlatten) {
+        return getParquetIOReader(doFlatten, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ParquetIOReader getParquetIOReader(boolean doFlatten, List<String> projectedFields) {
+        return getParquetIOReader(doFlatten, projectedFields, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ParquetIOReader getParquetIOReader(boolean doFlatten, List<String> projectedFields, RecordFilter recordFilter) {
         Configuration configuration = new Configuration();
         return new ParquetIOReaderImpl.ParquetIOReaderBuilder()
                 .with(readerBuilder -> {
                     readerBuilder.conf = configuration;
                     readerBuilder.doFlatten = doFlatten;
+                    readerBuilder.projectedFields = projectedFields;
+                    readerBuilder.recordFilter = recordFilter;
                 })
                 .build();
     }
@@ -59,10 +80,16 @@ public class ParquetIOImpl implements ParquetIO {
                 .with(readerBuilder -> {
                     readerBuilder.conf = readerConfiguration.getConfiguration();
                     readerBuilder.doFlatten = readerConfiguration.getShouldFlattenData();
+                    readerBuilder.typedValues = readerConfiguration.getTypedValues();
                     readerBuilder.path = readerConfiguration.getPath();
+                    readerBuilder.projectedFields = readerConfiguration.getProjectedFields();
+                    readerBuilder.recordFilter = readerConfiguration.getRecordFilter();
+                    readerBuilder.readParallelism = readerConfiguration.getReadParallelism();
                 })
                 .build();
-        reader.initFileForRead();
+        if(readerConfiguration.getPath() != null) {
+            reader.initFileForRead();
+        }
         return reader;
     }
 
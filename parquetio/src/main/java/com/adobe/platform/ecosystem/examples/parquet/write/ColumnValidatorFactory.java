@@ -0,0 +1,42 @@
+
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.write;
+
+import java.util.List;
+
+/**
+ * Supplies {@link ValueValidator}s for leaf columns
+ * while a {@link JSONRecordWriter} is compiled. Each
+ * method is called once per column and may return
+ * {@code null} when nothing has to be validated.
+ *
+ * Paths hold the names of fields from root to the
+ * column. Primitive list elements use the path of
+ * the list itself.
+ */
+public interface ColumnValidatorFactory {
+
+    /**
+     * Validator for string columns and for the
+     * raw value of date and timestamp columns.
+     */
+    ValueValidator<String> getStringValidator(List<String> path);
+
+    ValueValidator<Integer> getIntegerValidator(List<String> path);
+
+    ValueValidator<Long> getLongValidator(List<String> path);
+}
@@ -0,0 +1,71 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.write;
+
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOErrorCode;
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.json.simple.JSONObject;
+
+import java.io.IOException;
+
+/**
+ * Parquet file being encoded record by record.
+ * Records are not retained once written, only
+ * encoded pages of the open row group stay in
+ * memory until they reach the output stream.
+ */
+public class JSONParquetStreamWriter implements AutoCloseable {
+
+    private final ParquetWriter<JSONObject> writer;
+
+    JSONParquetStreamWriter(ParquetWriter<JSONObject> writer) {
+        this.writer = writer;
+    }
+
+    public void write(JSONObject record) throws ParquetIOException {
+        try {
+            writer.write(record);
+        } catch (JSONWriteSupport.RecordWriteException rwex) {
+            throw rwex.getCause();
+        } catch (IOException ioex) {
+            throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_WRITER_IO_EXCEPTION, ioex);
+        }
+    }
+
+    /**
+     * @return bytes written to the stream so far
+     * plus the encoded size of the open row group.
+     */
+    public long getDataSize() {
+        return writer.getDataSize();
+    }
+
+    /**
+     * Writes the footer. Underlying
+     * stream is not closed.
+     */
+    @Override
+    public void close() throws ParquetIOException {
+        try {
+            writer.close();
+        } catch (JSONWriteSupport.RecordWriteException rwex) {
+            throw rwex.getCause();
+        } catch (IOException ioex) {
+            throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_WRITER_IO_EXCEPTION, ioex);
+        }
+    }
+}
@@ -0,0 +1,480 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.write;
+
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.json.simple.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes {@link JSONObject} records straight
+ * to a parquet {@link RecordConsumer}. No intermediate
+ * group objects are materialized for a record.
+ *
+ * The {@link MessageType} is compiled once into a
+ * tree of field writers. Every leaf writer holds its
+ * coercion and validators, so writing a record does
+ * no type dispatch on names or per value lookups.
+ * A compiled writer holds no per record state and
+ * can be reused across flushes.
+ *
+ * Subclasses can hook into expansion of single
+ * objects received where a list is expected.
+ */
+public class JSONRecordWriter {
+
+    private final MessageType schema;
+
+    private final FieldWriter[] fieldWriters;
+
+    public JSONRecordWriter(MessageType schema) {
+        this(schema, null);
+    }
+
+    /**
+     * @param schema           target parquet schema.
+     * @param validatorFactory supplies validators for leaf
+     *                         columns. Can be {@code null}.
+     */
+    public JSONRecordWriter(MessageType schema, ColumnValidatorFactory validatorFactory) {
+        this.schema = schema;
+        this.fieldWriters = compileFields(schema, Collections.emptyList(), validatorFactory);
+    }
+
+    public MessageType getSchema() {
+        return schema;
+    }
+
+    /**
+     * Emits one {@code record} as a parquet
+     * message to {@code consumer}.
+     */
+    public void write(RecordConsumer consumer, JSONObject record) throws ParquetIOException {
+        consumer.startMessage();
+        writeFields(consumer, fieldWriters, record);
+        consumer.endMessage();
+    }
+
+    /**
+     * Hook to turn a single object received for a
+     * complex list into list elements. By default the
+     * object becomes the only element.
+     */
+    protected List<?> expandObject(JSONObject value) {
+        return Collections.singletonList(value);
+    }
+
+    private static void writeFields(RecordConsumer consumer, FieldWriter[] writers, Map<?, ?> data) throws ParquetIOException {
+        for (FieldWriter writer : writers) {
+            // Records can miss keys which are present
+            // in the schema built from the first record.
+            final Object value = data.get(writer.name);
+            if (value != null) {
+                writer.write(consumer, value);
+            }
+        }
+    }
+
+    private FieldWriter[] compileFields(GroupType groupType, List<String> path, ColumnValidatorFactory validatorFactory) {
+        final FieldWriter[] writers = new FieldWriter[groupType.getFieldCount()];
+        for (int index = 0; index < writers.length; index++) {
+            writers[index] = compileField(groupType.getType(index), index, path, validatorFactory);
+        }
+        return writers;
+    }
+
+    private FieldWriter compileField(Type fieldType, int index, List<String> parentPath, ColumnValidatorFactory validatorFactory) {
+        final List<String> path = new ArrayList<>(parentPath);
+        path.add(fieldType.getName());
+
+        if (fieldType.isRepetition(Type.Repetition.REPEATED) || fieldType.getOriginalType() == OriginalType.LIST) {
+            final GroupType repeatedType = fieldType.asGroupType().getType(0).asGroupType();
+            final Type elementType = repeatedType.getType(0);
+            if (elementType.isPrimitive()) {
+                return new ListWriter(fieldType.getName(), index, repeatedType.getName(), true,
+                    compilePrimitive(elementType.asPrimitiveType(), 0, path, validatorFactory));
+            }
+            return new ListWriter(fieldType.getName(), index, repeatedType.getName(), false,
+                compileField(elementType, 0, path, validatorFactory));
+        } else if (fieldType.getOriginalType() == OriginalType.MAP) {
+            final GroupType repeatedType = fieldType.asGroupType().getType(0).asGroupType();
+            return new MapWriter(fieldType.getName(), index, repeatedType.getName(),
+                compileField(repeatedType.getType(0), 0, path, validatorFactory),
+                compileField(repeatedType.getType(1), 1, path, validatorFactory));
+        } else if (fieldType.isPrimitive()) {
+            return compilePrimitive(fieldType.asPrimitiveType(), index, path, validatorFactory);
+        }
+        return new GroupWriter(fieldType.getName(), index, compileFields(fieldType.asGroupType(), path, validatorFactory));
+    }
+
+    private static FieldWriter compilePrimitive(PrimitiveType primitiveType, int index, List<String> path, ColumnValidatorFactory validatorFactory) {
+        final String name = primitiveType.getName();
+        final List<String> columnPath = Collections.unmodifiableList(path);
+        switch (primitiveType.getPrimitiveTypeName()) {
+            case BINARY:
+                return new BinaryWriter(name, index,
+                    validatorFactory == null ? null : validatorFactory.getStringValidator(columnPath));
+            case BOOLEAN:
+                return new BooleanWriter(name, index);
+            case INT32:
+                if (primitiveType.getOriginalType() == OriginalType.DATE) {
+                    return new IntegerWriter(name, index, null,
+                        validatorFactory == null ? null : validatorFactory.getStringValidator(columnPath));
+                }
+                return new IntegerWriter(name, index,
+                    validatorFactory == null ? null : validatorFactory.getIntegerValidator(columnPath), null);
+            case INT64:
+                if (primitiveType.getOriginalType() == OriginalType.TIMESTAMP_MILLIS) {
+                    return new LongWriter(name, index, null,
+                        validatorFactory == null ? null : validatorFactory.getStringValidator(columnPath));
+                }
+                return new LongWriter(name, index,
+                    validatorFactory == null ? null : validatorFactory.getLongValidator(columnPath), null);
+            case DOUBLE:
+                return new DoubleWriter(name, index);
+            case FLOAT:
+                return new FloatWriter(name, index);
+            default:
+                // INT96 and fixed length types are
+                // not produced by parquet-IO schemas.
+                return new SkippedWriter(name, index);
+        }
+    }
+
+    /**
+     * Writer for one field of a group.
+     * Values handed over are never null.
+     */
+    private abstract static class FieldWriter {
+        final String name;
+
+        final int index;
+
+        FieldWriter(String name, int index) {
+            this.name = name;
+            this.index = index;
+        }
+
+        abstract void write(RecordConsumer consumer, Object value) throws ParquetIOException;
+    }
+
+    private static class GroupWriter extends FieldWriter {
+        private final FieldWriter[] children;
+
+        GroupWriter(String name, int index, FieldWriter[] children) {
+            super(name, index);
+            this.children = children;
+        }
+
+        @Override
+        void write(RecordConsumer consumer, Object value) throws ParquetIOException {
+            consumer.startField(name, index);
+            consumer.startGroup();
+            writeFields(consumer, children, (Map<?, ?>) value);
+            consumer.endGroup();
+            consumer.endField(name, index);
+        }
+    }
+
+    /**
+     * Writes 3-level parquet LIST.
+     * <pre>
+     *     optional group identity (LIST) {
+     *       repeated group list {
+     *         optional binary element (UTF8)
+     *       }
+     *     }
+     * </pre>
+     */
+    private class ListWriter extends FieldWriter {
+        private final String repeatedName;
+
+        private final boolean isPrimitiveList;
+
+        private final FieldWriter elementWriter;
+
+        ListWriter(String name, int index, String repeatedName, boolean isPrimitiveList, FieldWriter elementWriter) {
+            super(name, index);
+            this.repeatedName = repeatedName;
+            this.isPrimitiveList = isPrimitiveList;
+            this.elementWriter = elementWriter;
+        }
+
+        @Override
+        void write(RecordConsumer consumer, Object value) throws ParquetIOException {
+            final List<?> elements = isPrimitiveList ? getPrimitiveElements(value) : getComplexElements(value);
+
+            consumer.startField(name, index);
+            consumer.startGroup();
+            if (!elements.isEmpty()) {
+                consumer.startField(repeatedName, 0);
+                for (Object element : elements) {
+                    consumer.startGroup();
+                    if (element != null) {
+                        elementWriter.write(consumer, element);
+                    }
+                    consumer.endGroup();
+                }
+                consumer.endField(repeatedName, 0);
+            }
+            consumer.endGroup();
+            consumer.endField(name, index);
+        }
+
+        private List<?> getPrimitiveElements(Object value) {
+            if (value instanceof List) {
+                return (List<?>) value;
+            }
+            // Some tools can only send comma separated
+            // values in place of primitive arrays.
+            if (value instanceof String) {
+                final String[] tokens = ((String) value).split(",");
+                return tokens.length > 1 ? Arrays.asList(tokens) : Collections.emptyList();
+            }
+            return Collections.singletonList(value);
+        }
+
+        private List<?> getComplexElements(Object value) {
+            if (value instanceof List) {
+                return (List<?>) value;
+            }
+            if (value instanceof JSONObject) {
+                return expandObject((JSONObject) value);
+            }
+            return Collections.singletonList(value);
+        }
+    }
+
+    /**
+     * Writes parquet MAP with 'key' as first
+     * and 'value' as second field.
+     * <pre>
+     *     optional group identityMap (MAP) {
+     *       repeated group map {
+     *         required binary key (UTF8);
+     *         optional binary value (UTF8);
+     *       }
+     *     }
+     * </pre>
+     */
+    private static class MapWriter extends FieldWriter {
+        private final String repeatedName;
+
+        private final FieldWriter keyWriter;
+
+        private final FieldWriter valueWriter;
+
+        MapWriter(String name, int index, String repeatedName, FieldWriter keyWriter, FieldWriter valueWriter) {
+            super(name, index);
+            this.repeatedName = repeatedName;
+            this.keyWriter = keyWriter;
+            this.valueWriter = valueWriter;
+        }
+
+        @Override
+        void write(RecordConsumer consumer, Object value) throws ParquetIOException {
+            final Map<?, ?> mapData = (Map<?, ?>) value;
+
+            consumer.startField(name, index);
+            consumer.startGroup();
+            if (!mapData.isEmpty()) {
+                consumer.startField(repeatedName, 0);
+                for (Map.Entry<?, ?> entry : mapData.entrySet()) {
+                    consumer.startGroup();
+                    if (entry.getKey() != null) {
+                        keyWriter.write(consumer, entry.getKey());
+                    }
+                    if (entry.getValue() != null) {
+                        valueWriter.write(consumer, entry.getValue());
+                    }
+                    consumer.endGroup();
+                }
+                consumer.endField(repeatedName, 0);
+            }
+            consumer.endGroup();
+            consumer.endField(name, index);
+        }
+    }
+
+    /**
+     * Leaf writer. Empty strings are
+     * treated as absent values.
+     */
+    private abstract static class PrimitiveWriter extends FieldWriter {
+        PrimitiveWriter(String name, int index) {
+            super(name, index);
+        }
+
+        @Override
+        final void write(RecordConsumer consumer, Object value) throws ParquetIOException {
+            if (value instanceof String && ((String) value).isEmpty()) {
+                return;
+            }
+            consumer.startField(name, index);
+            addValue(consumer, value);
+            consumer.endField(name, index);
+        }
+
+        abstract void addValue(RecordConsumer consumer, Object value) throws ParquetIOException;
+    }
+
+    private static class BinaryWriter extends PrimitiveWriter {
+        private final ValueValidator<String> validator;
+
+        BinaryWriter(String name, int index, ValueValidator<String> validator) {
+            super(name, index);
+            this.validator = validator;
+        }
+
+        @Override
+        void addValue(RecordConsumer consumer, Object value) throws ParquetIOException {
+            final String stringValue = value.toString();
+            if (validator != null) {
+                validator.validate(stringValue);
+            }
+            consumer.addBinary(Binary.fromString(stringValue));
+        }
+    }
+
+    private static class BooleanWriter extends PrimitiveWriter {
+        BooleanWriter(String name, int index) {
+            super(name, index);
+        }
+
+        @Override
+        void addValue(RecordConsumer consumer, Object value) {
+            // Tools send booleans as 0/1 integers.
+            if (value instanceof Boolean) {
+                consumer.addBoolean((Boolean) value);
+            } else {
+                consumer.addBoolean(toInt(value) != 0);
+            }
+        }
+    }
+
+    private static class IntegerWriter extends PrimitiveWriter {
+        private final ValueValidator<Integer> validator;
+
+        private final ValueValidator<String> rawValidator;
+
+        IntegerWriter(String name, int index, ValueValidator<Integer> validator, ValueValidator<String> rawValidator) {
+            super(name, index);
+            this.validator = validator;
+            this.rawValidator = rawValidator;
+        }
+
+        @Override
+        void addValue(RecordConsumer consumer, Object value) throws ParquetIOException {
+            final int intValue = toInt(value);
+            if (validator != null) {
+                validator.validate(intValue);
+            }
+            if (rawValidator != null) {
+                rawValidator.validate(value.toString());
+            }
+            consumer.addInteger(intValue);
+        }
+    }
+
+    private static class LongWriter extends PrimitiveWriter {
+        private final ValueValidator<Long> validator;
+
+        private final ValueValidator<String> rawValidator;
+
+        LongWriter(String name, int index, ValueValidator<Long> validator, ValueValidator<String> rawValidator) {
+            super(name, index);
+            this.validator = validator;
+            this.rawValidator = rawValidator;
+        }
+
+        @Override
+        void addValue(RecordConsumer consumer, Object value) throws ParquetIOException {
+            final long longValue = (value instanceof Long || value instanceof Integer)
+                ? ((Number) value).longValue()
+                : Long.parseLong(value.toString());
+            if (validator != null) {
+                validator.validate(longValue);
+            }
+            if (rawValidator != null) {
+                rawValidator.validate(value.toString());
+            }
+            consumer.addLong(longValue);
+        }
+    }
+
+    private static class DoubleWriter extends PrimitiveWriter {
+        DoubleWriter(String name, int index) {
+            super(name, index);
+        }
+
+        @Override
+        void addValue(RecordConsumer consumer, Object value) {
+            consumer.addDouble(value instanceof Number
+                ? ((Number) value).doubleValue()
+                : Double.parseDouble(value.toString()));
+        }
+    }
+
+    private static class FloatWriter extends PrimitiveWriter {
+        FloatWriter(String name, int index) {
+            super(name, index);
+        }
+
+        @Override
+        void addValue(RecordConsumer consumer, Object value) {
+            // Doubles are parsed from text to keep decimal rounding.
+            consumer.addFloat((value instanceof Float || value instanceof Long || value instanceof Integer)
+                ? ((Number) value).floatValue()
+                : Float.parseFloat(value.toString()));
+        }
+    }
+
+    private static class SkippedWriter extends FieldWriter {
+        SkippedWriter(String name, int index) {
+            super(name, index);
+        }
+
+        @Override
+        void write(RecordConsumer consumer, Object value) {
+        }
+    }
+
+    /**
+     * Integral json numbers arrive as {@link Long}.
+     * Values out of int range are rejected as before.
+     */
+    private static int toInt(Object value) {
+        if (value instanceof Long) {
+            return Math.toIntExact((Long) value);
+        }
+        if (value instanceof Integer) {
+            return (Integer) value;
+        }
+        return Integer.parseInt(value.toString());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.write;
+
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.json.simple.JSONObject;
+
+import java.util.HashMap;
+
+/**
+ * parquet-mr {@link WriteSupport} which hands
+ * {@link JSONObject} records to a {@link JSONRecordWriter}.
+ * Unlike {@link org.apache.parquet.hadoop.example.GroupWriteSupport}
+ * records need not be converted to groups first.
+ */
+public class JSONWriteSupport extends WriteSupport<JSONObject> {
+
+    private final JSONRecordWriter recordWriter;
+
+    private RecordConsumer recordConsumer;
+
+    public JSONWriteSupport(JSONRecordWriter recordWriter) {
+        this.recordWriter = recordWriter;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public WriteContext init(Configuration configuration) {
+        return new WriteContext(recordWriter.getSchema(), new HashMap<>());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void prepareForWrite(RecordConsumer recordConsumer) {
+        this.recordConsumer = recordConsumer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(JSONObject record) {
+        try {
+            recordWriter.write(recordConsumer, record);
+        } catch (ParquetIOException ex) {
+            throw new RecordWriteException(ex);
+        }
+    }
+
+    /**
+     * Carries {@link ParquetIOException} out of
+     * {@link #write(JSONObject)} which cannot throw
+     * checked exceptions.
+     */
+    static class RecordWriteException extends RuntimeException {
+        RecordWriteException(ParquetIOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized ParquetIOException getCause() {
+            return (ParquetIOException) super.getCause();
+        }
+    }
+}
@@ -23,11 +23,14 @@ package com.adobe.platform.ecosystem.examples.parquet.write;
 
 import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
 import com.adobe.platform.ecosystem.examples.parquet.model.ParquetIOField;
+import com.adobe.platform.ecosystem.examples.parquet.write.configuration.ParquetWriterOptions;
 import org.apache.parquet.example.data.simple.SimpleGroup;
 import org.apache.parquet.schema.MessageType;
+import org.json.simple.JSONObject;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -70,4 +73,74 @@ public interface ParquetIOWriter {
      * @throws IOException
      */
     File writeParquetFile(MessageType schema, String fileName,List<SimpleGroup> records) throws ParquetIOException;
-}
\ No newline at end of file
+
+    /**
+     * Encodes {@code records} as a parquet file
+     * directly into {@code outputStream} without
+     * writing anything on local disk. Stream is
+     * not closed by this call.
+     *
+     * @param schema parquet schema for records.
+     * @param records records to be written.
+     * @param outputStream sink for parquet bytes.
+     * @throws ParquetIOException
+     */
+    void writeParquetStream(MessageType schema, List<SimpleGroup> records, OutputStream outputStream) throws ParquetIOException;
+
+    /**
+     * Encodes {@code records} as a parquet file
+     * directly into {@code outputStream}. Records
+     * are handed to {@code recordWriter} as they are,
+     * without building parquet groups first.
+     * Stream is not closed by this call.
+     *
+     * @param records json records to be written.
+     * @param recordWriter writer holding the target schema.
+     * @param options parquet writer properties.
+     * @param outputStream sink for parquet bytes.
+     * @throws ParquetIOException
+     */
+    void writeJSONParquetStream(List<JSONObject> records, JSONRecordWriter recordWriter, ParquetWriterOptions options, OutputStream outputStream) throws ParquetIOException;
+
+    /**
+     * Opens a parquet file on {@code outputStream}
+     * which is encoded as records are written to it,
+     * for callers which do not hold all records of
+     * a file at once. Stream is not closed by
+     * closing the returned writer.
+     *
+     * @param recordWriter writer holding the target schema.
+     * @param options parquet writer properties.
+     * @param outputStream sink for parquet bytes.
+     * @return open writer.
+     * @throws ParquetIOException
+     */
+    JSONParquetStreamWriter openJSONParquetStream(JSONRecordWriter recordWriter, ParquetWriterOptions options, OutputStream outputStream) throws ParquetIOException;
+
+    /**
+     * Local file counterpart of
+     * {@link #writeJSONParquetStream(List, JSONRecordWriter, ParquetWriterOptions, OutputStream)}.
+     *
+     * @param fileName
+     * @param records
+     * @param recordWriter
+     * @param options
+     * @return written parquet file.
+     * @throws ParquetIOException
+     */
+    File writeJSONParquetFile(String fileName, List<JSONObject> records, JSONRecordWriter recordWriter, ParquetWriterOptions options) throws ParquetIOException;
+
+    /**
+     * Encodes a sample of {@code records} under
+     * different codec and dictionary settings and
+     * returns the options with the best size/time
+     * trade-off. Returned options have auto tune off.
+     *
+     * @param records records of a flush to sample from.
+     * @param recordWriter writer holding the target schema.
+     * @param options base options. Sizes and page format are kept.
+     * @return tuned options.
+     * @throws ParquetIOException
+     */
+    ParquetWriterOptions tuneOptions(List<JSONObject> records, JSONRecordWriter recordWriter, ParquetWriterOptions options) throws ParquetIOException;
+}
@@ -16,28 +16,34 @@
  */
 package com.adobe.platform.ecosystem.examples.parquet.write;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
 
 import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOErrorCode;
 import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+import com.adobe.platform.ecosystem.examples.parquet.io.LocalOutputFile;
+import com.adobe.platform.ecosystem.examples.parquet.io.StreamOutputFile;
 import com.adobe.platform.ecosystem.examples.parquet.model.ParquetIOField;
 import com.adobe.platform.ecosystem.examples.parquet.model.ParquetIORepetitionType;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.LocalFileSystem;
-import org.apache.hadoop.fs.Path;
-import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.example.data.Group;
 import org.apache.parquet.example.data.simple.SimpleGroup;
 import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
 import org.apache.parquet.hadoop.example.GroupWriteSupport;
-import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
 import org.apache.parquet.schema.*;
 import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.json.simple.JSONObject;
 
 import com.adobe.platform.ecosystem.examples.hierarchy.util.HierarchicalBuilderUtil;
 import com.adobe.platform.ecosystem.examples.parquet.entity.Node;
 import com.adobe.platform.ecosystem.examples.parquet.utility.ParquetIOUtil;
+import com.adobe.platform.ecosystem.examples.parquet.write.configuration.ParquetWriterOptions;
 
 import static org.apache.parquet.schema.Types.*;
 
@@ -195,33 +201,105 @@ public class ParquetIOWriterImpl implements ParquetIOWriter {
         return parquetFile;
     }
 
-    @SuppressWarnings("deprecation")
-    private Boolean writeToFile(File f, List<SimpleGroup> records, MessageType schema) {
-        Configuration conf = new Configuration();
-        conf.set("fs.file.impl", LocalFileSystem.class.getName());
-        GroupWriteSupport gws = new GroupWriteSupport();
-        GroupWriteSupport.setSchema(schema, conf);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeParquetStream(MessageType schema, List<SimpleGroup> records, OutputStream outputStream) throws ParquetIOException {
+        try (ParquetWriter<Group> writer = buildWriter(new GroupParquetWriterBuilder(new StreamOutputFile(outputStream), schema), ParquetWriterOptions.defaults())) {
+            for (SimpleGroup row : records) {
+                writer.write(row);
+            }
+        } catch (IOException ioex) {
+            throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_WRITER_IO_EXCEPTION, ioex);
+        }
+    }
 
-        Boolean isSuccess = false;
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeJSONParquetStream(List<JSONObject> records, JSONRecordWriter recordWriter, ParquetWriterOptions options, OutputStream outputStream) throws ParquetIOException {
+        try (ParquetWriter<JSONObject> writer = buildWriter(new JSONParquetWriterBuilder(new StreamOutputFile(outputStream), recordWriter), options)) {
+            for (JSONObject row : records) {
+                writer.write(row);
+            }
+        } catch (JSONWriteSupport.RecordWriteException rwex) {
+            throw rwex.getCause();
+        } catch (IOException ioex) {
+            throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_WRITER_IO_EXCEPTION, ioex);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JSONParquetStreamWriter openJSONParquetStream(JSONRecordWriter recordWriter, ParquetWriterOptions options, OutputStream outputStream) throws ParquetIOException {
         try {
-            // TODO: Need to update to start using
-            // ParquetWriterBuilder for creating writers.
-            ParquetWriter<Group> writer = new ParquetWriter<>(
-                    new Path(f.getAbsolutePath()),
-                    gws,
-                    CompressionCodecName.SNAPPY,
-                    128 * 1024 * 1024,
-                    ParquetProperties.DEFAULT_PAGE_SIZE,
-                    ParquetProperties.DEFAULT_DICTIONARY_PAGE_SIZE,
-                    ParquetProperties.DEFAULT_IS_DICTIONARY_ENABLED,
-                    false,
-                    ParquetProperties.DEFAULT_WRITER_VERSION,
-                    conf
-            );
+            return new JSONParquetStreamWriter(buildWriter(new JSONParquetWriterBuilder(new StreamOutputFile(outputStream), recordWriter), options));
+        } catch (IOException ioex) {
+            throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_WRITER_IO_EXCEPTION, ioex);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public File writeJSONParquetFile(String fileName, List<JSONObject> records, JSONRecordWriter recordWriter, ParquetWriterOptions options) throws ParquetIOException {
+        File parquetFile = ParquetIOUtil.getLocalFilePath(fileName);
+        if (parquetFile.exists()) {
+            boolean isDeleted = parquetFile.delete();
+            if (!isDeleted) {
+                throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_FILE_DELLETION_EXCEPTION);
+            }
+        }
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(parquetFile))) {
+            writeJSONParquetStream(records, recordWriter, options, outputStream);
+        } catch (IOException ioex) {
+            throw new ParquetIOException(ParquetIOErrorCode.PARQUETIO_WRITER_IO_EXCEPTION, ioex);
+        }
+        return parquetFile;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ParquetWriterOptions tuneOptions(List<JSONObject> records, JSONRecordWriter recordWriter, ParquetWriterOptions options) throws ParquetIOException {
+        return new ParquetWriterOptionsTuner(this).tune(records, recordWriter, options);
+    }
+
+    /**
+     * Applies {@code options} to a stream
+     * based writer builder. Writers get a
+     * configuration without hadoop xml
+     * resources, which are slow to load
+     * and unused for local output.
+     */
+    private static <T, B extends ParquetWriter.Builder<T, B>> ParquetWriter<T> buildWriter(B builder, ParquetWriterOptions options) throws IOException {
+        builder
+                .withConf(ParquetIOUtil.newLocalConfiguration())
+                .withCompressionCodec(options.getCodec().getCompressionCodecName())
+                .withRowGroupSize(options.getRowGroupSize())
+                .withPageSize(options.getPageSize())
+                .withDictionaryPageSize(options.getDictionaryPageSize())
+                .withDictionaryEncoding(options.isDictionaryEnabled())
+                .withValidation(false)
+                .withWriterVersion(options.getPageFormat().getWriterVersion());
+        for (Map.Entry<String, Boolean> column : options.getColumnDictionaryEnabled().entrySet()) {
+            builder.withDictionaryEncoding(column.getKey(), column.getValue());
+        }
+        return builder.build();
+    }
+
+    private Boolean writeToFile(File f, List<SimpleGroup> records, MessageType schema) {
+        Boolean isSuccess = false;
+        try (ParquetWriter<Group> writer = buildWriter(new GroupParquetWriterBuilder(new LocalOutputFile(f), schema), ParquetWriterOptions.defaults())) {
             for (SimpleGroup row : records) {
                 writer.write(row);
             }
-            writer.close();
             isSuccess = true;
         } catch (Exception e) {
             e.printStackTrace();
@@ -230,7 +308,6 @@ public class ParquetIOWriterImpl implements ParquetIOWriter {
         return isSuccess;
     }
 
-
     private String getParquetMessage(Node parentNode, String message, boolean firstChild) {
         LinkedHashMap<Integer, ArrayList<Node>> children = parentNode.getChildren();
 
@@ -312,4 +389,51 @@ public class ParquetIOWriterImpl implements ParquetIOWriter {
         }
         return root;
     }
-}
\ No newline at end of file
+
+    /**
+     * Builder for {@link Group} records which
+     * can target any parquet {@link OutputFile}.
+     */
+    private static class GroupParquetWriterBuilder extends ParquetWriter.Builder<Group, GroupParquetWriterBuilder> {
+        private final MessageType schema;
+
+        GroupParquetWriterBuilder(OutputFile outputFile, MessageType schema) {
+            super(outputFile);
+            this.schema = schema;
+        }
+
+        @Override
+        protected GroupParquetWriterBuilder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<Group> getWriteSupport(Configuration conf) {
+            GroupWriteSupport.setSchema(schema, conf);
+            return new GroupWriteSupport();
+        }
+    }
+
+    /**
+     * Builder for {@link JSONObject} records
+     * backed by {@link JSONWriteSupport}.
+     */
+    private static class JSONParquetWriterBuilder extends ParquetWriter.Builder<JSONObject, JSONParquetWriterBuilder> {
+        private final JSONRecordWriter recordWriter;
+
+        JSONParquetWriterBuilder(OutputFile outputFile, JSONRecordWriter recordWriter) {
+            super(outputFile);
+            this.recordWriter = recordWriter;
+        }
+
+        @Override
+        protected JSONParquetWriterBuilder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<JSONObject> getWriteSupport(Configuration conf) {
+            return new JSONWriteSupport(recordWriter);
+        }
+    }
+}
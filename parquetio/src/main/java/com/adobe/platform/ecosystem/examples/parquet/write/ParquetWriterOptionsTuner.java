@@ -0,0 +1,137 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.write;
+
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+import com.adobe.platform.ecosystem.examples.parquet.write.configuration.ParquetWriterOptions;
+import org.json.simple.JSONObject;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Picks codec and dictionary encoding for a dataset
+ * by encoding a sample of records under every
+ * combination. Each candidate is scored by its
+ * encoded size and encoding time, both relative to
+ * the best candidate, and the lowest sum wins.
+ *
+ * Encoding time is the median of several runs,
+ * taken in turns across candidates, so a single
+ * pause or a drifting clock speed does not pick
+ * the winner.
+ *
+ * Page format is never changed as v2 pages
+ * are not readable by every consumer.
+ */
+class ParquetWriterOptionsTuner {
+
+    private static final Logger logger = Logger.getLogger(ParquetWriterOptionsTuner.class.getName());
+
+    private static final int TIMED_RUNS = 5;
+
+    private final ParquetIOWriter writer;
+
+    ParquetWriterOptionsTuner(ParquetIOWriter writer) {
+        this.writer = writer;
+    }
+
+    ParquetWriterOptions tune(List<JSONObject> records, JSONRecordWriter recordWriter, ParquetWriterOptions options) throws ParquetIOException {
+        if (records.isEmpty()) {
+            return options.toBuilder().with(builder -> builder.autoTune = false).build();
+        }
+        final List<JSONObject> sample = records.subList(0, Math.min(records.size(), options.getAutoTuneSampleSize()));
+
+        // Warm up so that first candidate does not pay for class loading.
+        encode(sample, recordWriter, options);
+
+        final List<ParquetWriterOptions> candidates = new ArrayList<>();
+        for (ParquetWriterOptions.Codec codec : ParquetWriterOptions.Codec.values()) {
+            for (boolean dictionaryEnabled : new boolean[]{true, false}) {
+                candidates.add(options.toBuilder().with(builder -> {
+                    builder.codec = codec;
+                    builder.dictionaryEnabled = dictionaryEnabled;
+                    builder.autoTune = false;
+                }).build());
+            }
+        }
+
+        final long[][] times = new long[candidates.size()][TIMED_RUNS];
+        final List<long[]> results = new ArrayList<>();
+        for (int run = 0; run < TIMED_RUNS; run++) {
+            for (int i = 0; i < candidates.size(); i++) {
+                final long[] result = encode(sample, recordWriter, candidates.get(i));
+                times[i][run] = result[1];
+                if (run == 0) {
+                    results.add(result);
+                }
+            }
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            Arrays.sort(times[i]);
+            results.get(i)[1] = times[i][TIMED_RUNS / 2];
+        }
+
+        long minSize = Long.MAX_VALUE;
+        long minTime = Long.MAX_VALUE;
+        for (long[] result : results) {
+            minSize = Math.min(minSize, result[0]);
+            minTime = Math.min(minTime, result[1]);
+        }
+
+        int best = 0;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < candidates.size(); i++) {
+            final double score = (double) results.get(i)[0] / Math.max(1, minSize)
+                + (double) results.get(i)[1] / Math.max(1, minTime);
+            if (score < bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        logger.log(Level.INFO, "Auto tuned parquet writer on " + sample.size() + " records: " + candidates.get(best)
+            + " encoded bytes: " + results.get(best)[0] + " median encoding nanos: " + results.get(best)[1]);
+        return candidates.get(best);
+    }
+
+    /**
+     * @return encoded size in bytes and encoding time in nanos.
+     */
+    private long[] encode(List<JSONObject> sample, JSONRecordWriter recordWriter, ParquetWriterOptions options) throws ParquetIOException {
+        final CountingOutputStream outputStream = new CountingOutputStream();
+        final long start = System.nanoTime();
+        writer.writeJSONParquetStream(sample, recordWriter, options, outputStream);
+        return new long[]{outputStream.count, System.nanoTime() - start};
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.write;
+
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+
+/**
+ * Validation applied to every value
+ * written to one parquet column.
+ *
+ * @param <T> type of validated value.
+ */
+@FunctionalInterface
+public interface ValueValidator<T> {
+
+    /**
+     * @param value value about to be written.
+     * @throws ParquetIOException to reject the record.
+     */
+    void validate(T value) throws ParquetIOException;
+}
@@ -0,0 +1,234 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.write.configuration;
+
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * POJO to encapsulate parquet writer properties
+ * used by {@link com.adobe.platform.ecosystem.examples.parquet.write.ParquetIOWriter}.
+ * Defaults match the properties parquet-IO always
+ * wrote with: SNAPPY, 128 MB row groups, default
+ * page and dictionary sizes and v1 pages.
+ */
+public class ParquetWriterOptions {
+
+    public static final int DEFAULT_ROW_GROUP_SIZE = 128 * 1024 * 1024;
+
+    public static final int DEFAULT_AUTO_TUNE_SAMPLE_SIZE = 1000;
+
+    /**
+     * Compression codecs supported by parquet-IO.
+     */
+    public enum Codec {
+        UNCOMPRESSED(CompressionCodecName.UNCOMPRESSED),
+        SNAPPY(CompressionCodecName.SNAPPY),
+        GZIP(CompressionCodecName.GZIP);
+
+        private final CompressionCodecName compressionCodecName;
+
+        Codec(CompressionCodecName compressionCodecName) {
+            this.compressionCodecName = compressionCodecName;
+        }
+
+        public CompressionCodecName getCompressionCodecName() {
+            return compressionCodecName;
+        }
+    }
+
+    /**
+     * Parquet data page format.
+     */
+    public enum PageFormat {
+        V1(ParquetProperties.WriterVersion.PARQUET_1_0),
+        V2(ParquetProperties.WriterVersion.PARQUET_2_0);
+
+        private final ParquetProperties.WriterVersion writerVersion;
+
+        PageFormat(ParquetProperties.WriterVersion writerVersion) {
+            this.writerVersion = writerVersion;
+        }
+
+        public ParquetProperties.WriterVersion getWriterVersion() {
+            return writerVersion;
+        }
+    }
+
+    private final Codec codec;
+
+    private final int rowGroupSize;
+
+    private final int pageSize;
+
+    private final int dictionaryPageSize;
+
+    private final boolean dictionaryEnabled;
+
+    private final Map<String, Boolean> columnDictionaryEnabled;
+
+    private final PageFormat pageFormat;
+
+    private final boolean autoTune;
+
+    private final int autoTuneSampleSize;
+
+    private ParquetWriterOptions(Builder builder) {
+        this.codec = builder.codec;
+        this.rowGroupSize = builder.rowGroupSize;
+        this.pageSize = builder.pageSize;
+        this.dictionaryPageSize = builder.dictionaryPageSize;
+        this.dictionaryEnabled = builder.dictionaryEnabled;
+        this.columnDictionaryEnabled = Collections.unmodifiableMap(new HashMap<>(builder.columnDictionaryEnabled));
+        this.pageFormat = builder.pageFormat;
+        this.autoTune = builder.autoTune;
+        this.autoTuneSampleSize = builder.autoTuneSampleSize;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return options with the defaults.
+     */
+    public static ParquetWriterOptions defaults() {
+        return builder().build();
+    }
+
+    /**
+     * @return builder initialized with
+     * the values of these options.
+     */
+    public Builder toBuilder() {
+        return builder().with(builder -> {
+            builder.codec = codec;
+            builder.rowGroupSize = rowGroupSize;
+            builder.pageSize = pageSize;
+            builder.dictionaryPageSize = dictionaryPageSize;
+            builder.dictionaryEnabled = dictionaryEnabled;
+            builder.columnDictionaryEnabled = new HashMap<>(columnDictionaryEnabled);
+            builder.pageFormat = pageFormat;
+            builder.autoTune = autoTune;
+            builder.autoTuneSampleSize = autoTuneSampleSize;
+        });
+    }
+
+    public Codec getCodec() {
+        return codec;
+    }
+
+    public int getRowGroupSize() {
+        return rowGroupSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getDictionaryPageSize() {
+        return dictionaryPageSize;
+    }
+
+    public boolean isDictionaryEnabled() {
+        return dictionaryEnabled;
+    }
+
+    /**
+     * Per column overrides of {@link #isDictionaryEnabled()}
+     * keyed by dotted parquet column path,
+     * eg: {@code person.name} or {@code tags.list.element}.
+     */
+    public Map<String, Boolean> getColumnDictionaryEnabled() {
+        return columnDictionaryEnabled;
+    }
+
+    public PageFormat getPageFormat() {
+        return pageFormat;
+    }
+
+    /**
+     * When enabled, callers should pick codec and
+     * dictionary encoding per dataset by encoding
+     * a sample of their first flush.
+     * See {@link com.adobe.platform.ecosystem.examples.parquet.write.ParquetIOWriter#tuneOptions}.
+     */
+    public boolean isAutoTune() {
+        return autoTune;
+    }
+
+    public int getAutoTuneSampleSize() {
+        return autoTuneSampleSize;
+    }
+
+    @Override
+    public String toString() {
+        return "ParquetWriterOptions{" +
+            "codec=" + codec +
+            ", rowGroupSize=" + rowGroupSize +
+            ", pageSize=" + pageSize +
+            ", dictionaryPageSize=" + dictionaryPageSize +
+            ", dictionaryEnabled=" + dictionaryEnabled +
+            ", columnDictionaryEnabled=" + columnDictionaryEnabled +
+            ", pageFormat=" + pageFormat +
+            ", autoTune=" + autoTune +
+            '}';
+    }
+
+    /**
+     * Fluent builder of type
+     * {@link ParquetWriterOptions}
+     */
+    public static class Builder {
+        public Codec codec = Codec.SNAPPY;
+
+        public int rowGroupSize = DEFAULT_ROW_GROUP_SIZE;
+
+        public int pageSize = ParquetProperties.DEFAULT_PAGE_SIZE;
+
+        public int dictionaryPageSize = ParquetProperties.DEFAULT_DICTIONARY_PAGE_SIZE;
+
+        public boolean dictionaryEnabled = ParquetProperties.DEFAULT_IS_DICTIONARY_ENABLED;
+
+        public Map<String, Boolean> columnDictionaryEnabled = new HashMap<>();
+
+        public PageFormat pageFormat = PageFormat.V1;
+
+        public boolean autoTune = false;
+
+        public int autoTuneSampleSize = DEFAULT_AUTO_TUNE_SAMPLE_SIZE;
+
+        public Builder with(Consumer<Builder> builderConsumer) {
+            builderConsumer.accept(this);
+            return this;
+        }
+
+        public ParquetWriterOptions build() {
+            if (codec == null || pageFormat == null || columnDictionaryEnabled == null) {
+                throw new IllegalArgumentException("Codec, page format and column dictionary settings are required.");
+            }
+            if (rowGroupSize <= 0 || pageSize <= 0 || dictionaryPageSize <= 0 || autoTuneSampleSize <= 0) {
+                throw new IllegalArgumentException("Row group, page, dictionary page and sample sizes should be positive.");
+            }
+            return new ParquetWriterOptions(this);
+        }
+    }
+}
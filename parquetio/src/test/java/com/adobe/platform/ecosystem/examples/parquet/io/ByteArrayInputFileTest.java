@@ -0,0 +1,76 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.io;
+
+import com.adobe.platform.ecosystem.examples.parquet.read.ParquetIOReader;
+import com.adobe.platform.ecosystem.examples.parquet.ut.BaseTest;
+import com.adobe.platform.ecosystem.examples.parquet.wiring.impl.ParquetIOImpl;
+import com.adobe.platform.ecosystem.examples.parquet.write.JSONRecordWriter;
+import com.adobe.platform.ecosystem.examples.parquet.write.configuration.ParquetWriterOptions;
+import org.apache.parquet.io.SeekableInputStream;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ByteArrayInputFileTest extends BaseTest {
+
+    @Test
+    public void testReadInMemoryParquet() throws Exception {
+        List<JSONObject> records = new ArrayList<>();
+        for (int i = 0; i < noOfRecords; i++) {
+            records.add((JSONObject) new JSONParser().parse("{\"id\":\"" + i + "\"}"));
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        outputStream.write(new byte[]{1, 2, 3});
+        writer.writeJSONParquetStream(
+            records,
+            new JSONRecordWriter(MessageTypeParser.parseMessageType("message Message { optional binary id (UTF8); }")),
+            ParquetWriterOptions.defaults(),
+            outputStream
+        );
+        byte[] bytes = outputStream.toByteArray();
+
+        ParquetIOReader reader = new ParquetIOImpl().getParquetIOReader(true);
+        reader.initInputForRead(new ByteArrayInputFile(bytes, 3, bytes.length - 3));
+        List<JSONObject> read = reader.processData(noOfRecords + 1);
+        assertEquals(records, read);
+    }
+
+    @Test
+    public void testSeek() throws Exception {
+        ByteArrayInputFile inputFile = new ByteArrayInputFile(new byte[]{0, 1, 2, 3, 4, 5}, 1, 4);
+        assertEquals(4, inputFile.getLength());
+        try (SeekableInputStream stream = inputFile.newStream()) {
+            assertEquals(1, stream.read());
+            stream.seek(3);
+            assertEquals(3, stream.getPos());
+            assertEquals(4, stream.read());
+            assertEquals(-1, stream.read());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRange() {
+        new ByteArrayInputFile(new byte[4], 2, 3);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.io;
+
+import com.adobe.platform.ecosystem.examples.parquet.read.ParquetIOReader;
+import com.adobe.platform.ecosystem.examples.parquet.ut.BaseTest;
+import com.adobe.platform.ecosystem.examples.parquet.wiring.impl.ParquetIOImpl;
+import org.apache.parquet.schema.MessageType;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.FileAlreadyExistsException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class LocalOutputFileTest extends BaseTest {
+
+    @Test
+    public void testWriteLocalFile() throws Exception {
+        MessageType schema = writer.getSchema(setupFlatMap(), delimiter);
+        File parquetFile = writer.writeSampleParquetFile(schema, sampleParquetFileName, noOfRecords);
+
+        // No hadoop checksum file next to it.
+        assertFalse(new File(parquetFile.getParentFile(), "." + parquetFile.getName() + ".crc").exists());
+
+        ParquetIOReader reader = new ParquetIOImpl().getParquetIOReader(true);
+        reader.initFileForRead(parquetFile);
+        assertEquals(noOfRecords, reader.processData(noOfRecords + 1).size());
+        reader.readerClose();
+    }
+
+    @Test(expected = FileAlreadyExistsException.class)
+    public void testCreateExistingFile() throws Exception {
+        File file = File.createTempFile("existing", ".parquet");
+        file.deleteOnExit();
+        new LocalOutputFile(file).create(0);
+    }
+}
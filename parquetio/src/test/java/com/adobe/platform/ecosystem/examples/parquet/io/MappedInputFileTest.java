@@ -0,0 +1,66 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.io;
+
+import com.adobe.platform.ecosystem.examples.parquet.read.ParquetIOReader;
+import com.adobe.platform.ecosystem.examples.parquet.ut.BaseTest;
+import com.adobe.platform.ecosystem.examples.parquet.wiring.impl.ParquetIOImpl;
+import org.apache.parquet.io.SeekableInputStream;
+import org.apache.parquet.schema.MessageType;
+import org.json.simple.JSONObject;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class MappedInputFileTest extends BaseTest {
+
+    @Test
+    public void testReadMappedFile() throws Exception {
+        MessageType schema = writer.getSchema(setupFlatMap(), delimiter);
+        File parquetFile = writer.writeSampleParquetFile(schema, sampleParquetFileName, noOfRecords);
+
+        ParquetIOReader reader = new ParquetIOImpl().getParquetIOReader(true);
+        reader.initFileForRead(parquetFile);
+        List<JSONObject> expected = reader.processData(noOfRecords + 1);
+        reader.initInputForRead(new MappedInputFile(parquetFile));
+        assertEquals(expected, reader.processData(noOfRecords + 1));
+        reader.readerClose();
+    }
+
+    @Test
+    public void testSeek() throws Exception {
+        File file = File.createTempFile("mapped", ".bin");
+        file.deleteOnExit();
+        Files.write(file.toPath(), new byte[]{0, 1, 2, 3, 4, 5});
+        MappedInputFile inputFile = new MappedInputFile(file);
+        assertEquals(6, inputFile.getLength());
+        try (SeekableInputStream stream = inputFile.newStream()) {
+            stream.seek(4);
+            assertEquals(4, stream.read());
+            assertEquals(5, stream.getPos());
+            byte[] bytes = new byte[2];
+            stream.seek(1);
+            stream.readFully(bytes);
+            assertEquals(2, bytes[1]);
+            stream.seek(6);
+            assertEquals(-1, stream.read());
+        }
+    }
+}
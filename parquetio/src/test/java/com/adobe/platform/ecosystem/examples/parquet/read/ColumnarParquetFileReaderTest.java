@@ -0,0 +1,173 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read;
+
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+import com.adobe.platform.ecosystem.examples.parquet.read.batch.BinaryColumnVector;
+import com.adobe.platform.ecosystem.examples.parquet.read.batch.BooleanColumnVector;
+import com.adobe.platform.ecosystem.examples.parquet.read.batch.ColumnBatch;
+import com.adobe.platform.ecosystem.examples.parquet.read.batch.DoubleColumnVector;
+import com.adobe.platform.ecosystem.examples.parquet.read.batch.IntColumnVector;
+import com.adobe.platform.ecosystem.examples.parquet.read.batch.LongColumnVector;
+import com.adobe.platform.ecosystem.examples.parquet.read.configuration.ParquetReaderConfiguration;
+import com.adobe.platform.ecosystem.examples.parquet.read.filter.RecordFilter;
+import com.adobe.platform.ecosystem.examples.parquet.ut.BaseTest;
+import com.adobe.platform.ecosystem.examples.parquet.wiring.impl.ParquetIOImpl;
+import com.adobe.platform.ecosystem.examples.parquet.write.configuration.ParquetWriterOptions;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.json.simple.JSONObject;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ColumnarParquetFileReaderTest extends BaseTest {
+
+    private static final int ROWS = 2000;
+
+    private static final int BATCH_ROWS = 300;
+
+    private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+        "message Message {" +
+        "  optional int32 id;" +
+        "  optional int64 score;" +
+        "  optional double rating;" +
+        "  optional boolean active;" +
+        "  optional group person {" +
+        "    optional binary city (UTF8);" +
+        "  }" +
+        "}"
+    );
+
+    @Test
+    public void testReadBatch() throws Exception {
+        assertBatches(writeRecords(true));
+    }
+
+    @Test
+    public void testReadBatchWithoutDictionary() throws Exception {
+        // Binary columns are dictionary encoded per batch instead.
+        assertBatches(writeRecords(false));
+    }
+
+    @Test
+    public void testProjectedBatch() throws Exception {
+        ParquetIOReaderImpl reader = getReader(Collections.singletonList("person_city"), null);
+        reader.initFileForRead(writeRecords(true));
+        ColumnBatch batch = reader.readBatch(BATCH_ROWS);
+        assertEquals(1, batch.getColumns().size());
+        assertEquals("person.city", batch.getColumns().get(0).getPath());
+        assertNull(batch.getColumn("id"));
+        assertEquals("city3", ((BinaryColumnVector) batch.getColumn("person_city")).getString(3));
+        // Batches are independent of json records.
+        assertEquals(BATCH_ROWS, reader.processData(BATCH_ROWS).size());
+        reader.readerClose();
+    }
+
+    @Test
+    public void testRepeatedColumnsRejected() throws Exception {
+        File parquetFile = writeRecords(
+            MessageTypeParser.parseMessageType(
+                "message Message { optional group tags (LIST) { repeated group list { optional binary element (UTF8); } } }"),
+            Collections.singletonList(record("tags", array("a"))),
+            ParquetWriterOptions.defaults()
+        );
+        ParquetIOReaderImpl reader = getReader(null, null);
+        reader.initFileForRead(parquetFile);
+        try {
+            reader.readBatch(BATCH_ROWS);
+            fail("Repeated columns should not be read as batches.");
+        } catch (ParquetIOException ex) {
+            // expected
+        }
+        reader.readerClose();
+    }
+
+    @Test(expected = ParquetIOException.class)
+    public void testFilteredBatchRejected() throws Exception {
+        ParquetIOReaderImpl reader = getReader(null, RecordFilter.lt("id", 10));
+        reader.initFileForRead(writeRecords(true));
+        reader.readBatch(BATCH_ROWS);
+    }
+
+    private void assertBatches(File parquetFile) throws Exception {
+        ParquetIOReaderImpl reader = getReader(null, null);
+        reader.initFileForRead(parquetFile);
+        int row = 0;
+        ColumnBatch batch;
+        while ((batch = reader.readBatch(BATCH_ROWS)) != null) {
+            assertTrue(batch.getRowCount() > 0 && batch.getRowCount() <= BATCH_ROWS);
+            IntColumnVector ids = (IntColumnVector) batch.getColumn("id");
+            LongColumnVector scores = (LongColumnVector) batch.getColumn("score");
+            DoubleColumnVector ratings = (DoubleColumnVector) batch.getColumn("rating");
+            BooleanColumnVector active = (BooleanColumnVector) batch.getColumn("active");
+            BinaryColumnVector cities = (BinaryColumnVector) batch.getColumn("person.city");
+            assertEquals(batch.getRowCount(), ids.size());
+            assertTrue(cities.getDictionary().length <= 5);
+            for (int i = 0; i < batch.getRowCount(); i++, row++) {
+                assertEquals(row, ids.getInt(i));
+                assertEquals(row % 7 == 0, scores.isNull(i));
+                if (!scores.isNull(i)) {
+                    assertEquals(row * 10L, scores.getLong(i));
+                }
+                assertEquals(row / 2.0, ratings.getDouble(i), 0.0);
+                assertEquals(row % 2 == 0, active.getBoolean(i));
+                assertEquals("city" + row % 5, cities.getString(i));
+                assertFalse(cities.isNull(i));
+            }
+        }
+        assertEquals(ROWS, row);
+        reader.readerClose();
+    }
+
+    private ParquetIOReaderImpl getReader(List<String> projectedFields, RecordFilter recordFilter) throws Exception {
+        return (ParquetIOReaderImpl) new ParquetIOImpl().getParquetIOReader(
+            ParquetReaderConfiguration.builder().with(builder -> {
+                builder.configuration = new Configuration();
+                builder.shouldFlattenData = true;
+                builder.projectedFields = projectedFields;
+                builder.recordFilter = recordFilter;
+            }).build()
+        );
+    }
+
+    private File writeRecords(boolean dictionaryEnabled) throws Exception {
+        List<JSONObject> records = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            JSONObject record = record("id", (long) i, "rating", i / 2.0, "active", i % 2 == 0, "person", record("city", "city" + i % 5));
+            if (i % 7 != 0) {
+                record.put("score", i * 10L);
+            }
+            records.add(record);
+        }
+        // Small row groups, so that batches end at row group boundaries.
+        ParquetWriterOptions options = ParquetWriterOptions.builder().with(builder -> {
+            builder.rowGroupSize = 8 * 1024;
+            builder.dictionaryEnabled = dictionaryEnabled;
+        }).build();
+        return writeRecords(SCHEMA, records, options);
+    }
+}
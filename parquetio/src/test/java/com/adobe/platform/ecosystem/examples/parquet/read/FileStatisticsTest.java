@@ -0,0 +1,104 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read;
+
+import com.adobe.platform.ecosystem.examples.parquet.io.LocalInputFile;
+import com.adobe.platform.ecosystem.examples.parquet.read.filter.RecordFilter;
+import com.adobe.platform.ecosystem.examples.parquet.ut.BaseTest;
+import com.adobe.platform.ecosystem.examples.parquet.wiring.impl.ParquetIOImpl;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.json.simple.JSONObject;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FileStatisticsTest extends BaseTest {
+
+    private static final int ROWS = 2000;
+
+    private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+        "message Message { optional int32 id; optional group person { optional binary city (UTF8); } }");
+
+    @Test
+    public void testFileStatistics() throws Exception {
+        ParquetIOReader reader = new ParquetIOImpl().getParquetIOReader(true);
+        reader.initFileForRead(writeRecords());
+        FileStatistics statistics = reader.getFileStatistics();
+
+        assertEquals(ROWS, statistics.getRowCount());
+        assertTrue(statistics.getRowGroupCount() > 1);
+        long rowGroupRows = 0;
+        for (int i = 0; i < statistics.getRowGroupCount(); i++) {
+            rowGroupRows += statistics.getRowGroupRowCount(i);
+        }
+        assertEquals(ROWS, rowGroupRows);
+
+        ColumnStatistics id = statistics.getColumnStatistics("id");
+        assertEquals(0, id.getMin());
+        assertEquals(ROWS - 1, id.getMax());
+        assertEquals(0, id.getNullCount());
+
+        ColumnStatistics city = statistics.getColumnStatistics("person_city");
+        assertEquals("city0", city.getMin());
+        assertEquals("city4", city.getMax());
+        assertEquals(ROWS / 2, city.getNullCount());
+        assertEquals(city.toString(), statistics.getColumnStatistics("person.city").toString());
+
+        ColumnStatistics firstRowGroup = statistics.getColumnStatistics(0, "id");
+        assertEquals(0, firstRowGroup.getMin());
+        assertTrue((Integer) firstRowGroup.getMax() < ROWS - 1);
+        assertNull(statistics.getColumnStatistics("missing"));
+        reader.readerClose();
+    }
+
+    @Test
+    public void testCanSkip() throws Exception {
+        FileStatistics statistics = new FileStatistics(ParquetFooterCache.readFooter(new LocalInputFile(writeRecords())));
+        assertTrue(statistics.canSkip(RecordFilter.gt("id", ROWS)));
+        assertTrue(statistics.canSkip(RecordFilter.eq("person.city", "city9")));
+        assertFalse(statistics.canSkip(RecordFilter.lt("id", 10)));
+        // Missing fields are null for every row.
+        assertTrue(statistics.canSkip(RecordFilter.eq("missing", "x")));
+        assertFalse(statistics.canSkip(RecordFilter.isNull("missing")));
+    }
+
+    @Test
+    public void testFooterCache() throws Exception {
+        ParquetFooterCache cache = new ParquetFooterCache(1);
+        File parquetFile = writeRecords();
+        assertNull(cache.getIfPresent("a"));
+        assertTrue(cache.get("a", new LocalInputFile(parquetFile)) == cache.get("a", new LocalInputFile(parquetFile)));
+        cache.get("b", new LocalInputFile(parquetFile));
+        assertNull(cache.getIfPresent("a"));
+        assertEquals(1, cache.size());
+    }
+
+    private File writeRecords() throws Exception {
+        List<JSONObject> records = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            records.add(i % 2 == 0 ? record("id", (long) i) : record("id", (long) i, "person", record("city", "city" + i % 5)));
+        }
+        return writeRecords(SCHEMA, records, 4 * 1024);
+    }
+}
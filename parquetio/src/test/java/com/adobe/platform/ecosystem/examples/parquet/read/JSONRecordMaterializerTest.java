@@ -0,0 +1,132 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read;
+
+import com.adobe.platform.ecosystem.examples.parquet.read.configuration.ParquetReaderConfiguration;
+import com.adobe.platform.ecosystem.examples.parquet.ut.BaseTest;
+import com.adobe.platform.ecosystem.examples.parquet.wiring.impl.ParquetIOImpl;
+import com.adobe.platform.ecosystem.examples.parquet.write.configuration.ParquetWriterOptions;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.json.simple.JSONObject;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class JSONRecordMaterializerTest extends BaseTest {
+
+    private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+        "message Message {" +
+        "  optional group person {" +
+        "    optional binary name (UTF8);" +
+        "    optional int32 age;" +
+        "    optional boolean active;" +
+        "    optional int64 score;" +
+        "    optional double rating;" +
+        "  }" +
+        "  optional group tags (LIST) {" +
+        "    repeated group list {" +
+        "      optional binary element (UTF8);" +
+        "    }" +
+        "  }" +
+        "  optional group identities (LIST) {" +
+        "    repeated group list {" +
+        "      optional group element {" +
+        "        optional binary id (UTF8);" +
+        "      }" +
+        "    }" +
+        "  }" +
+        "}"
+    );
+
+    @Test
+    public void testMatchesGroupConversion() throws Exception {
+        List<File> files = new ArrayList<>();
+        for (String resource : Arrays.asList("test_snappy.parquet", "allDataTypes.parquet", "int96file.parquet")) {
+            files.add(new File(ClassLoader.getSystemResource(resource).toURI()));
+        }
+        files.add(writeRecords());
+
+        for (File file : files) {
+            for (boolean doFlatten : new boolean[]{false, true}) {
+                ParquetIOReader reader = new ParquetIOImpl().getParquetIOReader(doFlatten);
+                reader.initFileForRead(file);
+                List<JSONObject> records = reader.processData(Integer.MAX_VALUE);
+                reader.readerClose();
+
+                assertFalse(records.isEmpty());
+                assertEquals(file.getName(), readGroups(file, doFlatten), records);
+            }
+        }
+    }
+
+    @Test
+    public void testTypedValues() throws Exception {
+        File parquetFile = writeRecords();
+        ParquetReaderConfiguration configuration = ParquetReaderConfiguration.builder().with(builder -> {
+            builder.configuration = new Configuration();
+            builder.path = new Path(parquetFile.getAbsolutePath());
+            builder.typedValues = true;
+        }).build();
+        ParquetIOReader reader = new ParquetIOImpl().getParquetIOReader(configuration);
+
+        JSONObject record = reader.processData(1).get(0);
+        Map person = (Map) record.get("person");
+        assertEquals("Bob", person.get("name"));
+        assertEquals(31, person.get("age"));
+        assertEquals(true, person.get("active"));
+        assertEquals(7L, person.get("score"));
+        assertEquals(4.5, person.get("rating"));
+        // Only first element of repeated fields.
+        assertEquals("i1", ((Map) ((Map) ((Map) record.get("identities")).get("list")).get("element")).get("id"));
+    }
+
+    private File writeRecords() throws Exception {
+        List<JSONObject> records = new ArrayList<>();
+        for (int i = 0; i < noOfRecords; i++) {
+            records.add(record(
+                "person", record("name", "Bob", "age", 31L + i, "active", true, "score", 7L, "rating", 4.5),
+                "tags", array("a", "b"),
+                "identities", array(record("id", "i1"), record("id", "i2"), record())
+            ));
+        }
+        records.add(record("person", record(), "tags", array()));
+        return writeRecords(SCHEMA, records, ParquetWriterOptions.defaults());
+    }
+
+    private List<JSONObject> readGroups(File file, boolean doFlatten) throws Exception {
+        List<JSONObject> records = new ArrayList<>();
+        try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), new Path(file.getAbsolutePath())).build()) {
+            Group group;
+            while ((group = reader.read()) != null) {
+                records.add(ReaderUtil.getJSONDataFromGroup(group, doFlatten));
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read;
+
+import com.adobe.platform.ecosystem.examples.parquet.read.configuration.ParquetReaderConfiguration;
+import com.adobe.platform.ecosystem.examples.parquet.read.filter.RecordFilter;
+import com.adobe.platform.ecosystem.examples.parquet.ut.BaseTest;
+import com.adobe.platform.ecosystem.examples.parquet.wiring.impl.ParquetIOImpl;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.json.simple.JSONObject;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelJSONParquetReaderTest extends BaseTest {
+
+    private static final int ROWS = 2000;
+
+    private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+        "message Message { optional int32 id; optional binary name (UTF8); }");
+
+    /**
+     * Records as the untyped reader returns
+     * them, with every value as a string.
+     */
+    private final List<JSONObject> records = new ArrayList<>();
+
+    @Test
+    public void testOrderedRead() throws Exception {
+        File parquetFile = writeRecords();
+
+        ParquetIOReaderImpl reader = getReader(3, null);
+        reader.initFileForRead(parquetFile);
+        assertTrue(reader.getReader() instanceof ParallelJSONParquetReader);
+        assertTrue(((ParallelJSONParquetReader) reader.getReader()).getRowGroupCount() > 3);
+        assertEquals(records, reader.processData(ROWS + 1));
+        assertTrue(reader.processData(1).isEmpty());
+        reader.readerClose();
+    }
+
+    @Test
+    public void testParallelStream() throws Exception {
+        File parquetFile = writeRecords();
+
+        ParquetIOReaderImpl reader = getReader(3, null);
+        reader.initFileForRead(parquetFile);
+        List<JSONObject> read = StreamSupport.stream(reader.getSpliterator(), true).collect(Collectors.toList());
+        assertEquals(records, read);
+        reader.readerClose();
+    }
+
+    @Test
+    public void testFilteredRead() throws Exception {
+        File parquetFile = writeRecords();
+
+        ParquetIOReaderImpl reader = getReader(2, RecordFilter.lt("id", 700));
+        reader.initFileForRead(parquetFile);
+        List<JSONObject> read = reader.processData(ROWS);
+        assertEquals(records.subList(0, 700), read);
+        assertEquals(
+            records.subList(0, 700),
+            StreamSupport.stream(reader.getSpliterator(), true).collect(Collectors.toList())
+        );
+        reader.readerClose();
+    }
+
+    private ParquetIOReaderImpl getReader(int readParallelism, RecordFilter recordFilter) throws Exception {
+        return (ParquetIOReaderImpl) new ParquetIOImpl().getParquetIOReader(
+            ParquetReaderConfiguration.builder().with(builder -> {
+                builder.configuration = new Configuration();
+                builder.shouldFlattenData = true;
+                builder.recordFilter = recordFilter;
+                builder.readParallelism = readParallelism;
+            }).build()
+        );
+    }
+
+    private File writeRecords() throws Exception {
+        List<JSONObject> written = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            written.add(record("id", (long) i, "name", "name" + i));
+            records.add(record("id", String.valueOf(i), "name", "name" + i));
+        }
+        return writeRecords(SCHEMA, written, 4 * 1024);
+    }
+}
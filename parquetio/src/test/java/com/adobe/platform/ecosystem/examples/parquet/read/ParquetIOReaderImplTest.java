@@ -34,6 +34,7 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -134,6 +135,43 @@ public class ParquetIOReaderImplTest {
 
     }
 
+    @Test
+    public void testReadProjectedData() throws Exception {
+        parquetIOReader = (ParquetIOReaderImpl) new ParquetIOImpl().getParquetIOReader(true, Arrays.asList("A.B", "A_C", "missing"));
+        URL dir_url = ClassLoader.getSystemResource("test_snappy.parquet");
+        File file = new File(dir_url.toURI());
+        parquetIOReader.initFileForRead(file);
+        List<JSONObject> data = parquetIOReader.processData(2);
+        Assert.assertEquals(2, data.size());
+        Assert.assertEquals(2, data.get(0).size());
+        Assert.assertNotNull(data.get(0).get("A_B"));
+        Assert.assertNotNull(data.get(0).get("A_C"));
+    }
+
+    @Test
+    public void testGetProjectedSchema() throws Exception {
+        URL dir_url = ClassLoader.getSystemResource("allDataTypes.parquet");
+        File file = new File(dir_url.toURI());
+
+        ParquetReaderConfiguration configuration = ParquetReaderConfiguration.builder().with(builder -> {
+            builder.configuration = new Configuration();
+            builder.shouldFlattenData = false;
+            builder.path = new Path(file.getAbsolutePath());
+            builder.projectedFields = Arrays.asList("dataSource.tags");
+        }).build();
+
+        parquetIOReader = (ParquetIOReaderImpl) new ParquetIOImpl().getParquetIOReader(configuration);
+        List<ParquetIOField> fields = parquetIOReader.getSchema();
+        Assert.assertEquals(1, fields.size());
+        Assert.assertEquals("dataSource", fields.get(0).getName());
+        Assert.assertEquals(1, fields.get(0).getSubFields().size());
+        Assert.assertEquals("tags", fields.get(0).getSubFields().get(0).getName());
+
+        List<JSONObject> data = parquetIOReader.processData(1);
+        Assert.assertEquals(1, data.get(0).size());
+        Assert.assertTrue(((HashMap) data.get(0).get("dataSource")).get("tags").toString().contains("tag1"));
+    }
+
     @Test
     public void testReadDataWithAllTypes() throws URISyntaxException, ParquetIOException {
         parquetIOReader = (ParquetIOReaderImpl) new ParquetIOImpl().getParquetIOReader(false);
@@ -26,6 +26,6 @@ public class ParquetIOReaderIteratorTest {
 
     @Test(expected = Exception.class)
     public void testConstructor() throws Exception {
-        new ParquetIOReaderIterator(null, false);
+        new ParquetIOReaderIterator(null);
     }
 }
\ No newline at end of file
@@ -0,0 +1,167 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.read.filter;
+
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+import com.adobe.platform.ecosystem.examples.parquet.read.ParquetIOReader;
+import com.adobe.platform.ecosystem.examples.parquet.ut.BaseTest;
+import com.adobe.platform.ecosystem.examples.parquet.wiring.impl.ParquetIOImpl;
+import com.adobe.platform.ecosystem.examples.parquet.write.configuration.ParquetWriterOptions;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.json.simple.JSONObject;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RecordFilterTest extends BaseTest {
+
+    private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+        "message Message {" +
+        "  optional group person {" +
+        "    optional binary name (UTF8);" +
+        "    optional int32 age;" +
+        "  }" +
+        "  optional int64 timestamp;" +
+        "  optional boolean active;" +
+        "  optional group tags (LIST) {" +
+        "    repeated group list {" +
+        "      optional binary element (UTF8);" +
+        "    }" +
+        "  }" +
+        "}"
+    );
+
+    @Test
+    public void testToPredicate() throws Exception {
+        FilterPredicate predicate = RecordFilter.and(
+            RecordFilter.eq("person.name", "Bob"),
+            RecordFilter.gt("person_age", "30"),
+            RecordFilter.or(RecordFilter.lt("timestamp", 5), RecordFilter.isNull("active")),
+            RecordFilter.in("active", Collections.singletonList(true))
+        ).toPredicate(SCHEMA);
+
+        String predicateString = predicate.toString();
+        assertTrue(predicateString.contains("eq(person.name, Binary{\"Bob\"})"));
+        assertTrue(predicateString.contains("gt(person.age, 30)"));
+        assertTrue(predicateString.contains("lt(timestamp, 5)"));
+        assertTrue(predicateString.contains("eq(active, null)"));
+        assertTrue(predicateString.contains("in(active, true)"));
+    }
+
+    @Test
+    public void testToPredicateFailures() throws Exception {
+        for (RecordFilter filter : Arrays.asList(
+            RecordFilter.eq("tags.list.element", "a"),
+            RecordFilter.lt("active", true),
+            RecordFilter.eq("person.age", "thirty"))) {
+            try {
+                filter.toPredicate(SCHEMA);
+                fail("Filter " + filter + " should not be applicable.");
+            } catch (ParquetIOException ex) {
+                assertEquals(filter.getFieldPaths().get(0), ex.get("field"));
+            }
+        }
+    }
+
+    @Test
+    public void testParse() {
+        RecordFilter filter = RecordFilter.parse("timestamp > 15; person.name in (Bob, Alice);person_age<4;active isNull;person.name = a=b");
+        assertEquals(
+            "(timestamp > 15) and (person.name in [Bob, Alice]) and (person_age < 4) and (active isNull) and (person.name = a=b)",
+            filter.toString()
+        );
+        assertEquals(Arrays.asList("timestamp", "person.name", "person_age", "active"), filter.getFieldPaths());
+
+        // Values may contain the in and isNull keywords.
+        assertEquals("city = Salt in Lake", RecordFilter.parse("city=Salt in Lake").toString());
+        assertEquals("note = isNull", RecordFilter.parse("note= isNull").toString());
+        assertEquals("note > x isnull", RecordFilter.parse("note > x isnull").toString());
+        assertEquals("tag in [a=b, c]", RecordFilter.parse("tag in (a=b, c)").toString());
+
+        for (String invalid : Arrays.asList("", "timestamp", "person.name in Bob", "= 4", "timestamp >")) {
+            try {
+                RecordFilter.parse(invalid);
+                fail("Expression " + invalid + " should not be parsed.");
+            } catch (IllegalArgumentException ex) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testFilteredRead() throws Exception {
+        File parquetFile = writeRecords();
+
+        assertEquals(Arrays.asList("3", "4"), readAges(parquetFile, null, RecordFilter.gt("person.age", 2)));
+        assertEquals(Arrays.asList("0", "2"), readAges(parquetFile, null, RecordFilter.in("person_name", Arrays.asList("p0", "p2"))));
+        assertEquals(Arrays.asList("1", "3"), readAges(parquetFile, null, RecordFilter.isNull("timestamp")));
+        assertEquals(Arrays.asList("0", "1", "2", "3", "4"), readAges(parquetFile, null, RecordFilter.isNull("missing")));
+        assertEquals(Collections.emptyList(), readAges(parquetFile, null, RecordFilter.eq("missing", "x")));
+        // Every row group is skipped on statistics.
+        assertEquals(Collections.emptyList(), readAges(parquetFile, null, RecordFilter.gt("timestamp", 1000L)));
+    }
+
+    @Test
+    public void testFilteredReadWithProjection() throws Exception {
+        File parquetFile = writeRecords();
+        ParquetIOReader reader = new ParquetIOImpl().getParquetIOReader(
+            false,
+            Collections.singletonList("person.age"),
+            RecordFilter.eq("person.name", "p1")
+        );
+        reader.initFileForRead(parquetFile);
+        List<JSONObject> records = reader.processData(noOfRecords);
+        assertEquals(1, records.size());
+        assertEquals("1", ((Map) records.get(0).get("person")).get("age"));
+        assertFalse(records.get(0).containsKey("timestamp"));
+        assertEquals(reader.getRecordFilter().getFieldPaths(), Collections.singletonList("person.name"));
+    }
+
+    private File writeRecords() throws Exception {
+        List<JSONObject> records = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            JSONObject record = record("person", record("name", "p" + i, "age", (long) i));
+            if (i % 2 == 0) {
+                record.put("timestamp", (long) i);
+            }
+            records.add(record);
+        }
+        return writeRecords(SCHEMA, records, ParquetWriterOptions.defaults());
+    }
+
+    private List<String> readAges(File parquetFile, List<String> projectedFields, RecordFilter filter) throws Exception {
+        ParquetIOReader reader = new ParquetIOImpl().getParquetIOReader(true, projectedFields, filter);
+        reader.initFileForRead(parquetFile);
+        List<String> ages = new ArrayList<>();
+        for (JSONObject record : reader.processData(noOfRecords)) {
+            ages.add((String) record.get("person_age"));
+        }
+        reader.readerClose();
+        return ages;
+    }
+}
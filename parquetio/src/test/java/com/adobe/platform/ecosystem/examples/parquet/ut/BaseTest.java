@@ -16,12 +16,22 @@
  */
 package com.adobe.platform.ecosystem.examples.parquet.ut;
 
+import java.io.File;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
 
+import org.apache.parquet.schema.MessageType;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
 import com.adobe.platform.ecosystem.examples.parquet.wiring.api.ParquetIO;
 import com.adobe.platform.ecosystem.examples.parquet.wiring.impl.ParquetIOImpl;
+import com.adobe.platform.ecosystem.examples.parquet.write.JSONRecordWriter;
 import com.adobe.platform.ecosystem.examples.parquet.write.ParquetIOWriter;
 import com.adobe.platform.ecosystem.examples.parquet.write.ParquetIOWriterImpl;
+import com.adobe.platform.ecosystem.examples.parquet.write.configuration.ParquetWriterOptions;
 
 
 public class BaseTest {
@@ -61,4 +71,37 @@ public class BaseTest {
         String[] flattenedArray = {"A_B","A_C","A_X_Y"};
         return flattenedArray;
     }
+
+    /**
+     * Writes {@code records} with a small
+     * {@code rowGroupSize}, so that the
+     * file has several row groups.
+     */
+    public File writeRecords(MessageType schema, List<JSONObject> records, int rowGroupSize) throws ParquetIOException {
+        return writeRecords(schema, records, ParquetWriterOptions.builder().with(builder -> builder.rowGroupSize = rowGroupSize).build());
+    }
+
+    public File writeRecords(MessageType schema, List<JSONObject> records, ParquetWriterOptions options) throws ParquetIOException {
+        return writer.writeJSONParquetFile(sampleParquetFileName, records, new JSONRecordWriter(schema), options);
+    }
+
+    /**
+     * Builds a record from alternating
+     * field names and values.
+     */
+    @SuppressWarnings("unchecked")
+    public static JSONObject record(Object... fieldsAndValues) {
+        JSONObject record = new JSONObject();
+        for (int i = 0; i < fieldsAndValues.length; i += 2) {
+            record.put(fieldsAndValues[i], fieldsAndValues[i + 1]);
+        }
+        return record;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static JSONArray array(Object... values) {
+        JSONArray array = new JSONArray();
+        array.addAll(Arrays.asList(values));
+        return array;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,258 @@
+/*
+ *  Copyright 2017-2018 Adobe.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.adobe.platform.ecosystem.examples.parquet.write;
+
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOErrorCode;
+import com.adobe.platform.ecosystem.examples.parquet.exception.ParquetIOException;
+import com.adobe.platform.ecosystem.examples.parquet.ut.BaseTest;
+import com.adobe.platform.ecosystem.examples.parquet.utility.ParquetIOUtil;
+import com.adobe.platform.ecosystem.examples.parquet.write.configuration.ParquetWriterOptions;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JSONRecordWriterTest extends BaseTest {
+
+    private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+        "message Message {" +
+        "  optional group person {" +
+        "    optional binary name (UTF8);" +
+        "    optional int32 age;" +
+        "    optional boolean active;" +
+        "    optional int64 score;" +
+        "    optional double rating;" +
+        "  }" +
+        "  optional group tags (LIST) {" +
+        "    repeated group list {" +
+        "      optional binary element (UTF8);" +
+        "    }" +
+        "  }" +
+        "  optional group codes (LIST) {" +
+        "    repeated group list {" +
+        "      optional binary element (UTF8);" +
+        "    }" +
+        "  }" +
+        "  optional group identities (LIST) {" +
+        "    repeated group list {" +
+        "      optional group element {" +
+        "        optional binary id (UTF8);" +
+        "      }" +
+        "    }" +
+        "  }" +
+        "  optional group identityMap (MAP) {" +
+        "    repeated group map {" +
+        "      required binary key (UTF8);" +
+        "      optional binary value (UTF8);" +
+        "    }" +
+        "  }" +
+        "}"
+    );
+
+    @Test
+    public void testWriteNestedRecord() throws Exception {
+        JSONObject record = parse("{\"person\":{\"name\":\"Bob\",\"age\":31,\"active\":1,\"score\":\"\",\"rating\":4.5}," +
+            "\"tags\":[\"a\",\"b\"],\"codes\":\"x,y,z\",\"identities\":[{\"id\":\"i1\"},{\"id\":\"i2\"}]," +
+            "\"identityMap\":{\"ecid\":\"123\"}}");
+
+        List<Group> groups = writeAndRead(Collections.singletonList(record), new JSONRecordWriter(SCHEMA));
+        assertEquals(1, groups.size());
+
+        Group person = groups.get(0).getGroup("person", 0);
+        assertEquals("Bob", person.getString("name", 0));
+        assertEquals(31, person.getInteger("age", 0));
+        assertTrue(person.getBoolean("active", 0));
+        assertEquals(0, person.getFieldRepetitionCount("score"));
+        assertEquals(4.5, person.getDouble("rating", 0), 0.0);
+
+        Group tags = groups.get(0).getGroup("tags", 0);
+        assertEquals(2, tags.getFieldRepetitionCount("list"));
+        assertEquals("b", tags.getGroup("list", 1).getString("element", 0));
+
+        Group codes = groups.get(0).getGroup("codes", 0);
+        assertEquals(3, codes.getFieldRepetitionCount("list"));
+
+        Group identities = groups.get(0).getGroup("identities", 0);
+        assertEquals("i2", identities.getGroup("list", 1).getGroup("element", 0).getString("id", 0));
+
+        Group entry = groups.get(0).getGroup("identityMap", 0).getGroup("map", 0);
+        assertEquals("ecid", entry.getString("key", 0));
+        assertEquals("123", entry.getString("value", 0));
+    }
+
+    @Test
+    public void testMissingKeysAreSkipped() throws Exception {
+        List<JSONObject> records = new ArrayList<>();
+        records.add(parse("{\"person\":{\"name\":\"Bob\"}}"));
+        records.add(parse("{\"tags\":[\"a\"]}"));
+
+        List<Group> groups = writeAndRead(records, new JSONRecordWriter(SCHEMA));
+        assertEquals(2, groups.size());
+        assertEquals(0, groups.get(0).getFieldRepetitionCount("tags"));
+        assertEquals(0, groups.get(1).getFieldRepetitionCount("person"));
+    }
+
+    @Test
+    public void testColumnValidatorFailure() throws Exception {
+        final ParquetIOException rejection = new ParquetIOException(ParquetIOErrorCode.PARQUETIO_RECORD_WRITE_EXCEPTION);
+        final List<List<String>> validatedPaths = new ArrayList<>();
+        JSONRecordWriter recordWriter = new JSONRecordWriter(SCHEMA, new ColumnValidatorFactory() {
+            @Override
+            public ValueValidator<String> getStringValidator(List<String> path) {
+                validatedPaths.add(path);
+                return null;
+            }
+
+            @Override
+            public ValueValidator<Integer> getIntegerValidator(List<String> path) {
+                return value -> {
+                    if (value < 0) {
+                        throw rejection;
+                    }
+                };
+            }
+
+            @Override
+            public ValueValidator<Long> getLongValidator(List<String> path) {
+                return null;
+            }
+        });
+
+        // Validators are resolved once while compiling.
+        assertTrue(validatedPaths.contains(Arrays.asList("person", "name")));
+        assertTrue(validatedPaths.contains(Arrays.asList("tags")));
+        assertTrue(validatedPaths.contains(Arrays.asList("identities", "element", "id")));
+        assertTrue(validatedPaths.contains(Arrays.asList("identityMap", "key")));
+
+        try {
+            writer.writeJSONParquetStream(
+                Collections.singletonList(parse("{\"person\":{\"age\":-1}}")),
+                recordWriter,
+                ParquetWriterOptions.defaults(),
+                new ByteArrayOutputStream()
+            );
+            fail("Validation failure should be reported.");
+        } catch (ParquetIOException ex) {
+            assertEquals(rejection, ex);
+        }
+    }
+
+    @Test
+    public void testWriterOptionsApplied() throws Exception {
+        ParquetWriterOptions options = ParquetWriterOptions.builder().with(builder -> {
+            builder.codec = ParquetWriterOptions.Codec.GZIP;
+            builder.pageFormat = ParquetWriterOptions.PageFormat.V2;
+            builder.dictionaryEnabled = false;
+            builder.columnDictionaryEnabled.put("person.name", true);
+        }).build();
+        List<JSONObject> records = new ArrayList<>();
+        for (int i = 0; i < noOfRecords; i++) {
+            records.add(parse("{\"person\":{\"name\":\"Bob\",\"age\":" + i + "}}"));
+        }
+
+        File parquetFile = writer.writeJSONParquetFile(sampleParquetFileName, records, new JSONRecordWriter(SCHEMA), options);
+        try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(new Path(parquetFile.getAbsolutePath()), new Configuration()))) {
+            List<ColumnChunkMetaData> columns = reader.getFooter().getBlocks().get(0).getColumns();
+            for (ColumnChunkMetaData column : columns) {
+                assertEquals(CompressionCodecName.GZIP, column.getCodec());
+                boolean dictionaryEncoded = column.getEncodings().contains(Encoding.PLAIN_DICTIONARY)
+                    || column.getEncodings().contains(Encoding.RLE_DICTIONARY);
+                assertEquals(column.getPath().toDotString().equals("person.name"), dictionaryEncoded);
+            }
+        }
+    }
+
+    @Test
+    public void testOpenJSONParquetStream() throws Exception {
+        File parquetFile = ParquetIOUtil.getLocalFilePath("stream");
+        try (OutputStream outputStream = new FileOutputStream(parquetFile);
+             JSONParquetStreamWriter streamWriter = writer.openJSONParquetStream(new JSONRecordWriter(SCHEMA), ParquetWriterOptions.defaults(), outputStream)) {
+            for (int i = 0; i < noOfRecords; i++) {
+                streamWriter.write(parse("{\"person\":{\"name\":\"Bob\",\"age\":" + i + "}}"));
+            }
+            assertTrue(streamWriter.getDataSize() > 0);
+        }
+
+        try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), new Path(parquetFile.getAbsolutePath())).build()) {
+            int count = 0;
+            Group group;
+            while ((group = reader.read()) != null) {
+                assertEquals(count++, group.getGroup("person", 0).getInteger("age", 0));
+            }
+            assertEquals(noOfRecords, count);
+        }
+    }
+
+    @Test
+    public void testTuneOptions() throws Exception {
+        List<JSONObject> records = new ArrayList<>();
+        for (int i = 0; i < noOfRecords; i++) {
+            records.add(parse("{\"person\":{\"name\":\"Bob\",\"age\":" + i + "}}"));
+        }
+        ParquetWriterOptions options = ParquetWriterOptions.builder().with(builder -> {
+            builder.autoTune = true;
+            builder.pageFormat = ParquetWriterOptions.PageFormat.V2;
+        }).build();
+
+        ParquetWriterOptions tuned = writer.tuneOptions(records, new JSONRecordWriter(SCHEMA), options);
+        assertFalse(tuned.isAutoTune());
+        assertEquals(ParquetWriterOptions.PageFormat.V2, tuned.getPageFormat());
+        assertFalse(writer.tuneOptions(Collections.emptyList(), new JSONRecordWriter(SCHEMA), options).isAutoTune());
+    }
+
+    private List<Group> writeAndRead(List<JSONObject> records, JSONRecordWriter recordWriter) throws Exception {
+        File parquetFile = writer.writeJSONParquetFile(sampleParquetFileName, records, recordWriter, ParquetWriterOptions.defaults());
+        assertFalse(parquetFile.length() == 0);
+
+        List<Group> groups = new ArrayList<>();
+        try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), new Path(parquetFile.getAbsolutePath())).build()) {
+            Group group;
+            while ((group = reader.read()) != null) {
+                groups.add(group);
+            }
+        }
+        return groups;
+    }
+
+    private JSONObject parse(String json) throws Exception {
+        return (JSONObject) new JSONParser().parse(json);
+    }
+}
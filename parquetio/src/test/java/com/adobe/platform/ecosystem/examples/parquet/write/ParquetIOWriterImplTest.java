@@ -19,8 +19,10 @@ package com.adobe.platform.ecosystem.examples.parquet.write;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.acl.Group;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -29,6 +31,7 @@ import java.util.List;
 import com.adobe.platform.ecosystem.examples.parquet.model.ParquetIODataType;
 import com.adobe.platform.ecosystem.examples.parquet.model.ParquetIOField;
 import com.adobe.platform.ecosystem.examples.parquet.model.ParquetIORepetitionType;
+import org.apache.parquet.example.data.simple.SimpleGroup;
 import org.apache.parquet.schema.GroupType;
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.OriginalType;
@@ -53,6 +56,24 @@ public class ParquetIOWriterImplTest extends BaseTest {
         assertTrue(parquetFile.getAbsolutePath().endsWith(".parquet") == true);
     }
 
+    @Test
+    public void writeParquetStreamTest() throws Exception {
+        MessageType schema = writer.getSchema(setupFlatMap(), delimiter);
+        List<SimpleGroup> records = new ArrayList<>();
+        for (int i = 0; i < noOfRecords; i++) {
+            SimpleGroup record = new SimpleGroup(schema);
+            record.append("A", "value" + i);
+            records.add(record);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writer.writeParquetStream(schema, records, outputStream);
+
+        byte[] buffer = outputStream.toByteArray();
+        assertTrue(buffer.length > 8);
+        assertEquals("PAR1", new String(buffer, 0, 4, StandardCharsets.US_ASCII));
+        assertEquals("PAR1", new String(buffer, buffer.length - 4, 4, StandardCharsets.US_ASCII));
+    }
+
     @Test
     public void parseMessageType(){
         assertTrue(writer.getSchema(setupHierarchicalMap(), delimiter) != null);